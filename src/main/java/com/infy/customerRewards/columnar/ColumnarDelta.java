@@ -0,0 +1,162 @@
+package com.infy.customerRewards.columnar;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transactions of one shard written since its segment was built, in arrival order, in off-heap
+ * columns that double when full.
+ * <p>
+ * Each customer's rows are chained from the newest through a next-row column, the newest row
+ * of each customer being kept in a map. One thread appends at a time; readers need no lock: a
+ * row is written before the size is raised and the customer's head is moved to it, and a grown
+ * copy of the columns is published before any row past the old capacity.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+final class ColumnarDelta {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ConcurrentHashMap<Long, Integer> heads = new ConcurrentHashMap<>();
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY);
+    private volatile int size;
+
+    /**
+     * Appends a row. Callers hold the shard's lock.
+     */
+    void append(long customerId, long id, int day, long cents, int points) {
+        int row = size;
+        Columns current = columns;
+        if (row == current.capacity) {
+            current = current.grow(row);
+            columns = current;
+        }
+        current.ids.put(row, id);
+        current.days.put(row, day);
+        current.cents.put(row, cents);
+        current.points.put(row, points);
+        current.next.put(row, heads.getOrDefault(customerId, -1));
+        size = row + 1;
+        heads.put(customerId, row);
+    }
+
+    /**
+     * Sets the points of the customer's row with this date and ID, if present. Callers hold the
+     * shard's lock.
+     */
+    void setPoints(long customerId, int day, long id, int points) {
+        Columns current = columns;
+        for (int row = heads.getOrDefault(customerId, -1); row >= 0; row = current.next.get(row)) {
+            if (current.days.get(row) == day && current.ids.get(row) == id) {
+                current.points.put(row, points);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long bytes() {
+        return (long) columns.capacity * (Long.BYTES * 2 + Integer.BYTES * 3);
+    }
+
+    /**
+     * Adds every row in the range of the totals to them.
+     */
+    void scan(ColumnarTotals totals) {
+        int rows = size;
+        Columns current = columns;
+        totals.addAll(current.days, current.cents, current.points, 0, rows);
+    }
+
+    /**
+     * Adds a customer's rows in the range of the totals to them.
+     */
+    void scan(long customerId, ColumnarTotals totals) {
+        Integer head = heads.get(customerId);
+        if (head == null) {
+            return;
+        }
+        Columns current = columns;
+        for (int row = head; row >= 0; row = current.next.get(row)) {
+            totals.add(current.days.get(row), current.cents.get(row), current.points.get(row));
+        }
+    }
+
+    /**
+     * @return the customers with rows, in ascending order
+     */
+    long[] customers() {
+        return heads.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    /**
+     * @return the customer's rows sorted by date and ID
+     */
+    int[] rowsOf(long customerId) {
+        Columns current = columns;
+        List<Integer> rows = new ArrayList<>();
+        for (int row = heads.getOrDefault(customerId, -1); row >= 0; row = current.next.get(row)) {
+            rows.add(row);
+        }
+        rows.sort(Comparator.<Integer>comparingInt(current.days::get).thenComparingLong(current.ids::get));
+        return rows.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    long id(int row) {
+        return columns.ids.get(row);
+    }
+
+    int day(int row) {
+        return columns.days.get(row);
+    }
+
+    long cents(int row) {
+        return columns.cents.get(row);
+    }
+
+    int points(int row) {
+        return columns.points.get(row);
+    }
+
+    /**
+     * One generation of the columns.
+     */
+    private static final class Columns {
+
+        final int capacity;
+        final LongBuffer ids;
+        final IntBuffer days;
+        final LongBuffer cents;
+        final IntBuffer points;
+        final IntBuffer next;
+
+        Columns(int capacity) {
+            this.capacity = capacity;
+            this.ids = ColumnarSegment.longs(capacity);
+            this.days = ColumnarSegment.ints(capacity);
+            this.cents = ColumnarSegment.longs(capacity);
+            this.points = ColumnarSegment.ints(capacity);
+            this.next = ColumnarSegment.ints(capacity);
+        }
+
+        /** Copies the first rows into columns of twice the capacity. */
+        Columns grow(int rows) {
+            Columns grown = new Columns(Math.multiplyExact(capacity, 2));
+            grown.ids.put(0, ids, 0, rows);
+            grown.days.put(0, days, 0, rows);
+            grown.cents.put(0, cents, 0, rows);
+            grown.points.put(0, points, 0, rows);
+            grown.next.put(0, next, 0, rows);
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.infy.customerRewards.columnar;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Columnar store settings bound from the rewards.columnar.* properties.
+ * When enabled, transactions are loaded fetchSize rows at a time at startup; writes collect in
+ * a delta that is merged into the sorted columns once it holds mergeRows rows.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@ConfigurationProperties(prefix = "rewards.columnar")
+public class ColumnarProperties {
+
+    private boolean enabled = false;
+    private int fetchSize = 10_000;
+    private int mergeRows = 65_536;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getMergeRows() {
+        return mergeRows;
+    }
+
+    public void setMergeRows(int mergeRows) {
+        this.mergeRows = mergeRows;
+    }
+}
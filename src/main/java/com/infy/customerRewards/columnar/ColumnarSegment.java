@@ -0,0 +1,291 @@
+package com.infy.customerRewards.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Transactions of one shard held in off-heap columns, sorted by customer, date and ID. Rows are
+ * never added or removed; only the points of a row change, when a held transaction is released.
+ * <p>
+ * Row columns: transaction ID, epoch day, amount in cents and reward points. The customer
+ * column is run-length encoded as a sorted array of customer IDs and an offset array: the rows
+ * of the i-th customer are [offsets[i], offsets[i + 1]). A row therefore costs 24 bytes, plus
+ * 12 bytes per customer.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+final class ColumnarSegment {
+
+    static final ColumnarSegment EMPTY = new Builder(0, 0).build();
+
+    private final int rows;
+    private final int customers;
+    private final LongBuffer customerIds;
+    private final IntBuffer offsets;
+    private final LongBuffer ids;
+    private final IntBuffer days;
+    private final LongBuffer cents;
+    private final IntBuffer points;
+
+    private ColumnarSegment(Builder builder) {
+        this.rows = builder.rows;
+        this.customers = builder.customers;
+        builder.offsets.put(builder.customers, builder.rows);
+        this.customerIds = builder.customerIds;
+        this.offsets = builder.offsets;
+        this.ids = builder.ids;
+        this.days = builder.days;
+        this.cents = builder.cents;
+        this.points = builder.points;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    /**
+     * Off-heap bytes held by the columns.
+     */
+    long bytes() {
+        return 8L * (customerIds.capacity() + ids.capacity() + cents.capacity())
+                + 4L * (offsets.capacity() + days.capacity() + points.capacity());
+    }
+
+    /**
+     * Adds every row in the range of the totals to them.
+     */
+    void scan(ColumnarTotals totals) {
+        totals.addAll(days, cents, points, 0, rows);
+    }
+
+    /**
+     * Adds a customer's rows in the range of the totals to them, from a binary search for the
+     * first day of the range.
+     */
+    void scan(long customerId, ColumnarTotals totals) {
+        int customer = indexOf(customerId);
+        if (customer >= 0) {
+            int end = offsets.get(customer + 1);
+            totals.addSorted(days, cents, points, firstOnOrAfter(offsets.get(customer), end, totals.startDay()), end);
+        }
+    }
+
+    /**
+     * Tells whether a customer has the row with this date and ID.
+     */
+    boolean contains(long customerId, int day, long id) {
+        return rowOf(customerId, day, id) >= 0;
+    }
+
+    /**
+     * Sets the points of the customer's row with this date and ID, if present. Callers hold the
+     * shard's lock.
+     */
+    void setPoints(long customerId, int day, long id, int rowPoints) {
+        int row = rowOf(customerId, day, id);
+        if (row >= 0) {
+            points.put(row, rowPoints);
+        }
+    }
+
+    private int rowOf(long customerId, int day, long id) {
+        int customer = indexOf(customerId);
+        if (customer < 0) {
+            return -1;
+        }
+        int end = offsets.get(customer + 1);
+        for (int row = firstOnOrAfter(offsets.get(customer), end, day); row < end && days.get(row) == day; row++) {
+            if (ids.get(row) == id) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Merges a frozen delta into a copy of this segment. Delta rows already present (same
+     * customer, date and ID) are dropped, so a write seen both by the startup load and by
+     * append is counted once.
+     *
+     * @param delta the delta, no longer appended to
+     * @return the new segment
+     */
+    ColumnarSegment merge(ColumnarDelta delta) {
+        long[] deltaCustomers = delta.customers();
+        Builder builder = new Builder(rows + delta.size(), customers + deltaCustomers.length);
+        int customer = 0;
+        int next = 0;
+        while (customer < customers || next < deltaCustomers.length) {
+            long baseId = customer < customers ? customerIds.get(customer) : Long.MAX_VALUE;
+            long deltaId = next < deltaCustomers.length ? deltaCustomers[next] : Long.MAX_VALUE;
+            if (baseId < deltaId) {
+                builder.copy(this, customer++);
+                continue;
+            }
+            int[] added = delta.rowsOf(deltaId);
+            int row = baseId == deltaId ? offsets.get(customer) : 0;
+            int end = baseId == deltaId ? offsets.get(customer + 1) : 0;
+            for (int index : added) {
+                int day = delta.day(index);
+                long id = delta.id(index);
+                while (row < end && (days.get(row) < day || days.get(row) == day && ids.get(row) < id)) {
+                    builder.add(deltaId, ids.get(row), days.get(row), cents.get(row), points.get(row));
+                    row++;
+                }
+                if (row < end && days.get(row) == day && ids.get(row) == id) {
+                    continue;
+                }
+                builder.add(deltaId, id, day, delta.cents(index), delta.points(index));
+            }
+            for (; row < end; row++) {
+                builder.add(deltaId, ids.get(row), days.get(row), cents.get(row), points.get(row));
+            }
+            customer += baseId == deltaId ? 1 : 0;
+            next++;
+        }
+        return builder.build();
+    }
+
+    private int indexOf(long customerId) {
+        int low = 0;
+        int high = customers - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = customerIds.get(mid);
+            if (id < customerId) {
+                low = mid + 1;
+            } else if (id > customerId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int firstOnOrAfter(int low, int high, int day) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days.get(mid) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static LongBuffer longs(int capacity) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(capacity, Long.BYTES))
+                .order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    static IntBuffer ints(int capacity) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(capacity, Integer.BYTES))
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     * Returns the column if it can hold needed values, else a copy of its first used values
+     * in a column of at least twice the capacity.
+     */
+    static LongBuffer grow(LongBuffer column, int needed, int used) {
+        if (needed <= column.capacity()) {
+            return column;
+        }
+        LongBuffer grown = longs(Math.max(needed, (int) Math.min(Integer.MAX_VALUE / Long.BYTES,
+                2L * column.capacity())));
+        grown.put(0, column, 0, used);
+        return grown;
+    }
+
+    static IntBuffer grow(IntBuffer column, int needed, int used) {
+        if (needed <= column.capacity()) {
+            return column;
+        }
+        IntBuffer grown = ints(Math.max(needed, (int) Math.min(Integer.MAX_VALUE / Integer.BYTES,
+                2L * column.capacity())));
+        grown.put(0, column, 0, used);
+        return grown;
+    }
+
+    /**
+     * Appends rows in customer, date and ID order, growing the columns as needed.
+     */
+    static final class Builder {
+
+        private LongBuffer customerIds;
+        private IntBuffer offsets;
+        private LongBuffer ids;
+        private IntBuffer days;
+        private LongBuffer cents;
+        private IntBuffer points;
+        private int rows;
+        private int customers;
+
+        /**
+         * Constructs a builder sized for the expected rows and customers.
+         */
+        Builder(int rows, int customers) {
+            this.customerIds = longs(customers);
+            this.offsets = ints(customers + 1);
+            this.ids = longs(rows);
+            this.days = ints(rows);
+            this.cents = longs(rows);
+            this.points = ints(rows);
+        }
+
+        void add(long customerId, long id, int day, long amountCents, int rowPoints) {
+            if (customers == 0 || customerIds.get(customers - 1) != customerId) {
+                startCustomer(customerId);
+            }
+            ids = grow(ids, rows + 1, rows);
+            days = grow(days, rows + 1, rows);
+            cents = grow(cents, rows + 1, rows);
+            points = grow(points, rows + 1, rows);
+            ids.put(rows, id);
+            days.put(rows, day);
+            cents.put(rows, amountCents);
+            points.put(rows, rowPoints);
+            rows++;
+        }
+
+        /**
+         * Copies every row of one customer of a segment in bulk.
+         */
+        void copy(ColumnarSegment from, int customer) {
+            int start = from.offsets.get(customer);
+            int length = from.offsets.get(customer + 1) - start;
+            startCustomer(from.customerIds.get(customer));
+            ids = grow(ids, rows + length, rows);
+            days = grow(days, rows + length, rows);
+            cents = grow(cents, rows + length, rows);
+            points = grow(points, rows + length, rows);
+            ids.put(rows, from.ids, start, length);
+            days.put(rows, from.days, start, length);
+            cents.put(rows, from.cents, start, length);
+            points.put(rows, from.points, start, length);
+            rows += length;
+        }
+
+        int rows() {
+            return rows;
+        }
+
+        ColumnarSegment build() {
+            return new ColumnarSegment(this);
+        }
+
+        private void startCustomer(long customerId) {
+            customerIds = grow(customerIds, customers + 1, customers);
+            offsets = grow(offsets, customers + 2, customers);
+            customerIds.put(customers, customerId);
+            offsets.put(customers, rows);
+            customers++;
+        }
+    }
+}
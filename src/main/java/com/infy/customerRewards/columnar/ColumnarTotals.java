@@ -0,0 +1,131 @@
+package com.infy.customerRewards.columnar;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.time.YearMonth;
+
+/**
+ * Transaction count, spend and reward points per month over a range of months, summed from
+ * the columnar store. Days are mapped to months through a lookup table indexed by the day's
+ * offset in the range, so the scanning loops do no date arithmetic.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public final class ColumnarTotals {
+
+    private final YearMonth from;
+    private final int startDay;
+    private final short[] monthOf;
+    private final long[] transactions;
+    private final long[] cents;
+    private final long[] points;
+
+    ColumnarTotals(YearMonth from, YearMonth to) {
+        this.from = from;
+        this.startDay = (int) from.atDay(1).toEpochDay();
+        int months = (int) (to.getYear() * 12L + to.getMonthValue() - from.getYear() * 12L - from.getMonthValue()) + 1;
+        this.monthOf = new short[(int) (to.atEndOfMonth().toEpochDay() - startDay) + 1];
+        int offset = 0;
+        for (int month = 0; month < months; month++) {
+            int length = from.plusMonths(month).lengthOfMonth();
+            for (int day = 0; day < length; day++) {
+                monthOf[offset++] = (short) month;
+            }
+        }
+        this.transactions = new long[months];
+        this.cents = new long[months];
+        this.points = new long[months];
+    }
+
+    /**
+     * @return the number of months in the range
+     */
+    public int months() {
+        return transactions.length;
+    }
+
+    /**
+     * @param month the month's index in the range, 0 for the first
+     * @return the month
+     */
+    public YearMonth month(int month) {
+        return from.plusMonths(month);
+    }
+
+    /**
+     * @param month the month's index in the range
+     * @return the number of transactions dated in the month
+     */
+    public long transactions(int month) {
+        return transactions[month];
+    }
+
+    /**
+     * @param month the month's index in the range
+     * @return the sum of the month's amounts
+     */
+    public double spend(int month) {
+        return cents[month] / 100.0;
+    }
+
+    /**
+     * @param month the month's index in the range
+     * @return the reward points earned in the month
+     */
+    public long points(int month) {
+        return points[month];
+    }
+
+    int startDay() {
+        return startDay;
+    }
+
+    /**
+     * Adds the rows [start, end) dated in the range, in any order.
+     */
+    void addAll(IntBuffer days, LongBuffer amounts, IntBuffer rewards, int start, int end) {
+        int span = monthOf.length;
+        for (int row = start; row < end; row++) {
+            int offset = days.get(row) - startDay;
+            if (offset >= 0 && offset < span) {
+                int month = monthOf[offset];
+                transactions[month]++;
+                cents[month] += amounts.get(row);
+                points[month] += rewards.get(row);
+            }
+        }
+    }
+
+    /**
+     * Adds the rows from start, sorted by date and none before the range, up to the first one
+     * after the range or end.
+     */
+    void addSorted(IntBuffer days, LongBuffer amounts, IntBuffer rewards, int start, int end) {
+        int span = monthOf.length;
+        for (int row = start; row < end; row++) {
+            int offset = days.get(row) - startDay;
+            if (offset >= span) {
+                return;
+            }
+            int month = monthOf[offset];
+            transactions[month]++;
+            cents[month] += amounts.get(row);
+            points[month] += rewards.get(row);
+        }
+    }
+
+    /**
+     * Adds one row if it is dated in the range.
+     */
+    void add(int day, long amount, int reward) {
+        int offset = day - startDay;
+        if (offset >= 0 && offset < monthOf.length) {
+            int month = monthOf[offset];
+            transactions[month]++;
+            cents[month] += amount;
+            points[month] += reward;
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package com.infy.customerRewards.columnar;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.entity.ReviewStatus;
+import com.infy.customerRewards.entity.Transaction;
+import com.infy.customerRewards.utility.RewardCalculator;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import javax.sql.DataSource;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Read model of every transaction held in off-heap columns, answering monthly analytics
+ * without the database, enabled by rewards.columnar.enabled.
+ * <p>
+ * Each shard is a sorted ColumnarSegment of 24 bytes a row, where a JPA Transaction entity
+ * costs over 200 bytes of heap, plus a ColumnarDelta of the writes since. Points are computed
+ * once, when a row enters the store, as the read endpoints compute them. Segments are loaded
+ * in the background once the application is ready, one cursor per shard (read routing sends
+ * the cursor to a replica when enabled); until every shard is loaded isReady is false and
+ * callers read the database instead.
+ * <p>
+ * Writes arrive through append, after commit, from the same notification that feeds the
+ * analytics cache and sketches. They cover the writes this instance sees, like the sketches:
+ * run it with one writer, or read figures written elsewhere from the database. A write both
+ * loaded and appended is kept once, matched on customer, date and ID. A row's points are set in
+ * place through update when a held transaction is released; an update landing while a segment
+ * is being loaded or merged is replayed on the new segment before it is swapped in. Once a delta holds
+ * rewards.columnar.merge-rows rows it is frozen, a new one takes the writes, and a background
+ * thread merges it into a new segment; readers always see a segment, at most one frozen delta
+ * and the live delta, none of which they lock. Replaced columns are freed by the garbage
+ * collector once unreachable.
+ * <p>
+ * Rows held and their off-heap bytes are published as rewards.columnar.rows and
+ * rewards.columnar.bytes.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@ConditionalOnProperty(prefix = "rewards.columnar", name = "enabled", havingValue = "true")
+public class ColumnarTransactionStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarTransactionStore.class);
+
+    private static final String COUNT_ROWS = "SELECT COUNT(*) FROM transactions WHERE date IS NOT NULL";
+    private static final String SELECT_ROWS = "SELECT id, customer_id, date, amount, reward_points, rule_version, "
+            + "review_status FROM transactions WHERE date IS NOT NULL ORDER BY customer_id, date, id";
+    private static final int INITIAL_CUSTOMERS = 1024;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final ShardRouter shards;
+    private final RewardCalculator rewardCalculator;
+    private final int mergeRows;
+    private final Shard[] partitions;
+    private final ExecutorService worker =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("rewards-columnar-"));
+    private volatile boolean ready;
+    private volatile boolean failed;
+
+    /**
+     * Constructs an empty store; load fills it.
+     *
+     * @param dataSource the application datasource
+     * @param transactionManager the transaction manager
+     * @param shards the shard router
+     * @param rewardCalculator the reward calculator
+     * @param properties the columnar store settings
+     * @param registry the meter registry
+     */
+    public ColumnarTransactionStore(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                    ShardRouter shards, RewardCalculator rewardCalculator,
+                                    ColumnarProperties properties, MeterRegistry registry) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(properties.getFetchSize());
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setReadOnly(true);
+        this.shards = shards;
+        this.rewardCalculator = rewardCalculator;
+        this.mergeRows = properties.getMergeRows();
+        this.partitions = new Shard[shards.shardCount()];
+        for (int shard = 0; shard < partitions.length; shard++) {
+            partitions[shard] = new Shard();
+        }
+        Gauge.builder("rewards.columnar.rows", this, ColumnarTransactionStore::rows)
+                .description("Transactions held in the columnar store")
+                .register(registry);
+        Gauge.builder("rewards.columnar.bytes", this, ColumnarTransactionStore::bytes)
+                .description("Off-heap bytes held by the columnar store")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Starts loading in the background once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        worker.execute(this::load);
+    }
+
+    /**
+     * Loads every shard, then marks the store ready. Writes appended meanwhile are kept and
+     * merged with the loaded rows. If a shard fails to load, the store stays unready and stops
+     * taking writes.
+     */
+    public void load() {
+        long begin = System.nanoTime();
+        try {
+            for (int shard = 0; shard < partitions.length; shard++) {
+                recordUpdates(partitions[shard]);
+                install(partitions[shard], loadShard(shard));
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            for (Shard shard : partitions) {
+                synchronized (shard) {
+                    shard.view = new View(ColumnarSegment.EMPTY, null, new ColumnarDelta());
+                    shard.updates = null;
+                }
+            }
+            log.error("Columnar store failed to load, analytics read the database", e);
+            return;
+        }
+        ready = true;
+        log.info("Columnar store loaded {} rows, {} bytes off-heap, in {} ms", rows(), bytes(),
+                (System.nanoTime() - begin) / 1_000_000);
+    }
+
+    /**
+     * @return whether every shard is loaded
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds committed transactions of a customer; undated ones are left out.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param written the transactions
+     */
+    public void append(Long customerId, Collection<Transaction> written) {
+        if (failed) {
+            return;
+        }
+        Shard shard = partitions[shards.shardOf(customerId)];
+        boolean merge;
+        synchronized (shard) {
+            View view = shard.view;
+            for (Transaction transaction : written) {
+                if (transaction.getDate() == null) {
+                    continue;
+                }
+                long id = transaction.getId() != null ? transaction.getId() : 0;
+                int day = (int) transaction.getDate().toEpochDay();
+                if (!view.base.contains(customerId, day, id)) {
+                    view.active.append(customerId, id, day, cents(transaction.getAmount()),
+                            rewardCalculator.pointsOf(transaction));
+                }
+            }
+            merge = ready && view.frozen == null && view.active.size() >= mergeRows;
+            if (merge) {
+                shard.view = new View(view.base, view.active, new ColumnarDelta());
+            }
+        }
+        if (merge) {
+            submitMerge(shard);
+        }
+    }
+
+    /**
+     * Sets the points of committed transactions already held to what they score now, such as a
+     * held transaction once released; undated ones and rows not held are left out.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param updated the transactions
+     */
+    public void update(Long customerId, Collection<Transaction> updated) {
+        if (failed) {
+            return;
+        }
+        Shard shard = partitions[shards.shardOf(customerId)];
+        synchronized (shard) {
+            View view = shard.view;
+            for (Transaction transaction : updated) {
+                if (transaction.getDate() == null) {
+                    continue;
+                }
+                PointsUpdate update = new PointsUpdate(customerId, (int) transaction.getDate().toEpochDay(),
+                        transaction.getId() != null ? transaction.getId() : 0, rewardCalculator.pointsOf(transaction));
+                view.base.setPoints(update.customerId(), update.day(), update.id(), update.points());
+                if (view.frozen != null) {
+                    view.frozen.setPoints(update.customerId(), update.day(), update.id(), update.points());
+                }
+                view.active.setPoints(update.customerId(), update.day(), update.id(), update.points());
+                if (shard.updates != null) {
+                    shard.updates.add(update);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sums every customer's transactions per month.
+     *
+     * @param from the first month (inclusive)
+     * @param to the last month (inclusive)
+     * @return the monthly totals
+     */
+    public ColumnarTotals monthly(YearMonth from, YearMonth to) {
+        ColumnarTotals totals = new ColumnarTotals(from, to);
+        for (Shard shard : partitions) {
+            View view = shard.view;
+            view.base.scan(totals);
+            if (view.frozen != null) {
+                view.frozen.scan(totals);
+            }
+            view.active.scan(totals);
+        }
+        return totals;
+    }
+
+    /**
+     * Sums one customer's transactions per month.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param from the first month (inclusive)
+     * @param to the last month (inclusive)
+     * @return the monthly totals, all zero for an unknown customer
+     */
+    public ColumnarTotals monthly(Long customerId, YearMonth from, YearMonth to) {
+        ColumnarTotals totals = new ColumnarTotals(from, to);
+        View view = partitions[shards.shardOf(customerId)].view;
+        view.base.scan(customerId, totals);
+        if (view.frozen != null) {
+            view.frozen.scan(customerId, totals);
+        }
+        view.active.scan(customerId, totals);
+        return totals;
+    }
+
+    /**
+     * @return the number of rows held
+     */
+    public long rows() {
+        long rows = 0;
+        for (Shard shard : partitions) {
+            View view = shard.view;
+            rows += view.base.rows() + view.active.size() + (view.frozen != null ? view.frozen.size() : 0);
+        }
+        return rows;
+    }
+
+    /**
+     * @return the off-heap bytes held, including spare capacity
+     */
+    public long bytes() {
+        long bytes = 0;
+        for (Shard shard : partitions) {
+            View view = shard.view;
+            bytes += view.base.bytes() + view.active.bytes() + (view.frozen != null ? view.frozen.bytes() : 0);
+        }
+        return bytes;
+    }
+
+    /**
+     * Stops loading and merging.
+     */
+    @PreDestroy
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    private ColumnarSegment loadShard(int shard) {
+        return transactions.execute(status -> {
+            shards.bindShard(shard);
+            Long count = jdbc.queryForObject(COUNT_ROWS, Long.class);
+            int expected = Math.toIntExact(count != null ? count : 0);
+            ColumnarSegment.Builder builder = new ColumnarSegment.Builder(expected, INITIAL_CUSTOMERS);
+            Transaction scratch = new Transaction();
+            jdbc.query(SELECT_ROWS, rs -> {
+                scratch.setAmount(rs.getDouble(4));
+                scratch.setRewardPoints(rs.getObject(5, Integer.class));
+                scratch.setRuleVersion(rs.getObject(6, Integer.class));
+                String reviewStatus = rs.getString(7);
+                scratch.setReviewStatus(reviewStatus != null ? ReviewStatus.valueOf(reviewStatus) : null);
+                builder.add(rs.getLong(2), rs.getLong(1), (int) rs.getDate(3).toLocalDate().toEpochDay(),
+                        cents(scratch.getAmount()), rewardCalculator.pointsOf(scratch));
+            });
+            return builder.build();
+        });
+    }
+
+    /**
+     * Swaps the loaded segment in, first next to the writes appended so far so that later
+     * appends are matched against it, then merged with them.
+     */
+    private static void install(Shard shard, ColumnarSegment loaded) {
+        ColumnarDelta pending;
+        synchronized (shard) {
+            pending = shard.view.active;
+            replayUpdates(shard, loaded);
+            shard.updates = new ArrayList<>();
+            shard.view = new View(loaded, pending, new ColumnarDelta());
+        }
+        ColumnarSegment merged = loaded.merge(pending);
+        synchronized (shard) {
+            replayUpdates(shard, merged);
+            shard.view = new View(merged, null, shard.view.active);
+        }
+    }
+
+    /**
+     * Starts keeping the shard's point updates, for a segment being built from rows that may
+     * already have been read.
+     */
+    private static void recordUpdates(Shard shard) {
+        synchronized (shard) {
+            shard.updates = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Applies the point updates kept since recordUpdates to a new segment and stops keeping them.
+     * Callers hold the shard's lock.
+     */
+    private static void replayUpdates(Shard shard, ColumnarSegment segment) {
+        for (PointsUpdate update : shard.updates) {
+            segment.setPoints(update.customerId(), update.day(), update.id(), update.points());
+        }
+        shard.updates = null;
+    }
+
+    private void submitMerge(Shard shard) {
+        try {
+            worker.execute(() -> merge(shard));
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the frozen delta stays readable
+        }
+    }
+
+    private void merge(Shard shard) {
+        View view;
+        synchronized (shard) {
+            view = shard.view;
+            shard.updates = new ArrayList<>();
+        }
+        ColumnarSegment merged = view.base.merge(view.frozen);
+        boolean again;
+        synchronized (shard) {
+            replayUpdates(shard, merged);
+            ColumnarDelta active = shard.view.active;
+            again = active.size() >= mergeRows;
+            shard.view = again ? new View(merged, active, new ColumnarDelta()) : new View(merged, null, active);
+        }
+        if (again) {
+            submitMerge(shard);
+        }
+    }
+
+    private static long cents(Double amount) {
+        return amount != null ? Math.round(amount * 100) : 0;
+    }
+
+    /**
+     * What a reader sees of a shard: a segment, a delta being merged into it or null, and the
+     * delta taking writes.
+     */
+    private record View(ColumnarSegment base, ColumnarDelta frozen, ColumnarDelta active) {
+    }
+
+    /**
+     * New points of one row.
+     */
+    private record PointsUpdate(long customerId, int day, long id, int points) {
+    }
+
+    /**
+     * One shard's view, swapped whole; appends, updates and swaps lock the shard.
+     */
+    private static final class Shard {
+
+        volatile View view = new View(ColumnarSegment.EMPTY, null, new ColumnarDelta());
+
+        /** Point updates since a segment started being built, null when none is. */
+        List<PointsUpdate> updates;
+    }
+}
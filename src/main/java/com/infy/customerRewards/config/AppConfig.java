@@ -0,0 +1,26 @@
+package com.infy.customerRewards.config;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * General application beans shared by the service and utility layers.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration
+public class AppConfig {
+
+    /**
+     * ModelMapper used for entity-DTO conversion.
+     *
+     * @return the model mapper
+     */
+    @Bean
+    public ModelMapper modelMapper() {
+        return new ModelMapper();
+    }
+}
@@ -0,0 +1,254 @@
+package com.infy.customerRewards.config;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.context.logging.LoggingApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import com.infy.customerRewards.CustomerRewardsApplication;
+import com.infy.customerRewards.dto.CustomerDTO;
+import com.infy.customerRewards.dto.RewardView;
+import com.infy.customerRewards.dto.TransactionDTO;
+import com.infy.customerRewards.search.CustomerNameIndex;
+import com.infy.customerRewards.service.RewardService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JIT warmup run before the instance reports ready, active when rewards.warmup.enabled=true.
+ * Application runners complete before Spring Boot switches readiness to ACCEPTING_TRAFFIC, so
+ * /actuator/health/readiness stays OUT_OF_SERVICE until the warmup is done.
+ * <p>
+ * The warmup starts a second, non-web instance of the application with the same configuration,
+ * except that its only datasource is the scratch database of rewards.warmup.datasource.*, with
+ * replica routing, sharding, re-scoring, write-behind ingestion and startup loads turned off. Its
+ * beans are the application's own classes wired by Spring, so every path the service takes is
+ * the one requests take, while none of its state (caches, velocity windows, sketches, name index,
+ * metrics) is shared with the application and nothing reaches the application's database. The
+ * warmup calls every public service path on synthetic customers, including idempotent retries,
+ * the summary view and name search when enabled, writes every result through the application's
+ * JSON, CBOR and Smile converters, then closes that instance. A path that fails stops the
+ * application from starting. Duration and completed iterations are published as
+ * rewards.warmup.duration and rewards.warmup.iterations.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@ConditionalOnProperty(prefix = "rewards.warmup", name = "enabled", havingValue = "true")
+public class ApplicationWarmup implements ApplicationRunner {
+
+    private static final List<MediaType> MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, MediaType.valueOf(WebConfig.APPLICATION_SMILE_VALUE));
+    private static final String[] PRODUCTS = { "Laptop", "Phone", "Headphones", "Groceries", "Books", "Shoes" };
+
+    private final WarmupProperties properties;
+    private final Environment env;
+    private final List<HttpMessageConverter<?>> converters;
+
+    private volatile long durationMillis = -1;
+    private volatile int completedIterations;
+
+    /**
+     * Constructs the warmup and registers its metrics.
+     *
+     * @param properties the warmup settings
+     * @param env the application environment
+     * @param converters the application's HTTP message converters
+     * @param registry the meter registry
+     */
+    public ApplicationWarmup(WarmupProperties properties, Environment env, HttpMessageConverters converters,
+                             MeterRegistry registry) {
+        this.properties = properties;
+        this.env = env;
+        this.converters = converters.getConverters();
+        TimeGauge.builder("rewards.warmup.duration", this, TimeUnit.MILLISECONDS, warmup -> warmup.durationMillis)
+                .description("Time spent warming up before accepting traffic")
+                .register(registry);
+        Gauge.builder("rewards.warmup.iterations", this, warmup -> warmup.completedIterations)
+                .description("Warmup iterations completed before accepting traffic")
+                .register(registry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmup(args.getSourceArgs());
+    }
+
+    /**
+     * Runs the warmup until the configured iterations are done or the time budget is spent. The
+     * budget starts once the warmup instance is up.
+     *
+     * @param args the application's command line arguments, passed on to the warmup instance
+     * @return the warmup duration, including the start of the warmup instance
+     */
+    public Duration warmup(String... args) {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = start(args)) {
+            long deadline = System.nanoTime() + properties.getMaxDuration().toNanos();
+            RewardService service = context.getBean(RewardService.class);
+            boolean search = context.getBeanNamesForType(CustomerNameIndex.class).length > 0;
+            Random random = new Random(42);
+            LocalDate endDate = LocalDate.now();
+            LocalDate startDate = endDate.minusYears(1);
+
+            List<Long> customerIds = new ArrayList<>();
+            for (int c = 0; c < Math.max(1, properties.getCustomers()); c++) {
+                customerIds.add(service.createCustomer(syntheticCustomer(c, random, startDate)).getId());
+            }
+            int iteration = 0;
+            while (iteration < properties.getIterations() && System.nanoTime() < deadline) {
+                int customer = iteration % customerIds.size();
+                Long customerId = customerIds.get(customer);
+                // Every other call retries the previous key, as a client resubmitting would
+                write(service.addTransaction(customerId, "warmup-" + iteration / 2,
+                        syntheticTransaction(random, startDate)));
+                write(service.getCustomerTransactions(customerId));
+                write(service.getRewardsForCustomer(customerId, startDate, endDate));
+                write(service.getRewardsForCustomer(customerId, startDate, endDate, RewardView.SUMMARY));
+                if (search) {
+                    write(service.searchCustomers("customer " + customer, 10));
+                }
+                iteration++;
+            }
+            completedIterations = iteration;
+        }
+        durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return Duration.ofMillis(durationMillis);
+    }
+
+    /**
+     * Gets the number of iterations the last warmup completed.
+     * @return the completed iterations
+     */
+    public int getCompletedIterations() {
+        return completedIterations;
+    }
+
+    /**
+     * Starts the warmup instance. Its settings override every other source, and it leaves the
+     * logging system alone, which the application configured and closing it would shut down.
+     */
+    private ConfigurableApplicationContext start(String[] args) {
+        WarmupProperties.Datasource datasource = properties.getDatasource();
+        if (datasource.getUrl() == null || datasource.getUrl().isBlank()) {
+            throw new IllegalStateException("rewards.warmup.datasource.url must name a scratch database");
+        }
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("spring.datasource.url", datasource.getUrl());
+        settings.put("spring.datasource.username", orEmpty(datasource.getUsername()));
+        settings.put("spring.datasource.password", orEmpty(datasource.getPassword()));
+        settings.put("spring.datasource.driver-class-name", orEmpty(datasource.getDriverClassName()));
+        settings.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        settings.put("spring.main.register-shutdown-hook", false);
+        settings.put("rewards.warmup.enabled", false);
+        settings.put("rewards.datasource.routing.enabled", false);
+        settings.put("rewards.datasource.sharding.enabled", false);
+        settings.put("rewards.rescoring.enabled", false);
+        settings.put("rewards.ingest.mode", "direct");
+        settings.put("rewards.sketches.load-on-startup", false);
+        settings.put("rewards.search.rebuild-on-startup", false);
+
+        SpringApplication application = new SpringApplication(CustomerRewardsApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setBannerMode(Banner.Mode.OFF);
+        application.setLogStartupInfo(false);
+        application.setAdditionalProfiles(env.getActiveProfiles());
+        application.setListeners(application.getListeners().stream()
+                .filter(listener -> !(listener instanceof LoggingApplicationListener))
+                .toList());
+        application.addInitializers(context -> context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("warmup", settings)));
+        return application.run(args);
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private CustomerDTO syntheticCustomer(int index, Random random, LocalDate startDate) {
+        List<TransactionDTO> transactions = new ArrayList<>();
+        for (int t = 0; t < properties.getTransactionsPerCustomer(); t++) {
+            transactions.add(syntheticTransaction(random, startDate));
+        }
+        CustomerDTO customer = new CustomerDTO();
+        customer.setCustName("Warmup Customer " + index);
+        customer.setPhoneNo(String.format("555%07d", index));
+        customer.setTransactions(transactions);
+        return customer;
+    }
+
+    private static TransactionDTO syntheticTransaction(Random random, LocalDate startDate) {
+        TransactionDTO transaction = new TransactionDTO();
+        transaction.setDate(startDate.plusDays(random.nextInt(365)));
+        transaction.setProduct(PRODUCTS[random.nextInt(PRODUCTS.length)]);
+        transaction.setAmount(Math.round(random.nextDouble() * 30_000) / 100.0);
+        return transaction;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(Object body) {
+        BufferedOutputMessage output = new BufferedOutputMessage();
+        for (MediaType mediaType : MEDIA_TYPES) {
+            for (HttpMessageConverter<?> converter : converters) {
+                if (converter.canWrite(body.getClass(), mediaType)) {
+                    try {
+                        output.reset();
+                        ((HttpMessageConverter<Object>) converter).write(body, mediaType, output);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Warmup could not serialize " + body.getClass().getSimpleName(), e);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    private static class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        void reset() {
+            headers.clear();
+            body.reset();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
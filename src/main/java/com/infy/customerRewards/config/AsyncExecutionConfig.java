@@ -0,0 +1,91 @@
+package com.infy.customerRewards.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.infy.customerRewards.utility.BoundedExecutor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration of the bounded read and write pools behind the rewards API.
+ * Queue depth, active threads and rejections of each pool are published as metrics
+ * (rewards.executor.queue.depth, rewards.executor.active, rewards.executor.rejected).
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration
+public class AsyncExecutionConfig {
+
+    @Value("${rewards.async.enabled:true}")
+    private boolean asyncEnabled;
+
+    @Value("${rewards.async.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Value("${rewards.async.read.threads:16}")
+    private int readThreads;
+
+    @Value("${rewards.async.read.max-queue-depth:200}")
+    private int readMaxQueueDepth;
+
+    @Value("${rewards.async.write.threads:4}")
+    private int writeThreads;
+
+    @Value("${rewards.async.write.max-queue-depth:50}")
+    private int writeMaxQueueDepth;
+
+    /**
+     * Pool for read-only requests.
+     *
+     * @param registry the meter registry
+     * @return the read executor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedExecutor readExecutor(MeterRegistry registry) {
+        return bindMetrics(new BoundedExecutor("read", readThreads, readMaxQueueDepth, retryAfterSeconds), registry);
+    }
+
+    /**
+     * Pool for write requests.
+     *
+     * @param registry the meter registry
+     * @return the write executor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedExecutor writeExecutor(MeterRegistry registry) {
+        return bindMetrics(new BoundedExecutor("write", writeThreads, writeMaxQueueDepth, retryAfterSeconds), registry);
+    }
+
+    /**
+     * Request executors used by the controller.
+     *
+     * @param readExecutor the read pool
+     * @param writeExecutor the write pool
+     * @return the request executors
+     */
+    @Bean
+    public RequestExecutors requestExecutors(@Qualifier("readExecutor") BoundedExecutor readExecutor,
+                                             @Qualifier("writeExecutor") BoundedExecutor writeExecutor) {
+        return new RequestExecutors(asyncEnabled, readExecutor, writeExecutor);
+    }
+
+    private BoundedExecutor bindMetrics(BoundedExecutor executor, MeterRegistry registry) {
+        Gauge.builder("rewards.executor.queue.depth", executor, BoundedExecutor::getQueueDepth)
+                .tag("pool", executor.getName())
+                .register(registry);
+        Gauge.builder("rewards.executor.active", executor, BoundedExecutor::getActiveCount)
+                .tag("pool", executor.getName())
+                .register(registry);
+        FunctionCounter.builder("rewards.executor.rejected", executor, BoundedExecutor::getRejectedCount)
+                .tag("pool", executor.getName())
+                .register(registry);
+        return executor;
+    }
+}
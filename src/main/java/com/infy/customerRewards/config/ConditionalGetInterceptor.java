@@ -0,0 +1,102 @@
+package com.infy.customerRewards.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.infy.customerRewards.utility.CustomerDataVersions;
+import com.infy.customerRewards.utility.RewardCalculator;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Interceptor adding conditional GET support to the per-customer read endpoints.
+ * The strong ETag is derived from the reward rule version and the customer's data version,
+ * shared by every instance through the database, plus the request URI, query and Accept header,
+ * so different date ranges and encodings never share a tag. When If-None-Match matches, a 304
+ * is returned before the controller runs: one primary-key lookup instead of the transaction
+ * query, the reward calculation and the serialization. Unknown customers get no tag.
+ * <p>
+ * The endpoints return futures, so the interceptor also sees the async dispatch that writes
+ * the finished body; the tag set on the first pass is kept there rather than rebuilt from a
+ * version a concurrent write may have moved since.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final CustomerDataVersions dataVersions;
+
+    /**
+     * Constructs the interceptor with the customer data version registry.
+     *
+     * @param dataVersions the per-customer data versions
+     */
+    public ConditionalGetInterceptor(CustomerDataVersions dataVersions) {
+        this.dataVersions = dataVersions;
+    }
+
+    /**
+     * Sets the ETag for the request and short-circuits with 304 when the client's copy is current.
+     * The version is read before the controller runs, so the tag never claims newer data
+     * than the body that follows it. The async dispatch of the same request passes through
+     * untouched.
+     *
+     * @return false when a 304 has been written, true to continue to the controller
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Long customerId = customerId(request);
+        if (customerId == null) {
+            return true;
+        }
+        Long version = dataVersions.current(customerId);
+        if (version == null) {
+            return true;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String eTag = buildETag(customerId, version, request);
+        return !new ServletWebRequest(request, response).checkNotModified(eTag);
+    }
+
+    /**
+     * Builds the strong ETag for a customer's representation.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param version the customer's data version
+     * @param request the current request
+     * @return the quoted ETag value
+     */
+    String buildETag(Long customerId, long version, HttpServletRequest request) {
+        int variant = Objects.hash(request.getRequestURI(), request.getQueryString(),
+                request.getHeader(HttpHeaders.ACCEPT));
+        return String.format("\"%d-%d-%d-%x\"", RewardCalculator.RULE_VERSION, customerId, version, variant);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Long customerId(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request
+                .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || variables.get("customerId") == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(variables.get("customerId"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.infy.customerRewards.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.infy.customerRewards.entity.Customer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+
+/**
+ * Configuration of the Hibernate second-level cache, enabled by rewards.cache.enabled.
+ * Hibernate would otherwise turn the cache on by itself, with unbounded caches, as soon as a
+ * JCache provider is on the classpath; disabled, it is switched off explicitly.
+ * <p>
+ * Cached entities live in Caffeine caches reached through JCache, each bounded to a number of
+ * entries, evicting the least valuable ones once full, and expiring a while after being written.
+ * The regions are created here, so Hibernate fails rather than creating an unbounded cache for
+ * a region left out. Hits, misses and the hit ratio of each region are published as
+ * rewards.cache.requests and rewards.cache.hit-ratio, tagged with the region.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    /** The region of Customer entities, named after the entity as Hibernate does by default. */
+    public static final String CUSTOMER_REGION = Customer.class.getName();
+
+    /**
+     * Creates the cache manager holding the regions. Each application context gets its own.
+     *
+     * @param properties the entity cache settings
+     * @return the cache manager
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "rewards.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("rewards-entity-cache-" + UUID.randomUUID()),
+                        getClass().getClassLoader());
+        cacheManager.createCache(CUSTOMER_REGION,
+                region(properties.getCustomerMaxEntries(), properties.getTtl()));
+        if (properties.isQueryCache()) {
+            cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                    region(properties.getQueryMaxEntries(), properties.getTtl()));
+            // Last update time of each table, checked before any cached result is used: never evicted
+            cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                    new CaffeineConfiguration<>());
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Points Hibernate at the cache manager and turns on its statistics, without per-session logging,
+     * or turns the cache off when there is no cache manager.
+     *
+     * @param cacheManager the cache manager, absent when the cache is disabled
+     * @param properties the entity cache settings
+     * @return the Hibernate properties customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateProperties(ObjectProvider<CacheManager> cacheManager,
+                                                                        EntityCacheProperties properties) {
+        return hibernate -> {
+            CacheManager regions = cacheManager.getIfAvailable();
+            if (regions == null) {
+                hibernate.put("hibernate.cache.use_second_level_cache", false);
+                hibernate.put("hibernate.cache.use_query_cache", false);
+                return;
+            }
+            hibernate.put("hibernate.cache.use_second_level_cache", true);
+            hibernate.put("hibernate.cache.region.factory_class", "jcache");
+            hibernate.put("hibernate.javax.cache.cache_manager", regions);
+            hibernate.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            hibernate.put("hibernate.cache.use_query_cache", properties.isQueryCache());
+            hibernate.put("hibernate.generate_statistics", true);
+            hibernate.put("hibernate.session.events.log", false);
+        };
+    }
+
+    /**
+     * Publishes the hits, misses and hit ratio of the regions.
+     *
+     * @param entityManagerFactory the entity manager factory
+     * @param properties the entity cache settings
+     * @return the meter binder
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "rewards.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MeterBinder entityCacheMetrics(EntityManagerFactory entityManagerFactory,
+                                          EntityCacheProperties properties) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            bind(registry, statistics, "customer",
+                    s -> s.getDomainDataRegionStatistics(CUSTOMER_REGION).getHitCount(),
+                    s -> s.getDomainDataRegionStatistics(CUSTOMER_REGION).getMissCount());
+            if (properties.isQueryCache()) {
+                bind(registry, statistics, "query", Statistics::getQueryCacheHitCount,
+                        Statistics::getQueryCacheMissCount);
+            }
+        };
+    }
+
+    private static <K, V> CaffeineConfiguration<K, V> region(long maxEntries, Duration ttl) {
+        CaffeineConfiguration<K, V> region = new CaffeineConfiguration<>();
+        region.setMaximumSize(OptionalLong.of(maxEntries));
+        region.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return region;
+    }
+
+    private static void bind(MeterRegistry registry, Statistics statistics, String region,
+                             ToLongFunction<Statistics> hits, ToLongFunction<Statistics> misses) {
+        FunctionCounter.builder("rewards.cache.requests", statistics, s -> hits.applyAsLong(s))
+                .description("Second-level cache lookups")
+                .tags("region", region, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("rewards.cache.requests", statistics, s -> misses.applyAsLong(s))
+                .description("Second-level cache lookups")
+                .tags("region", region, "result", "miss")
+                .register(registry);
+        Gauge.builder("rewards.cache.hit-ratio", statistics, s -> hitRatio(hits.applyAsLong(s), misses.applyAsLong(s)))
+                .description("Share of second-level cache lookups answered by the cache")
+                .tag("region", region)
+                .register(registry);
+    }
+
+    private static double hitRatio(long hits, long misses) {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,65 @@
+package com.infy.customerRewards.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Second-level entity cache settings bound from the rewards.cache.* properties.
+ * Customers are cached in a region of at most customerMaxEntries entries, every entry expiring
+ * ttl after it was written. With queryCache, results of queries marked cacheable are
+ * kept too, in a region of at most queryMaxEntries entries.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@ConfigurationProperties(prefix = "rewards.cache")
+public class EntityCacheProperties {
+
+    private boolean enabled = true;
+    private long customerMaxEntries = 100_000;
+    private Duration ttl = Duration.ofHours(1);
+    private boolean queryCache = false;
+    private long queryMaxEntries = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getCustomerMaxEntries() {
+        return customerMaxEntries;
+    }
+
+    public void setCustomerMaxEntries(long customerMaxEntries) {
+        this.customerMaxEntries = customerMaxEntries;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public boolean isQueryCache() {
+        return queryCache;
+    }
+
+    public void setQueryCache(boolean queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    public long getQueryMaxEntries() {
+        return queryMaxEntries;
+    }
+
+    public void setQueryMaxEntries(long queryMaxEntries) {
+        this.queryMaxEntries = queryMaxEntries;
+    }
+}
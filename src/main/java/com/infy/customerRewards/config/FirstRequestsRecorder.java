@@ -0,0 +1,99 @@
+package com.infy.customerRewards.config;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servlet filter timing the first rewards.warmup.first-requests API requests after startup.
+ * The latencies are published as the rewards.requests.first timer with p50/p99, which shows
+ * how far a fresh instance is from steady state, with or without warmup. Asynchronous
+ * requests are timed until their response completes. Once the limit is reached the filter
+ * does nothing.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FirstRequestsRecorder extends OncePerRequestFilter {
+
+    private final int limit;
+    private final Timer timer;
+    private final AtomicInteger seen = new AtomicInteger();
+
+    /**
+     * Constructs the recorder.
+     *
+     * @param properties the warmup settings
+     * @param registry the meter registry
+     */
+    public FirstRequestsRecorder(WarmupProperties properties, MeterRegistry registry) {
+        this.limit = properties.getFirstRequests();
+        this.timer = Timer.builder("rewards.requests.first")
+                .description("Latency of the first API requests after startup")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return seen.get() >= limit || !request.getRequestURI().startsWith("/api/rewards");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (seen.getAndIncrement() >= limit) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(start);
+            }
+        }
+    }
+
+    private void record(long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
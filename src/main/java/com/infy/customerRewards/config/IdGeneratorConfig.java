@@ -0,0 +1,54 @@
+package com.infy.customerRewards.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.infy.customerRewards.entity.TimeOrderedIdGenerator;
+import com.infy.customerRewards.utility.IdGenerator;
+import com.infy.customerRewards.utility.SnowflakeIdGenerator;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the application-assigned entity IDs.
+ * The IdGenerator bean is handed to Hibernate, where TimeOrderedId fields draw from it;
+ * defining another IdGenerator bean replaces the default time-ordered one.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Value("${rewards.id.node-id:0}")
+    private int nodeId;
+
+    @Value("${rewards.id.max-clock-rollback:5s}")
+    private Duration maxClockRollback;
+
+    /**
+     * Default time-ordered ID generator.
+     *
+     * @return the ID generator for this node
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public IdGenerator idGenerator() {
+        return new SnowflakeIdGenerator(nodeId, maxClockRollback);
+    }
+
+    /**
+     * Passes the ID generator to Hibernate.
+     *
+     * @param idGenerator the ID generator
+     * @return the Hibernate properties customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer idGeneratorHibernateProperties(IdGenerator idGenerator) {
+        return properties -> properties.put(TimeOrderedIdGenerator.ID_GENERATOR_SETTING, idGenerator);
+    }
+}
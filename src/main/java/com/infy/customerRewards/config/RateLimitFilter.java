@@ -0,0 +1,128 @@
+package com.infy.customerRewards.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infy.customerRewards.utility.RateLimiter;
+import com.infy.customerRewards.utility.TokenBucket;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet filter applying per-client rate limits in front of RewardController.
+ * Clients are identified by their authenticated subject, then the API key header, then the
+ * remote address. Each configured endpoint has its own limit; rejected requests get a 429
+ * with Retry-After and X-RateLimit-* headers, accepted ones carry the remaining allowance.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final List<LimitedEndpoint> endpoints = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * Constructs the filter and one limiter per configured endpoint.
+     *
+     * @param properties the rate limiting settings
+     * @param objectMapper the mapper used to write the 429 body
+     */
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        properties.getEndpoints().forEach((name, limit) -> endpoints.add(new LimitedEndpoint(name, limit,
+                new RateLimiter(limit.getCapacity(), limit.getRefillPerSecond()))));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || endpoints.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        LimitedEndpoint endpoint = match(request);
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        TokenBucket.Decision decision = endpoint.limiter().tryAcquire(clientId(request), System.nanoTime());
+        response.setHeader(LIMIT_HEADER, String.valueOf(endpoint.limiter().getCapacity()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        if (decision.allowed()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + 999_999_999L));
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("error", "Rate limit exceeded for " + endpoint.name() + ", retry later");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * Drops buckets of clients that have been idle longer than the configured eviction time.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleEviction().toNanos();
+        endpoints.forEach(endpoint -> endpoint.limiter().evictIdle(now, idleNanos));
+    }
+
+    private LimitedEndpoint match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (LimitedEndpoint endpoint : endpoints) {
+            String method = endpoint.limit().getMethod();
+            if ((method == null || method.equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(endpoint.limit().getPath(), path)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "sub:" + principal.getName();
+        }
+        String apiKey = request.getHeader(properties.getApiKeyHeader());
+        if (apiKey != null && !apiKey.isBlank()) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private record LimitedEndpoint(String name, RateLimitProperties.Limit limit, RateLimiter limiter) {}
+}
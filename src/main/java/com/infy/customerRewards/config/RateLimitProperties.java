@@ -0,0 +1,99 @@
+package com.infy.customerRewards.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rate limiting settings bound from the rewards.ratelimit.* properties.
+ * Each named endpoint entry maps an Ant-style path pattern to its own per-client limit.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@ConfigurationProperties(prefix = "rewards.ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private Duration idleEviction = Duration.ofMinutes(10);
+    private String apiKeyHeader = "X-API-Key";
+    private Map<String, Limit> endpoints = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getIdleEviction() {
+        return idleEviction;
+    }
+
+    public void setIdleEviction(Duration idleEviction) {
+        this.idleEviction = idleEviction;
+    }
+
+    public String getApiKeyHeader() {
+        return apiKeyHeader;
+    }
+
+    public void setApiKeyHeader(String apiKeyHeader) {
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    public Map<String, Limit> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Limit> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * Limit applied to one endpoint.
+     */
+    public static class Limit {
+
+        private String path;
+        private String method;
+        private int capacity = 20;
+        private double refillPerSecond = 10;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
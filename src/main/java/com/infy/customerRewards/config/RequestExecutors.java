@@ -0,0 +1,65 @@
+package com.infy.customerRewards.config;
+
+import com.infy.customerRewards.utility.BoundedExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Entry point used by the controller to run request work.
+ * In asynchronous mode reads and writes go to separate bounded pools, so a slow database
+ * cannot tie up the servlet threads and writes cannot starve reads (or the other way round).
+ * In synchronous mode the work runs inline on the calling thread.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class RequestExecutors {
+
+    private final boolean async;
+    private final BoundedExecutor readExecutor;
+    private final BoundedExecutor writeExecutor;
+
+    /**
+     * Constructs the request executors.
+     *
+     * @param async whether work is handed off to the bounded pools
+     * @param readExecutor the pool for read-only requests, may be null in synchronous mode
+     * @param writeExecutor the pool for write requests, may be null in synchronous mode
+     */
+    public RequestExecutors(boolean async, BoundedExecutor readExecutor, BoundedExecutor writeExecutor) {
+        this.async = async;
+        this.readExecutor = readExecutor;
+        this.writeExecutor = writeExecutor;
+    }
+
+    /**
+     * Runs read-only work.
+     *
+     * @param task the work to run
+     * @param <T> the result type
+     * @return a future holding the result
+     */
+    public <T> CompletableFuture<T> read(Supplier<T> task) {
+        return run(readExecutor, task);
+    }
+
+    /**
+     * Runs work that modifies data.
+     *
+     * @param task the work to run
+     * @param <T> the result type
+     * @return a future holding the result
+     */
+    public <T> CompletableFuture<T> write(Supplier<T> task) {
+        return run(writeExecutor, task);
+    }
+
+    private <T> CompletableFuture<T> run(BoundedExecutor executor, Supplier<T> task) {
+        if (!async) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        return executor.submit(task);
+    }
+}
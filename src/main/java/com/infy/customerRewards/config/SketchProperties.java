@@ -0,0 +1,70 @@
+package com.infy.customerRewards.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Spend sketch settings bound from the rewards.sketches.* properties.
+ * With loadOnStartup, transactions are read fetchSize rows at a time to rebuild the sketches.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@ConfigurationProperties(prefix = "rewards.sketches")
+public class SketchProperties {
+
+    private int significantDigits = 2;
+    private boolean perCustomer = false;
+    private int customerSignificantDigits = 1;
+    private int maxCustomers = 10_000;
+    private boolean loadOnStartup = true;
+    private int fetchSize = 10_000;
+
+    public int getSignificantDigits() {
+        return significantDigits;
+    }
+
+    public void setSignificantDigits(int significantDigits) {
+        this.significantDigits = significantDigits;
+    }
+
+    public boolean isPerCustomer() {
+        return perCustomer;
+    }
+
+    public void setPerCustomer(boolean perCustomer) {
+        this.perCustomer = perCustomer;
+    }
+
+    public int getCustomerSignificantDigits() {
+        return customerSignificantDigits;
+    }
+
+    public void setCustomerSignificantDigits(int customerSignificantDigits) {
+        this.customerSignificantDigits = customerSignificantDigits;
+    }
+
+    public int getMaxCustomers() {
+        return maxCustomers;
+    }
+
+    public void setMaxCustomers(int maxCustomers) {
+        this.maxCustomers = maxCustomers;
+    }
+
+    public boolean isLoadOnStartup() {
+        return loadOnStartup;
+    }
+
+    public void setLoadOnStartup(boolean loadOnStartup) {
+        this.loadOnStartup = loadOnStartup;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+}
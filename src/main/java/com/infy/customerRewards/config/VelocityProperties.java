@@ -0,0 +1,119 @@
+package com.infy.customerRewards.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Transaction velocity settings bound from the rewards.velocity.* properties.
+ * Each named rule counts a customer's transactions of at least minAmount over a sliding window
+ * and applies its action to every transaction beyond maxTransactions.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@ConfigurationProperties(prefix = "rewards.velocity")
+public class VelocityProperties {
+
+    private boolean enabled = true;
+    private int buckets = 10;
+    private int maxCustomers = 100_000;
+    private Duration idleEviction = Duration.ofHours(1);
+    private Map<String, Rule> rules = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(int buckets) {
+        this.buckets = buckets;
+    }
+
+    public int getMaxCustomers() {
+        return maxCustomers;
+    }
+
+    public void setMaxCustomers(int maxCustomers) {
+        this.maxCustomers = maxCustomers;
+    }
+
+    public Duration getIdleEviction() {
+        return idleEviction;
+    }
+
+    public void setIdleEviction(Duration idleEviction) {
+        this.idleEviction = idleEviction;
+    }
+
+    public Map<String, Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(Map<String, Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Outcome of a rule for the transactions beyond its limit.
+     */
+    public enum Action {
+        /** Store the transaction and award points, but mark it for review. */
+        FLAG,
+        /** Store the transaction and mark it, but award no points until it is released. */
+        HOLD
+    }
+
+    /**
+     * One velocity rule.
+     */
+    public static class Rule {
+
+        private Duration window = Duration.ofMinutes(10);
+        private int maxTransactions = 20;
+        private double minAmount = 0;
+        private Action action = Action.FLAG;
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxTransactions() {
+            return maxTransactions;
+        }
+
+        public void setMaxTransactions(int maxTransactions) {
+            this.maxTransactions = maxTransactions;
+        }
+
+        public double getMinAmount() {
+            return minAmount;
+        }
+
+        public void setMinAmount(double minAmount) {
+            this.minAmount = minAmount;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public void setAction(Action action) {
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.infy.customerRewards.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * JIT warmup settings bound from the rewards.warmup.* properties.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@ConfigurationProperties(prefix = "rewards.warmup")
+public class WarmupProperties {
+
+    private boolean enabled;
+    private int iterations = 2000;
+    private int customers = 20;
+    private int transactionsPerCustomer = 50;
+    private Duration maxDuration = Duration.ofSeconds(30);
+    private int firstRequests = 1000;
+    private Datasource datasource = new Datasource();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public void setCustomers(int customers) {
+        this.customers = customers;
+    }
+
+    public int getTransactionsPerCustomer() {
+        return transactionsPerCustomer;
+    }
+
+    public void setTransactionsPerCustomer(int transactionsPerCustomer) {
+        this.transactionsPerCustomer = transactionsPerCustomer;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public int getFirstRequests() {
+        return firstRequests;
+    }
+
+    public void setFirstRequests(int firstRequests) {
+        this.firstRequests = firstRequests;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public void setDatasource(Datasource datasource) {
+        this.datasource = datasource;
+    }
+
+    /**
+     * Connection settings of the scratch database the warmup writes to.
+     */
+    public static class Datasource {
+
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+    }
+}
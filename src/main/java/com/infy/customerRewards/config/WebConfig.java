@@ -0,0 +1,130 @@
+package com.infy.customerRewards.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.infy.customerRewards.dto.RewardResponseDTO;
+
+/**
+ * Web MVC configuration for the rewards API.
+ * Registers compact binary encodings (CBOR and Smile) next to JSON. JSON stays the default;
+ * the binary formats are only served when the client asks for them through the Accept header.
+ * Also registers conditional GET handling for the per-customer read endpoints, and leaves the
+ * fields out of a reward response that its view=/fields= parameters did not ask for.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Media type used by Jackson for Smile encoded payloads.
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private static final String REWARD_VIEW_FILTER = "rewardView";
+
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
+
+    /**
+     * Constructs the web configuration.
+     *
+     * @param conditionalGetInterceptor the ETag / If-None-Match interceptor
+     */
+    public WebConfig(ConditionalGetInterceptor conditionalGetInterceptor) {
+        this.conditionalGetInterceptor = conditionalGetInterceptor;
+    }
+
+    /**
+     * Falls back to JSON when the request carries no Accept header.
+     *
+     * @param configurer the content negotiation configurer
+     */
+    @Override
+    public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
+        configurer.defaultContentType(MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Applies conditional GET handling to the customer transactions and rewards endpoints.
+     *
+     * @param registry the interceptor registry
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(conditionalGetInterceptor)
+                .addPathPatterns("/api/rewards/customers/*/transactions", "/api/rewards/customers/*/rewards");
+    }
+
+    /**
+     * Writes only the fields of a reward response's view, in JSON, CBOR and Smile alike. A response
+     * without a view, and every field of the default full view, is written as before, nulls included.
+     *
+     * @return the customizer of the application's Jackson builder
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer rewardViewCustomizer() {
+        return builder -> builder.mixIn(RewardResponseDTO.class, RewardViewMixIn.class)
+                .filters(new SimpleFilterProvider().addFilter(REWARD_VIEW_FILTER, new RewardViewFilter()));
+    }
+
+    /**
+     * CBOR converter built from the application's Jackson builder, so dates and other
+     * customizations are encoded the same way as in the JSON responses.
+     *
+     * @param builder the Jackson builder configured by Spring Boot
+     * @return the CBOR message converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Smile converter built from the application's Jackson builder.
+     *
+     * @param builder the Jackson builder configured by Spring Boot
+     * @return the Smile message converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /** Attaches the view filter to RewardResponseDTO for the application's mappers only. */
+    @JsonFilter(REWARD_VIEW_FILTER)
+    private interface RewardViewMixIn {
+    }
+
+    /** Skips the properties of a RewardResponseDTO its view leaves out. */
+    private static final class RewardViewFilter extends SimpleBeanPropertyFilter {
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            if (pojo instanceof RewardResponseDTO response && response.getView() != null
+                    && !response.getView().includes(writer.getName())) {
+                return;
+            }
+            writer.serializeAsField(pojo, generator, provider);
+        }
+    }
+}
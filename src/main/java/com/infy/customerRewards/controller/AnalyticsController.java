@@ -0,0 +1,142 @@
+package com.infy.customerRewards.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.infy.customerRewards.config.RequestExecutors;
+import com.infy.customerRewards.config.WebConfig;
+import com.infy.customerRewards.dto.ProgramAnalyticsDTO;
+import com.infy.customerRewards.dto.SpendDistributionDTO;
+import com.infy.customerRewards.dto.SpendQuantilesDTO;
+import com.infy.customerRewards.service.AnalyticsService;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST Controller for program-wide analytics across all customers.
+ * Runs on the bounded read pool like the customer read endpoints.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@RestController
+@RequestMapping("/api/rewards/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private RequestExecutors requestExecutors;
+
+    /**
+     * Retrieves points issued, transaction count and average spend per month.
+     *
+     * @param from the first month, formatted as yyyy-MM (inclusive)
+     * @param to the last month, formatted as yyyy-MM (inclusive)
+     * @return future ResponseEntity containing the monthly figures and range totals
+     * @throws CustomException if from is after to or the range is too long
+     * @throws ServiceUnavailableException if the read pool is saturated
+     */
+    @GetMapping(value = "/monthly", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE })
+    public CompletableFuture<ResponseEntity<ProgramAnalyticsDTO>> getMonthlyAnalytics(
+            @RequestParam("from") @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam("to") @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        return requestExecutors.read(() -> ResponseEntity.ok(analyticsService.getMonthlyAnalytics(from, to)));
+    }
+
+    /**
+     * Retrieves one customer's points earned, transaction count and spend per month.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param from the first month, formatted as yyyy-MM (inclusive)
+     * @param to the last month, formatted as yyyy-MM (inclusive)
+     * @return future ResponseEntity containing the monthly figures and range totals
+     * @throws CustomException if from is after to or the range is too long
+     * @throws ServiceUnavailableException if the read pool is saturated
+     */
+    @GetMapping(value = "/customers/{customerId}/monthly", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE })
+    public CompletableFuture<ResponseEntity<ProgramAnalyticsDTO>> getCustomerMonthlyAnalytics(
+            @PathVariable Long customerId,
+            @RequestParam("from") @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam("to") @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        return requestExecutors.read(() -> ResponseEntity.ok(
+                analyticsService.getCustomerMonthlyAnalytics(customerId, from, to)));
+    }
+
+    /**
+     * Retrieves p50/p90/p99 spend per month and over the range, from in-memory sketches.
+     *
+     * @param from the first month, formatted as yyyy-MM (inclusive)
+     * @param to the last month, formatted as yyyy-MM (inclusive)
+     * @return future ResponseEntity containing the range and per-month distributions
+     * @throws CustomException if from is after to or the range is too long
+     * @throws ServiceUnavailableException if the read pool is saturated
+     */
+    @GetMapping(value = "/spend", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE })
+    public CompletableFuture<ResponseEntity<SpendDistributionDTO>> getSpendDistribution(
+            @RequestParam("from") @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam("to") @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        return requestExecutors.read(() -> ResponseEntity.ok(analyticsService.getSpendDistribution(from, to)));
+    }
+
+    /**
+     * Retrieves p50/p90/p99 spend of one customer, when per-customer sketches are enabled.
+     *
+     * @param customerId the unique identifier of the customer
+     * @return future ResponseEntity containing the customer's distribution
+     * @throws ResourceNotFoundException if no sketch is kept for the customer
+     * @throws ServiceUnavailableException if the read pool is saturated
+     */
+    @GetMapping(value = "/customers/{customerId}/spend", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE })
+    public CompletableFuture<ResponseEntity<SpendQuantilesDTO>> getCustomerSpend(@PathVariable Long customerId) {
+        return requestExecutors.read(() -> ResponseEntity.ok(analyticsService.getCustomerSpend(customerId)));
+    }
+
+    /**
+     * Exports this instance's month sketches, to be merged with other instances' exports.
+     *
+     * @param from the first month, formatted as yyyy-MM (inclusive)
+     * @param to the last month, formatted as yyyy-MM (inclusive)
+     * @return future ResponseEntity containing the Base64 encoded sketches keyed by yyyy-MM
+     * @throws CustomException if from is after to or the range is too long
+     * @throws ServiceUnavailableException if the read pool is saturated
+     */
+    @GetMapping("/spend/sketches")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> exportSpendSketches(
+            @RequestParam("from") @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam("to") @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        return requestExecutors.read(() -> ResponseEntity.ok(analyticsService.exportSpendSketches(from, to)));
+    }
+
+    /**
+     * Merges sketch exports from several instances into one spend distribution.
+     *
+     * @param exports the exports returned by /spend/sketches on each instance
+     * @return future ResponseEntity containing the merged distributions
+     * @throws CustomException if an export is malformed
+     * @throws ServiceUnavailableException if the read pool is saturated
+     */
+    @PostMapping("/spend/merge")
+    public CompletableFuture<ResponseEntity<SpendDistributionDTO>> mergeSpendSketches(
+            @RequestBody List<Map<String, String>> exports) {
+        return requestExecutors.read(() -> ResponseEntity.ok(analyticsService.mergeSpendSketches(exports)));
+    }
+}
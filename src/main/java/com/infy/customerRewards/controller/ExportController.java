@@ -0,0 +1,172 @@
+package com.infy.customerRewards.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.infy.customerRewards.config.RequestExecutors;
+import com.infy.customerRewards.dto.ExportJobDTO;
+import com.infy.customerRewards.exception.ServiceUnavailableException;
+import com.infy.customerRewards.export.ExportJobs;
+import com.infy.customerRewards.export.ExportRequest;
+import com.infy.customerRewards.export.TransactionExporter;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * REST Controller for bulk exports of transactions and monthly rewards, for data warehouses.
+ * Exports are streamed straight from a database cursor into a gzip-compressed response, or
+ * written to a file by a background job that can be resumed after a failure.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@RestController
+@RequestMapping("/api/rewards/export")
+public class ExportController {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private TransactionExporter exporter;
+
+    @Autowired
+    private ExportJobs exportJobs;
+
+    @Autowired
+    private RequestExecutors requestExecutors;
+
+    /**
+     * Streams an export as a gzip-compressed attachment.
+     * Runs on the servlet thread for as long as the export takes, outside the bounded pools and
+     * their request timeout; rewards.export.max-concurrent bounds how many run at once. To resume
+     * a cut-off download, drop the rows of the last customer received and ask again with
+     * afterCustomerId set to the customer before it.
+     *
+     * @param kind transactions, or rewards for one row per customer and month
+     * @param from the first transaction date, formatted as yyyy-MM-dd (inclusive)
+     * @param to the last transaction date, formatted as yyyy-MM-dd (inclusive)
+     * @param format csv (default) or ndjson
+     * @param afterCustomerId export only customers after this one
+     * @param response the servlet response written to
+     * @throws IOException if writing the response fails
+     * @throws CustomException if a parameter is invalid
+     * @throws ServiceUnavailableException if the maximum number of exports is already running
+     */
+    @GetMapping("/{kind}")
+    public void export(@PathVariable String kind,
+                       @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                       @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                       @RequestParam(value = "format", defaultValue = "csv") String format,
+                       @RequestParam(value = "afterCustomerId", required = false) Long afterCustomerId,
+                       HttpServletResponse response) throws IOException {
+        ExportRequest request = new ExportRequest(ExportRequest.Kind.of(kind), ExportRequest.Format.of(format),
+                from, to, afterCustomerId);
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(request.fileName()).build().toString());
+        GZIPOutputStream gzip = new GZIPOutputStream(response.getOutputStream(), BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            exporter.export(request, writer, null);
+        } catch (ServiceUnavailableException e) {
+            // Nothing written yet: let the error response go out without the attachment headers
+            response.reset();
+            throw e;
+        }
+        gzip.finish();
+        response.flushBuffer();
+    }
+
+    /**
+     * Starts a background export to a file.
+     *
+     * @param kind transactions or rewards
+     * @param from the first transaction date, formatted as yyyy-MM-dd (inclusive)
+     * @param to the last transaction date, formatted as yyyy-MM-dd (inclusive)
+     * @param format csv (default) or ndjson
+     * @param afterCustomerId export only customers after this one
+     * @return future ResponseEntity (202) containing the new job
+     * @throws CustomException if a parameter is invalid
+     * @throws ServiceUnavailableException if the write pool is saturated
+     */
+    @PostMapping("/jobs")
+    public CompletableFuture<ResponseEntity<ExportJobDTO>> startJob(
+            @RequestParam("kind") String kind,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "afterCustomerId", required = false) Long afterCustomerId) {
+        ExportRequest request = new ExportRequest(ExportRequest.Kind.of(kind), ExportRequest.Format.of(format),
+                from, to, afterCustomerId);
+        return requestExecutors.write(() -> ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobs.start(request)));
+    }
+
+    /**
+     * Retrieves the state of an export job.
+     *
+     * @param id the job ID
+     * @return future ResponseEntity containing the job
+     * @throws ResourceNotFoundException if there is no such job
+     * @throws ServiceUnavailableException if the read pool is saturated
+     */
+    @GetMapping("/jobs/{id}")
+    public CompletableFuture<ResponseEntity<ExportJobDTO>> getJob(@PathVariable Long id) {
+        return requestExecutors.read(() -> ResponseEntity.ok(exportJobs.get(id)));
+    }
+
+    /**
+     * Resumes a failed export job from its last checkpoint.
+     *
+     * @param id the job ID
+     * @return future ResponseEntity (202) containing the job
+     * @throws ResourceNotFoundException if there is no such job
+     * @throws CustomException if the job is running or completed
+     * @throws ServiceUnavailableException if the write pool is saturated
+     */
+    @PostMapping("/jobs/{id}/resume")
+    public CompletableFuture<ResponseEntity<ExportJobDTO>> resumeJob(@PathVariable Long id) {
+        return requestExecutors.write(() -> ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobs.resume(id)));
+    }
+
+    /**
+     * Downloads the output of a completed export job.
+     *
+     * @param id the job ID
+     * @return the gzip-compressed file, streamed from disk
+     * @throws ResourceNotFoundException if there is no such job
+     * @throws CustomException if the job has not completed
+     */
+    @GetMapping("/jobs/{id}/file")
+    public ResponseEntity<Resource> getJobFile(@PathVariable Long id) {
+        Path file = exportJobs.output(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+}
@@ -0,0 +1,87 @@
+package com.infy.customerRewards.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.infy.customerRewards.config.RequestExecutors;
+import com.infy.customerRewards.dto.RescoringStatusDTO;
+import com.infy.customerRewards.job.RewardRescoringJob;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST Controller for operating the reward re-scoring job: its progress, pausing and resuming
+ * it, and capping the rows it re-scores a second.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@RestController
+@RequestMapping("/api/rewards/rescoring")
+@ConditionalOnProperty(prefix = "rewards.rescoring", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RescoringController {
+
+    @Autowired
+    private RewardRescoringJob rescoringJob;
+
+    @Autowired
+    private RequestExecutors requestExecutors;
+
+    /**
+     * Retrieves the progress of the current re-scoring pass.
+     *
+     * @return future ResponseEntity containing the job status
+     * @throws ServiceUnavailableException if the read pool is saturated
+     */
+    @GetMapping
+    public CompletableFuture<ResponseEntity<RescoringStatusDTO>> getStatus() {
+        return requestExecutors.read(() -> ResponseEntity.ok(rescoringJob.status()));
+    }
+
+    /**
+     * Pauses re-scoring after the batches in progress; the pause survives restarts.
+     *
+     * @return future ResponseEntity (202) containing the job status
+     * @throws ServiceUnavailableException if the write pool is saturated
+     */
+    @PostMapping("/pause")
+    public CompletableFuture<ResponseEntity<RescoringStatusDTO>> pause() {
+        return requestExecutors.write(() -> ResponseEntity.status(HttpStatus.ACCEPTED).body(rescoringJob.pause()));
+    }
+
+    /**
+     * Resumes re-scoring from the last checkpoint.
+     *
+     * @return future ResponseEntity (202) containing the job status
+     * @throws CustomException if the job is shutting down
+     * @throws ServiceUnavailableException if the write pool is saturated
+     */
+    @PostMapping("/resume")
+    public CompletableFuture<ResponseEntity<RescoringStatusDTO>> resume() {
+        return requestExecutors.write(() -> ResponseEntity.status(HttpStatus.ACCEPTED).body(rescoringJob.resume()));
+    }
+
+    /**
+     * Caps the rows re-scored a second until restart, when rewards.rescoring.rows-per-second
+     * applies again.
+     *
+     * @param rowsPerSecond the new cap, 0 for none
+     * @return future ResponseEntity containing the job status
+     * @throws CustomException if the cap is negative
+     * @throws ServiceUnavailableException if the write pool is saturated
+     */
+    @PutMapping("/throttle")
+    public CompletableFuture<ResponseEntity<RescoringStatusDTO>> throttle(
+            @RequestParam("rowsPerSecond") double rowsPerSecond) {
+        return requestExecutors.write(() -> ResponseEntity.ok(rescoringJob.throttle(rowsPerSecond)));
+    }
+}
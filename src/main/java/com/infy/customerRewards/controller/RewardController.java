@@ -2,19 +2,27 @@ package com.infy.customerRewards.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.infy.customerRewards.config.RequestExecutors;
+import com.infy.customerRewards.config.WebConfig;
 import com.infy.customerRewards.dto.CustomerDTO;
 import com.infy.customerRewards.dto.CustomerResponseDTO;
+import com.infy.customerRewards.dto.CustomerSearchResultDTO;
 import com.infy.customerRewards.dto.RewardResponseDTO;
+import com.infy.customerRewards.dto.RewardView;
 import com.infy.customerRewards.dto.TransactionDTO;
 import com.infy.customerRewards.service.RewardService;
 
-import java.time.LocalDate; import java.util.List;
+import java.time.LocalDate; import java.util.List; import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller for handling customer rewards and transactions.
  * Provides endpoints for customer management, transaction retrieval, and reward calculations.
+ * Read endpoints answer in JSON by default and in CBOR or Smile when the Accept header asks for it.
+ * Work is handed to bounded read/write pools, so servlet threads are released while the database is busy
+ * and saturated pools answer 503 with Retry-After instead of queueing without limit.
  * 
  * @author Infy
  * @version 1.0
@@ -26,48 +34,117 @@ public class RewardController {
     
     @Autowired
     private RewardService rewardService;
+
+    @Autowired
+    private RequestExecutors requestExecutors;
     
     /**
      * Creates a new customer with their associated transactions.
      * 
      * @param customerDTO the customer data transfer object containing customer details and transactions
-     * @return ResponseEntity containing the created customer response with generated ID and rewards summary
+     * @return future ResponseEntity containing the created customer response with generated ID and rewards summary
      * @throws IllegalArgumentException if customer data is invalid
+     * @throws ServiceUnavailableException if the write pool is saturated
      */
     @PostMapping("/customers")
-    public ResponseEntity<CustomerResponseDTO> createCustomer(@RequestBody CustomerDTO customerDTO) {
-        CustomerResponseDTO response = rewardService.createCustomer(customerDTO);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<CustomerResponseDTO>> createCustomer(@RequestBody CustomerDTO customerDTO) {
+        return requestExecutors.write(() -> ResponseEntity.ok(rewardService.createCustomer(customerDTO)));
+    }
+    
+    /**
+     * Finds customers by part of their name, best matches first.
+     * 
+     * @param name the partial name, matched ignoring case, accents and punctuation
+     * @param limit the maximum number of results, 10 by default
+     * @return future ResponseEntity containing the matching customers
+     * @throws CustomException if the name has no letters or digits or the limit is out of range
+     * @throws ServiceUnavailableException if the search index is still loading or the read pool is saturated
+     */
+    @GetMapping("/customers/search")
+    public CompletableFuture<ResponseEntity<List<CustomerSearchResultDTO>>> searchCustomers(
+            @RequestParam("name") String name,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return requestExecutors.read(() -> ResponseEntity.ok(rewardService.searchCustomers(name, limit)));
+    }
+    
+    /**
+     * Ingests one transaction for an existing customer.
+     * With rewards.ingest.mode=write-behind the transaction is acknowledged once journaled and
+     * reaches the database shortly after, in a batch. A retry carrying the same Idempotency-Key
+     * header gets back the original transaction instead of adding another.
+     * 
+     * @param customerId the unique identifier of the customer
+     * @param idempotencyKey the optional Idempotency-Key header, up to 64 characters
+     * @param transactionDTO the transaction
+     * @return future ResponseEntity containing the transaction with its assigned ID and reward points
+     * @throws ResourceNotFoundException if no customer is found with the given ID (direct mode)
+     * @throws ServiceUnavailableException if the write pool or the ingestion buffer is saturated
+     */
+    @PostMapping("/customers/{customerId}/transactions")
+    public CompletableFuture<ResponseEntity<TransactionDTO>> addTransaction(@PathVariable Long customerId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody TransactionDTO transactionDTO) {
+        return requestExecutors.write(() ->
+                ResponseEntity.ok(rewardService.addTransaction(customerId, idempotencyKey, transactionDTO)));
+    }
+    
+    /**
+     * Releases a transaction held or flagged by the velocity rules, after review.
+     * 
+     * @param customerId the unique identifier of the customer
+     * @param transactionId the unique identifier of the transaction
+     * @return future ResponseEntity containing the transaction with the reward points it now earns
+     * @throws ResourceNotFoundException if the customer has no stored transaction with this ID
+     * @throws ServiceUnavailableException if the write pool is saturated
+     */
+    @PostMapping("/customers/{customerId}/transactions/{transactionId}/release")
+    public CompletableFuture<ResponseEntity<TransactionDTO>> releaseTransaction(@PathVariable Long customerId,
+            @PathVariable Long transactionId) {
+        return requestExecutors.write(() ->
+                ResponseEntity.ok(rewardService.releaseTransaction(customerId, transactionId)));
     }
     
     /**
      * Retrieves all transactions for a specific customer.
      * 
      * @param customerId the unique identifier of the customer
-     * @return ResponseEntity containing a list of transaction DTOs for the specified customer
+     * @return future ResponseEntity containing a list of transaction DTOs for the specified customer
      * @throws ResourceNotFoundException if no customer is found with the given ID
+     * @throws ServiceUnavailableException if the read pool is saturated
      */
-    @GetMapping("/customers/{customerId}/transactions")
-    public ResponseEntity<List<TransactionDTO>> getCustomerTransactions(@PathVariable Long customerId) {
-        return ResponseEntity.ok(rewardService.getCustomerTransactions(customerId));
+    @GetMapping(value = "/customers/{customerId}/transactions", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE })
+    public CompletableFuture<ResponseEntity<List<TransactionDTO>>> getCustomerTransactions(@PathVariable Long customerId) {
+        return requestExecutors.read(() -> ResponseEntity.ok(rewardService.getCustomerTransactions(customerId)));
     }
     
     /**
      * Calculates and retrieves rewards for a customer within a specified date range.
      * The rewards are calculated based on transactions that fall within the given timeframe.
+     * view=summary or a fields= list without transactions returns only the fields asked for, and
+     * the rewards are then summed in the database instead of read transaction by transaction.
      * 
      * @param customerId the unique identifier of the customer
      * @param startDate the start date of the period for reward calculation (inclusive)
      * @param endDate the end date of the period for reward calculation (inclusive)
-     * @return ResponseEntity containing the reward response with total points and monthly breakdown
+     * @param view full (the default) or summary, every field but the transactions
+     * @param fields comma-separated fields to return, instead of a view
+     * @return future ResponseEntity containing the reward response with total points and monthly breakdown
+     * @throws CustomException if both view and fields are given, or either names something unknown
      * @throws IllegalArgumentException if dates are invalid or startDate is after endDate
      * @throws ResourceNotFoundException if no customer is found with the given ID
+     * @throws ServiceUnavailableException if the read pool is saturated
      */
-    @GetMapping("/customers/{customerId}/rewards")
-    public ResponseEntity<RewardResponseDTO> getRewardsForCustomer(
+    @GetMapping(value = "/customers/{customerId}/rewards", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE })
+    public CompletableFuture<ResponseEntity<RewardResponseDTO>> getRewardsForCustomer(
             @PathVariable Long customerId,
             @RequestParam("startDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
-            @RequestParam("endDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
-        return ResponseEntity.ok(rewardService.getRewardsForCustomer(customerId, startDate, endDate));
+            @RequestParam("endDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @RequestParam(value = "view", required = false) String view,
+            @RequestParam(value = "fields", required = false) String fields) {
+        RewardView rewardView = RewardView.of(view, fields);
+        return requestExecutors.read(() ->
+                ResponseEntity.ok(rewardService.getRewardsForCustomer(customerId, startDate, endDate, rewardView)));
     }
 }
@@ -0,0 +1,72 @@
+package com.infy.customerRewards.datasource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write routing datasource configuration, active when rewards.datasource.routing.enabled=true.
+ * Connections are acquired lazily, so the transaction's read-only flag is known when the
+ * physical connection is chosen: read-only transactions go to the replica pool, everything
+ * else stays on the primary.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "rewards.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    /**
+     * Pool of replica datasources built from rewards.datasource.routing.replicas.
+     *
+     * @param routing the routing settings
+     * @return the replica pool
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaPool replicaPool(RoutingProperties routing) {
+        List<DataSource> replicas = routing.getReplicas().stream()
+                .map(replica -> (DataSource) DataSourceBuilder.create()
+                        .url(replica.getUrl())
+                        .username(replica.getUsername())
+                        .password(replica.getPassword())
+                        .build())
+                .toList();
+        return new ReplicaPool(replicas);
+    }
+
+    /**
+     * Application datasource routing read-only transactions to replicas.
+     *
+     * @param dataSourceProperties the primary settings from spring.datasource.*
+     * @param replicaPool the replica pool
+     * @return the routing datasource
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaPool replicaPool) {
+        return routingDataSource(dataSourceProperties.initializeDataSourceBuilder().build(), replicaPool);
+    }
+
+    /**
+     * Wraps a primary datasource so read-only connections are served by the replica pool.
+     *
+     * @param primary the primary datasource
+     * @param replicaPool the replica pool
+     * @return the routing datasource
+     */
+    public static DataSource routingDataSource(DataSource primary, ReplicaPool replicaPool) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replicaPool));
+        return proxy;
+    }
+}
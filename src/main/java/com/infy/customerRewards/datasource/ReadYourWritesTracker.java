@@ -0,0 +1,78 @@
+package com.infy.customerRewards.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Component giving customers read-your-writes consistency while reads go to replicas.
+ * After a write, reads for the same customer are pinned to the primary for a configurable
+ * window, long enough for replication to catch up. A zero window disables pinning.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final long windowMillis;
+    private final ConcurrentHashMap<Long, Long> lastWrite = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the tracker.
+     *
+     * @param window how long reads stay on the primary after a write
+     */
+    public ReadYourWritesTracker(@Value("${rewards.datasource.routing.read-your-writes-window:0s}") Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    /**
+     * Records a write for a customer.
+     *
+     * @param customerId the unique identifier of the customer that was written
+     */
+    public void recordWrite(Long customerId) {
+        if (windowMillis > 0 && customerId != null) {
+            lastWrite.put(customerId, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Pins the current transaction's reads to the primary if the customer was written recently.
+     * Must be called inside a transaction; the pin is released when the transaction completes.
+     *
+     * @param customerId the unique identifier of the customer being read
+     */
+    public void routeReads(Long customerId) {
+        if (windowMillis == 0 || customerId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Long writtenAt = lastWrite.get(customerId);
+        if (writtenAt == null || System.currentTimeMillis() - writtenAt > windowMillis) {
+            return;
+        }
+        RoutingContext.pinPrimary();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                RoutingContext.clear();
+            }
+        });
+    }
+
+    /**
+     * Forgets writes older than the window.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        lastWrite.values().removeIf(writtenAt -> writtenAt < cutoff);
+    }
+}
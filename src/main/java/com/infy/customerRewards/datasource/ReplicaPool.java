@@ -0,0 +1,108 @@
+package com.infy.customerRewards.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+/**
+ * Health-aware round-robin pool of read replica datasources.
+ * Replicas that fail a health check or a connection attempt are skipped until a later
+ * health check finds them valid again.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class ReplicaPool {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final List<DataSource> replicas;
+    private final AtomicIntegerArray healthy;
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * Constructs the pool with all replicas considered healthy.
+     *
+     * @param replicas the replica datasources
+     */
+    public ReplicaPool(List<DataSource> replicas) {
+        this.replicas = List.copyOf(replicas);
+        this.healthy = new AtomicIntegerArray(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            healthy.set(i, 1);
+        }
+    }
+
+    /**
+     * Opens a connection on the next healthy replica in round-robin order.
+     * A replica whose connection attempt fails is marked down and the next one is tried.
+     *
+     * @return a replica connection, or null if no replica is available
+     */
+    public Connection nextConnection() {
+        int size = replicas.size();
+        long start = cursor.getAndIncrement();
+        for (int attempt = 0; attempt < size; attempt++) {
+            int index = (int) ((start + attempt) % size);
+            if (healthy.get(index) == 0) {
+                continue;
+            }
+            try {
+                return replicas.get(index).getConnection();
+            } catch (SQLException e) {
+                healthy.set(index, 0);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Validates every replica and updates its health flag.
+     */
+    @Scheduled(fixedDelayString = "${rewards.datasource.routing.health-check-interval:10s}")
+    public void checkHealth() {
+        for (int i = 0; i < replicas.size(); i++) {
+            healthy.set(i, isValid(replicas.get(i)) ? 1 : 0);
+        }
+    }
+
+    /**
+     * Gets the number of replicas currently considered healthy.
+     * @return the healthy replica count
+     */
+    public int healthyCount() {
+        int count = 0;
+        for (int i = 0; i < healthy.length(); i++) {
+            count += healthy.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Closes the replica datasources that hold resources such as connection pools.
+     *
+     * @throws Exception if a datasource fails to close
+     */
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static boolean isValid(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
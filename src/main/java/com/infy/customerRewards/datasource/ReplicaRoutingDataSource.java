@@ -0,0 +1,51 @@
+package com.infy.customerRewards.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+/**
+ * Datasource used for read-only transactions.
+ * Hands out replica connections from the ReplicaPool, and falls back to the primary when
+ * the current thread is pinned to it (read-your-writes) or when no replica is healthy.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReplicaPool replicas;
+
+    /**
+     * Constructs the read datasource.
+     *
+     * @param primary the primary datasource used as fallback
+     * @param replicas the replica pool
+     */
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaPool replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!RoutingContext.isPrimaryPinned()) {
+            Connection connection = replicas.nextConnection();
+            if (connection != null) {
+                connection.setReadOnly(true);
+                return connection;
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Routing datasource uses the configured credentials");
+    }
+}
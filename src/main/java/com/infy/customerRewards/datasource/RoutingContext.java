@@ -0,0 +1,40 @@
+package com.infy.customerRewards.datasource;
+
+/**
+ * Thread-bound routing hints for the datasource layer.
+ * When the primary is pinned, read-only work on the current thread is served by the
+ * primary instead of a replica.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    /**
+     * Routes the current thread's reads to the primary.
+     */
+    public static void pinPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    /**
+     * Tells whether the current thread's reads must go to the primary.
+     * @return true if pinned to the primary
+     */
+    public static boolean isPrimaryPinned() {
+        return PRIMARY_PINNED.get() != null;
+    }
+
+    /**
+     * Clears all routing hints of the current thread.
+     */
+    public static void clear() {
+        PRIMARY_PINNED.remove();
+    }
+}
@@ -0,0 +1,40 @@
+package com.infy.customerRewards.datasource;
+
+/**
+ * Thread-bound shard selection for the sharded datasource.
+ * Work on a thread without a bound shard runs against shard 0.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Binds the current thread to a shard.
+     * @param shard the shard index
+     */
+    public static void bind(int shard) {
+        SHARD.set(shard);
+    }
+
+    /**
+     * Gets the shard bound to the current thread.
+     * @return the shard index, or null if none is bound
+     */
+    public static Integer current() {
+        return SHARD.get();
+    }
+
+    /**
+     * Unbinds the current thread from its shard.
+     */
+    public static void clear() {
+        SHARD.remove();
+    }
+}
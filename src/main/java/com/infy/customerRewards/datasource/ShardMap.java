@@ -0,0 +1,128 @@
+package com.infy.customerRewards.datasource;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps customer IDs to shards through a fixed number of logical buckets.
+ * A customer ID hashes to a bucket, and each bucket is owned by exactly one shard, so the ID
+ * alone tells which shard holds the customer, and moving a bucket to another shard only
+ * changes this map, not the IDs.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class ShardMap {
+
+    private final int[] bucketToShard;
+    private final int shardCount;
+
+    /**
+     * Constructs the map from a bucket-to-shard table.
+     *
+     * @param bucketToShard the owning shard of every bucket, indexed by bucket
+     * @throws IllegalArgumentException if the table is empty or a shard owns no bucket
+     */
+    public ShardMap(int[] bucketToShard) {
+        if (bucketToShard.length == 0) {
+            throw new IllegalArgumentException("Shard map needs at least one bucket");
+        }
+        int shards = Arrays.stream(bucketToShard).max().getAsInt() + 1;
+        boolean[] owning = new boolean[shards];
+        for (int bucket = 0; bucket < bucketToShard.length; bucket++) {
+            if (bucketToShard[bucket] < 0) {
+                throw new IllegalArgumentException("Bucket " + bucket + " is not assigned to a shard");
+            }
+            owning[bucketToShard[bucket]] = true;
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            if (!owning[shard]) {
+                throw new IllegalArgumentException("Shard " + shard + " owns no bucket");
+            }
+        }
+        this.bucketToShard = bucketToShard.clone();
+        this.shardCount = shards;
+    }
+
+    /**
+     * Builds the map from per-shard bucket ranges such as "0-31" or "0-7,16-23".
+     *
+     * @param buckets the total number of buckets
+     * @param ranges the bucket ranges owned by each shard, indexed by shard
+     * @return the shard map
+     * @throws IllegalArgumentException if a bucket is unassigned, assigned twice or out of range
+     */
+    public static ShardMap fromRanges(int buckets, List<String> ranges) {
+        int[] table = new int[buckets];
+        Arrays.fill(table, -1);
+        for (int shard = 0; shard < ranges.size(); shard++) {
+            for (String range : ranges.get(shard).split(",")) {
+                String[] bounds = range.trim().split("-");
+                int from = Integer.parseInt(bounds[0].trim());
+                int to = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : from;
+                for (int bucket = from; bucket <= to; bucket++) {
+                    if (bucket < 0 || bucket >= buckets) {
+                        throw new IllegalArgumentException("Bucket " + bucket + " is out of range 0-" + (buckets - 1));
+                    }
+                    if (table[bucket] >= 0) {
+                        throw new IllegalArgumentException("Bucket " + bucket + " is assigned to shards "
+                                + table[bucket] + " and " + shard);
+                    }
+                    table[bucket] = shard;
+                }
+            }
+        }
+        return new ShardMap(table);
+    }
+
+    /**
+     * Gets the bucket a customer ID hashes to.
+     * The ID is mixed first (murmur3 finalizer), so time-ordered IDs whose low bits repeat
+     * still spread evenly over the buckets.
+     *
+     * @param customerId the unique identifier of the customer
+     * @return the bucket
+     */
+    public int bucketOf(long customerId) {
+        long hash = customerId;
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, (long) bucketToShard.length);
+    }
+
+    /**
+     * Gets the shard holding a customer.
+     * @param customerId the unique identifier of the customer
+     * @return the shard index
+     */
+    public int shardOf(long customerId) {
+        return bucketToShard[bucketOf(customerId)];
+    }
+
+    /**
+     * Gets the owning shard of a bucket.
+     * @param bucket the bucket
+     * @return the shard index
+     */
+    public int shardForBucket(int bucket) {
+        return bucketToShard[bucket];
+    }
+
+    /**
+     * Gets the number of shards.
+     * @return the shard count
+     */
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Gets the number of buckets.
+     * @return the bucket count
+     */
+    public int bucketCount() {
+        return bucketToShard.length;
+    }
+}
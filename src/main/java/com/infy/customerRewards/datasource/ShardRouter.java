@@ -0,0 +1,192 @@
+package com.infy.customerRewards.datasource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Component routing service work to shards when sharded storage is enabled.
+ * Per-customer work is bound to the one shard owning the customer; cross-customer work fans
+ * out to every shard in parallel and the per-shard results are handed back for merging.
+ * Without a ShardMap every method degrades to running against the single datasource.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class ShardRouter {
+
+    private final ShardMap shardMap;
+    private final ExecutorService fanOutExecutor;
+
+    /**
+     * Constructs the router from the optional ShardMap bean.
+     *
+     * @param shardMap the shard map, present only when sharding is enabled
+     */
+    @Autowired
+    public ShardRouter(ObjectProvider<ShardMap> shardMap) {
+        this(shardMap.getIfAvailable());
+    }
+
+    /**
+     * Constructs the router.
+     *
+     * @param shardMap the shard map, or null when storage is not sharded
+     */
+    public ShardRouter(ShardMap shardMap) {
+        this.shardMap = shardMap;
+        this.fanOutExecutor = shardMap == null ? null
+                : Executors.newFixedThreadPool(shardMap.shardCount(), new CustomizableThreadFactory("rewards-shard-"));
+    }
+
+    /**
+     * Tells whether storage is sharded.
+     * @return true if a shard map is configured
+     */
+    public boolean isEnabled() {
+        return shardMap != null;
+    }
+
+    /**
+     * Gets the number of shards.
+     * @return the shard count, 1 when storage is not sharded
+     */
+    public int shardCount() {
+        return shardMap != null ? shardMap.shardCount() : 1;
+    }
+
+    /**
+     * Gets the shard owning a customer, for grouping per-customer work by shard.
+     *
+     * @param customerId the unique identifier of the customer
+     * @return the shard index, always 0 when storage is not sharded
+     */
+    public int shardOf(Long customerId) {
+        return shardMap != null && customerId != null ? shardMap.shardOf(customerId) : 0;
+    }
+
+    /**
+     * Binds the current transaction to the shard owning a customer.
+     * Must be called inside a transaction before its first statement; the binding is released
+     * when the transaction completes. For a new customer, call it once persisting has assigned
+     * the ID and before the insert is flushed.
+     *
+     * @param customerId the unique identifier of the customer
+     */
+    public void bindCustomer(Long customerId) {
+        if (shardMap != null && customerId != null) {
+            bindTransaction(shardMap.shardOf(customerId));
+        }
+    }
+
+    /**
+     * Binds the current transaction to one shard, for work that walks the shards in turn.
+     * Same rules as bindCustomer.
+     *
+     * @param shard the shard index
+     */
+    public void bindShard(int shard) {
+        if (shardMap != null) {
+            bindTransaction(shard);
+        }
+    }
+
+    /**
+     * Runs work on the current thread against the shard owning a customer, for work outside a
+     * transaction (each repository call then opens its own).
+     *
+     * @param customerId the unique identifier of the customer
+     * @param work the work
+     * @param <T> the result type
+     * @return the result of the work
+     */
+    public <T> T onCustomer(Long customerId, Supplier<T> work) {
+        if (shardMap == null || customerId == null) {
+            return work.get();
+        }
+        Integer previous = ShardContext.current();
+        ShardContext.bind(shardMap.shardOf(customerId));
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                ShardContext.bind(previous);
+            } else {
+                ShardContext.clear();
+            }
+        }
+    }
+
+    /**
+     * Runs work on every shard in parallel, each call on a thread bound to its shard.
+     * The work must open its own transactions (repository calls do).
+     *
+     * @param work the per-shard work, given the shard index
+     * @param <T> the per-shard result type
+     * @return the per-shard results, indexed by shard
+     */
+    public <T> List<T> fanOut(IntFunction<T> work) {
+        if (shardMap == null) {
+            return Collections.singletonList(work.apply(0));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardMap.shardCount());
+        for (int shard = 0; shard < shardMap.shardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                ShardContext.bind(target);
+                try {
+                    return work.apply(target);
+                } finally {
+                    ShardContext.clear();
+                }
+            }, fanOutExecutor));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stops the fan-out threads.
+     */
+    @PreDestroy
+    public void close() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdown();
+        }
+    }
+
+    private static void bindTransaction(int shard) {
+        ShardContext.bind(shard);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ShardContext.clear();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.infy.customerRewards.datasource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+/**
+ * Sharded storage configuration, active when rewards.datasource.sharding.enabled=true.
+ * Replaces spring.datasource.* with one datasource per shard behind a routing datasource.
+ * Connections are acquired lazily, so the service can bind the customer's shard after the
+ * transaction has started but before its first statement.
+ * Not meant to be combined with read/write replica routing.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "rewards.datasource.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    /**
+     * Bucket-to-shard map built from rewards.datasource.sharding.*.
+     *
+     * @param sharding the sharding settings
+     * @return the shard map
+     */
+    @Bean
+    public ShardMap shardMap(ShardingProperties sharding) {
+        return sharding.toShardMap();
+    }
+
+    /**
+     * Application datasource routing each connection to the bound shard.
+     *
+     * @param sharding the sharding settings
+     * @return the sharded datasource
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardingProperties sharding) {
+        List<DataSource> shards = sharding.getShards().stream()
+                .map(shard -> (DataSource) DataSourceBuilder.create()
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .build())
+                .toList();
+        return shardedDataSource(shards);
+    }
+
+    /**
+     * Wraps shard datasources so each transaction uses the shard bound when it first touches the database.
+     *
+     * @param shards the shard datasources, indexed by shard
+     * @return the sharded datasource
+     */
+    public static DataSource shardedDataSource(List<DataSource> shards) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+    }
+}
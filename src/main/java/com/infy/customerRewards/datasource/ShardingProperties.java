@@ -0,0 +1,98 @@
+package com.infy.customerRewards.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharded storage settings bound from the rewards.datasource.sharding.* properties.
+ * Each shard lists its connection settings and the buckets it owns; together the shards
+ * must cover every bucket exactly once.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@ConfigurationProperties(prefix = "rewards.datasource.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+    private int buckets = 64;
+    private List<Shard> shards = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(int buckets) {
+        this.buckets = buckets;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Builds the shard map described by these settings.
+     * @return the shard map
+     */
+    public ShardMap toShardMap() {
+        return ShardMap.fromRanges(buckets, shards.stream().map(Shard::getBuckets).toList());
+    }
+
+    /**
+     * Connection settings and bucket ranges of one shard.
+     */
+    public static class Shard {
+
+        private String url;
+        private String username;
+        private String password;
+        private String buckets;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(String buckets) {
+            this.buckets = buckets;
+        }
+    }
+}
@@ -107,7 +107,12 @@ public class CustomerResponseDTO {
          * @return the fully constructed CustomerResponseDTO
          */
         public CustomerResponseDTO build() {
-            return new CustomerResponseDTO();
+            CustomerResponseDTO dto = new CustomerResponseDTO();
+            dto.setId(id);
+            dto.setCustName(custName);
+            dto.setPhoneNo(phoneNo);
+            dto.setTransactions(transactions);
+            return dto;
         }
     }
 
@@ -0,0 +1,27 @@
+package com.infy.customerRewards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for one customer found by a name search.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSearchResultDTO {
+
+    private Long id;
+
+    private String custName;
+
+    /** EXACT, PREFIX, WORD_PREFIX or SUBSTRING, best first. */
+    private String match;
+}
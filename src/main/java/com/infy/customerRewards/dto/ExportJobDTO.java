@@ -0,0 +1,56 @@
+package com.infy.customerRewards.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object for the state of a background bulk export.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobDTO {
+
+    /** Job identifier. */
+    private Long id;
+
+    /** Rows exported: TRANSACTIONS or REWARDS. */
+    private String kind;
+
+    /** Output format: CSV or NDJSON. */
+    private String format;
+
+    /** First transaction date (inclusive). */
+    private LocalDate from;
+
+    /** Last transaction date (inclusive). */
+    private LocalDate to;
+
+    /** RUNNING, COMPLETED or FAILED. */
+    private String state;
+
+    /** Rows written up to the last checkpoint, or in total once completed. */
+    private long rows;
+
+    /** Last customer fully written at the last checkpoint; a resumed job continues after it. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long lastCustomerId;
+
+    /** Name of the gzip-compressed output file. */
+    private String file;
+
+    /** Why the job failed. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+}
@@ -0,0 +1,38 @@
+package com.infy.customerRewards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for one month of program-wide analytics, across all customers.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyProgramStatsDTO {
+
+    /** The month, formatted as YYYY-MM. */
+    private String month;
+
+    /** Number of transactions dated in the month. */
+    private long transactions;
+
+    /** Reward points earned by those transactions. */
+    private long pointsIssued;
+
+    /** Sum of the transaction amounts. */
+    private double totalSpend;
+
+    /** Average transaction amount, 0 when the month has no transactions. */
+    private double averageSpend;
+
+    /** True once the month has ended; its figures are then final and served from cache. */
+    private boolean closed;
+}
@@ -1,6 +1,8 @@
 package com.infy.customerRewards.dto;
 
-import lombok.Builder;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+
 import lombok.Data;
 
 /**
@@ -12,7 +14,7 @@ import lombok.Data;
  * @since 2024
  */
 @Data
-@Builder
+@JsonDeserialize(builder = MonthlyRewardDTO.Builder.class)
 public class MonthlyRewardDTO {
     private Integer year;
     private String month;
@@ -31,6 +33,7 @@ public class MonthlyRewardDTO {
     public Integer getPoints() { return points; }
 
     // Builder class
+    @JsonPOJOBuilder(withPrefix = "")
     public static class Builder {
         private Integer year;
         private String month;
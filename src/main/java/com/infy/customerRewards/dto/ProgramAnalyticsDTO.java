@@ -0,0 +1,44 @@
+package com.infy.customerRewards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for program-wide analytics over a range of months.
+ * Contains one entry per month, including months without transactions, and the range totals.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgramAnalyticsDTO {
+
+    /** First month of the range, formatted as YYYY-MM. */
+    private String from;
+
+    /** Last month of the range (inclusive), formatted as YYYY-MM. */
+    private String to;
+
+    /** Per-month figures in calendar order. */
+    private List<MonthlyProgramStatsDTO> months;
+
+    /** Number of transactions in the range. */
+    private long totalTransactions;
+
+    /** Reward points earned in the range. */
+    private long totalPointsIssued;
+
+    /** Sum of the transaction amounts in the range. */
+    private double totalSpend;
+
+    /** Average transaction amount over the range, 0 when there are no transactions. */
+    private double averageSpend;
+}
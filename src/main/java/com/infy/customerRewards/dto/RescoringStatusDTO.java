@@ -0,0 +1,38 @@
+package com.infy.customerRewards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the progress of the reward re-scoring job.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RescoringStatusDTO {
+
+    /** IDLE, RUNNING, PAUSED, STANDBY (another instance holds the lease) or COMPLETED. */
+    private String state;
+
+    /** Rule version the current pass scores to. */
+    private int ruleVersion;
+
+    /** Customer-ID ranges of the current pass, over all shards. */
+    private int ranges;
+
+    /** Ranges walked to their end. */
+    private int rangesCompleted;
+
+    /** Transactions re-scored by the current pass. */
+    private long rows;
+
+    /** Rows a second the workers may re-score together, 0 for no cap. */
+    private double rowsPerSecond;
+}
@@ -3,6 +3,9 @@ package com.infy.customerRewards.dto;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import lombok.Builder;
 import lombok.Data;
 
@@ -13,6 +16,8 @@ import java.util.Map;
  * Data Transfer Object for customer reward response.
  * Contains comprehensive reward information including structured monthly breakdown,
  * transaction details, and reward calculations for a specific time period.
+ * Fields left out of the caller's view are null and not written to the response; fields of the
+ * view are written even when null.
  * @author Infy
  * @version 1.0
  * @since 2024
@@ -26,6 +31,7 @@ public class RewardResponseDTO {
     private List<MonthlyRewardDTO> monthlyRewards;
     private Integer totalRewards;
     private Map<String, String> timeFrame;
+    private RewardView view;
 
     /**
      * Default constructor.
@@ -46,6 +52,7 @@ public class RewardResponseDTO {
         this.monthlyRewards = builder.monthlyRewards;
         this.totalRewards = builder.totalRewards;
         this.timeFrame = builder.timeFrame;
+        this.view = builder.view;
     }
 
     // GETTER METHODS
@@ -106,6 +113,15 @@ public class RewardResponseDTO {
         return timeFrame; 
     }
 
+    /**
+     * Gets the fields the caller asked for.
+     * @return the view of the response, null for every field
+     */
+    @JsonIgnore
+    public RewardView getView() {
+        return view;
+    }
+
     // SETTER METHODS
 
     /**
@@ -145,6 +161,7 @@ public class RewardResponseDTO {
      * Sets the structured monthly rewards breakdown.
      * @param monthlyRewards the list of monthly reward DTOs to set
      */
+    @JsonProperty
     public void setMonthlyRewards(List<MonthlyRewardDTO> monthlyRewards) {
         this.monthlyRewards = monthlyRewards;
     }
@@ -165,6 +182,15 @@ public class RewardResponseDTO {
         this.timeFrame = timeFrame;
     }
 
+    /**
+     * Sets the fields the caller asked for.
+     * @param view the view of the response, null for every field
+     */
+    @JsonIgnore
+    public void setView(RewardView view) {
+        this.view = view;
+    }
+
     /**
      * Builder class for constructing RewardResponseDTO instances using the builder pattern.
      * Provides a fluent interface for setting properties and building the DTO.
@@ -178,6 +204,7 @@ public class RewardResponseDTO {
         private List<MonthlyRewardDTO> monthlyRewards;
         private Integer totalRewards;
         private Map<String, String> timeFrame;
+        private RewardView view;
 
         /**
          * Sets the customer ID.
@@ -251,6 +278,16 @@ public class RewardResponseDTO {
             return this;
         }
 
+        /**
+         * Sets the fields the caller asked for.
+         * @param view the view of the response
+         * @return the builder instance for method chaining
+         */
+        public Builder view(RewardView view) {
+            this.view = view;
+            return this;
+        }
+
         /**
          * Builds and returns the RewardResponseDTO instance with the configured properties.
          * @return the fully constructed RewardResponseDTO
@@ -270,7 +307,9 @@ public class RewardResponseDTO {
 
     /**
      * Default setMonthlyRewards to write test cases
+     * Ignored by Jackson so binary and JSON clients deserialize through the List setter.
      */
+	@JsonIgnore
 	public void setMonthlyRewards(Map<String, Integer> of) {
 		// TODO Auto-generated method stub
 		
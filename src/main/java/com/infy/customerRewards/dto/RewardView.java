@@ -0,0 +1,81 @@
+package com.infy.customerRewards.dto;
+
+import com.infy.customerRewards.exception.CustomException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The fields of a RewardResponseDTO a caller asked for, by view=full|summary or by a
+ * comma-separated fields= list of its property names. Fields left out are not computed: without
+ * transactions the rewards are read as monthly sums instead of row by row.
+ *
+ * @param fields the property names to return
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public record RewardView(Set<String> fields) {
+
+    /** Property names of RewardResponseDTO, in response order. */
+    public static final List<String> FIELDS = List.of("customerId", "custName", "phoneNo", "transactions",
+            "monthlyRewards", "totalRewards", "timeFrame");
+
+    /** Every field, the default. */
+    public static final RewardView FULL = new RewardView(Set.copyOf(FIELDS));
+
+    /** Every field but the transactions. */
+    public static final RewardView SUMMARY = new RewardView(Set.copyOf(
+            FIELDS.stream().filter(field -> !field.equals("transactions")).toList()));
+
+    /**
+     * Parses the view or field list of a request.
+     *
+     * @param view full or summary, ignoring case, or null
+     * @param fields comma-separated property names, or null
+     * @return the requested fields, FULL when neither parameter is given
+     * @throws CustomException if both are given, or a view or field name is unknown
+     */
+    public static RewardView of(String view, String fields) {
+        if (view != null && fields != null) {
+            throw new CustomException("Use either view or fields, not both");
+        }
+        if (fields != null) {
+            Set<String> names = new LinkedHashSet<>();
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (!FIELDS.contains(name)) {
+                    throw new CustomException("Unknown field '" + name + "', expected any of " + FIELDS);
+                }
+                names.add(name);
+            }
+            return new RewardView(Set.copyOf(names));
+        }
+        if (view == null) {
+            return FULL;
+        }
+        return switch (view.toLowerCase(Locale.ROOT)) {
+            case "full" -> FULL;
+            case "summary" -> SUMMARY;
+            default -> throw new CustomException("Unknown view '" + view + "', expected full or summary");
+        };
+    }
+
+    /**
+     * @param field a property name of RewardResponseDTO
+     * @return whether the field is returned
+     */
+    public boolean includes(String field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * @return whether the transactions themselves are needed, not just their monthly sums
+     */
+    public boolean needsTransactions() {
+        return includes("transactions");
+    }
+}
@@ -0,0 +1,29 @@
+package com.infy.customerRewards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the spend distribution over a range of months: the merged
+ * distribution of the whole range and one entry per month, in calendar order.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendDistributionDTO {
+
+    /** Distribution of every amount in the range. */
+    private SpendQuantilesDTO total;
+
+    /** Per-month distributions. */
+    private List<SpendQuantilesDTO> months;
+}
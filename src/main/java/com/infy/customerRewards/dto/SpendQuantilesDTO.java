@@ -0,0 +1,43 @@
+package com.infy.customerRewards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the distribution of transaction amounts over one scope:
+ * a month (YYYY-MM), a range of months (YYYY-MM..YYYY-MM) or a customer (customer:ID).
+ * Quantiles come from a sketch and are approximate; all values are 0 when count is 0.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendQuantilesDTO {
+
+    /** What the figures cover. */
+    private String scope;
+
+    /** Number of transaction amounts in the sketch. */
+    private long count;
+
+    /** Smallest amount. */
+    private double min;
+
+    /** Median amount. */
+    private double p50;
+
+    /** 90th percentile amount. */
+    private double p90;
+
+    /** 99th percentile amount. */
+    private double p99;
+
+    /** Largest amount. */
+    private double max;
+}
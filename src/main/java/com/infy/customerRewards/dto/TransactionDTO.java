@@ -2,6 +2,9 @@ package com.infy.customerRewards.dto;
 
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.infy.customerRewards.entity.ReviewStatus;
+
 import lombok.Data;
 
 @Data
@@ -11,6 +14,8 @@ public class TransactionDTO {
 	private Double amount;
 	private String product;
 	private int rewardPoints;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private ReviewStatus reviewStatus;
 	
 	public LocalDate getDate() {
 		return date;
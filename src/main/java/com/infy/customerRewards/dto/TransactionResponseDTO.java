@@ -2,6 +2,9 @@ package com.infy.customerRewards.dto;
 
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.infy.customerRewards.entity.ReviewStatus;
+
 import lombok.Data;
 
 @Data
@@ -10,5 +13,7 @@ public class TransactionResponseDTO {
     private String product;
     private Double amount;
     private LocalDate date;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ReviewStatus reviewStatus;
 
 }
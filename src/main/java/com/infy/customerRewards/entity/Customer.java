@@ -2,12 +2,18 @@ package com.infy.customerRewards.entity;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.*;
 import lombok.Data;
 
 /**
  * Entity class representing a customer in the rewards system.
  * Stores customer information and maintains a one-to-many relationship with transactions.
+ * Held in the second-level cache when it is enabled (see EntityCacheConfig); its
+ * transactions collection is not cached.
  * 
  * @author Infy
  * @version 1.0
@@ -16,14 +22,16 @@ import lombok.Data;
 @Data
 @Entity
 @Table(name = "customers")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Customer {
 	
 	/**
      * Unique identifier for the customer.
-     * Automatically generated by the database using identity strategy.
+     * Assigned by the application before insert from a time-ordered generator,
+     * so inserts can be batched and keys grow roughly in creation order.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
     
     /**
@@ -37,6 +45,10 @@ public class Customer {
      * Used as contact information and potentially for authentication.
      */
     private String phoneNo;
+
+    @ColumnDefault("0")
+    @Column(name = "data_version", nullable = false, updatable = false)
+    private long dataVersion;
     
     /**
      * List of transactions associated with this customer.
@@ -0,0 +1,36 @@
+package com.infy.customerRewards.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Entity class representing a lease on a background job, so that only one instance runs it
+ * at a time. An instance holds the lease while it keeps renewing it before it expires.
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Data
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+
+    /**
+     * Name of the job the lease is for.
+     */
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /**
+     * Instance holding the lease.
+     */
+    @Column(length = 64, nullable = false)
+    private String owner;
+
+    /**
+     * Epoch milliseconds after which the lease is free to be taken.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+}
@@ -0,0 +1,18 @@
+package com.infy.customerRewards.entity;
+
+/**
+ * Review state of a transaction set by the velocity rules when it was written.
+ * Transactions that tripped no rule have no status.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public enum ReviewStatus {
+
+    /** Points awarded; the transaction is marked for review. */
+    FLAGGED,
+
+    /** Points stored but not awarded until the transaction is released, which clears its status. */
+    HELD
+}
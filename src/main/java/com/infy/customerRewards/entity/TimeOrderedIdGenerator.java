@@ -0,0 +1,59 @@
+package com.infy.customerRewards.entity;
+
+import java.lang.reflect.Member;
+import java.time.Duration;
+import java.util.EnumSet;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import com.infy.customerRewards.utility.IdGenerator;
+import com.infy.customerRewards.utility.SnowflakeIdGenerator;
+
+/**
+ * Hibernate identifier generator behind TimeOrderedId.
+ * IDs are assigned in memory when the entity is persisted, so inserts need no round trip to
+ * learn the key and can be batched. The IdGenerator is taken from the Hibernate setting
+ * rewards.id.generator, which the application fills with its IdGenerator bean; without one a
+ * generator for node 0 is used.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    /** Hibernate setting holding the IdGenerator instance. */
+    public static final String ID_GENERATOR_SETTING = "rewards.id.generator";
+
+    private static final IdGenerator FALLBACK = new SnowflakeIdGenerator(0, Duration.ofSeconds(5));
+
+    private final IdGenerator idGenerator;
+
+    /**
+     * Constructs the generator for one identifier.
+     *
+     * @param config the annotation on the identifier
+     * @param member the annotated field or getter
+     * @param context the Hibernate creation context
+     */
+    public TimeOrderedIdGenerator(TimeOrderedId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object configured = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(ID_GENERATOR_SETTING);
+        this.idGenerator = configured instanceof IdGenerator generator ? generator : FALLBACK;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return idGenerator.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
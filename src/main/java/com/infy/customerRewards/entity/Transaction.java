@@ -2,6 +2,8 @@ package com.infy.customerRewards.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.time.LocalDate;
 
@@ -15,15 +17,20 @@ import java.time.LocalDate;
  */
 @Data
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_customer_date_points", columnList = "customer_id, date, reward_points, rule_version, review_status"),
+        @Index(name = "idx_transactions_rule_version", columnList = "rule_version"),
+        @Index(name = "idx_transactions_date", columnList = "date, amount, reward_points, rule_version"),
+        @Index(name = "uk_transactions_idempotency_key", columnList = "customer_id, idempotency_key", unique = true) })
 public class Transaction {
     
     /**
      * Unique identifier for the transaction.
-     * Automatically generated by the database using identity strategy.
+     * Assigned by the application before insert from a time-ordered generator,
+     * so inserts can be batched and keys grow roughly in creation order.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
     
     /**
@@ -44,11 +51,43 @@ public class Transaction {
      */
     private Double amount;
 
+    /**
+     * Reward points earned by this transaction, computed once when it is written.
+     * Only valid for the rule version stored alongside; null until the row is scored.
+     */
+    @Column(name = "reward_points")
+    private Integer rewardPoints;
+
+    /**
+     * Version of the reward rules that produced rewardPoints.
+     * Rows scored under an older version are re-scored in the background.
+     */
+    @Column(name = "rule_version")
+    private Integer ruleVersion;
+
+    /**
+     * Review state set by the velocity rules when the transaction was written, null if clear.
+     * Held transactions earn no points.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "review_status", length = 16)
+    private ReviewStatus reviewStatus;
+
+    /**
+     * Key supplied by the client that submitted the transaction, unique per customer, so a
+     * retried submission is recognised instead of stored twice. Null if none was supplied.
+     */
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
     /**
      * Customer who made this transaction.
      * Maintains bidirectional relationship with Customer entity.
      * Uses lazy fetching for performance optimization.
+     * Excluded from toString/equals/hashCode to avoid cycling back through Customer.
      */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
@@ -117,6 +156,70 @@ public class Transaction {
         this.amount = amount;
     }
 
+    /**
+     * Gets the stored reward points of the transaction.
+     * @return the reward points, or null if not scored yet
+     */
+    public Integer getRewardPoints() {
+        return rewardPoints;
+    }
+
+    /**
+     * Sets the stored reward points of the transaction.
+     * @param rewardPoints the reward points to set
+     */
+    public void setRewardPoints(Integer rewardPoints) {
+        this.rewardPoints = rewardPoints;
+    }
+
+    /**
+     * Gets the version of the reward rules that produced the stored points.
+     * @return the rule version, or null if not scored yet
+     */
+    public Integer getRuleVersion() {
+        return ruleVersion;
+    }
+
+    /**
+     * Sets the version of the reward rules that produced the stored points.
+     * @param ruleVersion the rule version to set
+     */
+    public void setRuleVersion(Integer ruleVersion) {
+        this.ruleVersion = ruleVersion;
+    }
+
+    /**
+     * Gets the review state set by the velocity rules.
+     * @return the review status, or null if the transaction tripped no rule
+     */
+    public ReviewStatus getReviewStatus() {
+        return reviewStatus;
+    }
+
+    /**
+     * Sets the review state of the transaction.
+     * @param reviewStatus the review status to set, null to clear it
+     */
+    public void setReviewStatus(ReviewStatus reviewStatus) {
+        this.reviewStatus = reviewStatus;
+    }
+
+    /**
+     * Gets the client-supplied idempotency key.
+     * @return the key, or null if none was supplied
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    /**
+     * Sets the client-supplied idempotency key.
+     * @param idempotencyKey the key to set
+     */
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     /**
      * Gets the customer who made this transaction.
      * @return the associated customer entity
@@ -0,0 +1,363 @@
+package com.infy.customerRewards.export;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.infy.customerRewards.dto.ExportJobDTO;
+import com.infy.customerRewards.exception.CustomException;
+import com.infy.customerRewards.exception.ResourceNotFoundException;
+import com.infy.customerRewards.utility.IdGenerator;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Component running bulk exports in the background, one at a time, to gzip files under
+ * rewards.export.directory, one directory per job.
+ * <p>
+ * Every rewards.export.checkpoint-rows rows, at the next customer boundary, the file is closed
+ * off as a complete gzip member, forced to disk, and the byte length and last customer are
+ * recorded next to it in job.properties. A failed job, or one cut short by a restart, resumes
+ * from there: the file is truncated to the checkpoint and the export continues after the last
+ * customer in a new gzip member. Concatenated members form a valid gzip file, so the finished
+ * file reads as one stream.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class ExportJobs {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobs.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String STATE_FILE = "job.properties";
+
+    private final TransactionExporter exporter;
+    private final IdGenerator idGenerator;
+    private final Path directory;
+    private final long checkpointRows;
+    private final ConcurrentHashMap<Long, Job> running = new ConcurrentHashMap<>();
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("rewards-export-"));
+    private volatile boolean closed;
+
+    /**
+     * Constructs the job runner.
+     *
+     * @param exporter the exporter
+     * @param idGenerator the job ID generator
+     * @param properties the export settings
+     */
+    public ExportJobs(TransactionExporter exporter, IdGenerator idGenerator, ExportProperties properties) {
+        this.exporter = exporter;
+        this.idGenerator = idGenerator;
+        this.directory = Path.of(properties.getDirectory());
+        this.checkpointRows = properties.getCheckpointRows();
+    }
+
+    /**
+     * Starts an export job.
+     *
+     * @param request the export
+     * @return the new job
+     */
+    public synchronized ExportJobDTO start(ExportRequest request) {
+        Job job = new Job(idGenerator.nextId(), request);
+        try {
+            Files.createDirectories(jobDirectory(job.id));
+            job.save(jobDirectory(job.id));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create export job " + job.id, e);
+        }
+        submit(job);
+        return job.toDTO();
+    }
+
+    /**
+     * Gets the state of a job.
+     *
+     * @param id the job ID
+     * @return the job
+     * @throws ResourceNotFoundException if there is no such job
+     */
+    public ExportJobDTO get(long id) {
+        Job job = running.get(id);
+        return job != null ? job.toDTO() : load(id).toDTO();
+    }
+
+    /**
+     * Resumes a failed job from its last checkpoint.
+     *
+     * @param id the job ID
+     * @return the job
+     * @throws ResourceNotFoundException if there is no such job
+     * @throws CustomException if the job is running or already completed
+     */
+    public synchronized ExportJobDTO resume(long id) {
+        Job job = load(id);
+        if (!Job.FAILED.equals(job.state)) {
+            throw new CustomException("Export job " + id + " is " + job.state);
+        }
+        submit(job);
+        return job.toDTO();
+    }
+
+    /**
+     * Gets the output file of a completed job.
+     *
+     * @param id the job ID
+     * @return the gzip-compressed file
+     * @throws ResourceNotFoundException if there is no such job
+     * @throws CustomException if the job has not completed
+     */
+    public Path output(long id) {
+        Job job = load(id);
+        if (!Job.COMPLETED.equals(job.state)) {
+            throw new CustomException("Export job " + id + " is " + job.state);
+        }
+        return jobDirectory(id).resolve(job.request.fileName());
+    }
+
+    /**
+     * Stops the running job at its next customer; it can be resumed after the restart.
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        executor.shutdown();
+    }
+
+    private void submit(Job job) {
+        if (closed) {
+            throw new CustomException("Export jobs are shutting down");
+        }
+        // A job just finished may still be listed; it is the same object, and no longer running
+        running.put(job.id, job);
+        job.state = Job.RUNNING;
+        job.error = null;
+        executor.execute(() -> {
+            try {
+                run(job);
+            } finally {
+                running.computeIfPresent(job.id, (key, current) -> Job.RUNNING.equals(current.state) ? current : null);
+            }
+        });
+    }
+
+    private void run(Job job) {
+        Path jobDirectory = jobDirectory(job.id);
+        try (FileChannel channel = FileChannel.open(jobDirectory.resolve(job.request.fileName()),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(job.bytes);
+            channel.position(job.bytes);
+            GzipMembers members = new GzipMembers(Channels.newOutputStream(channel));
+            Writer writer = new BufferedWriter(new OutputStreamWriter(members, StandardCharsets.UTF_8), BUFFER_SIZE);
+            long base = job.rows;
+            long[] checkpointed = { 0 };
+            ExportRequest request = job.lastCustomerId != null ? job.request.after(job.lastCustomerId) : job.request;
+            long rows = exporter.export(request, writer, (customerId, written) -> {
+                if (closed) {
+                    throw new InterruptedIOException("Export stopped by shutdown");
+                }
+                if (written - checkpointed[0] >= checkpointRows) {
+                    checkpoint(job, writer, members, channel, customerId, base + written);
+                    checkpointed[0] = written;
+                }
+            });
+            checkpoint(job, writer, members, channel, job.lastCustomerId, base + rows);
+            job.state = Job.COMPLETED;
+            job.save(jobDirectory);
+            log.info("Export job {} completed: {} rows", job.id, job.rows);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Export job {} failed after {} rows, resumable from customer {}", job.id, job.rows,
+                    job.lastCustomerId, e);
+            job.state = Job.FAILED;
+            job.error = e.getMessage();
+            try {
+                job.save(jobDirectory);
+            } catch (IOException saveFailure) {
+                log.warn("Cannot record state of export job {}", job.id, saveFailure);
+            }
+        }
+    }
+
+    private void checkpoint(Job job, Writer writer, GzipMembers members, FileChannel channel,
+                            Long customerId, long rows) throws IOException {
+        writer.flush();
+        members.endMember();
+        channel.force(false);
+        job.bytes = channel.position();
+        job.lastCustomerId = customerId;
+        job.rows = rows;
+        job.save(jobDirectory(job.id));
+    }
+
+    private Job load(long id) {
+        Job job = running.get(id);
+        if (job != null) {
+            return job;
+        }
+        Path state = jobDirectory(id).resolve(STATE_FILE);
+        if (!Files.exists(state)) {
+            throw new ResourceNotFoundException("Export job not found: " + id);
+        }
+        try {
+            return Job.load(id, state);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read export job " + id, e);
+        }
+    }
+
+    private Path jobDirectory(long id) {
+        return directory.resolve(Long.toString(id));
+    }
+
+    /**
+     * Output stream starting a new gzip member on the first write after endMember.
+     */
+    private static final class GzipMembers extends OutputStream {
+
+        private final OutputStream target;
+        private GZIPOutputStream member;
+
+        GzipMembers(OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            member().write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            member().write(bytes, offset, length);
+        }
+
+        void endMember() throws IOException {
+            if (member != null) {
+                member.finish();
+                member = null;
+            }
+            target.flush();
+        }
+
+        private GZIPOutputStream member() throws IOException {
+            if (member == null) {
+                member = new GZIPOutputStream(target, BUFFER_SIZE);
+            }
+            return member;
+        }
+    }
+
+    /**
+     * One export job and its last checkpoint, saved as job.properties.
+     */
+    private static final class Job {
+
+        static final String RUNNING = "RUNNING";
+        static final String COMPLETED = "COMPLETED";
+        static final String FAILED = "FAILED";
+
+        final long id;
+        final ExportRequest request;
+        volatile String state = RUNNING;
+        volatile String error;
+        volatile long rows;
+        volatile long bytes;
+        volatile Long lastCustomerId;
+
+        Job(long id, ExportRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        static Job load(long id, Path file) throws IOException {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            String after = properties.getProperty("afterCustomerId");
+            Job job = new Job(id, new ExportRequest(
+                    ExportRequest.Kind.valueOf(properties.getProperty("kind")),
+                    ExportRequest.Format.valueOf(properties.getProperty("format")),
+                    LocalDate.parse(properties.getProperty("from")),
+                    LocalDate.parse(properties.getProperty("to")),
+                    after != null ? Long.valueOf(after) : null));
+            String state = properties.getProperty("state");
+            // A job recorded as running when it is not was cut short by a restart
+            job.state = RUNNING.equals(state) ? FAILED : state;
+            job.error = RUNNING.equals(state) ? "Interrupted" : properties.getProperty("error");
+            job.rows = Long.parseLong(properties.getProperty("rows"));
+            job.bytes = Long.parseLong(properties.getProperty("bytes"));
+            String last = properties.getProperty("lastCustomerId");
+            job.lastCustomerId = last != null ? Long.valueOf(last) : null;
+            return job;
+        }
+
+        synchronized void save(Path jobDirectory) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("kind", request.kind().name());
+            properties.setProperty("format", request.format().name());
+            properties.setProperty("from", request.from().toString());
+            properties.setProperty("to", request.to().toString());
+            if (request.afterCustomerId() != null) {
+                properties.setProperty("afterCustomerId", request.afterCustomerId().toString());
+            }
+            properties.setProperty("state", state);
+            if (error != null) {
+                properties.setProperty("error", error);
+            }
+            properties.setProperty("rows", Long.toString(rows));
+            properties.setProperty("bytes", Long.toString(bytes));
+            if (lastCustomerId != null) {
+                properties.setProperty("lastCustomerId", lastCustomerId.toString());
+            }
+            Path temporary = jobDirectory.resolve(STATE_FILE + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(temporary, jobDirectory.resolve(STATE_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        ExportJobDTO toDTO() {
+            return ExportJobDTO.builder()
+                    .id(id)
+                    .kind(request.kind().name())
+                    .format(request.format().name())
+                    .from(request.from())
+                    .to(request.to())
+                    .state(state)
+                    .rows(rows)
+                    .lastCustomerId(lastCustomerId)
+                    .file(request.fileName())
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.infy.customerRewards.export;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bulk export settings bound from the rewards.export.* properties.
+ * Rows are read fetchSize at a time from a forward-only cursor; at most maxConcurrent exports
+ * run at once, streamed or as jobs. Jobs write under directory and checkpoint every
+ * checkpointRows rows.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@ConfigurationProperties(prefix = "rewards.export")
+public class ExportProperties {
+
+    private int fetchSize = 10_000;
+    private int maxConcurrent = 2;
+    private String directory = "data/export";
+    private long checkpointRows = 100_000;
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public long getCheckpointRows() {
+        return checkpointRows;
+    }
+
+    public void setCheckpointRows(long checkpointRows) {
+        this.checkpointRows = checkpointRows;
+    }
+}
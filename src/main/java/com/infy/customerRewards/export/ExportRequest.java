@@ -0,0 +1,111 @@
+package com.infy.customerRewards.export;
+
+import com.infy.customerRewards.exception.CustomException;
+
+import java.time.LocalDate;
+
+/**
+ * One bulk export: what to export, in which format, for which dates, and where to resume.
+ *
+ * @param kind the rows to export
+ * @param format the output format
+ * @param from the first transaction date (inclusive)
+ * @param to the last transaction date (inclusive)
+ * @param afterCustomerId export only customers after this one, or null to start at the beginning
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public record ExportRequest(Kind kind, Format format, LocalDate from, LocalDate to, Long afterCustomerId) {
+
+    /**
+     * Validates the request.
+     *
+     * @throws CustomException if a field is missing or from is after to
+     */
+    public ExportRequest {
+        if (kind == null || format == null || from == null || to == null) {
+            throw new CustomException("Export kind, format, from and to are required");
+        }
+        if (from.isAfter(to)) {
+            throw new CustomException("from must not be after to");
+        }
+    }
+
+    /**
+     * Gets the same export resumed after a customer.
+     *
+     * @param customerId the last customer fully exported, or null
+     * @return the resumed request
+     */
+    public ExportRequest after(Long customerId) {
+        return new ExportRequest(kind, format, from, to, customerId);
+    }
+
+    /**
+     * Gets the file name of the compressed export.
+     *
+     * @return the file name
+     */
+    public String fileName() {
+        return kind.name().toLowerCase() + "-" + from + "-" + to + "." + format.extension + ".gz";
+    }
+
+    /**
+     * Rows an export can hold.
+     */
+    public enum Kind {
+        /** One row per transaction. */
+        TRANSACTIONS,
+        /** One row per customer and month with transactions in the range. */
+        REWARDS;
+
+        /**
+         * Parses a kind, ignoring case.
+         *
+         * @param value the kind name
+         * @return the kind
+         * @throws CustomException if the name is unknown
+         */
+        public static Kind of(String value) {
+            return parse(Kind.class, value);
+        }
+    }
+
+    /**
+     * Output formats, both written gzip-compressed.
+     */
+    public enum Format {
+        /** Comma-separated values with a header line. */
+        CSV("csv"),
+        /** One JSON object per line. */
+        NDJSON("ndjson");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * Parses a format, ignoring case.
+         *
+         * @param value the format name
+         * @return the format
+         * @throws CustomException if the name is unknown
+         */
+        public static Format of(String value) {
+            return parse(Format.class, value);
+        }
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value)) {
+                return constant;
+            }
+        }
+        throw new CustomException("Unknown export " + type.getSimpleName().toLowerCase() + ": " + value);
+    }
+}
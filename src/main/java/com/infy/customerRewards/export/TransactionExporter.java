@@ -0,0 +1,397 @@
+package com.infy.customerRewards.export;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.entity.ReviewStatus;
+import com.infy.customerRewards.entity.Transaction;
+import com.infy.customerRewards.exception.ServiceUnavailableException;
+import com.infy.customerRewards.utility.RewardCalculator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Component streaming transactions, or monthly rewards per customer, for a date range to a writer.
+ * <p>
+ * Rows are read in customer ID order from a forward-only, read-only cursor fetching
+ * rewards.export.fetch-size rows at a time (MySQL needs useCursorFetch=true on the URL for
+ * this) and written as they arrive, so heap use does not depend on the number of rows.
+ * Monthly rewards are summed on the fly from the same rows: customers and months arrive in
+ * order, so only the current month is held. With sharded storage the shards are walked in turn.
+ * <p>
+ * An export can resume after any customer: customer IDs are unique across shards, so the last
+ * customer fully written also tells which shards are done. Read-only transactions go to the
+ * replicas when read routing is enabled. At most rewards.export.max-concurrent exports run at
+ * once; exported rows are counted in rewards.export.rows{kind}.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class TransactionExporter {
+
+    private static final String SELECT_ROWS = "SELECT id, customer_id, date, product, amount, reward_points, "
+            + "rule_version, review_status FROM transactions WHERE date BETWEEN ? AND ? AND customer_id > ? "
+            + "ORDER BY customer_id, date, id";
+    private static final String[] TRANSACTION_COLUMNS =
+            { "id", "customerId", "date", "product", "amount", "rewardPoints", "reviewStatus" };
+    private static final String[] REWARD_COLUMNS = { "customerId", "month", "transactions", "amount", "points" };
+    private static final int RETRY_AFTER_SECONDS = 30;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final ShardRouter shards;
+    private final RewardCalculator rewardCalculator;
+    private final Semaphore permits;
+    private final MeterRegistry registry;
+
+    /**
+     * Constructs the exporter.
+     *
+     * @param dataSource the application datasource
+     * @param transactionManager the transaction manager
+     * @param shards the shard router
+     * @param rewardCalculator the reward calculator
+     * @param properties the export settings
+     * @param registry the meter registry
+     */
+    public TransactionExporter(DataSource dataSource, PlatformTransactionManager transactionManager,
+                               ShardRouter shards, RewardCalculator rewardCalculator,
+                               ExportProperties properties, MeterRegistry registry) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(properties.getFetchSize());
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setReadOnly(true);
+        this.shards = shards;
+        this.rewardCalculator = rewardCalculator;
+        this.permits = new Semaphore(properties.getMaxConcurrent());
+        this.registry = registry;
+    }
+
+    /**
+     * Writes an export. A CSV export starts with a header line unless it resumes after a customer.
+     * The writer is flushed but not closed.
+     *
+     * @param request the export
+     * @param out the destination
+     * @param progress notified each time a customer's rows are all written, may be null
+     * @return the number of rows written
+     * @throws ServiceUnavailableException if the maximum number of exports is already running
+     * @throws IOException if writing fails
+     */
+    public long export(ExportRequest request, Writer out, Progress progress) throws IOException {
+        if (!permits.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many exports in progress", RETRY_AFTER_SECONDS);
+        }
+        try {
+            boolean rewards = request.kind() == ExportRequest.Kind.REWARDS;
+            RowWriter rows = request.format() == ExportRequest.Format.CSV
+                    ? new CsvRows(out, rewards ? REWARD_COLUMNS : TRANSACTION_COLUMNS)
+                    : new JsonRows(out, rewards ? REWARD_COLUMNS : TRANSACTION_COLUMNS);
+            if (request.afterCustomerId() == null) {
+                rows.header();
+            }
+            Counter exported = Counter.builder("rewards.export.rows")
+                    .description("Rows written by bulk exports")
+                    .tag("kind", request.kind().name().toLowerCase())
+                    .register(registry);
+            Long after = request.afterCustomerId();
+            int firstShard = after != null ? shards.shardOf(after) : 0;
+            long total = 0;
+            for (int shard = firstShard; shard < shards.shardCount(); shard++) {
+                long afterId = shard == firstShard && after != null ? after : Long.MIN_VALUE;
+                Cursor cursor = rewards ? new RewardCursor(rows, progress, total) : new TransactionCursor(rows, progress, total);
+                int target = shard;
+                try {
+                    transactions.executeWithoutResult(status -> {
+                        shards.bindShard(target);
+                        jdbc.query(SELECT_ROWS, cursor, Date.valueOf(request.from()), Date.valueOf(request.to()), afterId);
+                    });
+                    cursor.end();
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                exported.increment(cursor.rows - total);
+                total = cursor.rows;
+            }
+            rows.flush();
+            return total;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Callback told when every row of a customer has been handed to the writer, so a caller can
+     * checkpoint.
+     */
+    @FunctionalInterface
+    public interface Progress {
+
+        /**
+         * Called after the last row of a customer.
+         *
+         * @param customerId the customer just completed
+         * @param rows the rows written so far
+         * @throws IOException if the caller fails to checkpoint
+         */
+        void customerDone(long customerId, long rows) throws IOException;
+    }
+
+    /**
+     * Row handler tracking customer boundaries.
+     */
+    private abstract class Cursor implements RowCallbackHandler {
+
+        final RowWriter out;
+        final Progress progress;
+        final Transaction scratch = new Transaction();
+        long rows;
+        long customerId;
+        boolean open;
+
+        Cursor(RowWriter out, Progress progress, long rows) {
+            this.out = out;
+            this.progress = progress;
+            this.rows = rows;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long customer = rs.getLong(2);
+            try {
+                if (open && customer != customerId) {
+                    customerEnd();
+                }
+                customerId = customer;
+                open = true;
+                row(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void end() throws IOException {
+            if (open) {
+                customerEnd();
+                open = false;
+            }
+        }
+
+        private void customerEnd() throws IOException {
+            flushCustomer();
+            if (progress != null) {
+                out.drain();
+                progress.customerDone(customerId, rows);
+            }
+        }
+
+        /** Points of the current row, as the read endpoints report them. */
+        int points(ResultSet rs) throws SQLException {
+            scratch.setAmount(rs.getDouble(5));
+            scratch.setRewardPoints(rs.getObject(6, Integer.class));
+            scratch.setRuleVersion(rs.getObject(7, Integer.class));
+            String status = rs.getString(8);
+            scratch.setReviewStatus(status != null ? ReviewStatus.valueOf(status) : null);
+            return rewardCalculator.pointsOf(scratch);
+        }
+
+        abstract void row(ResultSet rs) throws SQLException, IOException;
+
+        abstract void flushCustomer() throws IOException;
+    }
+
+    /**
+     * Writes each transaction as it is read.
+     */
+    private final class TransactionCursor extends Cursor {
+
+        TransactionCursor(RowWriter out, Progress progress, long rows) {
+            super(out, progress, rows);
+        }
+
+        @Override
+        void row(ResultSet rs) throws SQLException, IOException {
+            out.row(rs.getLong(1), customerId, rs.getDate(3).toLocalDate(), rs.getString(4),
+                    rs.getDouble(5), points(rs), rs.getString(8));
+            rows++;
+        }
+
+        @Override
+        void flushCustomer() {
+        }
+    }
+
+    /**
+     * Sums the current customer's month and writes it when the month or customer changes.
+     */
+    private final class RewardCursor extends Cursor {
+
+        YearMonth month;
+        int count;
+        double amount;
+        long points;
+
+        RewardCursor(RowWriter out, Progress progress, long rows) {
+            super(out, progress, rows);
+        }
+
+        @Override
+        void row(ResultSet rs) throws SQLException, IOException {
+            YearMonth rowMonth = YearMonth.from(rs.getDate(3).toLocalDate());
+            if (count > 0 && !rowMonth.equals(month)) {
+                flushCustomer();
+            }
+            month = rowMonth;
+            count++;
+            amount += rs.getDouble(5);
+            points += points(rs);
+        }
+
+        @Override
+        void flushCustomer() throws IOException {
+            if (count > 0) {
+                out.row(customerId, month.toString(), count, amount, points);
+                rows++;
+                count = 0;
+                amount = 0;
+                points = 0;
+            }
+        }
+    }
+
+    /**
+     * Serializes rows in one output format.
+     */
+    private abstract static class RowWriter {
+
+        final Writer out;
+        final String[] columns;
+
+        RowWriter(Writer out, String[] columns) {
+            this.out = out;
+            this.columns = columns;
+        }
+
+        abstract void header() throws IOException;
+
+        abstract void row(Object... values) throws IOException;
+
+        /** Hands rows buffered here on to the writer. */
+        void drain() throws IOException {
+        }
+
+        void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV: fields holding a comma, quote or line break are quoted.
+     */
+    private static final class CsvRows extends RowWriter {
+
+        CsvRows(Writer out, String[] columns) {
+            super(out, columns);
+        }
+
+        @Override
+        void header() throws IOException {
+            out.write(String.join(",", columns));
+            out.write("\r\n");
+        }
+
+        @Override
+        void row(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                Object value = values[i];
+                if (value instanceof String text) {
+                    writeText(text);
+                } else if (value != null) {
+                    out.write(value.toString());
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private void writeText(String text) throws IOException {
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                out.write(text);
+                return;
+            }
+            out.write('"');
+            out.write(text.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+    /**
+     * Newline-delimited JSON, one object per row; null fields are left out.
+     */
+    private static final class JsonRows extends RowWriter {
+
+        private static final JsonFactory JSON = new JsonFactory();
+
+        private final JsonGenerator generator;
+
+        JsonRows(Writer out, String[] columns) throws IOException {
+            super(out, columns);
+            this.generator = JSON.createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void header() {
+        }
+
+        @Override
+        void row(Object... values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value instanceof Number number) {
+                    generator.writeFieldName(columns[i]);
+                    if (value instanceof Double) {
+                        generator.writeNumber(number.doubleValue());
+                    } else {
+                        generator.writeNumber(number.longValue());
+                    }
+                } else if (value != null) {
+                    generator.writeStringField(columns[i], value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void drain() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.infy.customerRewards.ingest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only local journal of ingested transactions, split into numbered segment files.
+ * Each record is framed with its length and CRC32, so a record torn by a crash mid-write is
+ * detected and dropped on replay; it was never acknowledged. Appends are serialised, while
+ * fsync is shared: a caller waiting for its record to be durable is covered by any fsync
+ * issued after its write, so concurrent appenders pay for one disk flush between them.
+ * Segments are deleted once every record in them has reached the database.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class IngestJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestJournal.class);
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final List<Entry> replayed = new ArrayList<>();
+    private final ArrayDeque<Long> closedSegments = new ArrayDeque<>();
+    private final Object syncLock = new Object();
+    private volatile FileChannel channel;
+    private long segment;
+    private long position;
+    private volatile long appended;
+    private volatile long synced;
+
+    /**
+     * Opens the journal, reading back every record left by a previous run, and starts a new
+     * segment for this run's appends.
+     *
+     * @param directory the journal directory, created if missing
+     * @param segmentBytes the size after which appends move to a new segment
+     * @param fsync whether records are forced to disk before they are acknowledged
+     * @throws UncheckedIOException if the directory cannot be read or written
+     */
+    public IngestJournal(Path directory, long segmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            List<Long> existing;
+            try (Stream<Path> files = Files.list(directory)) {
+                existing = files.map(IngestJournal::segmentOf).filter(seq -> seq > 0).sorted().toList();
+            }
+            for (long seq : existing) {
+                replay(seq);
+                closedSegments.add(seq);
+            }
+            segment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+            channel = open(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open ingest journal " + directory, e);
+        }
+    }
+
+    /**
+     * Gets the records left by a previous run, in append order.
+     *
+     * @return the replayed entries
+     */
+    public List<Entry> replayed() {
+        return replayed;
+    }
+
+    /**
+     * Appends a record. It is written but not necessarily durable until sync returns.
+     *
+     * @param record the record
+     * @return the journal entry, carrying the sequence to pass to sync
+     * @throws UncheckedIOException if the write fails
+     */
+    public Entry append(IngestRecord record) {
+        ByteBuffer frame = frame(record);
+        synchronized (this) {
+            if (channel == null) {
+                throw new IllegalStateException("Ingest journal is closed");
+            }
+            try {
+                if (position >= segmentBytes) {
+                    roll();
+                }
+                position += frame.remaining();
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot append to ingest journal", e);
+            }
+            appended++;
+            return new Entry(segment, appended, record);
+        }
+    }
+
+    /**
+     * Waits until an appended record is on disk, forcing the segment unless another caller's
+     * fsync already covered it. Does nothing when fsync is disabled.
+     *
+     * @param sequence the entry's sequence
+     * @throws UncheckedIOException if the fsync fails
+     */
+    public void sync(long sequence) {
+        if (!fsync || synced >= sequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= sequence) {
+                return;
+            }
+            long target = appended;
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot sync ingest journal", e);
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Deletes the closed segments older than the oldest one still holding unflushed records.
+     *
+     * @param firstNeeded the oldest segment still needed, Long.MAX_VALUE if none is
+     * @return the number of segments deleted
+     */
+    public synchronized int release(long firstNeeded) {
+        int deleted = 0;
+        while (!closedSegments.isEmpty() && closedSegments.peekFirst() < firstNeeded) {
+            long seq = closedSegments.pollFirst();
+            try {
+                Files.deleteIfExists(pathOf(seq));
+                deleted++;
+            } catch (IOException e) {
+                log.warn("Cannot delete ingest journal segment {}", pathOf(seq), e);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Gets the number of segment files on disk, including the open one.
+     *
+     * @return the segment count
+     */
+    public synchronized int segmentCount() {
+        return closedSegments.size() + (channel != null ? 1 : 0);
+    }
+
+    /**
+     * Forces and closes the open segment, which release may then delete. Later appends fail.
+     */
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        synchronized (syncLock) {
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Cannot close ingest journal segment {}", pathOf(segment), e);
+            }
+            channel = null;
+            closedSegments.add(segment);
+        }
+    }
+
+    private void roll() throws IOException {
+        synchronized (syncLock) {
+            channel.force(false);
+            channel.close();
+            closedSegments.add(segment);
+            segment++;
+            position = 0;
+            channel = open(segment);
+        }
+    }
+
+    private FileChannel open(long seq) throws IOException {
+        return FileChannel.open(pathOf(seq), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private void replay(long seq) throws IOException {
+        Path path = pathOf(seq);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                try {
+                    int crc = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        throw new EOFException();
+                    }
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    if (crc != crcOf(payload)) {
+                        throw new EOFException();
+                    }
+                    replayed.add(new Entry(seq, 0, IngestRecord.readFrom(new DataInputStream(new ByteArrayInputStream(payload)))));
+                } catch (EOFException e) {
+                    log.warn("Ignoring torn record at the end of ingest journal segment {}", path);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer frame(IngestRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try {
+            record.writeTo(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] payload = bytes.toByteArray();
+        ByteBuffer frame = ByteBuffer.allocate(8 + payload.length);
+        frame.putInt(payload.length).putInt(crcOf(payload)).put(payload).flip();
+        return frame;
+    }
+
+    private static int crcOf(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private Path pathOf(long seq) {
+        return directory.resolve(String.format("%s%016d%s", PREFIX, seq, SUFFIX));
+    }
+
+    private static long segmentOf(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * One journaled record.
+     *
+     * @param segment the segment holding the record
+     * @param sequence the append sequence within this run, 0 for replayed records
+     * @param record the record
+     */
+    public record Entry(long segment, long sequence, IngestRecord record) {
+    }
+}
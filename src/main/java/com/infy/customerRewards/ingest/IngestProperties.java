@@ -0,0 +1,120 @@
+package com.infy.customerRewards.ingest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Transaction ingestion settings bound from the rewards.ingest.* properties.
+ * In direct mode every ingested transaction is its own database commit; in write-behind mode
+ * it is acknowledged once appended to the local journal and reaches the database in batches.
+ * Idempotency keys seen recently are remembered up to recentKeys keys and recentKeysRetention.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@ConfigurationProperties(prefix = "rewards.ingest")
+public class IngestProperties {
+
+    private Mode mode = Mode.DIRECT;
+    private String directory = "data/ingest";
+    private int capacity = 100_000;
+    private int batchSize = 500;
+    private Duration flushInterval = Duration.ofMillis(200);
+    private Duration offerTimeout = Duration.ofSeconds(1);
+    private long segmentBytes = 16L * 1024 * 1024;
+    private boolean fsync = true;
+    private int recentKeys = 100_000;
+    private Duration recentKeysRetention = Duration.ofHours(1);
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Duration getOfferTimeout() {
+        return offerTimeout;
+    }
+
+    public void setOfferTimeout(Duration offerTimeout) {
+        this.offerTimeout = offerTimeout;
+    }
+
+    public long getSegmentBytes() {
+        return segmentBytes;
+    }
+
+    public void setSegmentBytes(long segmentBytes) {
+        this.segmentBytes = segmentBytes;
+    }
+
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    public void setFsync(boolean fsync) {
+        this.fsync = fsync;
+    }
+
+    public int getRecentKeys() {
+        return recentKeys;
+    }
+
+    public void setRecentKeys(int recentKeys) {
+        this.recentKeys = recentKeys;
+    }
+
+    public Duration getRecentKeysRetention() {
+        return recentKeysRetention;
+    }
+
+    public void setRecentKeysRetention(Duration recentKeysRetention) {
+        this.recentKeysRetention = recentKeysRetention;
+    }
+
+    /**
+     * How ingested transactions reach the database.
+     */
+    public enum Mode {
+        /** One commit per transaction, acknowledged after the commit. */
+        DIRECT,
+        /** Acknowledged after the journal append, committed in batches in the background. */
+        WRITE_BEHIND
+    }
+}
@@ -0,0 +1,137 @@
+package com.infy.customerRewards.ingest;
+
+import com.infy.customerRewards.entity.Customer;
+import com.infy.customerRewards.entity.ReviewStatus;
+import com.infy.customerRewards.entity.Transaction;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * One ingested transaction, already assigned its ID and scored, as journaled and flushed.
+ * The ID is fixed before the record is journaled, so a record replayed after a crash is
+ * recognised as a duplicate if it had already reached the database; the optional idempotency
+ * key does the same for a transaction the client submitted twice.
+ *
+ * @param id the transaction ID
+ * @param customerId the unique identifier of the customer
+ * @param date the transaction date
+ * @param product the product purchased
+ * @param amount the transaction amount
+ * @param rewardPoints the stored reward points
+ * @param ruleVersion the rule version that produced the points
+ * @param reviewStatus the velocity review status, null if clear
+ * @param idempotencyKey the client-supplied idempotency key, null if none
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public record IngestRecord(long id, long customerId, LocalDate date, String product, Double amount,
+                           Integer rewardPoints, Integer ruleVersion, ReviewStatus reviewStatus,
+                           String idempotencyKey) {
+
+    /**
+     * Captures a scored transaction.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param transaction the transaction, with its ID assigned
+     * @return the record
+     */
+    public static IngestRecord of(long customerId, Transaction transaction) {
+        return new IngestRecord(transaction.getId(), customerId, transaction.getDate(), transaction.getProduct(),
+                transaction.getAmount(), transaction.getRewardPoints(), transaction.getRuleVersion(),
+                transaction.getReviewStatus(), transaction.getIdempotencyKey());
+    }
+
+    /**
+     * Gets the key identifying the client submission, for duplicate detection.
+     *
+     * @return the customer ID and idempotency key combined, null if the record has no key
+     */
+    public String dedupKey() {
+        return idempotencyKey != null ? dedupKey(customerId, idempotencyKey) : null;
+    }
+
+    /**
+     * Combines a customer ID and an idempotency key as dedupKey does.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param idempotencyKey the idempotency key
+     * @return the combined key
+     */
+    public static String dedupKey(long customerId, String idempotencyKey) {
+        return customerId + ":" + idempotencyKey;
+    }
+
+    /**
+     * Rebuilds the transaction, attached to a customer reference holding only the ID.
+     *
+     * @return the transaction
+     */
+    public Transaction toTransaction() {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setCustomer(customer);
+        transaction.setDate(date);
+        transaction.setProduct(product);
+        transaction.setAmount(amount);
+        transaction.setRewardPoints(rewardPoints);
+        transaction.setRuleVersion(ruleVersion);
+        transaction.setReviewStatus(reviewStatus);
+        transaction.setIdempotencyKey(idempotencyKey);
+        return transaction;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(id);
+        out.writeLong(customerId);
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.toEpochDay());
+        }
+        out.writeBoolean(product != null);
+        if (product != null) {
+            out.writeUTF(product);
+        }
+        out.writeBoolean(amount != null);
+        if (amount != null) {
+            out.writeDouble(amount);
+        }
+        out.writeBoolean(rewardPoints != null);
+        if (rewardPoints != null) {
+            out.writeInt(rewardPoints);
+        }
+        out.writeBoolean(ruleVersion != null);
+        if (ruleVersion != null) {
+            out.writeInt(ruleVersion);
+        }
+        out.writeBoolean(reviewStatus != null);
+        if (reviewStatus != null) {
+            out.writeUTF(reviewStatus.name());
+        }
+        out.writeBoolean(idempotencyKey != null);
+        if (idempotencyKey != null) {
+            out.writeUTF(idempotencyKey);
+        }
+    }
+
+    static IngestRecord readFrom(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        long customerId = in.readLong();
+        LocalDate date = in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+        String product = in.readBoolean() ? in.readUTF() : null;
+        Double amount = in.readBoolean() ? in.readDouble() : null;
+        Integer rewardPoints = in.readBoolean() ? in.readInt() : null;
+        Integer ruleVersion = in.readBoolean() ? in.readInt() : null;
+        ReviewStatus reviewStatus = in.readBoolean() ? ReviewStatus.valueOf(in.readUTF()) : null;
+        // records journaled before idempotency keys end here
+        String idempotencyKey = in.available() > 0 && in.readBoolean() ? in.readUTF() : null;
+        return new IngestRecord(id, customerId, date, product, amount, rewardPoints, ruleVersion, reviewStatus,
+                idempotencyKey);
+    }
+}
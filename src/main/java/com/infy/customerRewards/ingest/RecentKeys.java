@@ -0,0 +1,161 @@
+package com.infy.customerRewards.ingest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Component remembering the transactions ingested recently with an idempotency key, so most
+ * retried submissions are answered from memory without a database round trip.
+ * <p>
+ * Keys are held in two generations of ConcurrentHashMap: new keys go to the current one, and
+ * once it holds half of rewards.ingest.recent-keys keys or is half the retention old it becomes
+ * the previous generation and the old previous one is dropped whole. Memory stays bounded,
+ * nothing is scanned to expire entries, and a key is remembered for at least half the retention.
+ * A miss proves nothing; the unique index on the transactions table remains the authority.
+ * Published as rewards.ingest.recent-keys and rewards.ingest.recent-keys.hits.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class RecentKeys {
+
+    private final int generationSize;
+    private final long generationNanos;
+    private final LongSupplier nanoClock;
+    private final Counter hits;
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    /**
+     * Constructs the filter.
+     *
+     * @param properties the ingestion settings
+     * @param registry the meter registry
+     */
+    @Autowired
+    public RecentKeys(IngestProperties properties, MeterRegistry registry) {
+        this(properties, registry, System::nanoTime);
+    }
+
+    /**
+     * Constructs the filter with a given time source.
+     *
+     * @param properties the ingestion settings
+     * @param registry the meter registry
+     * @param nanoClock the time source, in nanoseconds
+     */
+    public RecentKeys(IngestProperties properties, MeterRegistry registry, LongSupplier nanoClock) {
+        this.generationSize = Math.max(1, properties.getRecentKeys() / 2);
+        this.generationNanos = properties.getRecentKeysRetention().toNanos() / 2;
+        this.nanoClock = nanoClock;
+        this.current = new Generation(nanoClock.getAsLong());
+        this.previous = new Generation(nanoClock.getAsLong());
+        Gauge.builder("rewards.ingest.recent-keys", this, RecentKeys::size)
+                .description("Idempotency keys remembered in memory")
+                .register(registry);
+        this.hits = Counter.builder("rewards.ingest.recent-keys.hits")
+                .description("Retried submissions answered from memory")
+                .register(registry);
+    }
+
+    /**
+     * Looks up a recently ingested transaction by its idempotency key.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param idempotencyKey the idempotency key
+     * @return the transaction, or null if the key is not remembered
+     */
+    public IngestRecord get(long customerId, String idempotencyKey) {
+        IngestRecord record = find(IngestRecord.dedupKey(customerId, idempotencyKey));
+        if (record != null) {
+            hits.increment();
+        }
+        return record;
+    }
+
+    /**
+     * Remembers a transaction unless another one with the same key is remembered already.
+     *
+     * @param record the transaction, with an idempotency key
+     * @return the transaction already remembered for the key, or null if this one was added
+     */
+    public IngestRecord putIfAbsent(IngestRecord record) {
+        IngestRecord existing = find(record.dedupKey());
+        return existing != null ? existing : current.records.putIfAbsent(record.dedupKey(), record);
+    }
+
+    /**
+     * Remembers a transaction, replacing any other one with the same key.
+     *
+     * @param record the transaction, with an idempotency key
+     */
+    public void put(IngestRecord record) {
+        rotateIfDue();
+        current.records.put(record.dedupKey(), record);
+    }
+
+    /**
+     * Forgets a transaction, if it is the one remembered for its key.
+     *
+     * @param record the transaction
+     */
+    public void remove(IngestRecord record) {
+        if (record.dedupKey() != null) {
+            current.records.remove(record.dedupKey(), record);
+            previous.records.remove(record.dedupKey(), record);
+        }
+    }
+
+    /**
+     * Gets the number of remembered keys.
+     *
+     * @return the key count
+     */
+    public int size() {
+        return current.records.size() + previous.records.size();
+    }
+
+    private IngestRecord find(String dedupKey) {
+        rotateIfDue();
+        IngestRecord record = current.records.get(dedupKey);
+        return record != null ? record : previous.records.get(dedupKey);
+    }
+
+    private void rotateIfDue() {
+        Generation generation = current;
+        long now = nanoClock.getAsLong();
+        long age = now - generation.startedNanos;
+        if (generation.records.size() < generationSize && age < generationNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (current != generation) {
+                return;
+            }
+            previous = age < 2 * generationNanos ? generation : new Generation(now);
+            current = new Generation(now);
+        }
+    }
+
+    /**
+     * One generation of remembered keys.
+     */
+    private static final class Generation {
+
+        final long startedNanos;
+        final ConcurrentHashMap<String, IngestRecord> records = new ConcurrentHashMap<>();
+
+        Generation(long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.infy.customerRewards.ingest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infy.customerRewards.datasource.ReadYourWritesTracker;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.entity.ReviewStatus;
+import com.infy.customerRewards.entity.Transaction;
+import com.infy.customerRewards.service.AnalyticsService;
+import com.infy.customerRewards.utility.CustomerDataVersions;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.sql.DataSource;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Component inserting ingested transactions with plain JDBC batches, one database transaction
+ * per shard touched, so the commit cost is shared by every row in the batch.
+ * <p>
+ * Rows whose ID, or customer and idempotency key, is already stored are skipped, which makes
+ * replaying a record that reached the database before a crash, or a transaction the client
+ * submitted twice, harmless; rows for customers that do not exist are dropped. As for any other
+ * write, the written customers' data versions are bumped in the same transaction and analytics
+ * is updated after the commit, while their read-your-writes windows open before it, so no read
+ * after the commit can be sent to a replica that has not caught up yet. Outcomes are counted in rewards.ingest.rows{outcome}.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class TransactionBatchWriter {
+
+    private static final String INSERT = "INSERT INTO transactions (id, customer_id, date, product, amount,"
+            + " reward_points, rule_version, review_status, idempotency_key) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_KEY = "SELECT id, customer_id, date, product, amount, reward_points,"
+            + " rule_version, review_status, idempotency_key FROM transactions"
+            + " WHERE customer_id = ? AND idempotency_key = ?";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final ShardRouter shards;
+    private final CustomerDataVersions dataVersions;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AnalyticsService analytics;
+    private final Counter written;
+    private final Counter duplicates;
+    private final Counter rejected;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param dataSource the application datasource
+     * @param transactionManager the transaction manager
+     * @param shards the shard router
+     * @param dataVersions the customer data versions
+     * @param readYourWrites the read-your-writes tracker
+     * @param analytics the analytics service
+     * @param registry the meter registry
+     */
+    public TransactionBatchWriter(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                  ShardRouter shards, CustomerDataVersions dataVersions,
+                                  ReadYourWritesTracker readYourWrites, AnalyticsService analytics,
+                                  MeterRegistry registry) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.dataVersions = dataVersions;
+        this.readYourWrites = readYourWrites;
+        this.analytics = analytics;
+        this.written = outcome(registry, "written");
+        this.duplicates = outcome(registry, "duplicate");
+        this.rejected = outcome(registry, "rejected");
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("rewards.ingest.rows")
+                .description("Ingested transactions flushed to the database")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Inserts a batch of records, skipping those already stored or repeated in the batch, by ID
+     * or by idempotency key.
+     *
+     * @param records the records, in ingestion order
+     * @return how many rows were written, skipped as duplicates, and rejected
+     * @throws org.springframework.dao.DataAccessException if the insert fails; nothing is committed
+     *         for the failing shard
+     */
+    public Result write(List<IngestRecord> records) {
+        Map<Long, IngestRecord> unique = new LinkedHashMap<>();
+        Set<String> keys = new HashSet<>();
+        for (IngestRecord record : records) {
+            if (record.dedupKey() == null || keys.add(record.dedupKey())) {
+                unique.putIfAbsent(record.id(), record);
+            }
+        }
+        Map<Integer, List<IngestRecord>> byShard = new TreeMap<>();
+        for (IngestRecord record : unique.values()) {
+            byShard.computeIfAbsent(shards.shardOf(record.customerId()), shard -> new ArrayList<>()).add(record);
+        }
+        Result total = new Result(0, records.size() - unique.size(), 0);
+        for (List<IngestRecord> shardRecords : byShard.values()) {
+            total = total.plus(transactions.execute(status -> writeShard(shardRecords)));
+        }
+        written.increment(total.written());
+        duplicates.increment(total.duplicates());
+        rejected.increment(total.rejected());
+        return total;
+    }
+
+    private Result writeShard(List<IngestRecord> records) {
+        shards.bindCustomer(records.get(0).customerId());
+        Set<Long> stored = existing("transactions", records.stream().map(IngestRecord::id).toList());
+        Set<String> storedKeys = storedKeys(records);
+        Set<Long> customers = existing("customers", records.stream().map(IngestRecord::customerId).distinct().toList());
+        List<IngestRecord> fresh = new ArrayList<>(records.size());
+        int duplicate = 0;
+        int unknown = 0;
+        for (IngestRecord record : records) {
+            if (stored.contains(record.id()) || storedKeys.contains(record.dedupKey())) {
+                duplicate++;
+            } else if (!customers.contains(record.customerId())) {
+                unknown++;
+            } else {
+                fresh.add(record);
+            }
+        }
+        if (!fresh.isEmpty()) {
+            jdbc.batchUpdate(INSERT, fresh, fresh.size(), TransactionBatchWriter::bind);
+            Map<Long, List<Transaction>> byCustomer = fresh.stream().collect(Collectors.groupingBy(
+                    IngestRecord::customerId, LinkedHashMap::new,
+                    Collectors.mapping(IngestRecord::toTransaction, Collectors.toList())));
+            dataVersions.bump(byCustomer.keySet());
+            byCustomer.forEach((customerId, rows) -> {
+                readYourWrites.recordWrite(customerId);
+                analytics.transactionsWritten(customerId, rows);
+            });
+        }
+        return new Result(fresh.size(), duplicate, unknown);
+    }
+
+    /**
+     * Looks up a stored transaction by its idempotency key, on the primary.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param idempotencyKey the idempotency key
+     * @return the stored transaction, if any
+     */
+    public Optional<IngestRecord> findByKey(long customerId, String idempotencyKey) {
+        return transactions.execute(status -> {
+            shards.bindCustomer(customerId);
+            return jdbc.query(SELECT_BY_KEY, TransactionBatchWriter::recordOf, customerId, idempotencyKey)
+                    .stream().findFirst();
+        });
+    }
+
+    private Set<String> storedKeys(List<IngestRecord> records) {
+        List<IngestRecord> keyed = records.stream().filter(record -> record.dedupKey() != null).toList();
+        if (keyed.isEmpty()) {
+            return new HashSet<>();
+        }
+        List<Object> args = new ArrayList<>();
+        keyed.stream().map(IngestRecord::customerId).distinct().forEach(args::add);
+        int customers = args.size();
+        keyed.stream().map(IngestRecord::idempotencyKey).distinct().forEach(args::add);
+        String sql = "SELECT customer_id, idempotency_key FROM transactions WHERE customer_id IN ("
+                + placeholders(customers) + ") AND idempotency_key IN (" + placeholders(args.size() - customers) + ")";
+        return new HashSet<>(jdbc.query(sql, (rs, row) -> IngestRecord.dedupKey(rs.getLong(1), rs.getString(2)),
+                args.toArray()));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private Set<Long> existing(String table, Collection<Long> ids) {
+        return new HashSet<>(jdbc.queryForList("SELECT id FROM " + table + " WHERE id IN (" + placeholders(ids.size()) + ")",
+                Long.class, ids.toArray()));
+    }
+
+    private static void bind(PreparedStatement statement, IngestRecord record) throws SQLException {
+        statement.setLong(1, record.id());
+        statement.setLong(2, record.customerId());
+        set(statement, 3, record.date(), Types.DATE);
+        set(statement, 4, record.product(), Types.VARCHAR);
+        set(statement, 5, record.amount(), Types.DOUBLE);
+        set(statement, 6, record.rewardPoints(), Types.INTEGER);
+        set(statement, 7, record.ruleVersion(), Types.INTEGER);
+        set(statement, 8, record.reviewStatus() != null ? record.reviewStatus().name() : null, Types.VARCHAR);
+        set(statement, 9, record.idempotencyKey(), Types.VARCHAR);
+    }
+
+    private static IngestRecord recordOf(ResultSet rs, int row) throws SQLException {
+        String reviewStatus = rs.getString("review_status");
+        return new IngestRecord(rs.getLong("id"), rs.getLong("customer_id"), rs.getObject("date", LocalDate.class),
+                rs.getString("product"), rs.getObject("amount", Double.class),
+                rs.getObject("reward_points", Integer.class), rs.getObject("rule_version", Integer.class),
+                reviewStatus != null ? ReviewStatus.valueOf(reviewStatus) : null, rs.getString("idempotency_key"));
+    }
+
+    private static void set(PreparedStatement statement, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, sqlType);
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+
+    /**
+     * Outcome of one write.
+     *
+     * @param written rows inserted
+     * @param duplicates rows skipped because their ID was already stored or repeated
+     * @param rejected rows dropped because their customer does not exist
+     */
+    public record Result(int written, int duplicates, int rejected) {
+
+        Result plus(Result other) {
+            return new Result(written + other.written, duplicates + other.duplicates, rejected + other.rejected);
+        }
+    }
+}
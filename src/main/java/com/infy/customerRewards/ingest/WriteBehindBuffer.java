@@ -0,0 +1,253 @@
+package com.infy.customerRewards.ingest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.infy.customerRewards.exception.ServiceUnavailableException;
+import com.infy.customerRewards.ingest.IngestJournal.Entry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Component buffering ingested transactions behind a local journal and writing them to the
+ * database in batches, active when rewards.ingest.mode=write-behind.
+ * <p>
+ * A transaction is acknowledged once its record is journaled (and fsynced, unless disabled);
+ * a single flusher thread then writes up to rewards.ingest.batch-size records per batch, waiting
+ * at most rewards.ingest.flush-interval after the first for a batch to fill. Failed batches are
+ * retried with backoff and never dropped, so delivery is at-least-once; the writer skips records
+ * already stored. At most rewards.ingest.capacity records may be unflushed: beyond that appends
+ * wait up to rewards.ingest.offer-timeout and are then refused with 503, so a stalled database
+ * slows producers down instead of filling the disk. Records left in the journal by a crash are
+ * replayed on startup, ahead of new ones, and their idempotency keys remembered again so a
+ * retry of a transaction still in the journal is recognised.
+ * Published as rewards.ingest.pending, rewards.ingest.flushes and rewards.ingest.refused.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@ConditionalOnProperty(prefix = "rewards.ingest", name = "mode", havingValue = "write-behind")
+public class WriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBuffer.class);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final TransactionBatchWriter writer;
+    private final IngestJournal journal;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final Semaphore capacity;
+    private final LinkedBlockingQueue<Entry> pending = new LinkedBlockingQueue<>();
+    private final List<Entry> inFlight = new ArrayList<>();
+    private final Object appendLock = new Object();
+    private final ExecutorService flusher =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("rewards-ingest-flush-"));
+    private final Timer flushes;
+    private final Counter refused;
+    private volatile boolean closed;
+
+    /**
+     * Constructs the buffer, opening the journal and queueing any records it replays.
+     * The flusher thread is started separately by start.
+     *
+     * @param properties the ingestion settings
+     * @param writer the batch writer
+     * @param recentKeys the recent idempotency keys
+     * @param registry the meter registry
+     */
+    public WriteBehindBuffer(IngestProperties properties, TransactionBatchWriter writer, RecentKeys recentKeys,
+                             MeterRegistry registry) {
+        this.writer = writer;
+        this.journal = new IngestJournal(Path.of(properties.getDirectory()), properties.getSegmentBytes(),
+                properties.isFsync());
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.offerTimeoutNanos = properties.getOfferTimeout().toNanos();
+        List<Entry> replayed = journal.replayed();
+        this.capacity = new Semaphore(properties.getCapacity() - replayed.size());
+        pending.addAll(replayed);
+        replayed.stream().map(Entry::record).filter(record -> record.dedupKey() != null).forEach(recentKeys::put);
+        if (!replayed.isEmpty()) {
+            log.info("Replaying {} ingested transactions from {}", replayed.size(), properties.getDirectory());
+        }
+        Gauge.builder("rewards.ingest.pending", this, WriteBehindBuffer::pending)
+                .description("Ingested transactions journaled but not yet in the database")
+                .register(registry);
+        this.flushes = Timer.builder("rewards.ingest.flushes")
+                .description("Batches of ingested transactions written to the database")
+                .register(registry);
+        this.refused = Counter.builder("rewards.ingest.refused")
+                .description("Ingested transactions refused because the buffer was full")
+                .register(registry);
+    }
+
+    /**
+     * Starts the flusher thread.
+     */
+    @PostConstruct
+    public void start() {
+        flusher.execute(this::run);
+    }
+
+    /**
+     * Journals a transaction for writing. Returns once the record is durable.
+     *
+     * @param record the scored transaction, with its ID assigned
+     * @throws ServiceUnavailableException if the buffer stays full for the offer timeout, or is
+     *         shutting down
+     */
+    public void append(IngestRecord record) {
+        if (closed) {
+            throw new ServiceUnavailableException("Transaction ingestion is shutting down", 1);
+        }
+        try {
+            if (!capacity.tryAcquire(offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                refused.increment();
+                throw new ServiceUnavailableException("Transaction buffer is full, retry later", 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted waiting for the transaction buffer", 1);
+        }
+        Entry entry;
+        try {
+            synchronized (appendLock) {
+                entry = journal.append(record);
+                pending.add(entry);
+            }
+        } catch (RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+        journal.sync(entry.sequence());
+    }
+
+    /**
+     * Writes the records pending right now, up to one batch, without waiting for more.
+     *
+     * @return the number of records flushed
+     * @throws org.springframework.dao.DataAccessException if the batch cannot be written; it is
+     *         kept and retried by the next flush
+     */
+    public int flush() {
+        try {
+            return flush(0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    /**
+     * Gets the number of records not yet written to the database.
+     *
+     * @return the pending count
+     */
+    public int pending() {
+        return pending.size() + inFlight.size();
+    }
+
+    /**
+     * Stops accepting records, gives the flusher time to write what is pending, and closes the
+     * journal. Whatever is still unwritten stays journaled and is replayed on the next start.
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+                flusher.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+        journal.release(firstNeededSegment());
+        if (pending() > 0) {
+            log.warn("{} ingested transactions left in the journal for the next start", pending());
+        }
+    }
+
+    private void run() {
+        long backoff = flushIntervalNanos;
+        while (!closed || pending() > 0) {
+            try {
+                flush(closed ? 0 : flushIntervalNanos);
+                backoff = flushIntervalNanos;
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Writing {} ingested transactions failed, retrying", inFlight.size(), e);
+                try {
+                    TimeUnit.NANOSECONDS.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            }
+        }
+    }
+
+    private int flush(long lingerNanos) throws InterruptedException {
+        if (inFlight.isEmpty()) {
+            Entry first = pending.poll(lingerNanos, TimeUnit.NANOSECONDS);
+            if (first == null) {
+                return 0;
+            }
+            inFlight.add(first);
+            long deadline = System.nanoTime() + lingerNanos;
+            while (inFlight.size() < batchSize) {
+                pending.drainTo(inFlight, batchSize - inFlight.size());
+                long remaining = deadline - System.nanoTime();
+                if (inFlight.size() >= batchSize || remaining <= 0) {
+                    break;
+                }
+                Entry next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                inFlight.add(next);
+            }
+        }
+        List<IngestRecord> records = inFlight.stream().map(Entry::record).toList();
+        long started = System.nanoTime();
+        writer.write(records);
+        flushes.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        int flushed = inFlight.size();
+        inFlight.clear();
+        capacity.release(flushed);
+        journal.release(firstNeededSegment());
+        return flushed;
+    }
+
+    private long firstNeededSegment() {
+        synchronized (appendLock) {
+            Entry head = !inFlight.isEmpty() ? inFlight.get(0) : pending.peek();
+            return head != null ? head.segment() : Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.infy.customerRewards.job;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Reward re-scoring settings bound from the rewards.rescoring.* properties.
+ * Each shard's customers are split into rangesPerShard customer-ID ranges, walked by workers
+ * threads in batches of batchSize, together at most rowsPerSecond rows a second (0 for no cap).
+ * Progress is checkpointed under directory. One instance at a time runs a pass, holding a lease
+ * for leaseTtl that it renews while it works.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@ConfigurationProperties(prefix = "rewards.rescoring")
+public class RescoringProperties {
+
+    private boolean enabled = true;
+    private int batchSize = 1000;
+    private Duration initialDelay = Duration.ofSeconds(30);
+    private Duration interval = Duration.ofHours(1);
+    private int workers = 4;
+    private int rangesPerShard = 16;
+    private double rowsPerSecond = 5000;
+    private String directory = "data/rescoring";
+    private Duration leaseTtl = Duration.ofMinutes(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(Duration initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getRangesPerShard() {
+        return rangesPerShard;
+    }
+
+    public void setRangesPerShard(int rangesPerShard) {
+        this.rangesPerShard = rangesPerShard;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public Duration getLeaseTtl() {
+        return leaseTtl;
+    }
+
+    public void setLeaseTtl(Duration leaseTtl) {
+        this.leaseTtl = leaseTtl;
+    }
+}
@@ -0,0 +1,545 @@
+package com.infy.customerRewards.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.dto.RescoringStatusDTO;
+import com.infy.customerRewards.exception.CustomException;
+import com.infy.customerRewards.repository.TransactionRepository;
+import com.infy.customerRewards.repository.TransactionRepository.StaleTransaction;
+import com.infy.customerRewards.utility.RewardCalculator;
+import com.infy.customerRewards.utility.TokenBucket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background job storing reward points for transactions scored under an older rule version,
+ * or not scored at all (rows written before points were stored, or by other tools, or every
+ * row once the rules change). Only rows with a lower version are touched, so an older instance
+ * still running during a rolling deploy never downgrades newer scores, and only their
+ * reward_points and rule_version columns are written, so a concurrent change to the rest of the
+ * row, such as a review_status cleared meanwhile, is kept.
+ * <p>
+ * Passes run on one instance at a time: a run first takes the rescoring row of the job_leases
+ * table (on the first shard) for rewards.rescoring.lease-ttl, and renews it between batches
+ * while it walks. Other instances find the lease held and skip their run; if the holder stops
+ * renewing, the next instance to run after the lease expires takes over from its own
+ * checkpoint. Instances' clocks must agree to well within the lease TTL.
+ * <p>
+ * A pass splits each shard's customers into rewards.rescoring.ranges-per-shard customer-ID
+ * ranges, walked in parallel by rewards.rescoring.workers threads, in customer and ID order,
+ * in batches of rewards.rescoring.batch-size committed one transaction each. Together the
+ * workers re-score at most rewards.rescoring.rows-per-second rows a second, drawn from a token
+ * bucket holding one batch.
+ * <p>
+ * After every batch the position reached in each range is saved to rescoring.properties under
+ * rewards.rescoring.directory. A pass stopped by pause, a failure or a restart continues from
+ * there on resume or at the next scheduled run; a batch committed but not yet recorded is
+ * looked at again and finds nothing stale. Pausing is recorded too and survives restarts. A
+ * pass for an older rule version is dropped and a new one planned. Re-scored rows are counted
+ * in rewards.rescoring.rows.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@ConditionalOnProperty(prefix = "rewards.rescoring", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RewardRescoringJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardRescoringJob.class);
+    private static final String STATE_FILE = "rescoring.properties";
+    private static final long SHUTDOWN_WAIT_SECONDS = 10;
+    private static final String LEASE = "rescoring";
+    private static final String RENEW_LEASE = "UPDATE job_leases SET owner = ?, expires_at = ?"
+            + " WHERE name = ? AND (owner = ? OR expires_at < ?)";
+    private static final String INSERT_LEASE = "INSERT INTO job_leases (name, owner, expires_at) VALUES (?, ?, ?)";
+    private static final String RELEASE_LEASE = "UPDATE job_leases SET expires_at = 0 WHERE name = ? AND owner = ?";
+    private static final String UPDATE_SCORE = "UPDATE transactions SET reward_points = ?, rule_version = ?"
+            + " WHERE id = ? AND (rule_version IS NULL OR rule_version < ?)";
+
+    private final TransactionRepository transactionRepository;
+    private final RewardCalculator rewardCalculator;
+    private final ShardRouter shards;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final String owner = UUID.randomUUID().toString();
+    private final long leaseTtlMillis;
+    private final int batchSize;
+    private final int rangesPerShard;
+    private final Path directory;
+    private final Counter rescored;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService workers;
+    private final ExecutorService launcher =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("rewards-rescoring-run-"));
+    private volatile Pass pass;
+    private volatile boolean paused;
+    private volatile boolean closed;
+    private volatile double rowsPerSecond;
+    private volatile TokenBucket throttle;
+    private volatile boolean standby;
+    private long leaseRenewAt;
+
+    /**
+     * Constructs the job, picking up the pass and pause recorded by a previous run.
+     *
+     * @param transactionRepository the transaction repository
+     * @param rewardCalculator the reward calculator
+     * @param shards the shard router
+     * @param dataSource the application datasource
+     * @param transactionManager the transaction manager
+     * @param properties the re-scoring settings
+     * @param registry the meter registry
+     */
+    public RewardRescoringJob(TransactionRepository transactionRepository, RewardCalculator rewardCalculator,
+                              ShardRouter shards, DataSource dataSource, PlatformTransactionManager transactionManager,
+                              RescoringProperties properties, MeterRegistry registry) {
+        this.transactionRepository = transactionRepository;
+        this.rewardCalculator = rewardCalculator;
+        this.shards = shards;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.leaseTtlMillis = properties.getLeaseTtl().toMillis();
+        this.batchSize = properties.getBatchSize();
+        this.rangesPerShard = Math.max(1, properties.getRangesPerShard());
+        this.directory = Path.of(properties.getDirectory());
+        this.workers = Executors.newFixedThreadPool(Math.max(1, properties.getWorkers()),
+                new CustomizableThreadFactory("rewards-rescoring-"));
+        this.rescored = Counter.builder("rewards.rescoring.rows")
+                .description("Transactions re-scored under the current reward rules")
+                .register(registry);
+        throttle(properties.getRowsPerSecond());
+        load();
+    }
+
+    /**
+     * Scheduled entry point.
+     */
+    @Scheduled(initialDelayString = "${rewards.rescoring.initial-delay:30s}",
+            fixedDelayString = "${rewards.rescoring.interval:1h}")
+    public void run() {
+        rescoreAll();
+    }
+
+    /**
+     * Re-scores every stale transaction, continuing the current pass or planning a new one.
+     * Does nothing while paused, if a run is already in progress, or if another instance holds
+     * the lease.
+     *
+     * @return the number of transactions re-scored
+     */
+    public long rescoreAll() {
+        long total = 0;
+        while (!paused && running.compareAndSet(false, true)) {
+            Pass current;
+            try {
+                if (!acquireLease()) {
+                    break;
+                }
+                current = currentPass();
+                total += walk(current);
+                if (current.isCompleted()) {
+                    releaseLease();
+                }
+            } finally {
+                running.set(false);
+            }
+            // Stopped by a pause already lifted, whose resume saw this run still going: go on
+            if (paused || closed || current.isCompleted()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Stops the workers after their current batch, until resume, also across restarts.
+     *
+     * @return the job status
+     */
+    public RescoringStatusDTO pause() {
+        paused = true;
+        save();
+        return status();
+    }
+
+    /**
+     * Lifts a pause and continues the current pass in the background.
+     *
+     * @return the job status
+     * @throws CustomException if the job is shutting down
+     */
+    public RescoringStatusDTO resume() {
+        paused = false;
+        save();
+        if (!running.get()) {
+            try {
+                launcher.execute(this::rescoreAll);
+            } catch (RejectedExecutionException e) {
+                throw new CustomException("Re-scoring is shutting down");
+            }
+        }
+        return status();
+    }
+
+    /**
+     * Changes the cap on rows re-scored a second, from the next batch on, until restart.
+     *
+     * @param rowsPerSecond the new cap, 0 for none
+     * @return the job status
+     * @throws CustomException if the cap is negative
+     */
+    public RescoringStatusDTO throttle(double rowsPerSecond) {
+        if (rowsPerSecond < 0 || Double.isNaN(rowsPerSecond)) {
+            throw new CustomException("rowsPerSecond must be 0 or more");
+        }
+        this.rowsPerSecond = rowsPerSecond;
+        this.throttle = rowsPerSecond > 0
+                ? new TokenBucket(Math.max(1, batchSize), rowsPerSecond, System.nanoTime()) : null;
+        return status();
+    }
+
+    /**
+     * @return the progress of the current pass
+     */
+    public RescoringStatusDTO status() {
+        Pass current = pass;
+        String state = paused ? "PAUSED" : running.get() ? "RUNNING" : standby ? "STANDBY"
+                : current != null && current.isCompleted() ? "COMPLETED" : "IDLE";
+        return RescoringStatusDTO.builder()
+                .state(state)
+                .ruleVersion(current != null ? current.ruleVersion : RewardCalculator.RULE_VERSION)
+                .ranges(current != null ? current.ranges.size() : 0)
+                .rangesCompleted(current != null
+                        ? (int) current.ranges.stream().filter(range -> range.done).count() : 0)
+                .rows(current != null ? current.ranges.stream().mapToLong(range -> range.rows).sum() : 0)
+                .rowsPerSecond(rowsPerSecond)
+                .build();
+    }
+
+    /**
+     * Stops the workers after their current batch, waiting a while for it to be committed and
+     * checkpointed, then gives up the lease; the pass continues after the restart, here or on
+     * another instance.
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        launcher.shutdown();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)
+                    || !launcher.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Re-scoring batches still running at shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!standby) {
+            try {
+                releaseLease();
+            } catch (RuntimeException e) {
+                log.warn("Cannot release the re-scoring lease, it expires on its own", e);
+            }
+        }
+    }
+
+    /**
+     * Takes or renews the lease, on the first shard; it is free once expired or released.
+     */
+    private synchronized boolean acquireLease() {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + leaseTtlMillis;
+        Boolean acquired = transactions.execute(status -> {
+            shards.bindShard(0);
+            if (jdbc.update(RENEW_LEASE, owner, expiresAt, LEASE, owner, now) == 1) {
+                return true;
+            }
+            try {
+                return jdbc.update(INSERT_LEASE, LEASE, owner, expiresAt) == 1;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        });
+        standby = !Boolean.TRUE.equals(acquired);
+        leaseRenewAt = now + leaseTtlMillis / 3;
+        return !standby;
+    }
+
+    /**
+     * Renews the lease once a third of its TTL has passed since it was last taken.
+     *
+     * @return false once the lease is lost to another instance
+     */
+    private synchronized boolean holdLease() {
+        return !standby && (System.currentTimeMillis() < leaseRenewAt || acquireLease());
+    }
+
+    private void releaseLease() {
+        transactions.executeWithoutResult(status -> {
+            shards.bindShard(0);
+            jdbc.update(RELEASE_LEASE, LEASE, owner);
+        });
+    }
+
+    private Pass currentPass() {
+        Pass current = pass;
+        if (current == null || current.ruleVersion != RewardCalculator.RULE_VERSION || current.isCompleted()) {
+            current = plan();
+            pass = current;
+            save();
+        }
+        return current;
+    }
+
+    /**
+     * Splits each shard's customer IDs, from the lowest to the highest with transactions, into
+     * equal ranges; the first and last are open-ended to take customers added meanwhile.
+     */
+    private Pass plan() {
+        List<Range> ranges = new ArrayList<>();
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            int target = shard;
+            Long[] bounds = transactions.execute(status -> {
+                shards.bindShard(target);
+                return new Long[] { transactionRepository.findMinCustomerId(),
+                        transactionRepository.findMaxCustomerId() };
+            });
+            TreeSet<Long> starts = new TreeSet<>();
+            starts.add(Long.MIN_VALUE);
+            if (bounds[0] != null) {
+                BigInteger lowest = BigInteger.valueOf(bounds[0]);
+                BigInteger span = BigInteger.valueOf(bounds[1]).subtract(lowest).add(BigInteger.ONE);
+                for (int i = 1; i < rangesPerShard; i++) {
+                    starts.add(lowest.add(span.multiply(BigInteger.valueOf(i))
+                            .divide(BigInteger.valueOf(rangesPerShard))).longValueExact());
+                }
+            }
+            for (Long from : starts) {
+                Long next = starts.higher(from);
+                ranges.add(new Range(shard, from, next != null ? next - 1 : Long.MAX_VALUE));
+            }
+        }
+        return new Pass(RewardCalculator.RULE_VERSION, ranges);
+    }
+
+    /**
+     * Walks the unfinished ranges of a pass on the workers until they end, fail, or are stopped.
+     */
+    private long walk(Pass current) {
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (Range range : current.ranges) {
+            if (!range.done) {
+                futures.add(CompletableFuture.supplyAsync(() -> rescoreRange(range), workers));
+            }
+        }
+        long total = 0;
+        RuntimeException failure = null;
+        for (CompletableFuture<Long> future : futures) {
+            try {
+                total += future.join();
+            } catch (CompletionException e) {
+                failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        if (failure != null) {
+            log.warn("Re-scoring stopped after {} rows; the pass continues from its checkpoint", total, failure);
+            throw failure;
+        }
+        if (current.isCompleted()) {
+            log.info("Re-scoring pass for rule version {} completed", current.ruleVersion);
+        }
+        return total;
+    }
+
+    private long rescoreRange(Range range) {
+        long total = 0;
+        while (!paused && !closed && holdLease()) {
+            Batch batch = transactions.execute(status -> {
+                shards.bindShard(range.shard);
+                List<StaleTransaction> stale = transactionRepository.findStale(RewardCalculator.RULE_VERSION,
+                        range.afterCustomerId, range.afterId, range.to, PageRequest.of(0, batchSize));
+                jdbc.batchUpdate(UPDATE_SCORE, stale, stale.size(), (statement, row) -> {
+                    statement.setInt(1, rewardCalculator.calculatePoints(row.getAmount()));
+                    statement.setInt(2, RewardCalculator.RULE_VERSION);
+                    statement.setLong(3, row.getId());
+                    statement.setInt(4, RewardCalculator.RULE_VERSION);
+                });
+                StaleTransaction last = stale.isEmpty() ? null : stale.get(stale.size() - 1);
+                return last != null ? new Batch(stale.size(), last.getCustomerId(), last.getId())
+                        : new Batch(0, range.afterCustomerId, range.afterId);
+            });
+            total += batch.rows;
+            rescored.increment(batch.rows);
+            range.advance(batch, batch.rows < batchSize);
+            save();
+            if (range.done) {
+                break;
+            }
+            awaitThrottle(batch.rows);
+        }
+        return total;
+    }
+
+    /** Waits until the throttle lets the rows just re-scored through. */
+    private void awaitThrottle(int rows) {
+        TokenBucket bucket = throttle;
+        while (bucket != null && rows > 0 && !closed) {
+            TokenBucket.Decision decision = bucket.tryAcquire(Math.min(rows, Math.max(1, batchSize)),
+                    System.nanoTime());
+            if (decision.allowed()) {
+                return;
+            }
+            LockSupport.parkNanos(decision.retryAfterNanos());
+            bucket = throttle;
+        }
+    }
+
+    private synchronized void save() {
+        Properties properties = new Properties();
+        properties.setProperty("paused", Boolean.toString(paused));
+        Pass current = pass;
+        if (current != null) {
+            properties.setProperty("ruleVersion", Integer.toString(current.ruleVersion));
+            properties.setProperty("ranges", Integer.toString(current.ranges.size()));
+            for (int i = 0; i < current.ranges.size(); i++) {
+                properties.setProperty("range." + i, current.ranges.get(i).toString());
+            }
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temporary = directory.resolve(STATE_FILE + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(temporary, directory.resolve(STATE_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Cannot record re-scoring checkpoint", e);
+        }
+    }
+
+    private void load() {
+        Path state = directory.resolve(STATE_FILE);
+        if (!Files.exists(state)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(state, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            log.warn("Cannot read re-scoring checkpoint, planning a new pass", e);
+            return;
+        }
+        paused = Boolean.parseBoolean(properties.getProperty("paused"));
+        String ruleVersion = properties.getProperty("ruleVersion");
+        if (ruleVersion != null) {
+            int count = Integer.parseInt(properties.getProperty("ranges"));
+            List<Range> ranges = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ranges.add(Range.parse(properties.getProperty("range." + i)));
+            }
+            pass = new Pass(Integer.parseInt(ruleVersion), ranges);
+        }
+    }
+
+    /**
+     * One walk over every shard's customers, scoring to one rule version.
+     */
+    private record Pass(int ruleVersion, List<Range> ranges) {
+
+        boolean isCompleted() {
+            return ranges.stream().allMatch(range -> range.done);
+        }
+    }
+
+    /**
+     * The re-scored rows of one batch and the last of them, or where the range stood if none.
+     */
+    private record Batch(int rows, long lastCustomerId, long lastId) {
+    }
+
+    /**
+     * Customers from through to (inclusive) of one shard, walked by one worker at a time, and
+     * the last transaction reached; saved as shard,from,to,afterCustomerId,afterId,rows,done.
+     * Advanced and saved under its lock, so a checkpoint never pairs one batch's customer with
+     * another's ID.
+     */
+    private static final class Range {
+
+        final int shard;
+        final long from;
+        final long to;
+        volatile long afterCustomerId;
+        volatile long afterId = Long.MIN_VALUE;
+        volatile long rows;
+        volatile boolean done;
+
+        Range(int shard, long from, long to) {
+            this.shard = shard;
+            this.from = from;
+            this.to = to;
+            this.afterCustomerId = from;
+        }
+
+        static Range parse(String value) {
+            String[] fields = value.split(",");
+            Range range = new Range(Integer.parseInt(fields[0]), Long.parseLong(fields[1]), Long.parseLong(fields[2]));
+            range.afterCustomerId = Long.parseLong(fields[3]);
+            range.afterId = Long.parseLong(fields[4]);
+            range.rows = Long.parseLong(fields[5]);
+            range.done = Boolean.parseBoolean(fields[6]);
+            return range;
+        }
+
+        synchronized void advance(Batch batch, boolean end) {
+            afterCustomerId = batch.lastCustomerId;
+            afterId = batch.lastId;
+            rows += batch.rows;
+            done = end;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return shard + "," + from + "," + to + "," + afterCustomerId + "," + afterId + "," + rows + "," + done;
+        }
+    }
+}
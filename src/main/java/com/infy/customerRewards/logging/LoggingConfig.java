@@ -0,0 +1,109 @@
+package com.infy.customerRewards.logging;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ch.qos.logback.classic.Level;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of sampled SQL logging and of the logging metrics.
+ * With rewards.logging.sql.enabled the DataSource bean is wrapped so that executed statements
+ * reach the SqlStatementLogger. The ring-buffer appenders started by logback-spring.xml
+ * publish their queued, dropped and synchronously appended event counts as rewards.logging.events,
+ * and the dropped ones per level as rewards.logging.dropped.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration
+public class LoggingConfig {
+
+    /**
+     * Creates the logger deciding which statements are logged.
+     *
+     * @param properties the logging settings
+     * @return the statement logger
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "rewards.logging.sql", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SqlStatementLogger sqlStatementLogger(LoggingProperties properties) {
+        return new SqlStatementLogger(properties.getSql().getSampleRate(), properties.getSql().getSlowThreshold());
+    }
+
+    /**
+     * Wraps DataSource beans with statement timing when SQL logging is enabled.
+     *
+     * @param statementLogger the statement logger, absent when SQL logging is disabled
+     * @return the post processor
+     */
+    @Bean
+    public static BeanPostProcessor sqlLoggingDataSourcePostProcessor(ObjectProvider<SqlStatementLogger> statementLogger) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    SqlStatementLogger logger = statementLogger.getIfAvailable();
+                    return logger != null ? SqlLoggingDataSource.wrap(dataSource, logger) : bean;
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Publishes the appender and statement counters.
+     *
+     * @param statementLogger the statement logger, absent when SQL logging is disabled
+     * @return the meter binder
+     */
+    @Bean
+    public MeterBinder loggingMetrics(ObjectProvider<SqlStatementLogger> statementLogger) {
+        return registry -> {
+            eventCounter(registry, "queued", RingBufferAppender::getQueuedCount);
+            eventCounter(registry, "dropped", RingBufferAppender::getDroppedCount);
+            eventCounter(registry, "synchronous", RingBufferAppender::getSynchronousCount);
+            for (Level level : List.of(Level.TRACE, Level.DEBUG, Level.INFO)) {
+                FunctionCounter.builder("rewards.logging.dropped", RingBufferAppender.started(),
+                                appenders -> appenders.stream().mapToDouble(a -> a.getDroppedCount(level)).sum())
+                        .description("Log events dropped because the asynchronous appenders were nearly full")
+                        .tag("level", level.levelStr.toLowerCase())
+                        .register(registry);
+            }
+            statementLogger.ifAvailable(logger -> {
+                sqlCounter(registry, logger, "executed", SqlStatementLogger::getStatementCount);
+                sqlCounter(registry, logger, "sampled", SqlStatementLogger::getSampledCount);
+                sqlCounter(registry, logger, "slow", SqlStatementLogger::getSlowCount);
+            });
+        };
+    }
+
+    private static void eventCounter(MeterRegistry registry, String outcome,
+                                     ToDoubleFunction<RingBufferAppender> count) {
+        FunctionCounter.builder("rewards.logging.events", RingBufferAppender.started(),
+                        appenders -> appenders.stream().mapToDouble(count).sum())
+                .description("Log events handed to the asynchronous appenders")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static void sqlCounter(MeterRegistry registry, SqlStatementLogger logger,
+                                   String outcome, ToDoubleFunction<SqlStatementLogger> count) {
+        FunctionCounter.builder("rewards.sql.statements", logger, count)
+                .description("SQL statements seen by the statement logger")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
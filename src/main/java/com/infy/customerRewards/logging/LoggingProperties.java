@@ -0,0 +1,97 @@
+package com.infy.customerRewards.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Logging settings bound from the rewards.logging.* properties.
+ * The async and ring-buffer-size values are read by logback-spring.xml; the sql and request
+ * entries control which statements and requests are logged.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@ConfigurationProperties(prefix = "rewards.logging")
+public class LoggingProperties {
+
+    private boolean async = true;
+    private int ringBufferSize = 8192;
+    private Capture sql = new Capture(0.01, Duration.ofMillis(200));
+    private Capture request = new Capture(0.01, Duration.ofSeconds(1));
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public int getRingBufferSize() {
+        return ringBufferSize;
+    }
+
+    public void setRingBufferSize(int ringBufferSize) {
+        this.ringBufferSize = ringBufferSize;
+    }
+
+    public Capture getSql() {
+        return sql;
+    }
+
+    public void setSql(Capture sql) {
+        this.sql = sql;
+    }
+
+    public Capture getRequest() {
+        return request;
+    }
+
+    public void setRequest(Capture request) {
+        this.request = request;
+    }
+
+    /**
+     * Sampling and slow-capture settings for one kind of event.
+     */
+    public static class Capture {
+
+        private boolean enabled = true;
+        private double sampleRate;
+        private Duration slowThreshold;
+
+        public Capture() {
+        }
+
+        Capture(double sampleRate, Duration slowThreshold) {
+            this.sampleRate = sampleRate;
+            this.slowThreshold = slowThreshold;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+    }
+}
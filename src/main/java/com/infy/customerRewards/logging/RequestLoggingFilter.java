@@ -0,0 +1,100 @@
+package com.infy.customerRewards.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet filter logging a sample of API requests and every slow one.
+ * Requests slower than rewards.logging.request.slow-threshold are logged at WARN on
+ * rewards.requests.slow; of the others, rewards.logging.request.sample-rate are logged at INFO
+ * on rewards.requests. Asynchronous requests are timed until their response completes.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(prefix = "rewards.logging.request", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final Logger SAMPLED = LoggerFactory.getLogger("rewards.requests");
+    private static final Logger SLOW = LoggerFactory.getLogger("rewards.requests.slow");
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    /**
+     * Constructs the filter.
+     *
+     * @param properties the logging settings
+     */
+    public RequestLoggingFilter(LoggingProperties properties) {
+        this.sampleRate = properties.getRequest().getSampleRate();
+        this.slowThresholdNanos = properties.getRequest().getSlowThreshold().toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/rewards");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(request, response, start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                log(request, response, start);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (elapsed >= slowThresholdNanos) {
+            SLOW.warn("{} {} {} {} ms", request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            SAMPLED.info("{} {} {} {} us", request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    TimeUnit.NANOSECONDS.toMicros(elapsed));
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.infy.customerRewards.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logback appender handing events to its attached appenders from a single background thread.
+ * Logging threads only claim a slot in a fixed-size, lock-free ring buffer and return; they
+ * never block on file or console I/O. As in logback's AsyncAppender, once fewer than
+ * discardingThreshold slots are free (a fifth of the buffer unless set; 0 never discards early)
+ * TRACE, DEBUG and INFO events are dropped and counted per level instead of stalling the request,
+ * keeping the remaining slots for WARN and ERROR. Those are never dropped: when the buffer is
+ * full the logging thread appends them itself. With async=false events are passed on
+ * synchronously, which is the plain logback behaviour.
+ * <p>
+ * The buffer is a bounded multi-producer queue with a sequence number per slot: a producer
+ * claims a position with one compare-and-set and publishes the event by advancing the slot's
+ * sequence, so the single consumer sees fully written slots only. An idle consumer parks
+ * until the next producer unparks it, so an appender with nothing to log costs no CPU.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private static final List<RingBufferAppender> STARTED = new CopyOnWriteArrayList<>();
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder[] dropped = { new LongAdder(), new LongAdder(), new LongAdder() };
+    private final LongAdder synchronous = new LongAdder();
+    private final AtomicLong tail = new AtomicLong();
+
+    private int bufferSize = 8192;
+    private int discardingThreshold = -1;
+    private boolean async = true;
+    private boolean includeCallerData;
+    private long maxFlushTime = 1000;
+
+    private ILoggingEvent[] slots;
+    private AtomicLongArray sequences;
+    private int mask;
+    private int discardBelow;
+    private volatile long head;
+    private volatile boolean running;
+    private volatile boolean sleeping;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        slots = new ILoggingEvent[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+        discardBelow = discardingThreshold < 0 ? capacity / 5 : discardingThreshold;
+        if (async) {
+            running = true;
+            worker = new Thread(this::drain, "rewards-log-" + getName());
+            worker.setDaemon(true);
+            worker.start();
+        }
+        STARTED.add(this);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            try {
+                worker.join(maxFlushTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        STARTED.remove(this);
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (!async) {
+            appenders.appendLoopOnAppenders(event);
+            return;
+        }
+        boolean discardable = !event.getLevel().isGreaterOrEqual(Level.WARN);
+        if (discardable && remainingCapacity() < discardBelow) {
+            dropped[levelIndex(event.getLevel())].increment();
+            return;
+        }
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+        if (offer(event)) {
+            queued.increment();
+            if (sleeping) {
+                sleeping = false;
+                LockSupport.unpark(worker);
+            }
+        } else if (discardable) {
+            dropped[levelIndex(event.getLevel())].increment();
+        } else {
+            synchronous.increment();
+            appenders.appendLoopOnAppenders(event);
+        }
+    }
+
+    private long remainingCapacity() {
+        return mask + 1 - (tail.get() - head);
+    }
+
+    private static int levelIndex(Level level) {
+        return level.toInt() <= Level.TRACE_INT ? 0 : level.toInt() <= Level.DEBUG_INT ? 1 : 2;
+    }
+
+    private boolean offer(ILoggingEvent event) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long gap = sequences.get(index) - position;
+            if (gap == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = event;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (gap < 0) {
+                return false;
+            }
+        }
+    }
+
+    private ILoggingEvent poll() {
+        int index = (int) (head & mask);
+        if (!hasNext()) {
+            return null;
+        }
+        ILoggingEvent event = slots[index];
+        slots[index] = null;
+        sequences.set(index, head + mask + 1);
+        head++;
+        return event;
+    }
+
+    private boolean hasNext() {
+        return sequences.get((int) (head & mask)) == head + 1;
+    }
+
+    private void drain() {
+        while (true) {
+            ILoggingEvent event = poll();
+            if (event != null) {
+                appenders.appendLoopOnAppenders(event);
+            } else if (running) {
+                sleeping = true;
+                if (!hasNext()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                sleeping = false;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of events accepted into the buffer.
+     * @return the queued event count
+     */
+    public long getQueuedCount() {
+        return queued.sum();
+    }
+
+    /**
+     * Gets the number of events dropped because the buffer was (nearly) full.
+     * @return the dropped event count
+     */
+    public long getDroppedCount() {
+        return Arrays.stream(dropped).mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Gets the number of events of a level dropped because the buffer was (nearly) full; always 0
+     * for WARN and ERROR.
+     * @param level the level
+     * @return the dropped event count of the level
+     */
+    public long getDroppedCount(Level level) {
+        return level.isGreaterOrEqual(Level.WARN) ? 0 : dropped[levelIndex(level)].sum();
+    }
+
+    /**
+     * Gets the number of WARN and ERROR events appended by the logging thread because the buffer
+     * was full.
+     * @return the synchronously appended event count
+     */
+    public long getSynchronousCount() {
+        return synchronous.sum();
+    }
+
+    /**
+     * Gets the ring-buffer appenders currently started.
+     * @return the started appenders
+     */
+    public static List<RingBufferAppender> started() {
+        return STARTED;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    public void setMaxFlushTime(long maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,95 @@
+package com.infy.customerRewards.logging;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+/**
+ * JDBC proxies timing statement execution for the SqlStatementLogger.
+ * The datasource hands out proxied connections whose statements report every execute call
+ * with its SQL text and duration. All other calls, including unwrap, go straight through.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public final class SqlLoggingDataSource {
+
+    private SqlLoggingDataSource() {
+    }
+
+    /**
+     * Wraps a datasource so its statements are timed and reported.
+     *
+     * @param target the datasource to wrap
+     * @param statementLogger the logger receiving executed statements
+     * @return the wrapping datasource
+     */
+    public static DataSource wrap(DataSource target, SqlStatementLogger statementLogger) {
+        return proxy(DataSource.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? connection(connection, statementLogger) : result;
+        });
+    }
+
+    private static Connection connection(Connection target, SqlStatementLogger statementLogger) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return statement(CallableStatement.class, statement, (String) args[0], statementLogger);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return statement(PreparedStatement.class, statement, (String) args[0], statementLogger);
+            }
+            if (result instanceof Statement statement) {
+                return statement(Statement.class, statement, null, statementLogger);
+            }
+            return result;
+        });
+    }
+
+    private static <S extends Statement> S statement(Class<S> type, S target, String preparedSql,
+                                                     SqlStatementLogger statementLogger) {
+        return proxy(type, target, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String text ? text : "batch";
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invoke(target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                statementLogger.executed(sql, System.nanoTime() - start, failed);
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlLoggingDataSource.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "SqlLogging[" + target + "]";
+                    default -> handler.invoke(proxy, method, args);
+                }));
+    }
+}
@@ -0,0 +1,93 @@
+package com.infy.customerRewards.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides which executed SQL statements are logged.
+ * Statements slower than the threshold are always logged at WARN on rewards.sql.slow; of the
+ * others, a random sample is logged at INFO on rewards.sql. Every statement is counted, so
+ * the sample can be related to the total volume.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class SqlStatementLogger {
+
+    private static final Logger SAMPLED = LoggerFactory.getLogger("rewards.sql");
+    private static final Logger SLOW = LoggerFactory.getLogger("rewards.sql.slow");
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+
+    /**
+     * Constructs the statement logger.
+     *
+     * @param sampleRate the fraction of statements logged, from 0 to 1
+     * @param slowThreshold the duration from which a statement is always logged
+     */
+    public SqlStatementLogger(double sampleRate, Duration slowThreshold) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    /**
+     * Records one executed statement.
+     *
+     * @param sql the statement text
+     * @param elapsedNanos the execution time
+     * @param failed whether the statement threw
+     */
+    public void executed(String sql, long elapsedNanos, boolean failed) {
+        statements.increment();
+        if (elapsedNanos >= slowThresholdNanos) {
+            slow.increment();
+            if (SLOW.isWarnEnabled()) {
+                SLOW.warn("{} ms{} | {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), failed ? " failed" : "", truncate(sql));
+            }
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            sampled.increment();
+            if (SAMPLED.isInfoEnabled()) {
+                SAMPLED.info("{} us{} | {}", TimeUnit.NANOSECONDS.toMicros(elapsedNanos), failed ? " failed" : "", truncate(sql));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of statements executed.
+     * @return the statement count
+     */
+    public long getStatementCount() {
+        return statements.sum();
+    }
+
+    /**
+     * Gets the number of statements logged by sampling.
+     * @return the sampled count
+     */
+    public long getSampledCount() {
+        return sampled.sum();
+    }
+
+    /**
+     * Gets the number of statements logged as slow.
+     * @return the slow count
+     */
+    public long getSlowCount() {
+        return slow.sum();
+    }
+
+    private static String truncate(String sql) {
+        return sql == null || sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,136 @@
+package com.infy.customerRewards.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.infy.customerRewards.dto.TransactionDTO;
+import com.infy.customerRewards.entity.ReviewStatus;
+import com.infy.customerRewards.utility.RewardCalculator;
+
+import javax.sql.DataSource;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only transaction queries on plain JDBC, mapping each row straight to a TransactionDTO
+ * with its reward points, enabled by rewards.read.engine=jdbc.
+ * <p>
+ * The same queries as the derived TransactionRepository methods, without managed entities:
+ * no persistence context, no dirty-checking snapshot and no second mapping into a DTO. Rows
+ * are fetched rewards.read.fetch-size at a time. Monthly reward sums are computed by the database.
+ * Calls join the caller's transaction, so shard and replica routing bound there apply.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Repository
+@ConditionalOnProperty(prefix = "rewards.read", name = "engine", havingValue = "jdbc")
+public class JdbcTransactionReadRepository {
+
+    private static final String SELECT_COLUMNS = "SELECT id, date, amount, product, reward_points, rule_version, "
+            + "review_status FROM transactions WHERE customer_id = ?";
+    private static final String NOT_HELD = "(review_status IS NULL OR review_status <> 'HELD')";
+    private static final String SELECT_MONTHLY_POINTS = "SELECT YEAR(date), MONTH(date), "
+            + "SUM(CASE WHEN rule_version = ? AND " + NOT_HELD + " THEN reward_points ELSE 0 END), "
+            + "SUM(CASE WHEN (rule_version IS NULL OR rule_version <> ?) AND " + NOT_HELD + " THEN 1 ELSE 0 END) "
+            + "FROM transactions WHERE customer_id = ? AND date BETWEEN ? AND ? GROUP BY YEAR(date), MONTH(date)";
+    private static final String SELECT_STALE = "SELECT date, amount FROM transactions "
+            + "WHERE customer_id = ? AND date BETWEEN ? AND ? AND (rule_version IS NULL OR rule_version <> ?) AND "
+            + NOT_HELD;
+
+    private final JdbcTemplate jdbc;
+    private final RewardCalculator rewardCalculator;
+    private final RowMapper<TransactionDTO> rowMapper;
+
+    /**
+     * Constructs the repository.
+     *
+     * @param dataSource the application datasource
+     * @param rewardCalculator the reward calculator
+     * @param fetchSize the rows fetched per round trip
+     */
+    public JdbcTransactionReadRepository(DataSource dataSource, RewardCalculator rewardCalculator,
+                                         @Value("${rewards.read.fetch-size:1000}") int fetchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(fetchSize);
+        this.rewardCalculator = rewardCalculator;
+        this.rowMapper = (rs, row) -> map(rs, rewardCalculator);
+    }
+
+    /**
+     * Finds all transactions of a customer.
+     *
+     * @param customerId the unique identifier of the customer
+     * @return the transactions with their reward points
+     */
+    public List<TransactionDTO> findByCustomerId(Long customerId) {
+        return jdbc.query(SELECT_COLUMNS, rowMapper, customerId);
+    }
+
+    /**
+     * Finds the transactions of a customer dated in [startDate, endDate].
+     *
+     * @param customerId the unique identifier of the customer
+     * @param startDate the first day included
+     * @param endDate the last day included
+     * @return the transactions with their reward points
+     */
+    public List<TransactionDTO> findByCustomerIdAndDateBetween(Long customerId, LocalDate startDate,
+                                                               LocalDate endDate) {
+        return jdbc.query(SELECT_COLUMNS + " AND date BETWEEN ? AND ?", rowMapper, customerId,
+                Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+
+    /**
+     * Sums the reward points of a customer's transactions dated in [startDate, endDate] by
+     * month, without reading the rows: one grouped query, then the few rows not yet re-scored
+     * to the current rules, if any, are read and scored here.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param startDate the first day included
+     * @param endDate the last day included
+     * @return the points per "YYYY-MM" month that has transactions
+     */
+    public Map<String, Integer> findMonthlyRewards(Long customerId, LocalDate startDate, LocalDate endDate) {
+        Map<String, Integer> monthlyRewards = new HashMap<>();
+        long[] unscored = new long[1];
+        jdbc.query(SELECT_MONTHLY_POINTS, rs -> {
+            monthlyRewards.put(YearMonth.of(rs.getInt(1), rs.getInt(2)).toString(), rs.getInt(3));
+            unscored[0] += rs.getLong(4);
+        }, RewardCalculator.RULE_VERSION, RewardCalculator.RULE_VERSION, customerId, Date.valueOf(startDate),
+                Date.valueOf(endDate));
+        if (unscored[0] > 0) {
+            jdbc.query(SELECT_STALE, rs -> {
+                monthlyRewards.merge(YearMonth.from(rs.getDate(1).toLocalDate()).toString(),
+                        rewardCalculator.calculatePoints(rs.getDouble(2)), Integer::sum);
+            }, customerId, Date.valueOf(startDate), Date.valueOf(endDate), RewardCalculator.RULE_VERSION);
+        }
+        return monthlyRewards;
+    }
+
+    private static TransactionDTO map(ResultSet rs, RewardCalculator rewardCalculator) throws SQLException {
+        TransactionDTO dto = new TransactionDTO();
+        dto.setId(rs.getLong(1));
+        Date date = rs.getDate(2);
+        dto.setDate(date != null ? date.toLocalDate() : null);
+        double amount = rs.getDouble(3);
+        dto.setAmount(rs.wasNull() ? null : amount);
+        dto.setProduct(rs.getString(4));
+        String reviewStatus = rs.getString(7);
+        dto.setReviewStatus(reviewStatus != null ? ReviewStatus.valueOf(reviewStatus) : null);
+        dto.setRewardPoints(rewardCalculator.pointsOf(dto.getAmount(), rs.getObject(5, Integer.class),
+                rs.getObject(6, Integer.class), dto.getReviewStatus()));
+        return dto;
+    }
+}
@@ -1,13 +1,18 @@
 package com.infy.customerRewards.repository;
 
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.infy.customerRewards.entity.Transaction;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -16,4 +21,183 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     List<Transaction> findByCustomerIdAndDateBetween(Long customerId, LocalDate startDate, LocalDate endDate);
 
+    Optional<Transaction> findByIdAndCustomerId(Long id, Long customerId);
+
+    /**
+     * Clears the review status of one of a customer's transactions, writing no other column.
+     *
+     * @param id the unique identifier of the transaction
+     * @param customerId the unique identifier of the customer
+     * @return 1 if the transaction had a review status, else 0
+     */
+    @Modifying
+    @Query("UPDATE Transaction t SET t.reviewStatus = NULL"
+            + " WHERE t.id = :id AND t.customer.id = :customerId AND t.reviewStatus IS NOT NULL")
+    int clearReviewStatus(@Param("id") Long id, @Param("customerId") Long customerId);
+
+    /**
+     * Sums a customer's reward points dated in [startDate, endDate] by calendar month, in one
+     * grouped scan that the customer/date index covers. Points are summed only for rows scored
+     * under the given rule version; the other rows are counted in unscored so the caller can
+     * score them itself. Held transactions earn no points and are left out of both.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param startDate the first day included
+     * @param endDate the last day included
+     * @param ruleVersion the current rule version
+     * @return one row per month that has transactions
+     */
+    @Query("SELECT YEAR(t.date) AS year, MONTH(t.date) AS month,"
+            + " SUM(CASE WHEN t.reviewStatus = com.infy.customerRewards.entity.ReviewStatus.HELD THEN 0"
+            + " WHEN t.ruleVersion = :ruleVersion THEN t.rewardPoints ELSE 0 END) AS points,"
+            + " SUM(CASE WHEN t.reviewStatus = com.infy.customerRewards.entity.ReviewStatus.HELD THEN 0"
+            + " WHEN t.ruleVersion = :ruleVersion THEN 0 ELSE 1 END) AS unscored"
+            + " FROM Transaction t WHERE t.customer.id = :customerId AND t.date BETWEEN :startDate AND :endDate"
+            + " GROUP BY YEAR(t.date), MONTH(t.date)")
+    List<MonthlyPoints> findMonthlyPoints(@Param("customerId") Long customerId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("ruleVersion") int ruleVersion);
+
+    /**
+     * Finds the dates and amounts of a customer's transactions dated in [startDate, endDate]
+     * that are not scored under the given rule version. Held transactions are left out.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param startDate the first day included
+     * @param endDate the last day included
+     * @param ruleVersion the current rule version
+     * @return the stale transactions
+     */
+    @Query("SELECT t.date AS date, t.amount AS amount FROM Transaction t"
+            + " WHERE t.customer.id = :customerId AND t.date BETWEEN :startDate AND :endDate"
+            + " AND (t.ruleVersion IS NULL OR t.ruleVersion <> :ruleVersion)"
+            + " AND (t.reviewStatus IS NULL OR t.reviewStatus <> com.infy.customerRewards.entity.ReviewStatus.HELD)")
+    List<DatedAmount> findStaleAmounts(@Param("customerId") Long customerId,
+                                       @Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate,
+                                       @Param("ruleVersion") int ruleVersion);
+
+    /**
+     * Finds transactions scored under an older rule version, or not scored at all, of customers
+     * up to toCustomerId, in customer and ID order, after the given customer and ID.
+     *
+     * @param ruleVersion the current rule version
+     * @param afterCustomerId the customer of the last transaction seen
+     * @param afterId the ID of the last transaction seen
+     * @param toCustomerId the last customer included
+     * @param page the maximum number of rows
+     * @return the stale transactions
+     */
+    @Query("SELECT t.id AS id, t.customer.id AS customerId, t.amount AS amount FROM Transaction t"
+            + " WHERE (t.ruleVersion IS NULL OR t.ruleVersion < :ruleVersion)"
+            + " AND (t.customer.id > :afterCustomerId OR (t.customer.id = :afterCustomerId AND t.id > :afterId))"
+            + " AND t.customer.id <= :toCustomerId ORDER BY t.customer.id, t.id")
+    List<StaleTransaction> findStale(@Param("ruleVersion") int ruleVersion,
+                                     @Param("afterCustomerId") long afterCustomerId, @Param("afterId") long afterId,
+                                     @Param("toCustomerId") long toCustomerId, Pageable page);
+
+    /**
+     * @return the lowest customer ID with transactions, null when there are none
+     */
+    @Query("SELECT MIN(t.customer.id) FROM Transaction t")
+    Long findMinCustomerId();
+
+    /**
+     * @return the highest customer ID with transactions, null when there are none
+     */
+    @Query("SELECT MAX(t.customer.id) FROM Transaction t")
+    Long findMaxCustomerId();
+
+    /**
+     * Rolls up all transactions dated in [start, end) by calendar month, in one grouped scan
+     * that the date index covers. Points are summed only for rows scored under the given rule
+     * version; the other rows are counted in unscored so the caller can score them itself.
+     * Held transactions are counted but earn no points.
+     *
+     * @param start the first day included
+     * @param end the first day excluded
+     * @param ruleVersion the current rule version
+     * @return one row per month that has transactions
+     */
+    @Query("SELECT YEAR(t.date) AS year, MONTH(t.date) AS month, COUNT(t) AS transactions,"
+            + " SUM(t.amount) AS spend,"
+            + " SUM(CASE WHEN t.reviewStatus = com.infy.customerRewards.entity.ReviewStatus.HELD THEN 0"
+            + " WHEN t.ruleVersion = :ruleVersion THEN t.rewardPoints ELSE 0 END) AS points,"
+            + " SUM(CASE WHEN t.reviewStatus = com.infy.customerRewards.entity.ReviewStatus.HELD THEN 0"
+            + " WHEN t.ruleVersion = :ruleVersion THEN 0 ELSE 1 END) AS unscored"
+            + " FROM Transaction t WHERE t.date >= :start AND t.date < :end"
+            + " GROUP BY YEAR(t.date), MONTH(t.date)")
+    List<MonthlyTotals> findMonthlyTotals(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                                          @Param("ruleVersion") int ruleVersion);
+
+    /**
+     * Finds the amounts of transactions dated in [start, end) that are not scored under the
+     * given rule version. Held transactions earn no points and are left out.
+     *
+     * @param start the first day included
+     * @param end the first day excluded
+     * @param ruleVersion the current rule version
+     * @return the amounts of the stale transactions
+     */
+    @Query("SELECT t.amount FROM Transaction t WHERE t.date >= :start AND t.date < :end"
+            + " AND (t.ruleVersion IS NULL OR t.ruleVersion <> :ruleVersion)"
+            + " AND (t.reviewStatus IS NULL OR t.reviewStatus <> com.infy.customerRewards.entity.ReviewStatus.HELD)")
+    List<Double> findStaleAmounts(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                                  @Param("ruleVersion") int ruleVersion);
+
+    /**
+     * One month of findMonthlyTotals.
+     */
+    interface MonthlyTotals {
+
+        Integer getYear();
+
+        Integer getMonth();
+
+        Long getTransactions();
+
+        Double getSpend();
+
+        Long getPoints();
+
+        Long getUnscored();
+    }
+
+    /**
+     * One month of findMonthlyPoints.
+     */
+    interface MonthlyPoints {
+
+        Integer getYear();
+
+        Integer getMonth();
+
+        Long getPoints();
+
+        Long getUnscored();
+    }
+
+    /**
+     * One transaction of findStale.
+     */
+    interface StaleTransaction {
+
+        Long getId();
+
+        Long getCustomerId();
+
+        Double getAmount();
+    }
+
+    /**
+     * One transaction of findStaleAmounts(Long, ...).
+     */
+    interface DatedAmount {
+
+        LocalDate getDate();
+
+        Double getAmount();
+    }
+
 }
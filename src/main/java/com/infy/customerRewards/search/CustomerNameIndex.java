@@ -0,0 +1,478 @@
+package com.infy.customerRewards.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.dto.CustomerSearchResultDTO;
+import com.infy.customerRewards.exception.CustomException;
+import com.infy.customerRewards.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import javax.sql.DataSource;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index of customer names, answering partial-name searches without a
+ * LIKE '%x%' scan of the customers table, enabled by rewards.search.enabled.
+ * <p>
+ * Every name is normalized as Trigrams describes and numbered; each trigram maps to the
+ * ascending numbers of the names holding it. A search intersects the lists of the query's
+ * trigrams, smallest first, and checks the names left: first those with a word starting with
+ * the query, then, for queries of three characters or more, those containing it elsewhere.
+ * Matches rank as the whole name, a prefix of the name, a prefix of a later word, then any
+ * substring; shorter names first within a rank, then older customers. At most
+ * rewards.search.max-candidates names are checked per phase, so a very broad query ranks the
+ * first matches found rather than all of them.
+ * <p>
+ * With rewards.search.rebuild-on-startup the index is loaded once the application is ready:
+ * each shard's customer IDs are split into rewards.search.rebuild-threads ranges read and
+ * indexed in parallel, then joined. Customers created meanwhile are held back and added once
+ * the loaded names are in, unless already loaded. Until then searches answer 503. Without it
+ * the index starts empty and holds the customers created since startup. Customers are added
+ * after their creation commits; names held are published as rewards.search.customers.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@ConditionalOnProperty(prefix = "rewards.search", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CustomerNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerNameIndex.class);
+
+    private static final String CUSTOMER_ID_RANGE = "SELECT MIN(id), MAX(id) FROM customers";
+    private static final String SELECT_NAMES = "SELECT id, cust_name FROM customers WHERE id BETWEEN ? AND ? ORDER BY id";
+    private static final int RETRY_AFTER_SECONDS = 5;
+    private static final int MIN_REINDEX_SIZE = 4096;
+
+    private static final int EXACT = 0;
+    private static final int NAME_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+    private static final String[] MATCHES = { "EXACT", "PREFIX", "WORD_PREFIX", "SUBSTRING" };
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final ShardRouter shards;
+    private final int rebuildThreads;
+    private final int maxCandidates;
+    private final int maxLimit;
+    private final boolean rebuildOnStartup;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService loader;
+    private Names names = new Names();
+    private List<Created> pending = new ArrayList<>();
+    private volatile boolean ready;
+    private volatile boolean failed;
+
+    /**
+     * Constructs the index: empty and ready, or waiting for its rebuild.
+     *
+     * @param dataSource the application datasource
+     * @param transactionManager the transaction manager
+     * @param shards the shard router
+     * @param properties the search settings
+     * @param registry the meter registry
+     */
+    public CustomerNameIndex(DataSource dataSource, PlatformTransactionManager transactionManager,
+                             ShardRouter shards, SearchProperties properties, MeterRegistry registry) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(properties.getFetchSize());
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setReadOnly(true);
+        this.shards = shards;
+        this.rebuildThreads = Math.max(1, properties.getRebuildThreads());
+        this.maxCandidates = properties.getMaxCandidates();
+        this.maxLimit = properties.getMaxLimit();
+        this.rebuildOnStartup = properties.isRebuildOnStartup();
+        this.ready = !rebuildOnStartup;
+        this.loader = Executors.newFixedThreadPool(rebuildThreads, new CustomizableThreadFactory("rewards-search-"));
+        Gauge.builder("rewards.search.customers", this, CustomerNameIndex::size)
+                .description("Customer names held in the search index")
+                .register(registry);
+    }
+
+    /**
+     * Starts the rebuild in the background once the application is ready, when configured.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRebuild() {
+        if (rebuildOnStartup) {
+            CompletableFuture.runAsync(this::rebuild, loader);
+        }
+    }
+
+    /**
+     * Loads every customer name from the database, in parallel, and makes the index ready.
+     * If loading fails the index stays unavailable.
+     */
+    public void rebuild() {
+        long begin = System.nanoTime();
+        Names loaded;
+        try {
+            loaded = load();
+        } catch (RuntimeException e) {
+            failed = true;
+            log.error("Customer search index failed to load, searches are unavailable", e);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Customers created while loading, that the load did not already see
+            Set<Long> missing = new HashSet<>();
+            for (Created created : pending) {
+                missing.add(created.id());
+            }
+            for (int i = 0; i < loaded.size && !missing.isEmpty(); i++) {
+                missing.remove(loaded.ids[i]);
+            }
+            for (Created created : pending) {
+                if (missing.remove(created.id())) {
+                    loaded.add(created.id(), created.name());
+                }
+            }
+            loaded.index();
+            names = loaded;
+            pending = new ArrayList<>();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Customer search index loaded {} names in {} ms", size(), (System.nanoTime() - begin) / 1_000_000);
+    }
+
+    /**
+     * Adds a new customer once the current transaction commits, or at once outside one.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param name the customer name
+     */
+    public void customerCreated(Long customerId, String name) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(customerId, name);
+                }
+            });
+        } else {
+            add(customerId, name);
+        }
+    }
+
+    /**
+     * Finds customers by part of their name.
+     *
+     * @param query the partial name
+     * @param limit the maximum number of results, up to rewards.search.max-limit
+     * @return the best matches, best first
+     * @throws CustomException if the query has no letters or digits or the limit is out of range
+     * @throws ServiceUnavailableException if the index is still loading or failed to load
+     */
+    public List<CustomerSearchResultDTO> search(String query, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new CustomException("limit must be between 1 and " + maxLimit);
+        }
+        String key = Trigrams.normalize(query);
+        if (key.isEmpty()) {
+            throw new CustomException("Search needs at least one letter or digit");
+        }
+        if (!ready) {
+            throw new ServiceUnavailableException(failed ? "Customer search is unavailable"
+                    : "Customer search index is loading", RETRY_AFTER_SECONDS);
+        }
+        lock.readLock().lock();
+        try {
+            Ranking ranking = new Ranking(limit);
+            // Word-prefix phase: the key already starts with a word break
+            collect(key, key, ranking, false);
+            String inner = key.substring(2);
+            if (ranking.count < limit && inner.length() >= 3) {
+                collect(inner, key, ranking, true);
+            }
+            List<CustomerSearchResultDTO> results = new ArrayList<>(ranking.count);
+            for (int i = 0; i < ranking.count; i++) {
+                long score = ranking.scores[i];
+                int doc = (int) score;
+                results.add(CustomerSearchResultDTO.builder()
+                        .id(names.ids[doc])
+                        .custName(names.names[doc])
+                        .match(MATCHES[(int) (score >>> 60)])
+                        .build());
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return whether the index holds every customer
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return the number of names held
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stops a rebuild in progress.
+     */
+    @PreDestroy
+    public void close() {
+        loader.shutdownNow();
+    }
+
+    private void add(Long customerId, String name) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                names.add(customerId, name);
+                if (names.size >= 2 * Math.max(names.indexed, MIN_REINDEX_SIZE)) {
+                    names.index();
+                }
+            } else {
+                pending.add(new Created(customerId, name));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks the names holding every trigram of the probe, ranking those matching the query.
+     * In the substring phase, names with a word starting with the query were seen already.
+     */
+    private void collect(String probe, String key, Ranking ranking, boolean substrings) {
+        long[] trigrams = Trigrams.of(probe);
+        Postings[] lists = new Postings[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = names.postings.get(trigrams[i]);
+            if (lists[i] == null) {
+                return;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        Postings smallest = lists[0];
+        int[] cursors = new int[lists.length];
+        int checked = 0;
+        candidates:
+        for (int i = 0; i < smallest.size() && checked < maxCandidates; i++) {
+            int doc = smallest.get(i);
+            for (int list = 1; list < lists.length; list++) {
+                Postings other = lists[list];
+                boolean held;
+                if (other.isDense()) {
+                    held = other.contains(doc);
+                } else {
+                    cursors[list] = other.advance(cursors[list], doc);
+                    if (cursors[list] == other.size()) {
+                        return;
+                    }
+                    held = other.get(cursors[list]) == doc;
+                    if (!held) {
+                        // Skip the smallest list's names before the other list's next one
+                        i = smallest.advance(i, other.get(cursors[list])) - 1;
+                    }
+                }
+                if (!held) {
+                    // The list that ruled the name out is tried first for the next ones
+                    swap(lists, cursors, list);
+                    continue candidates;
+                }
+            }
+            checked++;
+            String name = names.keys[doc];
+            int match = name.equals(key) ? EXACT : name.startsWith(key) ? NAME_PREFIX
+                    : name.contains(key) ? WORD_PREFIX : name.contains(probe) ? SUBSTRING : -1;
+            if (match >= 0 && (match == SUBSTRING) == substrings) {
+                ranking.offer(((long) match << 60) | ((long) Math.min(name.length(), 0xFFFFFFF) << 32) | doc);
+            }
+        }
+    }
+
+    private static void swap(Postings[] lists, int[] cursors, int list) {
+        Postings postings = lists[1];
+        lists[1] = lists[list];
+        lists[list] = postings;
+        int cursor = cursors[1];
+        cursors[1] = cursors[list];
+        cursors[list] = cursor;
+    }
+
+    /**
+     * Reads every shard's customers in parallel ranges and joins them in customer-ID order.
+     */
+    private Names load() {
+        List<CompletableFuture<Names>> parts = new ArrayList<>();
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            int target = shard;
+            long[] bounds = transactions.execute(status -> {
+                shards.bindShard(target);
+                return jdbc.queryForObject(CUSTOMER_ID_RANGE, (rs, row) -> rs.getObject(1) == null ? null
+                        : new long[] { rs.getLong(1), rs.getLong(2) });
+            });
+            if (bounds == null) {
+                continue;
+            }
+            BigInteger lowest = BigInteger.valueOf(bounds[0]);
+            BigInteger span = BigInteger.valueOf(bounds[1]).subtract(lowest).add(BigInteger.ONE);
+            long from = bounds[0];
+            for (int i = 1; i <= rebuildThreads; i++) {
+                long to = i == rebuildThreads ? bounds[1] : lowest.add(span.multiply(BigInteger.valueOf(i))
+                        .divide(BigInteger.valueOf(rebuildThreads))).longValueExact() - 1;
+                if (to >= from) {
+                    long first = from;
+                    parts.add(CompletableFuture.supplyAsync(() -> loadRange(target, first, to), loader));
+                }
+                from = to + 1;
+            }
+        }
+        Names joined = new Names();
+        try {
+            for (CompletableFuture<Names> part : parts) {
+                joined.addAll(part.join());
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return joined;
+    }
+
+    private Names loadRange(int shard, long from, long to) {
+        return transactions.execute(status -> {
+            shards.bindShard(shard);
+            Names part = new Names();
+            jdbc.query(SELECT_NAMES, rs -> {
+                part.add(rs.getLong(1), rs.getString(2));
+            }, from, to);
+            return part;
+        });
+    }
+
+    /**
+     * A customer created while the index was loading.
+     */
+    private record Created(Long id, String name) {
+    }
+
+    /**
+     * The best matches so far, as ascending scores: match rank, name length, then name number.
+     */
+    private static final class Ranking {
+
+        final long[] scores;
+        int count;
+
+        Ranking(int limit) {
+            this.scores = new long[limit];
+        }
+
+        void offer(long score) {
+            if (count == scores.length && score >= scores[count - 1]) {
+                return;
+            }
+            int at = Arrays.binarySearch(scores, 0, count, score);
+            at = at < 0 ? -at - 1 : at;
+            int moved = Math.min(count, scores.length - 1) - at;
+            System.arraycopy(scores, at, scores, at + 1, moved);
+            scores[at] = score;
+            count = Math.min(count + 1, scores.length);
+        }
+    }
+
+    /**
+     * Numbered customer names and the postings of their trigrams; numbers follow insertion.
+     * Which postings are dense is decided again each time the names have doubled.
+     */
+    private static final class Names {
+
+        long[] ids = new long[16];
+        String[] names = new String[16];
+        String[] keys = new String[16];
+        int size;
+        int indexed;
+        final Map<Long, Postings> postings = new HashMap<>();
+
+        void index() {
+            postings.values().forEach(docs -> docs.index(size));
+            indexed = size;
+        }
+
+        void add(long id, String name) {
+            String key = Trigrams.normalize(name);
+            if (key.isEmpty()) {
+                return;
+            }
+            ensureCapacity(size + 1);
+            ids[size] = id;
+            names[size] = name;
+            keys[size] = key;
+            for (long trigram : Trigrams.of(key)) {
+                postings.computeIfAbsent(trigram, t -> new Postings()).add(size);
+            }
+            size++;
+        }
+
+        void addAll(Names other) {
+            ensureCapacity(size + other.size);
+            System.arraycopy(other.ids, 0, ids, size, other.size);
+            System.arraycopy(other.names, 0, names, size, other.size);
+            System.arraycopy(other.keys, 0, keys, size, other.size);
+            int offset = size;
+            other.postings.forEach((trigram, docs) ->
+                    postings.computeIfAbsent(trigram, t -> new Postings()).addAll(docs, offset));
+            size += other.size;
+        }
+
+        /** Linear, for the few customers created while loading. */
+        private void ensureCapacity(int capacity) {
+            if (capacity > ids.length) {
+                int grown = Math.max(capacity, ids.length * 2);
+                ids = Arrays.copyOf(ids, grown);
+                names = Arrays.copyOf(names, grown);
+                keys = Arrays.copyOf(keys, grown);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.infy.customerRewards.search;
+
+import java.util.Arrays;
+
+/**
+ * Ascending document numbers of the names holding one trigram, in an array that doubles when
+ * full. A list holding at least one name in DENSITY gets a bitset too, no bigger than the array,
+ * so checking a candidate against it takes one lookup instead of a search.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+final class Postings {
+
+    private static final int DENSITY = 32;
+    private static final int MIN_DENSE_SIZE = 1024;
+
+    private int[] docs = new int[4];
+    private int size;
+    private long[] bits;
+
+    /**
+     * Appends a document greater than any held.
+     */
+    void add(int doc) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+        }
+        docs[size++] = doc;
+        if (bits != null) {
+            set(doc);
+        }
+    }
+
+    /**
+     * Appends every document of another list, shifted by an offset above any held.
+     */
+    void addAll(Postings other, int offset) {
+        if (size + other.size > docs.length) {
+            docs = Arrays.copyOf(docs, Math.max(size + other.size, size * 2));
+        }
+        for (int i = 0; i < other.size; i++) {
+            docs[size++] = other.docs[i] + offset;
+            if (bits != null) {
+                set(docs[size - 1]);
+            }
+        }
+    }
+
+    /**
+     * Builds the bitset if the list is dense among the given number of documents, or drops it.
+     */
+    void index(int documents) {
+        if (size >= MIN_DENSE_SIZE && (long) size * DENSITY >= documents) {
+            bits = new long[(docs[size - 1] >>> 6) + 1];
+            for (int i = 0; i < size; i++) {
+                bits[docs[i] >>> 6] |= 1L << docs[i];
+            }
+        } else {
+            bits = null;
+        }
+    }
+
+    boolean isDense() {
+        return bits != null;
+    }
+
+    /**
+     * @return whether the list holds a document; dense lists only
+     */
+    boolean contains(int doc) {
+        int word = doc >>> 6;
+        return word < bits.length && (bits[word] & (1L << doc)) != 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return docs[index];
+    }
+
+    /**
+     * @return the index of the first document not below doc, from index from on, or size
+     */
+    int advance(int from, int doc) {
+        int low = from;
+        int step = 1;
+        // Gallop ahead, then binary search the last step
+        while (low + step < size && docs[low + step] < doc) {
+            low += step;
+            step <<= 1;
+        }
+        int high = Math.min(low + step, size);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (docs[middle] < doc) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void set(int doc) {
+        int word = doc >>> 6;
+        if (word >= bits.length) {
+            bits = Arrays.copyOf(bits, Math.max(word + 1, bits.length * 2));
+        }
+        bits[word] |= 1L << doc;
+    }
+}
@@ -0,0 +1,72 @@
+package com.infy.customerRewards.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Customer name search settings bound from the rewards.search.* properties.
+ * With rebuildOnStartup the index is loaded from the database once the application is ready,
+ * rebuildThreads customer-ID ranges at a time, fetchSize rows per round trip. A search verifies
+ * at most maxCandidates names per phase and returns at most maxLimit results.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@ConfigurationProperties(prefix = "rewards.search")
+public class SearchProperties {
+
+    private boolean enabled = true;
+    private boolean rebuildOnStartup = true;
+    private int rebuildThreads = 4;
+    private int fetchSize = 10_000;
+    private int maxCandidates = 2_000;
+    private int maxLimit = 100;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isRebuildOnStartup() {
+        return rebuildOnStartup;
+    }
+
+    public void setRebuildOnStartup(boolean rebuildOnStartup) {
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    public int getRebuildThreads() {
+        return rebuildThreads;
+    }
+
+    public void setRebuildThreads(int rebuildThreads) {
+        this.rebuildThreads = rebuildThreads;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    public void setMaxCandidates(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+}
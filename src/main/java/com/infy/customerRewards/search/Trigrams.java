@@ -0,0 +1,73 @@
+package com.infy.customerRewards.search;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Name normalization and trigram extraction.
+ * <p>
+ * A name is lower-cased and stripped of accents, and every run of other characters than
+ * letters and digits becomes a word break. Each word is then preceded by two spaces, so
+ * "John Smith" becomes "  john  smith": its trigrams ("  j", " jo", "joh", ... "  s", " sm",
+ * ...) mark where words start, which lets one- and two-letter queries match word prefixes,
+ * and a query normalized the same way finds substrings across words too.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+final class Trigrams {
+
+    private Trigrams() {
+    }
+
+    /**
+     * @return the normalized name, empty when it has no letters or digits
+     */
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(name, Normalizer.Form.NFKD).toLowerCase(Locale.ROOT);
+        StringBuilder key = new StringBuilder(folded.length() + 8);
+        boolean wordStart = true;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (wordStart) {
+                    key.append("  ");
+                    wordStart = false;
+                }
+                key.append(c);
+            } else {
+                wordStart = true;
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return the distinct trigrams of a normalized name or query, in ascending order
+     */
+    static long[] of(String key) {
+        if (key.length() < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[key.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) key.charAt(i) << 32) | ((long) key.charAt(i + 1) << 16) | key.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+}
@@ -0,0 +1,134 @@
+package com.infy.customerRewards.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Component verifying JWT bearer tokens.
+ * The signing key and parser are built once at startup. Tokens that pass verification are
+ * remembered by their SHA-256 digest until they expire, so repeat calls with the same token
+ * skip signature verification and claim parsing. The cache is bounded; when it is full,
+ * expired entries are purged and new tokens are verified without being cached.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class JwtTokenVerifier {
+
+    private final JwtParser parser;
+    private final int maxCacheEntries;
+    private final ConcurrentHashMap<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the verifier and parses the signing key.
+     *
+     * @param secret the HMAC signing secret
+     * @param maxCacheEntries the maximum number of verified tokens to remember
+     */
+    public JwtTokenVerifier(@Value("${jwt.secret}") String secret,
+                            @Value("${jwt.cache.max-entries:10000}") int maxCacheEntries) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.maxCacheEntries = maxCacheEntries;
+    }
+
+    /**
+     * Verifies a token, using the cache when the same token was verified before.
+     *
+     * @param token the compact JWT
+     * @return the verified token, or null if the token is invalid or expired
+     */
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                return cached;
+            }
+            verified.remove(digest);
+            return null;
+        }
+        VerifiedToken parsed = parse(token);
+        if (parsed != null && parsed.expiresAtMillis() != Long.MAX_VALUE) {
+            if (verified.size() >= maxCacheEntries) {
+                purgeExpired();
+            }
+            if (verified.size() < maxCacheEntries) {
+                verified.put(digest, parsed);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Verifies a token without consulting or filling the cache.
+     *
+     * @param token the compact JWT
+     * @return the verified token, or null if the token is invalid or expired
+     */
+    public VerifiedToken parse(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getSubject() == null) {
+                return null;
+            }
+            Date expiration = claims.getExpiration();
+            return new VerifiedToken(claims.getSubject(),
+                    expiration == null ? Long.MAX_VALUE : expiration.getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Removes cached tokens that have expired.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        verified.values().removeIf(token -> token.expiresAtMillis() <= now);
+    }
+
+    /**
+     * Gets the number of cached verified tokens.
+     * @return the cache size
+     */
+    public int cacheSize() {
+        return verified.size();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Result of a successful verification.
+     *
+     * @param subject the token subject
+     * @param expiresAtMillis the expiry time, Long.MAX_VALUE when the token has none
+     */
+    public record VerifiedToken(String subject, long expiresAtMillis) {}
+}
@@ -0,0 +1,101 @@
+package com.infy.customerRewards.service;
+
+import com.infy.customerRewards.dto.ProgramAnalyticsDTO;
+import com.infy.customerRewards.dto.SpendDistributionDTO;
+import com.infy.customerRewards.dto.SpendQuantilesDTO;
+import com.infy.customerRewards.entity.Transaction;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service interface for program-wide analytics across all customers.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public interface AnalyticsService {
+
+    /**
+     * Computes points issued, transaction count and spend per month over a range of months.
+     *
+     * @param from the first month (inclusive)
+     * @param to the last month (inclusive)
+     * @return ProgramAnalyticsDTO with one entry per month and the range totals
+     * @throws CustomException if from is after to or the range is too long
+     */
+    ProgramAnalyticsDTO getMonthlyAnalytics(YearMonth from, YearMonth to);
+
+    /**
+     * Computes one customer's points, transaction count and spend per month over a range of months.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param from the first month (inclusive)
+     * @param to the last month (inclusive)
+     * @return ProgramAnalyticsDTO with one entry per month and the range totals, zero for an unknown customer
+     * @throws CustomException if from is after to or the range is too long
+     */
+    ProgramAnalyticsDTO getCustomerMonthlyAnalytics(Long customerId, YearMonth from, YearMonth to);
+
+    /**
+     * Gets the p50/p90/p99 spend per month and over a range of months, from the spend sketches.
+     *
+     * @param from the first month (inclusive)
+     * @param to the last month (inclusive)
+     * @return SpendDistributionDTO with the range distribution and one entry per month
+     * @throws CustomException if from is after to or the range is too long
+     */
+    SpendDistributionDTO getSpendDistribution(YearMonth from, YearMonth to);
+
+    /**
+     * Gets the p50/p90/p99 spend of one customer, when per-customer sketches are enabled.
+     *
+     * @param customerId the unique identifier of the customer
+     * @return SpendQuantilesDTO for the customer
+     * @throws ResourceNotFoundException if no sketch is kept for the customer
+     */
+    SpendQuantilesDTO getCustomerSpend(Long customerId);
+
+    /**
+     * Exports this instance's spend sketches for a range of months, for merging elsewhere.
+     *
+     * @param from the first month (inclusive)
+     * @param to the last month (inclusive)
+     * @return the encoded sketch of each month that has one, keyed by YYYY-MM
+     * @throws CustomException if from is after to or the range is too long
+     */
+    Map<String, String> exportSpendSketches(YearMonth from, YearMonth to);
+
+    /**
+     * Merges sketches exported by several instances into one distribution.
+     *
+     * @param exports the exports, each keyed by YYYY-MM as returned by exportSpendSketches
+     * @return SpendDistributionDTO over every month present in the exports
+     * @throws CustomException if a key is not a month or a value is not an encoded sketch
+     */
+    SpendDistributionDTO mergeSpendSketches(List<Map<String, String>> exports);
+
+    /**
+     * Records transactions written for a customer: their months' cached figures are
+     * recomputed, their amounts added to the spend sketches and the rows to the columnar store. Inside a transaction this
+     * takes effect after commit.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param transactions the written transactions
+     */
+    void transactionsWritten(Long customerId, Collection<Transaction> transactions);
+
+    /**
+     * Records stored transactions of a customer whose review status was cleared: their months'
+     * cached figures are recomputed and their points set anew in the columnar store. Amounts did
+     * not change, so the spend sketches are left alone. Inside a transaction this takes effect
+     * after commit.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param transactions the released transactions
+     */
+    void transactionsReleased(Long customerId, Collection<Transaction> transactions);
+}
@@ -3,7 +3,9 @@ package com.infy.customerRewards.service;
 
 import com.infy.customerRewards.dto.CustomerDTO;
 import com.infy.customerRewards.dto.CustomerResponseDTO;
+import com.infy.customerRewards.dto.CustomerSearchResultDTO;
 import com.infy.customerRewards.dto.RewardResponseDTO;
+import com.infy.customerRewards.dto.RewardView;
 import com.infy.customerRewards.dto.TransactionDTO;
 
 import java.time.LocalDate;
@@ -30,6 +32,34 @@ public interface RewardService {
      *                                  or transactions are invalid
      */
     CustomerResponseDTO createCustomer(CustomerDTO customerDTO);
+
+    /**
+     * Adds one transaction to an existing customer, scoring it on the way in.
+     * A submission repeating an earlier idempotency key for the customer is not stored again;
+     * it gets back the transaction stored the first time.
+     * 
+     * @param customerId the unique identifier of the customer
+     * @param idempotencyKey the client-supplied idempotency key, or null
+     * @param transactionDTO the transaction details
+     * @return TransactionDTO with the assigned ID, reward points and review status
+     * @throws CustomException if the idempotency key is empty or longer than 64 characters
+     * @throws ResourceNotFoundException if no customer exists with the provided customerId and
+     *                                   the transaction is written directly
+     * @throws ServiceUnavailableException if the write-behind buffer is full
+     */
+    TransactionDTO addTransaction(Long customerId, String idempotencyKey, TransactionDTO transactionDTO);
+
+    /**
+     * Releases a stored transaction after review by clearing its review status: a held
+     * transaction's points count from then on, a flagged one is no longer marked.
+     * Releasing a transaction without a review status changes nothing.
+     * 
+     * @param customerId the unique identifier of the customer
+     * @param transactionId the unique identifier of the transaction
+     * @return TransactionDTO with the reward points it now earns and no review status
+     * @throws ResourceNotFoundException if the customer has no stored transaction with this ID
+     */
+    TransactionDTO releaseTransaction(Long customerId, Long transactionId);
     
     /**
      * Retrieves all transactions associated with a specific customer.
@@ -53,4 +83,32 @@ public interface RewardService {
      * @throws ResourceNotFoundException if no customer exists with the provided customerId
      */
     RewardResponseDTO getRewardsForCustomer(Long customerId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Calculates rewards for a customer within a date range, returning only the requested fields.
+     * Without the transactions field the rewards are summed by month in the database and no
+     * transaction is read.
+     * 
+     * @param customerId the unique identifier of the customer for whom rewards are calculated
+     * @param startDate the start date of the reward calculation period (inclusive)
+     * @param endDate the end date of the reward calculation period (inclusive)
+     * @param view the fields to return
+     * @return RewardResponseDTO with the requested fields set and the others null
+     * @throws ResourceNotFoundException if no customer exists with the provided customerId
+     */
+    RewardResponseDTO getRewardsForCustomer(Long customerId, LocalDate startDate, LocalDate endDate, RewardView view);
+
+    /**
+     * Finds customers by part of their name, ignoring case, accents and punctuation.
+     * Whole-name matches rank first, then names starting with the query, names with a later
+     * word starting with it, and names containing it elsewhere.
+     * 
+     * @param name the partial name
+     * @param limit the maximum number of results
+     * @return the best matches, best first
+     * @throws CustomException if search is disabled, the name has no letters or digits, or the
+     *                         limit is out of range
+     * @throws ServiceUnavailableException if the search index is still loading
+     */
+    List<CustomerSearchResultDTO> searchCustomers(String name, int limit);
 }
\ No newline at end of file
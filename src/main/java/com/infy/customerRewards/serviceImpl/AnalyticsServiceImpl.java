@@ -0,0 +1,511 @@
+package com.infy.customerRewards.serviceImpl;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.infy.customerRewards.columnar.ColumnarTotals;
+import com.infy.customerRewards.columnar.ColumnarTransactionStore;
+import com.infy.customerRewards.datasource.RoutingContext;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.dto.MonthlyProgramStatsDTO;
+import com.infy.customerRewards.dto.ProgramAnalyticsDTO;
+import com.infy.customerRewards.dto.SpendDistributionDTO;
+import com.infy.customerRewards.dto.SpendQuantilesDTO;
+import com.infy.customerRewards.entity.Transaction;
+import com.infy.customerRewards.exception.CustomException;
+import com.infy.customerRewards.exception.ResourceNotFoundException;
+import com.infy.customerRewards.repository.TransactionRepository;
+import com.infy.customerRewards.service.AnalyticsService;
+import com.infy.customerRewards.utility.RewardCalculator;
+import com.infy.customerRewards.utility.SpendSketch;
+import com.infy.customerRewards.utility.SpendSketches;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service implementation for program-wide analytics.
+ * Months are rolled up with one grouped query per shard, run on every shard in parallel, over
+ * the covering date index. Months that have ended are cached for the life of the process, so
+ * only the current (open) month and months never asked for before touch the database.
+ * <p>
+ * Transactions can be written with any date, so a write to a closed month evicts that month;
+ * a rollup racing with such a write is returned but not cached. Months to be cached are rolled
+ * up on the primary, never on a replica that may not have replayed a write whose eviction has
+ * already happened. Other instances keep their cached figures until restarted.
+ * <p>
+ * Spend quantiles are served from SpendSketches, fed by the same write notification, so they
+ * never scan the table; they cover the writes this instance has seen.
+ * <p>
+ * With the columnar store enabled and loaded, monthly figures, program-wide or per customer,
+ * are summed from it instead and the database is not read at all.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    /** Longest range accepted by getMonthlyAnalytics, in months. */
+    static final int MAX_MONTHS = 240;
+
+    private final TransactionRepository transactionRepository;
+    private final RewardCalculator rewardCalculator;
+    private final ShardRouter shards;
+    private final SpendSketches sketches;
+    private final Clock clock;
+    private final ColumnarTransactionStore columnarStore;
+    private final ConcurrentHashMap<YearMonth, MonthTotals> closedMonths = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+
+    /**
+     * Constructs the service on the system clock.
+     *
+     * @param transactionRepository the transaction repository
+     * @param rewardCalculator the reward calculator
+     * @param shards the shard router
+     * @param sketches the spend sketches
+     * @param columnarStore the columnar store, when enabled
+     */
+    @Autowired
+    public AnalyticsServiceImpl(TransactionRepository transactionRepository, RewardCalculator rewardCalculator,
+                                ShardRouter shards, SpendSketches sketches,
+                                ObjectProvider<ColumnarTransactionStore> columnarStore) {
+        this(transactionRepository, rewardCalculator, shards, sketches, Clock.systemDefaultZone(),
+                columnarStore.getIfAvailable());
+    }
+
+    /**
+     * Constructs the service.
+     *
+     * @param transactionRepository the transaction repository
+     * @param rewardCalculator the reward calculator
+     * @param shards the shard router
+     * @param sketches the spend sketches
+     * @param clock the clock deciding which month is open
+     */
+    public AnalyticsServiceImpl(TransactionRepository transactionRepository, RewardCalculator rewardCalculator,
+                                ShardRouter shards, SpendSketches sketches, Clock clock) {
+        this(transactionRepository, rewardCalculator, shards, sketches, clock, null);
+    }
+
+    /**
+     * Constructs the service reading monthly figures from a columnar store once it is loaded.
+     *
+     * @param transactionRepository the transaction repository
+     * @param rewardCalculator the reward calculator
+     * @param shards the shard router
+     * @param sketches the spend sketches
+     * @param clock the clock deciding which month is open
+     * @param columnarStore the columnar store, or null to always read the database
+     */
+    public AnalyticsServiceImpl(TransactionRepository transactionRepository, RewardCalculator rewardCalculator,
+                                ShardRouter shards, SpendSketches sketches, Clock clock,
+                                ColumnarTransactionStore columnarStore) {
+        this.columnarStore = columnarStore;
+        this.transactionRepository = transactionRepository;
+        this.rewardCalculator = rewardCalculator;
+        this.shards = shards;
+        this.sketches = sketches;
+        this.clock = clock;
+    }
+
+    /**
+     * Computes the monthly figures, from the columnar store when it is loaded, else taking
+     * closed months from the cache when present. Missing closed months are rolled up in a single query over the span they cover and
+     * cached; the open month, and any later month, is always rolled up live.
+     *
+     * @param from the first month (inclusive)
+     * @param to the last month (inclusive)
+     * @return ProgramAnalyticsDTO with one entry per month and the range totals
+     * @throws CustomException if from is after to or the range is longer than MAX_MONTHS
+     */
+    @Override
+    public ProgramAnalyticsDTO getMonthlyAnalytics(YearMonth from, YearMonth to) {
+        validateRange(from, to);
+        YearMonth open = YearMonth.now(clock);
+        if (columnarStore != null && columnarStore.isReady()) {
+            return buildResponse(from, to, open, totalsOf(columnarStore.monthly(from, to)));
+        }
+        Map<YearMonth, MonthTotals> totals = new HashMap<>();
+        YearMonth firstMissing = null;
+        YearMonth lastMissing = null;
+        for (YearMonth month = from; !month.isAfter(to) && month.isBefore(open); month = month.plusMonths(1)) {
+            MonthTotals cached = closedMonths.get(month);
+            if (cached != null) {
+                totals.put(month, cached);
+            } else {
+                firstMissing = firstMissing == null ? month : firstMissing;
+                lastMissing = month;
+            }
+        }
+        if (firstMissing != null) {
+            long generation = writes.get();
+            Map<YearMonth, MonthTotals> rolledUp = rollUp(firstMissing, lastMissing, true);
+            for (YearMonth month = firstMissing; !month.isAfter(lastMissing); month = month.plusMonths(1)) {
+                MonthTotals monthTotals = rolledUp.getOrDefault(month, MonthTotals.EMPTY);
+                totals.put(month, monthTotals);
+                if (writes.get() == generation && closedMonths.putIfAbsent(month, monthTotals) == null
+                        && writes.get() != generation) {
+                    closedMonths.remove(month, monthTotals);
+                }
+            }
+        }
+        YearMonth liveFrom = from.isAfter(open) ? from : open;
+        if (!liveFrom.isAfter(to)) {
+            totals.putAll(rollUp(liveFrom, to, false));
+        }
+        return buildResponse(from, to, open, totals);
+    }
+
+    /**
+     * Sums the customer's transactions per month, from the columnar store when it is loaded,
+     * else from the customer's transactions in the range, read on the customer's shard.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param from the first month (inclusive)
+     * @param to the last month (inclusive)
+     * @return ProgramAnalyticsDTO with one entry per month and the range totals
+     * @throws CustomException if from is after to or the range is longer than MAX_MONTHS
+     */
+    @Override
+    public ProgramAnalyticsDTO getCustomerMonthlyAnalytics(Long customerId, YearMonth from, YearMonth to) {
+        validateRange(from, to);
+        YearMonth open = YearMonth.now(clock);
+        if (columnarStore != null && columnarStore.isReady()) {
+            return buildResponse(from, to, open, totalsOf(columnarStore.monthly(customerId, from, to)));
+        }
+        List<Transaction> transactions = shards.onCustomer(customerId, () -> transactionRepository
+                .findByCustomerIdAndDateBetween(customerId, from.atDay(1), to.atEndOfMonth()));
+        Map<YearMonth, MonthTotals> totals = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            double amount = transaction.getAmount() == null ? 0 : transaction.getAmount();
+            totals.merge(YearMonth.from(transaction.getDate()),
+                    new MonthTotals(1, rewardCalculator.pointsOf(transaction), amount), MonthTotals::plus);
+        }
+        return buildResponse(from, to, open, totals);
+    }
+
+    /**
+     * Merges the month sketches of the range; months without writes count as empty.
+     *
+     * @param from the first month (inclusive)
+     * @param to the last month (inclusive)
+     * @return SpendDistributionDTO with the range distribution and one entry per month
+     * @throws CustomException if from is after to or the range is longer than MAX_MONTHS
+     */
+    @Override
+    public SpendDistributionDTO getSpendDistribution(YearMonth from, YearMonth to) {
+        validateRange(from, to);
+        Map<YearMonth, SpendSketch> months = new LinkedHashMap<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.put(month, sketches.month(month));
+        }
+        return distribution(from + ".." + to, months);
+    }
+
+    /**
+     * Reads the customer's sketch.
+     *
+     * @param customerId the unique identifier of the customer
+     * @return SpendQuantilesDTO for the customer
+     * @throws ResourceNotFoundException if per-customer sketches are off or the customer is not tracked
+     */
+    @Override
+    public SpendQuantilesDTO getCustomerSpend(Long customerId) {
+        if (!sketches.isTracked(customerId)) {
+            throw new ResourceNotFoundException("No spend sketch for customer " + customerId);
+        }
+        return quantiles("customer:" + customerId, sketches.customer(customerId));
+    }
+
+    /**
+     * Encodes the non-empty month sketches of the range.
+     *
+     * @param from the first month (inclusive)
+     * @param to the last month (inclusive)
+     * @return the encoded sketches keyed by YYYY-MM
+     * @throws CustomException if from is after to or the range is longer than MAX_MONTHS
+     */
+    @Override
+    public Map<String, String> exportSpendSketches(YearMonth from, YearMonth to) {
+        validateRange(from, to);
+        Map<String, String> export = new LinkedHashMap<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            SpendSketch sketch = sketches.month(month);
+            if (sketch.getCount() > 0) {
+                export.put(month.toString(), sketch.encode());
+            }
+        }
+        return export;
+    }
+
+    /**
+     * Decodes and merges the exports month by month.
+     *
+     * @param exports the exports, each keyed by YYYY-MM
+     * @return SpendDistributionDTO over every month present in the exports
+     * @throws CustomException if a key is not a month or a value is not an encoded sketch
+     */
+    @Override
+    public SpendDistributionDTO mergeSpendSketches(List<Map<String, String>> exports) {
+        TreeMap<YearMonth, SpendSketch> months = new TreeMap<>();
+        for (Map<String, String> export : exports) {
+            for (Map.Entry<String, String> entry : export.entrySet()) {
+                try {
+                    SpendSketch sketch = SpendSketch.decode(entry.getValue());
+                    months.merge(YearMonth.parse(entry.getKey()), sketch, (merged, next) -> {
+                        merged.merge(next);
+                        return merged;
+                    });
+                } catch (DateTimeParseException | IllegalArgumentException e) {
+                    throw new CustomException("Invalid sketch for " + entry.getKey() + ": " + e.getMessage());
+                }
+            }
+        }
+        if (months.isEmpty()) {
+            throw new CustomException("No sketches to merge");
+        }
+        YearMonth from = months.firstKey();
+        YearMonth to = months.lastKey();
+        return distribution(from + ".." + to, months);
+    }
+
+    /**
+     * Evicts the closed months of the written transactions from the cache and records their
+     * amounts in the spend sketches.
+     * Inside a transaction both happen after commit, so a rollup running meanwhile cannot
+     * cache figures that miss the write, and a rolled back write is never sketched.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param transactions the written transactions
+     */
+    @Override
+    public void transactionsWritten(Long customerId, Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<Transaction> written = List.copyOf(transactions);
+        afterCommit(() -> recordWrites(customerId, written));
+    }
+
+    /**
+     * Evicts the closed months of the released transactions from the cache and updates their
+     * points in the columnar store, after commit inside a transaction.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param transactions the released transactions
+     */
+    @Override
+    public void transactionsReleased(Long customerId, Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<Transaction> released = List.copyOf(transactions);
+        afterCommit(() -> {
+            if (columnarStore != null) {
+                columnarStore.update(customerId, released);
+            }
+            evict(monthsOf(released));
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Set<YearMonth> monthsOf(List<Transaction> transactions) {
+        Set<YearMonth> months = new TreeSet<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getDate() != null) {
+                months.add(YearMonth.from(transaction.getDate()));
+            }
+        }
+        return months;
+    }
+
+    private void recordWrites(Long customerId, List<Transaction> written) {
+        for (Transaction transaction : written) {
+            sketches.record(customerId, transaction.getId(), transaction.getDate(), transaction.getAmount());
+        }
+        if (columnarStore != null) {
+            columnarStore.append(customerId, written);
+        }
+        evict(monthsOf(written));
+    }
+
+    private static void validateRange(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new CustomException("from must not be after to");
+        }
+        if (from.plusMonths(MAX_MONTHS).isBefore(to.plusMonths(1))) {
+            throw new CustomException("Range must not exceed " + MAX_MONTHS + " months");
+        }
+    }
+
+    private void evict(Set<YearMonth> months) {
+        writes.incrementAndGet();
+        months.forEach(closedMonths::remove);
+    }
+
+    /**
+     * Rolls up [first, last] on every shard in parallel and merges the shards' figures.
+     * Points of rows not yet scored under the current rules are computed here, as the
+     * rewards endpoints do.
+     *
+     * @param primary true to read the primary of each shard even when replicas are configured
+     */
+    private Map<YearMonth, MonthTotals> rollUp(YearMonth first, YearMonth last, boolean primary) {
+        LocalDate start = first.atDay(1);
+        LocalDate end = last.plusMonths(1).atDay(1);
+        List<Map<YearMonth, MonthTotals>> perShard = shards.fanOut(shard -> {
+            boolean pin = primary && !RoutingContext.isPrimaryPinned();
+            if (pin) {
+                RoutingContext.pinPrimary();
+            }
+            try {
+                return rollUpShard(start, end);
+            } finally {
+                if (pin) {
+                    RoutingContext.clear();
+                }
+            }
+        });
+        Map<YearMonth, MonthTotals> merged = new HashMap<>();
+        perShard.forEach(months -> months.forEach((month, totals) -> merged.merge(month, totals, MonthTotals::plus)));
+        return merged;
+    }
+
+    private Map<YearMonth, MonthTotals> rollUpShard(LocalDate start, LocalDate end) {
+        Map<YearMonth, MonthTotals> months = new HashMap<>();
+        for (TransactionRepository.MonthlyTotals row
+                : transactionRepository.findMonthlyTotals(start, end, RewardCalculator.RULE_VERSION)) {
+            YearMonth month = YearMonth.of(row.getYear(), row.getMonth());
+            long points = row.getPoints() == null ? 0 : row.getPoints();
+            if (row.getUnscored() != null && row.getUnscored() > 0) {
+                for (Double amount : transactionRepository.findStaleAmounts(
+                        month.atDay(1), month.plusMonths(1).atDay(1), RewardCalculator.RULE_VERSION)) {
+                    points += rewardCalculator.calculatePoints(amount);
+                }
+            }
+            months.put(month, new MonthTotals(row.getTransactions(), points,
+                    row.getSpend() == null ? 0 : row.getSpend()));
+        }
+        return months;
+    }
+
+    private static Map<YearMonth, MonthTotals> totalsOf(ColumnarTotals columnar) {
+        Map<YearMonth, MonthTotals> totals = new HashMap<>();
+        for (int month = 0; month < columnar.months(); month++) {
+            totals.put(columnar.month(month), new MonthTotals(columnar.transactions(month), columnar.points(month),
+                    columnar.spend(month)));
+        }
+        return totals;
+    }
+
+    private static SpendDistributionDTO distribution(String scope, Map<YearMonth, SpendSketch> months) {
+        List<SpendQuantilesDTO> perMonth = new ArrayList<>();
+        SpendSketch total = null;
+        for (Map.Entry<YearMonth, SpendSketch> entry : months.entrySet()) {
+            perMonth.add(quantiles(entry.getKey().toString(), entry.getValue()));
+            if (total == null) {
+                total = entry.getValue().copy();
+            } else {
+                total.merge(entry.getValue());
+            }
+        }
+        return SpendDistributionDTO.builder()
+                .total(quantiles(scope, total))
+                .months(perMonth)
+                .build();
+    }
+
+    private static SpendQuantilesDTO quantiles(String scope, SpendSketch sketch) {
+        return SpendQuantilesDTO.builder()
+                .scope(scope)
+                .count(sketch.getCount())
+                .min(cents(sketch.getMin()))
+                .p50(cents(sketch.quantile(0.50)))
+                .p90(cents(sketch.quantile(0.90)))
+                .p99(cents(sketch.quantile(0.99)))
+                .max(cents(sketch.getMax()))
+                .build();
+    }
+
+    private static double cents(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    private static ProgramAnalyticsDTO buildResponse(YearMonth from, YearMonth to, YearMonth open,
+                                                     Map<YearMonth, MonthTotals> totals) {
+        List<MonthlyProgramStatsDTO> months = new ArrayList<>();
+        MonthTotals range = MonthTotals.EMPTY;
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            MonthTotals monthTotals = totals.getOrDefault(month, MonthTotals.EMPTY);
+            range = range.plus(monthTotals);
+            months.add(MonthlyProgramStatsDTO.builder()
+                    .month(month.toString())
+                    .transactions(monthTotals.transactions())
+                    .pointsIssued(monthTotals.points())
+                    .totalSpend(monthTotals.spend())
+                    .averageSpend(monthTotals.averageSpend())
+                    .closed(month.isBefore(open))
+                    .build());
+        }
+        return ProgramAnalyticsDTO.builder()
+                .from(from.toString())
+                .to(to.toString())
+                .months(months)
+                .totalTransactions(range.transactions())
+                .totalPointsIssued(range.points())
+                .totalSpend(range.spend())
+                .averageSpend(range.averageSpend())
+                .build();
+    }
+
+    /**
+     * Figures of one month on one or more shards.
+     *
+     * @param transactions the number of transactions
+     * @param points the reward points earned
+     * @param spend the sum of the amounts
+     */
+    record MonthTotals(long transactions, long points, double spend) {
+
+        static final MonthTotals EMPTY = new MonthTotals(0, 0, 0);
+
+        MonthTotals plus(MonthTotals other) {
+            return new MonthTotals(transactions + other.transactions, points + other.points, spend + other.spend);
+        }
+
+        double averageSpend() {
+            return transactions == 0 ? 0 : Math.round(spend / transactions * 100) / 100.0;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.infy.customerRewards.serviceImpl;
 
 
 import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -23,24 +22,49 @@ import java.util.List;
 import java.util.Map;
 
 import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.infy.customerRewards.config.VelocityProperties.Action;
+import com.infy.customerRewards.datasource.ReadYourWritesTracker;
+import com.infy.customerRewards.datasource.ShardRouter;
 import com.infy.customerRewards.dto.CustomerDTO;
 import com.infy.customerRewards.dto.CustomerResponseDTO;
+import com.infy.customerRewards.dto.CustomerSearchResultDTO;
 import com.infy.customerRewards.dto.MonthlyRewardDTO;
 import com.infy.customerRewards.dto.RewardResponseDTO;
+import com.infy.customerRewards.dto.RewardView;
 import com.infy.customerRewards.dto.TransactionDTO;
 import com.infy.customerRewards.entity.Customer;
+import com.infy.customerRewards.entity.ReviewStatus;
 import com.infy.customerRewards.entity.Transaction;
+import com.infy.customerRewards.exception.CustomException;
+import com.infy.customerRewards.exception.ResourceNotFoundException;
+import com.infy.customerRewards.ingest.IngestRecord;
+import com.infy.customerRewards.ingest.RecentKeys;
+import com.infy.customerRewards.ingest.TransactionBatchWriter;
+import com.infy.customerRewards.ingest.WriteBehindBuffer;
 import com.infy.customerRewards.repository.CustomerRepository;
+import com.infy.customerRewards.repository.JdbcTransactionReadRepository;
 import com.infy.customerRewards.repository.TransactionRepository;
+import com.infy.customerRewards.search.CustomerNameIndex;
+import com.infy.customerRewards.service.AnalyticsService;
 import com.infy.customerRewards.service.RewardService;
+import com.infy.customerRewards.utility.CustomerDataVersions;
+import com.infy.customerRewards.utility.IdGenerator;
 import com.infy.customerRewards.utility.RewardCalculator;
+import com.infy.customerRewards.utility.VelocityScorer;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -57,67 +81,332 @@ import java.util.stream.Collectors;
 @Service
 public class RewardServiceImpl implements RewardService {
 
-    @Autowired
-    private CustomerRepository customerRepository;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
 
-    @Autowired
-    private TransactionRepository transactionRepository;
+    private final CustomerRepository customerRepository;
+    private final TransactionRepository transactionRepository;
+    private final ModelMapper mapper;
+    private final Environment env;
+    private final PasswordEncoder passwordEncoder;
+    private final RewardCalculator rewardCalculator;
+    private final CustomerDataVersions dataVersions;
+    private final ReadYourWritesTracker readYourWrites;
+    private final ShardRouter shards;
+    private final AnalyticsService analytics;
+    private final VelocityScorer velocityScorer;
+    private final IdGenerator idGenerator;
+    private final TransactionBatchWriter transactionWriter;
+    private final RecentKeys recentKeys;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTransactionReadRepository jdbcReads;
+    private final WriteBehindBuffer writeBehind;
+    private final CustomerNameIndex nameIndex;
 
-    @Autowired
-    private ModelMapper mapper;
-
-    @Autowired
-    private Environment env;
-    
-    @Autowired
-    private PasswordEncoder passwordEncoder;
-
-    @Autowired
-    private RewardCalculator rewardCalculator;
+    /**
+     * Constructs the service with the optional components that are enabled.
+     *
+     * @param customerRepository the customer repository
+     * @param transactionRepository the transaction repository
+     * @param mapper the model mapper
+     * @param env the application environment
+     * @param passwordEncoder the password encoder
+     * @param rewardCalculator the reward calculator
+     * @param dataVersions the customer data versions
+     * @param readYourWrites the read-your-writes tracker
+     * @param shards the shard router
+     * @param analytics the analytics service
+     * @param velocityScorer the velocity scorer
+     * @param idGenerator the ID generator
+     * @param transactionWriter the transaction batch writer
+     * @param recentKeys the recently used idempotency keys
+     * @param transactionManager the transaction manager
+     * @param jdbcReads the JDBC read engine, when rewards.read.engine=jdbc
+     * @param writeBehind the write-behind buffer, when rewards.ingest.mode=write-behind
+     * @param nameIndex the name search index, when search is enabled
+     */
+    public RewardServiceImpl(CustomerRepository customerRepository, TransactionRepository transactionRepository,
+                             ModelMapper mapper, Environment env, PasswordEncoder passwordEncoder,
+                             RewardCalculator rewardCalculator, CustomerDataVersions dataVersions,
+                             ReadYourWritesTracker readYourWrites, ShardRouter shards, AnalyticsService analytics,
+                             VelocityScorer velocityScorer, IdGenerator idGenerator,
+                             TransactionBatchWriter transactionWriter, RecentKeys recentKeys,
+                             PlatformTransactionManager transactionManager,
+                             ObjectProvider<JdbcTransactionReadRepository> jdbcReads,
+                             ObjectProvider<WriteBehindBuffer> writeBehind,
+                             ObjectProvider<CustomerNameIndex> nameIndex) {
+        this.customerRepository = customerRepository;
+        this.transactionRepository = transactionRepository;
+        this.mapper = mapper;
+        this.env = env;
+        this.passwordEncoder = passwordEncoder;
+        this.rewardCalculator = rewardCalculator;
+        this.dataVersions = dataVersions;
+        this.readYourWrites = readYourWrites;
+        this.shards = shards;
+        this.analytics = analytics;
+        this.velocityScorer = velocityScorer;
+        this.idGenerator = idGenerator;
+        this.transactionWriter = transactionWriter;
+        this.recentKeys = recentKeys;
+        this.transactionManager = transactionManager;
+        this.jdbcReads = jdbcReads.getIfAvailable();
+        this.writeBehind = writeBehind.getIfAvailable();
+        this.nameIndex = nameIndex.getIfAvailable();
+    }
 
     /**
      * Creates a new customer with associated transactions and encodes sensitive information.
-     * Establishes bidirectional relationship between customer and transactions.
+     * Establishes bidirectional relationship between customer and transactions and stores each
+     * transaction's reward points, so reads never recompute them.
+     * Before scoring, the transactions dated today or later are counted against the in-memory
+     * velocity rules under the new customer ID, as later transactions of the customer are:
+     * transactions beyond a rule's limit are stored FLAGGED, or HELD. Back-dated history happened
+     * outside every rule window, so it is stored without a review status.
+     * The customer is stored at data version 0. The written transactions are handed to analytics
+     * so cached rollups and spend sketches stay current, and the customer is added to the name
+     * search index once committed.
+     * Runs on the primary datasource; with sharded storage the customer is stored on the shard
+     * its newly assigned ID maps to.
      * 
      * @param customerDTO the customer data transfer object containing customer details and transactions
      * @return CustomerResponseDTO with saved customer information and generated ID
      * @throws RuntimeException if customer data validation fails or persistence error occurs
      */
     @Override
+    @Transactional
     public CustomerResponseDTO createCustomer(CustomerDTO customerDTO) {
         Customer customer = mapper.map(customerDTO, Customer.class);
-
-        if (customer.getTransactions() != null) {
-            customer.getTransactions().forEach(tx -> tx.setCustomer(customer));
+        // Persisted once the customer has the ID they are scored under, so each is still inserted
+        // once, with its final review status and points
+        List<Transaction> transactions = customer.getTransactions();
+        if (transactions != null) {
+            customer.setTransactions(new ArrayList<>());
         }
         customer.setPhoneNo(passwordEncoder.encode(customer.getPhoneNo()));
         Customer savedCustomer = customerRepository.save(customer);
+        shards.bindCustomer(savedCustomer.getId());
+        if (transactions != null) {
+            LocalDate today = LocalDate.now();
+            List<Transaction> current = transactions.stream()
+                    .filter(tx -> tx.getDate() == null || !tx.getDate().isBefore(today))
+                    .toList();
+            List<Action> actions = current.isEmpty() ? List.of() : velocityScorer.score(savedCustomer.getId(),
+                    current.stream().map(Transaction::getAmount).toList(), System.nanoTime());
+            for (int i = 0; i < current.size(); i++) {
+                current.get(i).setReviewStatus(reviewStatus(actions.get(i)));
+            }
+            for (Transaction tx : transactions) {
+                tx.setCustomer(savedCustomer);
+                rewardCalculator.score(tx);
+            }
+            transactionRepository.saveAll(transactions);
+            savedCustomer.getTransactions().addAll(transactions);
+        }
+        readYourWrites.recordWrite(savedCustomer.getId());
+        if (transactions != null) {
+            analytics.transactionsWritten(savedCustomer.getId(), transactions);
+        }
+        if (nameIndex != null) {
+            nameIndex.customerCreated(savedCustomer.getId(), savedCustomer.getCustName());
+        }
         return mapper.map(savedCustomer, CustomerResponseDTO.class);
     }
     
     /**
-     * Retrieves all transactions for a specific customer and calculates reward points for each transaction.
+     * Adds one transaction to an existing customer. The transaction is given its ID, counted
+     * against the velocity rules under the customer ID, and scored before it is written.
+     * In direct mode it is inserted in its own database transaction through the batch writer,
+     * which also checks the customer exists; in write-behind mode the customer is looked up
+     * first, usually in the entity cache, and the transaction is then journaled and written in
+     * a later batch. Not transactional itself, so a journaled write holds no database connection.
+     * <p>
+     * With an idempotency key, a retried submission gets back the original transaction instead
+     * of storing a second one: recently used keys are answered from memory, others are looked
+     * up on the primary before writing, and the unique index settles a race between two
+     * submissions of the same key.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param idempotencyKey the client-supplied idempotency key, or null
+     * @param transactionDTO the transaction details
+     * @return TransactionDTO with the assigned ID, reward points and review status
+     * @throws CustomException if the idempotency key is too long
+     * @throws ResourceNotFoundException if the customer does not exist
+     * @throws ServiceUnavailableException if the write-behind buffer is full
+     */
+    @Override
+    public TransactionDTO addTransaction(Long customerId, String idempotencyKey, TransactionDTO transactionDTO) {
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                throw new CustomException("Idempotency key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+            }
+            IngestRecord original = original(customerId, idempotencyKey);
+            if (original != null) {
+                return toResponse(original);
+            }
+        }
+        if (writeBehind != null) {
+            requireCustomer(customerId);
+        }
+        Transaction transaction = mapper.map(transactionDTO, Transaction.class);
+        transaction.setId(idGenerator.nextId());
+        transaction.setIdempotencyKey(idempotencyKey);
+        Action action = velocityScorer.score(customerId, Collections.singletonList(transaction.getAmount()),
+                System.nanoTime()).get(0);
+        transaction.setReviewStatus(reviewStatus(action));
+        rewardCalculator.score(transaction);
+
+        IngestRecord record = IngestRecord.of(customerId, transaction);
+        if (idempotencyKey != null) {
+            IngestRecord concurrent = recentKeys.putIfAbsent(record);
+            if (concurrent != null) {
+                return toResponse(concurrent);
+            }
+        }
+        try {
+            IngestRecord stored = store(record);
+            if (stored != record) {
+                recentKeys.put(stored);
+            }
+            return toResponse(stored);
+        } catch (DataIntegrityViolationException e) {
+            recentKeys.remove(record);
+            IngestRecord original = idempotencyKey != null
+                    ? transactionWriter.findByKey(customerId, idempotencyKey).orElse(null) : null;
+            if (original == null) {
+                throw e;
+            }
+            recentKeys.put(original);
+            return toResponse(original);
+        } catch (RuntimeException e) {
+            recentKeys.remove(record);
+            throw e;
+        }
+    }
+
+    /**
+     * Releases a stored transaction after review. Only the review_status column is written, in a
+     * read-write transaction on the customer's shard; when it was set, the customer's data
+     * version is bumped so cached reads are revalidated, and analytics is told so the cached
+     * month and the columnar store pick up the points.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param transactionId the unique identifier of the transaction
+     * @return TransactionDTO with the reward points it now earns and no review status
+     * @throws ResourceNotFoundException if the customer has no stored transaction with this ID
+     */
+    @Override
+    @Transactional
+    public TransactionDTO releaseTransaction(Long customerId, Long transactionId) {
+        shards.bindCustomer(customerId);
+        int cleared = transactionRepository.clearReviewStatus(transactionId, customerId);
+        Transaction transaction = transactionRepository.findByIdAndCustomerId(transactionId, customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found: " + transactionId));
+        if (cleared > 0) {
+            dataVersions.bump(customerId);
+            readYourWrites.recordWrite(customerId);
+            analytics.transactionsReleased(customerId, List.of(transaction));
+        }
+        TransactionDTO response = mapper.map(transaction, TransactionDTO.class);
+        response.setRewardPoints(rewardCalculator.pointsOf(transaction));
+        return response;
+    }
+
+    /**
+     * Checks a customer exists before a transaction is journaled for it, since the write-behind
+     * acknowledgement would otherwise promise a row the flush then drops. Read in a read-write
+     * transaction, so a cache miss goes to the primary and finds a customer created moments ago.
+     */
+    private void requireCustomer(Long customerId) {
+        boolean exists = Boolean.TRUE.equals(new TransactionTemplate(transactionManager).execute(status -> {
+            shards.bindCustomer(customerId);
+            return customerRepository.findById(customerId).isPresent();
+        }));
+        if (!exists) {
+            throw new ResourceNotFoundException(String.format("%s %d",
+                    env.getProperty("customer.notfound", "Customer not found:"), customerId));
+        }
+    }
+
+    /**
+     * Finds the transaction already submitted under an idempotency key, in memory first.
+     */
+    private IngestRecord original(Long customerId, String idempotencyKey) {
+        IngestRecord original = recentKeys.get(customerId, idempotencyKey);
+        if (original == null) {
+            original = transactionWriter.findByKey(customerId, idempotencyKey).orElse(null);
+            if (original != null) {
+                recentKeys.put(original);
+            }
+        }
+        return original;
+    }
+
+    /**
+     * Journals or writes a new transaction.
+     *
+     * @return the record, or the stored one if the writer found its idempotency key taken
+     */
+    private IngestRecord store(IngestRecord record) {
+        if (writeBehind != null) {
+            writeBehind.append(record);
+            return record;
+        }
+        TransactionBatchWriter.Result result = transactionWriter.write(List.of(record));
+        if (result.rejected() > 0) {
+            throw new ResourceNotFoundException(String.format("%s %d",
+                    env.getProperty("customer.notfound", "Customer not found:"), record.customerId()));
+        }
+        if (result.duplicates() > 0 && record.idempotencyKey() != null) {
+            return transactionWriter.findByKey(record.customerId(), record.idempotencyKey()).orElse(record);
+        }
+        return record;
+    }
+
+    private TransactionDTO toResponse(IngestRecord record) {
+        Transaction transaction = record.toTransaction();
+        TransactionDTO response = mapper.map(transaction, TransactionDTO.class);
+        response.setRewardPoints(rewardCalculator.pointsOf(transaction));
+        return response;
+    }
+
+    private static ReviewStatus reviewStatus(Action action) {
+        if (action == null) {
+            return null;
+        }
+        return action == Action.HOLD ? ReviewStatus.HELD : ReviewStatus.FLAGGED;
+    }
+
+    /**
+     * Retrieves all transactions for a specific customer with the reward points stored for each transaction.
+     * Read-only, so it is served by a replica when read/write routing is enabled, and by the
+     * customer's shard when storage is sharded. With rewards.read.engine=jdbc rows are mapped
+     * straight to DTOs, without loading entities.
      * 
      * @param customerId the unique identifier of the customer
-     * @return List of TransactionDTO objects with calculated reward points
+     * @return List of TransactionDTO objects with their reward points
      * @throws RuntimeException if customer is not found or data access error occurs
      */
     @Override
+    @Transactional(readOnly = true)
     public List<TransactionDTO> getCustomerTransactions(Long customerId) {
+        shards.bindCustomer(customerId);
+        readYourWrites.routeReads(customerId);
+        if (jdbcReads != null) {
+            return jdbcReads.findByCustomerId(customerId);
+        }
         List<Transaction> transactions = transactionRepository.findByCustomerId(customerId);
 
         return transactions.stream()
                 .map(tx -> {
                     TransactionDTO dto = mapper.map(tx, TransactionDTO.class);
-                    dto.setRewardPoints(rewardCalculator.calculatePoints(tx.getAmount()));
+                    dto.setRewardPoints(rewardCalculator.pointsOf(tx));
                     return dto;
                 })
                 .collect(Collectors.toList());
     }
 
     /**
-     * Calculates rewards for a customer within a specified date range.
-     * Validates customer existence and transaction availability before reward calculation.
+     * Calculates rewards for a customer within a specified date range, with every field.
      * 
      * @param customerId the unique identifier of the customer
      * @param startDate the start date of the reward calculation period (inclusive)
@@ -126,12 +415,59 @@ public class RewardServiceImpl implements RewardService {
      * @throws RuntimeException if customer not found, no transactions in date range, or calculation error
      */
     @Override
+    @Transactional(readOnly = true)
     public RewardResponseDTO getRewardsForCustomer(Long customerId, LocalDate startDate, LocalDate endDate) {
+        return getRewardsForCustomer(customerId, startDate, endDate, RewardView.FULL);
+    }
+
+    /**
+     * Calculates rewards for a customer within a specified date range.
+     * Validates customer existence and transaction availability before reward calculation.
+     * Read-only, so it is served by a replica when read/write routing is enabled, and by the
+     * customer's shard when storage is sharded. With rewards.read.engine=jdbc the transactions
+     * are read as DTOs, without loading entities.
+     * When the view leaves out the transactions, none is read or mapped: the database sums the
+     * stored points by month, and only rows not yet re-scored to the current rules are read to
+     * be scored here.
+     * 
+     * @param customerId the unique identifier of the customer
+     * @param startDate the start date of the reward calculation period (inclusive)
+     * @param endDate the end date of the reward calculation period (inclusive)
+     * @param view the fields to return
+     * @return RewardResponseDTO containing the requested fields
+     * @throws RuntimeException if customer not found, no transactions in date range, or calculation error
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public RewardResponseDTO getRewardsForCustomer(Long customerId, LocalDate startDate, LocalDate endDate,
+                                                   RewardView view) {
+        shards.bindCustomer(customerId);
+        readYourWrites.routeReads(customerId);
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new RuntimeException(
                         String.format("%s %d", env.getProperty("customer.notfound", "Customer not found:"), customerId)
                 ));
 
+        if (!view.needsTransactions()) {
+            Map<String, Integer> monthlyRewards = jdbcReads != null
+                    ? jdbcReads.findMonthlyRewards(customerId, startDate, endDate)
+                    : monthlyRewards(customerId, startDate, endDate);
+            if (monthlyRewards.isEmpty()) {
+                throw new RuntimeException(env.getProperty("transaction.notfound", "No transactions found"));
+            }
+            return buildRewardResponse(customer, rewardCalculator.summarizeMonths(monthlyRewards), startDate,
+                    endDate, view);
+        }
+
+        if (jdbcReads != null) {
+            List<TransactionDTO> transactions = jdbcReads
+                    .findByCustomerIdAndDateBetween(customerId, startDate, endDate);
+            if (transactions.isEmpty()) {
+                throw new RuntimeException(env.getProperty("transaction.notfound", "No transactions found"));
+            }
+            return buildRewardResponse(customer, rewardCalculator.summarize(transactions), startDate, endDate, view);
+        }
+
         List<Transaction> transactions = transactionRepository
                 .findByCustomerIdAndDateBetween(customerId, startDate, endDate);
 
@@ -139,7 +475,52 @@ public class RewardServiceImpl implements RewardService {
             throw new RuntimeException(env.getProperty("transaction.notfound", "No transactions found"));
         }
 
-        return buildRewardResponse(customer, transactions, startDate, endDate);
+        return buildRewardResponse(customer, rewardCalculator.calculateRewards(transactions), startDate, endDate,
+                view);
+    }
+
+    /**
+     * Sums a customer's reward points by month in the database, scoring the rows not yet
+     * re-scored to the current rules here.
+     *
+     * @return the points per "YYYY-MM" month that has transactions
+     */
+    private Map<String, Integer> monthlyRewards(Long customerId, LocalDate startDate, LocalDate endDate) {
+        Map<String, Integer> monthlyRewards = new HashMap<>();
+        long unscored = 0;
+        for (TransactionRepository.MonthlyPoints month : transactionRepository.findMonthlyPoints(customerId,
+                startDate, endDate, RewardCalculator.RULE_VERSION)) {
+            monthlyRewards.put(YearMonth.of(month.getYear(), month.getMonth()).toString(),
+                    month.getPoints() != null ? month.getPoints().intValue() : 0);
+            unscored += month.getUnscored();
+        }
+        if (unscored > 0) {
+            for (TransactionRepository.DatedAmount stale : transactionRepository.findStaleAmounts(customerId,
+                    startDate, endDate, RewardCalculator.RULE_VERSION)) {
+                monthlyRewards.merge(YearMonth.from(stale.getDate()).toString(),
+                        rewardCalculator.calculatePoints(stale.getAmount()), Integer::sum);
+            }
+        }
+        return monthlyRewards;
+    }
+
+    /**
+     * Finds customers by part of their name in the in-memory name index, without touching the
+     * database.
+     * 
+     * @param name the partial name
+     * @param limit the maximum number of results
+     * @return the best matches, best first
+     * @throws CustomException if search is disabled, the name has no letters or digits, or the
+     *                         limit is out of range
+     * @throws ServiceUnavailableException if the search index is still loading
+     */
+    @Override
+    public List<CustomerSearchResultDTO> searchCustomers(String name, int limit) {
+        if (nameIndex == null) {
+            throw new CustomException("Customer search is disabled");
+        }
+        return nameIndex.search(name, limit);
     }
 
     /**
@@ -147,30 +528,35 @@ public class RewardServiceImpl implements RewardService {
      * Transforms monthly rewards from simple key-value pairs to structured objects.
      * 
      * @param customer the customer entity for which rewards are calculated
-     * @param transactions list of transactions within the specified date range
+     * @param calculationResult the rewards of the transactions within the specified date range
      * @param startDate the start date of the reward period
      * @param endDate the end date of the reward period
+     * @param view the fields to set; the others are left null
      * @return RewardResponseDTO containing structured reward information and time frame details
      */
-    private RewardResponseDTO buildRewardResponse(Customer customer, List<Transaction> transactions, 
-                                                 LocalDate startDate, LocalDate endDate) {
-        RewardCalculator.RewardCalculationResult calculationResult = rewardCalculator.calculateRewards(transactions);
-        
+    private RewardResponseDTO buildRewardResponse(Customer customer,
+                                                 RewardCalculator.RewardCalculationResult calculationResult,
+                                                 LocalDate startDate, LocalDate endDate, RewardView view) {
         // Transform the monthly rewards to structured format
-        List<MonthlyRewardDTO> structuredMonthlyRewards = transformMonthlyRewards(calculationResult.monthlyRewards());
+        List<MonthlyRewardDTO> structuredMonthlyRewards = view.includes("monthlyRewards")
+                ? transformMonthlyRewards(calculationResult.monthlyRewards()) : null;
         
-        Map<String, String> timeFrame = new HashMap<>();
-        timeFrame.put("startDate", startDate.toString());
-        timeFrame.put("endDate", endDate.toString());
+        Map<String, String> timeFrame = null;
+        if (view.includes("timeFrame")) {
+            timeFrame = new HashMap<>();
+            timeFrame.put("startDate", startDate.toString());
+            timeFrame.put("endDate", endDate.toString());
+        }
 
         return RewardResponseDTO.builder()
-                .customerId(customer.getId())
-                .custName(customer.getCustName())
-                .phoneNo(customer.getPhoneNo())
+                .customerId(view.includes("customerId") ? customer.getId() : null)
+                .custName(view.includes("custName") ? customer.getCustName() : null)
+                .phoneNo(view.includes("phoneNo") ? customer.getPhoneNo() : null)
                 .transactions(calculationResult.transactionDTOs())
                 .monthlyRewards(structuredMonthlyRewards) // Use the transformed structured data
-                .totalRewards(calculationResult.totalRewards())
+                .totalRewards(view.includes("totalRewards") ? calculationResult.totalRewards() : null)
                 .timeFrame(timeFrame)
+                .view(view)
                 .build();
     }
 
@@ -220,4 +606,4 @@ public class RewardServiceImpl implements RewardService {
             default: throw new IllegalArgumentException("Invalid month value: " + monthValue);
         }
     }
-}
\ No newline at end of file
+}
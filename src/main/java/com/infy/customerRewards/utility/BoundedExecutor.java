@@ -0,0 +1,105 @@
+package com.infy.customerRewards.utility;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.infy.customerRewards.exception.ServiceUnavailableException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-size thread pool with a bounded queue used to run request work off the servlet threads.
+ * Admission is decided by queue depth: once the queue is full a task is rejected immediately
+ * with a ServiceUnavailableException instead of waiting, so an overloaded pool sheds load
+ * predictably rather than piling up requests.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class BoundedExecutor {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final int retryAfterSeconds;
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Constructs a bounded executor.
+     *
+     * @param name the pool name, used for thread names and metrics
+     * @param threads the number of worker threads
+     * @param maxQueueDepth the number of tasks allowed to wait before new ones are rejected
+     * @param retryAfterSeconds the Retry-After hint returned to rejected callers
+     */
+    public BoundedExecutor(String name, int threads, int maxQueueDepth, int retryAfterSeconds) {
+        this.name = name;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueueDepth),
+                new CustomizableThreadFactory("rewards-" + name + "-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Submits work to the pool.
+     *
+     * @param task the work to run
+     * @param <T> the result type
+     * @return a future completed with the task's result or exception
+     * @throws ServiceUnavailableException if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ServiceUnavailableException(
+                    String.format("Server busy (%s pool saturated), retry later", name), retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Gets the pool name.
+     * @return the pool name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of tasks waiting in the queue.
+     * @return the current queue depth
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Gets the number of threads currently running tasks.
+     * @return the active thread count
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Gets the number of tasks rejected since startup.
+     * @return the rejection count
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Stops accepting work and lets queued tasks finish.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,97 @@
+package com.infy.customerRewards.utility;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infy.customerRewards.datasource.ReadYourWritesTracker;
+import com.infy.customerRewards.datasource.ShardRouter;
+
+import javax.sql.DataSource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Component keeping a per-customer data version that is bumped on every write to the
+ * customer's transactions. Used to build strong ETags for the read endpoints, so a poll
+ * that matches the current version is answered with one primary-key lookup instead of
+ * reading and serializing the customer's transactions.
+ * <p>
+ * The version is the customers.data_version column, incremented in the same database
+ * transaction as the write, so every instance sees a write as soon as it is committed,
+ * whichever instance made it, and a version never runs ahead of the data it describes.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class CustomerDataVersions {
+
+    private static final String SELECT_VERSION = "SELECT data_version FROM customers WHERE id = ?";
+    private static final String BUMP = "UPDATE customers SET data_version = data_version + 1 WHERE id IN (";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate reads;
+    private final ShardRouter shards;
+    private final ReadYourWritesTracker readYourWrites;
+
+    /**
+     * Constructs the versions over the application datasource.
+     *
+     * @param dataSource the application datasource
+     * @param transactionManager the transaction manager
+     * @param shards the shard router
+     * @param readYourWrites the read-your-writes tracker
+     */
+    public CustomerDataVersions(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                ShardRouter shards, ReadYourWritesTracker readYourWrites) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.reads = new TransactionTemplate(transactionManager);
+        this.reads.setReadOnly(true);
+        this.shards = shards;
+        this.readYourWrites = readYourWrites;
+    }
+
+    /**
+     * Gets the current data version of a customer, read on the customer's shard and routed
+     * as the customer's reads are.
+     *
+     * @param customerId the unique identifier of the customer
+     * @return the current version, null if the customer does not exist
+     */
+    public Long current(Long customerId) {
+        return reads.execute(status -> {
+            shards.bindCustomer(customerId);
+            readYourWrites.routeReads(customerId);
+            return jdbc.query(SELECT_VERSION, (rs, row) -> rs.getLong(1), customerId).stream()
+                    .findFirst().orElse(null);
+        });
+    }
+
+    /**
+     * Marks the customer's data as changed.
+     *
+     * @param customerId the unique identifier of the customer that was written
+     */
+    public void bump(Long customerId) {
+        bump(List.of(customerId));
+    }
+
+    /**
+     * Marks the data of several customers as changed, in one statement. Must run in the write's
+     * transaction, bound to the customers' shard, so the versions commit or roll back with it.
+     *
+     * @param customerIds the unique identifiers of the customers that were written
+     */
+    public void bump(Collection<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return;
+        }
+        jdbc.update(BUMP + String.join(", ", Collections.nCopies(customerIds.size(), "?")) + ")",
+                customerIds.toArray());
+    }
+}
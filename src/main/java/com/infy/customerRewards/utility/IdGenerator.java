@@ -0,0 +1,18 @@
+package com.infy.customerRewards.utility;
+
+/**
+ * Source of application-assigned 64-bit entity identifiers.
+ * Implementations must be thread-safe and never return the same value twice.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public interface IdGenerator {
+
+    /**
+     * Allocates the next identifier.
+     * @return a new unique identifier
+     */
+    long nextId();
+}
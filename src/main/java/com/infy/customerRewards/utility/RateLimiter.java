@@ -0,0 +1,75 @@
+package com.infy.customerRewards.utility;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-client rate limiter for one endpoint.
+ * Buckets are held in a ConcurrentHashMap, whose lookups are lock-free and whose inserts only
+ * lock a single bin, so clients on different cores do not contend on a global lock.
+ * Buckets that have refilled and stayed unused are evicted to bound memory.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class RateLimiter {
+
+    private final int capacity;
+    private final double refillPerSecond;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a rate limiter.
+     *
+     * @param capacity the burst size of each client's bucket
+     * @param refillPerSecond the sustained requests per second allowed per client
+     */
+    public RateLimiter(int capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+    }
+
+    /**
+     * Takes one token from the client's bucket, creating a full bucket on first use.
+     *
+     * @param clientId the client identifier (API key, JWT subject or address)
+     * @param nowNanos the current time in nanoseconds
+     * @return the outcome of the request
+     */
+    public TokenBucket.Decision tryAcquire(String clientId, long nowNanos) {
+        TokenBucket bucket = buckets.get(clientId);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(clientId, id -> new TokenBucket(capacity, refillPerSecond, nowNanos));
+        }
+        return bucket.tryAcquire(nowNanos);
+    }
+
+    /**
+     * Removes buckets that have been idle for at least the given time.
+     *
+     * @param nowNanos the current time in nanoseconds
+     * @param idleNanos the idle time after which a bucket is dropped
+     * @return the number of buckets removed
+     */
+    public int evictIdle(long nowNanos, long idleNanos) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(nowNanos, idleNanos));
+        return before - buckets.size();
+    }
+
+    /**
+     * Gets the burst size of each bucket.
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of tracked clients.
+     * @return the bucket count
+     */
+    public int size() {
+        return buckets.size();
+    }
+}
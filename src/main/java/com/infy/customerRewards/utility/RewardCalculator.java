@@ -1,6 +1,7 @@
 package com.infy.customerRewards.utility;
 
 import com.infy.customerRewards.dto.TransactionDTO;
+import com.infy.customerRewards.entity.ReviewStatus;
 import com.infy.customerRewards.entity.Transaction;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
@@ -22,6 +23,12 @@ import java.util.Map;
 @Component
 public class RewardCalculator {
 
+    /**
+     * Version of the rules implemented by calculatePoints.
+     * Must be incremented whenever those rules change, so stored points are re-scored.
+     */
+    public static final int RULE_VERSION = 1;
+
     private final ModelMapper modelMapper;
 
     /**
@@ -35,7 +42,7 @@ public class RewardCalculator {
 
     /**
      * Calculates reward points for a list of transactions and provides monthly breakdown.
-     * Processes each transaction to calculate points, aggregates monthly totals, and converts
+     * Takes each transaction's stored points, aggregates monthly totals, and converts
      * transactions to DTOs with their respective reward points.
      * 
      * @param transactions the list of transactions to calculate rewards for
@@ -43,25 +50,95 @@ public class RewardCalculator {
      * @throws IllegalArgumentException if transactions list is null
      */
     public RewardCalculationResult calculateRewards(List<Transaction> transactions) {
+        List<TransactionDTO> transactionDTOs = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            TransactionDTO dto = modelMapper.map(transaction, TransactionDTO.class);
+            dto.setRewardPoints(pointsOf(transaction));
+            transactionDTOs.add(dto);
+        }
+        return summarize(transactionDTOs);
+    }
+
+    /**
+     * Aggregates monthly and total rewards of transactions already carrying their points,
+     * as read by a repository that maps rows straight to DTOs.
+     *
+     * @param transactionDTOs the transactions with their reward points
+     * @return RewardCalculationResult containing the same DTOs, monthly rewards, and total rewards
+     */
+    public RewardCalculationResult summarize(List<TransactionDTO> transactionDTOs) {
         Map<String, Integer> monthlyRewards = new HashMap<>();
-        List<TransactionDTO> transactionDTOs = new ArrayList<>();
         int totalRewards = 0;
 
-        for (Transaction transaction : transactions) {
-            int points = calculatePoints(transaction.getAmount());
+        for (TransactionDTO dto : transactionDTOs) {
+            int points = dto.getRewardPoints();
             totalRewards += points;
 
-            String monthKey = YearMonth.from(transaction.getDate()).toString();
+            String monthKey = YearMonth.from(dto.getDate()).toString();
             monthlyRewards.put(monthKey, monthlyRewards.getOrDefault(monthKey, 0) + points);
-
-            TransactionDTO dto = modelMapper.map(transaction, TransactionDTO.class);
-            dto.setRewardPoints(points);
-            transactionDTOs.add(dto);
         }
 
         return new RewardCalculationResult(transactionDTOs, monthlyRewards, totalRewards);
     }
 
+    /**
+     * Totals monthly rewards already summed by the database, for responses without transactions.
+     *
+     * @param monthlyRewards the points per "YYYY-MM" month
+     * @return RewardCalculationResult without transaction DTOs, with the monthly and total rewards
+     */
+    public RewardCalculationResult summarizeMonths(Map<String, Integer> monthlyRewards) {
+        int totalRewards = 0;
+        for (int points : monthlyRewards.values()) {
+            totalRewards += points;
+        }
+        return new RewardCalculationResult(null, monthlyRewards, totalRewards);
+    }
+
+    /**
+     * Stores the reward points of a transaction under the current rule version.
+     * Called before a transaction is written, so reads never need to recompute them.
+     * A held transaction keeps its points too; reads award them once it is released.
+     *
+     * @param transaction the transaction to score
+     */
+    public void score(Transaction transaction) {
+        transaction.setRewardPoints(calculatePoints(transaction.getAmount()));
+        transaction.setRuleVersion(RULE_VERSION);
+    }
+
+    /**
+     * Gets the reward points of a transaction: the stored value when it was scored under the
+     * current rule version, otherwise computed from the amount (rows not yet re-scored).
+     * A held transaction earns 0 points.
+     *
+     * @param transaction the transaction
+     * @return the reward points for the transaction
+     */
+    public int pointsOf(Transaction transaction) {
+        return pointsOf(transaction.getAmount(), transaction.getRewardPoints(), transaction.getRuleVersion(),
+                transaction.getReviewStatus());
+    }
+
+    /**
+     * Gets the reward points of a transaction row read without an entity; see pointsOf(Transaction).
+     *
+     * @param amount the transaction amount
+     * @param stored the stored reward points, may be null
+     * @param ruleVersion the rule version the points were stored under, may be null
+     * @param reviewStatus the review status, may be null
+     * @return the reward points for the transaction
+     */
+    public int pointsOf(Double amount, Integer stored, Integer ruleVersion, ReviewStatus reviewStatus) {
+        if (reviewStatus == ReviewStatus.HELD) {
+            return 0;
+        }
+        if (stored != null && ruleVersion != null && ruleVersion == RULE_VERSION) {
+            return stored;
+        }
+        return calculatePoints(amount);
+    }
+
     /**
      * Calculates reward points for a single transaction amount based on the reward rules:
      * - 0 points for amounts $50 and under
@@ -82,7 +159,7 @@ public class RewardCalculator {
      * Record representing the result of reward calculations.
      * Contains transaction DTOs with calculated points, monthly reward breakdown, and total rewards.
      * 
-     * @param transactionDTOs list of transaction DTOs with calculated reward points
+     * @param transactionDTOs list of transaction DTOs with calculated reward points, null when summed by month only
      * @param monthlyRewards map of monthly rewards where key is "YYYY-MM" and value is monthly points
      * @param totalRewards the total reward points across all transactions
      */
@@ -0,0 +1,85 @@
+package com.infy.customerRewards.utility;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding-window event counter.
+ * The window is split into a fixed ring of buckets; each bucket is one long packing the bucket's
+ * sequence number with its count, updated with a single compare-and-set, so concurrent writers
+ * never block and memory is fixed at one long per bucket. Counts are exact to the bucket
+ * granularity (window / buckets): an event leaves the window between window - granularity and
+ * window after it was added.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final long originNanos;
+    private final long bucketNanos;
+    private final AtomicLongArray slots;
+
+    /**
+     * Constructs an empty counter.
+     *
+     * @param windowNanos the window length in nanoseconds
+     * @param buckets the number of buckets the window is split into
+     * @param nowNanos the current time in nanoseconds
+     */
+    public SlidingWindowCounter(long windowNanos, int buckets, long nowNanos) {
+        this.originNanos = nowNanos;
+        this.bucketNanos = Math.max(1L, windowNanos / buckets);
+        this.slots = new AtomicLongArray(buckets);
+    }
+
+    /**
+     * Adds one event and counts the events now in the window, including it.
+     *
+     * @param nowNanos the current time in nanoseconds
+     * @return the number of events in the window
+     */
+    public long increment(long nowNanos) {
+        long sequence = sequence(nowNanos);
+        int index = (int) (sequence % slots.length());
+        while (true) {
+            long current = slots.get(index);
+            long next = (current >>> COUNT_BITS) == sequence
+                    ? Math.min(current + 1, (sequence << COUNT_BITS) | COUNT_MASK)
+                    : (sequence << COUNT_BITS) | 1;
+            if (slots.compareAndSet(index, current, next)) {
+                break;
+            }
+        }
+        return count(nowNanos);
+    }
+
+    /**
+     * Counts the events in the window.
+     *
+     * @param nowNanos the current time in nanoseconds
+     * @return the number of events in the window
+     */
+    public long count(long nowNanos) {
+        long sequence = sequence(nowNanos);
+        long total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long slot = slots.get(i);
+            long age = sequence - (slot >>> COUNT_BITS);
+            if (age >= 0 && age < slots.length()) {
+                total += slot & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Bucket sequence number, starting at 1 so an all-zero slot is always empty.
+     */
+    private long sequence(long nowNanos) {
+        return Math.max(0, nowNanos - originNanos) / bucketNanos + 1;
+    }
+}
@@ -0,0 +1,103 @@
+package com.infy.customerRewards.utility;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, k-sortable ID generator.
+ * An ID is 41 bits of milliseconds since 2024-01-01T00:00Z, 10 bits of node ID and a 12-bit
+ * per-millisecond sequence, so IDs from one node are strictly increasing and IDs from all nodes
+ * are roughly time ordered, which keeps primary key inserts at the right edge of the index.
+ * <p>
+ * The last issued time and sequence live in a single AtomicLong updated with compare-and-set.
+ * When the clock moves backwards, or more than 4096 IDs are needed within one millisecond, the
+ * generator keeps counting on from the last issued value instead of reusing IDs. Once the
+ * issued time is ahead of the clock by more than the configured tolerance, whether from a
+ * rollback or a sustained burst, further IDs are refused with an IllegalStateException.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    /** Start of the timestamp field: 2024-01-01T00:00:00Z. */
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final long maxRollbackMillis;
+    private final AtomicLong lastIssued = new AtomicLong();
+
+    /**
+     * Constructs the generator.
+     *
+     * @param nodeId the node ID, unique among running instances (0-1023)
+     * @param maxClockRollback the largest backwards clock step absorbed without failing
+     * @throws IllegalArgumentException if the node ID is out of range
+     */
+    public SnowflakeIdGenerator(int nodeId, Duration maxClockRollback) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.maxRollbackMillis = maxClockRollback.toMillis();
+    }
+
+    @Override
+    public long nextId() {
+        return nextId(System.currentTimeMillis());
+    }
+
+    /**
+     * Allocates the next identifier at the given wall-clock time.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return a new unique identifier
+     * @throws IllegalStateException if the clock moved back further than the tolerance
+     */
+    public long nextId(long nowMillis) {
+        long elapsed = nowMillis - EPOCH_MILLIS;
+        while (true) {
+            long last = lastIssued.get();
+            long lastElapsed = last >>> SEQUENCE_BITS;
+            long next;
+            if (elapsed > lastElapsed) {
+                next = elapsed << SEQUENCE_BITS;
+            } else if (lastElapsed - elapsed > maxRollbackMillis) {
+                throw new IllegalStateException(String.format(
+                        "Clock moved backwards by %d ms, more than the %d ms tolerated", lastElapsed - elapsed, maxRollbackMillis));
+            } else {
+                // Same millisecond or a tolerated rollback: count on; a full sequence carries into the next millisecond
+                next = last + 1;
+            }
+            if (lastIssued.compareAndSet(last, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Extracts the creation time of an ID.
+     * @param id an ID issued by this generator
+     * @return the creation time in epoch milliseconds
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    /**
+     * Extracts the node ID of an ID.
+     * @param id an ID issued by this generator
+     * @return the node ID
+     */
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+}
@@ -0,0 +1,151 @@
+package com.infy.customerRewards.utility;
+
+import org.HdrHistogram.DoubleHistogram;
+import org.HdrHistogram.IntCountsHistogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+
+/**
+ * Fixed-precision quantile sketch of transaction amounts, backed by an HdrHistogram.
+ * Quantiles are within 10^-significantDigits relative error of the exact value; memory depends
+ * only on the precision and the spread of amounts, not on how many were recorded.
+ * Sketches merge losslessly, so months, shards and instances can be combined, and encode to a
+ * compact Base64 form for shipping between instances. All methods are thread-safe.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class SpendSketch {
+
+    private final DoubleHistogram histogram;
+
+    /**
+     * Constructs an empty sketch.
+     *
+     * @param significantDigits the precision, from 1 (10% error) to 5
+     */
+    public SpendSketch(int significantDigits) {
+        this(new DoubleHistogram(significantDigits, IntCountsHistogram.class));
+    }
+
+    private SpendSketch(DoubleHistogram histogram) {
+        this.histogram = histogram;
+    }
+
+    /**
+     * Records one transaction amount. Null and negative amounts are ignored.
+     *
+     * @param amount the transaction amount
+     */
+    public synchronized void record(Double amount) {
+        if (amount != null && amount >= 0) {
+            histogram.recordValue(amount);
+        }
+    }
+
+    /**
+     * Adds every amount recorded by another sketch to this one.
+     *
+     * @param other the sketch to merge in
+     */
+    public void merge(SpendSketch other) {
+        DoubleHistogram values = other.copyHistogram();
+        synchronized (this) {
+            histogram.add(values);
+        }
+    }
+
+    /**
+     * Copies the sketch.
+     *
+     * @return an independent sketch holding the same amounts
+     */
+    public SpendSketch copy() {
+        return new SpendSketch(copyHistogram());
+    }
+
+    /**
+     * Gets the number of recorded amounts.
+     *
+     * @return the count
+     */
+    public synchronized long getCount() {
+        return histogram.getTotalCount();
+    }
+
+    /**
+     * Gets the amount at a quantile.
+     *
+     * @param quantile the quantile, between 0 and 1
+     * @return the amount, 0 if nothing was recorded
+     */
+    public synchronized double quantile(double quantile) {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(quantile * 100);
+    }
+
+    /**
+     * Gets the smallest recorded amount.
+     *
+     * @return the minimum, 0 if nothing was recorded
+     */
+    public synchronized double getMin() {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue();
+    }
+
+    /**
+     * Gets the largest recorded amount.
+     *
+     * @return the maximum, 0 if nothing was recorded
+     */
+    public synchronized double getMax() {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getMaxValue();
+    }
+
+    /**
+     * Gets the approximate memory held by the sketch.
+     *
+     * @return the footprint in bytes
+     */
+    public synchronized long getFootprintBytes() {
+        return histogram.getEstimatedFootprintInBytes();
+    }
+
+    /**
+     * Encodes the sketch in HdrHistogram's compressed format, as Base64.
+     *
+     * @return the encoded sketch
+     */
+    public synchronized String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    /**
+     * Decodes a sketch produced by encode, possibly on another instance.
+     *
+     * @param encoded the Base64 encoded sketch
+     * @return the decoded sketch
+     * @throws IllegalArgumentException if the input is not an encoded sketch
+     */
+    public static SpendSketch decode(String encoded) {
+        try {
+            DoubleHistogram histogram = DoubleHistogram.decodeFromCompressedByteBuffer(
+                    ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+            histogram.setAutoResize(true);
+            return new SpendSketch(histogram);
+        } catch (DataFormatException | RuntimeException e) {
+            throw new IllegalArgumentException("Not an encoded spend sketch", e);
+        }
+    }
+
+    private synchronized DoubleHistogram copyHistogram() {
+        DoubleHistogram copy = histogram.copy();
+        copy.setAutoResize(true);
+        return copy;
+    }
+}
@@ -0,0 +1,235 @@
+package com.infy.customerRewards.utility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infy.customerRewards.config.SketchProperties;
+import com.infy.customerRewards.datasource.ShardRouter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import javax.sql.DataSource;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Component keeping spend sketches per calendar month, and optionally per customer, updated as
+ * transactions are written through the service. Distribution queries never touch the database.
+ * <p>
+ * Sketches live in memory. With rewards.sketches.load-on-startup they are rebuilt from the
+ * transactions table in the background once the application is ready, one read-only cursor per
+ * shard, so past months fill in as the load proceeds; without it they cover the writes this
+ * instance has seen since it started. A write recorded while the load runs is skipped by it,
+ * matched on ID. Instances exchange encoded sketches to build a program-wide view.
+ * <p>
+ * Per-customer sketches are kept for the first rewards.sketches.max-customers customers
+ * recorded, at a lower precision, so their total memory stays bounded. The sizes are published
+ * as rewards.sketches{scope}.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class SpendSketches {
+
+    private static final Logger log = LoggerFactory.getLogger(SpendSketches.class);
+
+    private static final String SELECT_ROWS =
+            "SELECT id, customer_id, date, amount FROM transactions WHERE date IS NOT NULL";
+
+    private final SketchProperties properties;
+    private final ConcurrentHashMap<YearMonth, SpendSketch> months = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, SpendSketch> customers = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final ShardRouter shards;
+    private final ExecutorService worker;
+    private volatile Set<Long> recordedWhileLoading;
+
+    /**
+     * Constructs sketches fed by writes only.
+     *
+     * @param properties the sketch settings
+     * @param registry the meter registry
+     */
+    public SpendSketches(SketchProperties properties, MeterRegistry registry) {
+        this(properties, registry, null, null, null);
+    }
+
+    /**
+     * Constructs the sketches; load rebuilds them from the database.
+     *
+     * @param properties the sketch settings
+     * @param registry the meter registry
+     * @param dataSource the application datasource, or null to never load
+     * @param transactionManager the transaction manager
+     * @param shards the shard router
+     */
+    @Autowired
+    public SpendSketches(SketchProperties properties, MeterRegistry registry, DataSource dataSource,
+                         PlatformTransactionManager transactionManager, ShardRouter shards) {
+        this.properties = properties;
+        this.shards = shards;
+        if (dataSource != null) {
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.jdbc.setFetchSize(properties.getFetchSize());
+            this.transactions = new TransactionTemplate(transactionManager);
+            this.transactions.setReadOnly(true);
+            this.worker = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("rewards-sketches-"));
+            this.recordedWhileLoading = ConcurrentHashMap.newKeySet();
+        } else {
+            this.jdbc = null;
+            this.transactions = null;
+            this.worker = null;
+        }
+        Gauge.builder("rewards.sketches", months, ConcurrentHashMap::size)
+                .description("Spend sketches held in memory")
+                .tag("scope", "month")
+                .register(registry);
+        Gauge.builder("rewards.sketches", customers, ConcurrentHashMap::size)
+                .description("Spend sketches held in memory")
+                .tag("scope", "customer")
+                .register(registry);
+    }
+
+    /**
+     * Starts loading in the background once the application is ready, when enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        if (worker == null) {
+            return;
+        }
+        if (properties.isLoadOnStartup()) {
+            worker.execute(this::load);
+        } else {
+            recordedWhileLoading = null;
+        }
+    }
+
+    /**
+     * Records the amount of every dated transaction in the database, shard by shard, leaving
+     * out those already recorded as writes. If a shard fails to load, the sketches keep what
+     * was recorded so far.
+     */
+    public void load() {
+        Set<Long> recorded = recordedWhileLoading;
+        if (jdbc == null || recorded == null) {
+            return;
+        }
+        long begin = System.nanoTime();
+        long[] rows = new long[1];
+        try {
+            for (int shard = 0; shard < shards.shardCount(); shard++) {
+                int current = shard;
+                transactions.executeWithoutResult(status -> {
+                    shards.bindShard(current);
+                    jdbc.query(SELECT_ROWS, rs -> {
+                        if (!recorded.contains(rs.getLong(1))) {
+                            record(rs.getLong(2), rs.getDate(3).toLocalDate(), rs.getObject(4, Double.class));
+                            rows[0]++;
+                        }
+                    });
+                });
+            }
+            log.info("Spend sketches loaded {} transactions in {} ms", rows[0],
+                    (System.nanoTime() - begin) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Spend sketches failed to load after {} transactions", rows[0], e);
+        } finally {
+            recordedWhileLoading = null;
+        }
+    }
+
+    /**
+     * Records the amount of one written transaction.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param id the unique identifier of the transaction, null if unknown
+     * @param date the transaction date
+     * @param amount the transaction amount
+     */
+    public void record(Long customerId, Long id, LocalDate date, Double amount) {
+        Set<Long> recorded = recordedWhileLoading;
+        if (recorded != null && id != null) {
+            recorded.add(id);
+        }
+        record(customerId, date, amount);
+    }
+
+    /**
+     * Stops loading.
+     */
+    @PreDestroy
+    public void close() {
+        if (worker != null) {
+            worker.shutdownNow();
+        }
+    }
+
+    private void record(Long customerId, LocalDate date, Double amount) {
+        if (date != null) {
+            months.computeIfAbsent(YearMonth.from(date), month -> new SpendSketch(properties.getSignificantDigits()))
+                    .record(amount);
+        }
+        if (properties.isPerCustomer() && customerId != null) {
+            SpendSketch sketch = customers.get(customerId);
+            if (sketch == null && customers.size() < properties.getMaxCustomers()) {
+                sketch = customers.computeIfAbsent(customerId,
+                        id -> new SpendSketch(properties.getCustomerSignificantDigits()));
+            }
+            if (sketch != null) {
+                sketch.record(amount);
+            }
+        }
+    }
+
+    /**
+     * Gets a copy of one month's sketch.
+     *
+     * @param month the month
+     * @return the sketch, empty if nothing was recorded for the month
+     */
+    public SpendSketch month(YearMonth month) {
+        SpendSketch sketch = months.get(month);
+        return sketch != null ? sketch.copy() : new SpendSketch(properties.getSignificantDigits());
+    }
+
+    /**
+     * Gets a copy of one customer's sketch.
+     *
+     * @param customerId the unique identifier of the customer
+     * @return the sketch, empty if the customer is not tracked
+     */
+    public SpendSketch customer(Long customerId) {
+        SpendSketch sketch = customers.get(customerId);
+        return sketch != null ? sketch.copy() : new SpendSketch(properties.getCustomerSignificantDigits());
+    }
+
+    /**
+     * Tells whether a customer's spend is sketched.
+     *
+     * @param customerId the unique identifier of the customer
+     * @return true if a sketch is kept for the customer
+     */
+    public boolean isTracked(Long customerId) {
+        return customers.containsKey(customerId);
+    }
+}
@@ -0,0 +1,86 @@
+package com.infy.customerRewards.utility;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ * Implemented as a generic cell rate algorithm: the whole bucket state is a single
+ * "theoretical arrival time" updated with one compare-and-set, so concurrent callers
+ * never block and the bucket costs one object plus one AtomicLong.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * Constructs a full token bucket.
+     *
+     * @param capacity the maximum number of tokens (burst size)
+     * @param refillPerSecond the number of tokens added per second
+     * @param nowNanos the current time in nanoseconds
+     */
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.nanosPerToken = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = nanosPerToken * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @param nowNanos the current time in nanoseconds
+     * @return the outcome, with remaining tokens or the wait before the next token
+     */
+    public Decision tryAcquire(long nowNanos) {
+        return tryAcquire(1, nowNanos);
+    }
+
+    /**
+     * Takes several tokens at once if all are available. More tokens than the capacity are
+     * never available.
+     *
+     * @param tokens the number of tokens
+     * @param nowNanos the current time in nanoseconds
+     * @return the outcome, with remaining tokens or the wait before enough tokens
+     */
+    public Decision tryAcquire(int tokens, long nowNanos) {
+        long cost = nanosPerToken * tokens;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + cost;
+            long backlog = next - nowNanos;
+            if (backlog > burstNanos) {
+                return new Decision(false, 0, backlog - burstNanos);
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return new Decision(true, (burstNanos - backlog) / nanosPerToken, 0);
+            }
+        }
+    }
+
+    /**
+     * Tells whether the bucket has been full and unused for at least the given time.
+     *
+     * @param nowNanos the current time in nanoseconds
+     * @param idleNanos the idle time after which the bucket can be dropped
+     * @return true if the bucket can be evicted without changing any client's allowance
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrival.get() >= idleNanos;
+    }
+
+    /**
+     * Outcome of a token request.
+     *
+     * @param allowed whether a token was taken
+     * @param remaining the tokens left after this request
+     * @param retryAfterNanos the wait until a token is available, 0 when allowed
+     */
+    public record Decision(boolean allowed, long remaining, long retryAfterNanos) {}
+}
@@ -0,0 +1,163 @@
+package com.infy.customerRewards.utility;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.infy.customerRewards.config.VelocityProperties;
+import com.infy.customerRewards.config.VelocityProperties.Action;
+import com.infy.customerRewards.config.VelocityProperties.Rule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Component scoring incoming transactions against the configured velocity rules, entirely in
+ * memory, so the write path gains no database query.
+ * <p>
+ * Each tracked customer holds one SlidingWindowCounter per rule in a ConcurrentHashMap, so
+ * customers never contend with each other and writers of the same customer only race on a
+ * compare-and-set. Memory is bounded: at most rewards.velocity.max-customers customers are
+ * tracked (further ones are let through unscored and counted), and customers idle for longer
+ * than the eviction time and every rule window are dropped.
+ * Outcomes are counted in rewards.velocity.transactions{outcome}.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class VelocityScorer {
+
+    private final VelocityProperties properties;
+    private final List<Rule> rules;
+    private final long idleNanos;
+    private final ConcurrentHashMap<Long, Windows> customers = new ConcurrentHashMap<>();
+    private final Counter flagged;
+    private final Counter held;
+    private final Counter untracked;
+
+    /**
+     * Constructs the scorer.
+     *
+     * @param properties the velocity settings
+     * @param registry the meter registry
+     */
+    public VelocityScorer(VelocityProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.rules = List.copyOf(properties.getRules().values());
+        long longestWindow = rules.stream().mapToLong(rule -> rule.getWindow().toNanos()).max().orElse(0);
+        this.idleNanos = Math.max(properties.getIdleEviction().toNanos(), longestWindow);
+        this.flagged = outcome(registry, "flagged");
+        this.held = outcome(registry, "held");
+        this.untracked = outcome(registry, "untracked");
+        Gauge.builder("rewards.velocity.customers", customers, ConcurrentHashMap::size)
+                .description("Customers with velocity windows in memory")
+                .register(registry);
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("rewards.velocity.transactions")
+                .description("Transactions scored against velocity rules")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Counts a customer's new transactions against every rule, in order, and returns the action
+     * for each: the most severe action of the rules whose limit the transaction exceeds.
+     *
+     * @param customerKey a stable key for the customer
+     * @param amounts the amounts of the new transactions
+     * @param nowNanos the current time in nanoseconds
+     * @return one action per amount, null where no rule is exceeded
+     */
+    public List<Action> score(long customerKey, List<Double> amounts, long nowNanos) {
+        List<Action> actions = new ArrayList<>(amounts.size());
+        Windows windows = properties.isEnabled() && !rules.isEmpty() ? windows(customerKey, nowNanos) : null;
+        for (Double amount : amounts) {
+            if (windows == null) {
+                actions.add(null);
+                continue;
+            }
+            Action action = null;
+            for (int r = 0; r < rules.size(); r++) {
+                Rule rule = rules.get(r);
+                if (amount != null && amount >= rule.getMinAmount()
+                        && windows.counters[r].increment(nowNanos) > rule.getMaxTransactions()
+                        && (action == null || rule.getAction().compareTo(action) > 0)) {
+                    action = rule.getAction();
+                }
+            }
+            if (action == Action.HOLD) {
+                held.increment();
+            } else if (action == Action.FLAG) {
+                flagged.increment();
+            }
+            actions.add(action);
+        }
+        return actions;
+    }
+
+    private Windows windows(long customerKey, long nowNanos) {
+        Windows windows = customers.get(customerKey);
+        if (windows == null) {
+            if (customers.size() >= properties.getMaxCustomers()) {
+                untracked.increment();
+                return null;
+            }
+            windows = customers.computeIfAbsent(customerKey, key -> new Windows(rules, properties.getBuckets(), nowNanos));
+        }
+        windows.lastNanos = nowNanos;
+        return windows;
+    }
+
+    /**
+     * Drops customers that have been idle longer than the eviction time and every rule window.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleCustomers() {
+        evictIdle(System.nanoTime());
+    }
+
+    /**
+     * Drops customers whose windows have all emptied and stayed idle.
+     *
+     * @param nowNanos the current time in nanoseconds
+     * @return the number of customers removed
+     */
+    public int evictIdle(long nowNanos) {
+        int before = customers.size();
+        customers.values().removeIf(windows -> nowNanos - windows.lastNanos >= idleNanos);
+        return before - customers.size();
+    }
+
+    /**
+     * Gets the number of tracked customers.
+     * @return the customer count
+     */
+    public int size() {
+        return customers.size();
+    }
+
+    /**
+     * Velocity state of one customer: one counter per rule.
+     */
+    private static final class Windows {
+
+        final SlidingWindowCounter[] counters;
+        volatile long lastNanos;
+
+        Windows(List<Rule> rules, int buckets, long nowNanos) {
+            counters = new SlidingWindowCounter[rules.size()];
+            for (int r = 0; r < counters.length; r++) {
+                counters[r] = new SlidingWindowCounter(rules.get(r).getWindow().toNanos(), buckets, nowNanos);
+            }
+            lastNanos = nowNanos;
+        }
+    }
+}
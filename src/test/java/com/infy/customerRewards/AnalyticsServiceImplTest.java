@@ -0,0 +1,383 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.infy.customerRewards.columnar.ColumnarProperties;
+import com.infy.customerRewards.columnar.ColumnarTransactionStore;
+import com.infy.customerRewards.config.SketchProperties;
+import com.infy.customerRewards.datasource.RoutingContext;
+import com.infy.customerRewards.datasource.ShardMap;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.dto.MonthlyProgramStatsDTO;
+import com.infy.customerRewards.dto.ProgramAnalyticsDTO;
+import com.infy.customerRewards.dto.SpendDistributionDTO;
+import com.infy.customerRewards.dto.SpendQuantilesDTO;
+import com.infy.customerRewards.entity.Transaction;
+import com.infy.customerRewards.exception.CustomException;
+import com.infy.customerRewards.exception.ResourceNotFoundException;
+import com.infy.customerRewards.repository.TransactionRepository;
+import com.infy.customerRewards.serviceImpl.AnalyticsServiceImpl;
+import com.infy.customerRewards.utility.RewardCalculator;
+import com.infy.customerRewards.utility.SpendSketches;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for AnalyticsServiceImpl, on an embedded H2 database with the clock in June 2024.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class AnalyticsServiceImplTest {
+
+    private final RewardCalculator rewardCalculator = new RewardCalculator(new ModelMapper());
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:analytics;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    private final AtomicLong ids = new AtomicLong(1000);
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private TransactionRepository repository;
+    private Clock june;
+    private AnalyticsServiceImpl analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory = TestEntityManagerFactories.create(dataSource);
+        repository = TestEntityManagerFactories.repository(entityManagerFactory, TransactionRepository.class);
+        june = Clock.fixed(LocalDate.of(2024, 6, 15).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        SketchProperties sketchProperties = new SketchProperties();
+        sketchProperties.setPerCustomer(true);
+        sketchProperties.setMaxCustomers(2);
+        analyticsService = new AnalyticsServiceImpl(repository, rewardCalculator, new ShardRouter((ShardMap) null),
+                new SpendSketches(sketchProperties, new SimpleMeterRegistry()), june);
+        jdbc.update("INSERT INTO customers (id, cust_name) VALUES (1, 'alice')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.destroy();
+    }
+
+    @Test
+    void testGetMonthlyAnalytics_RollsUpEveryMonthOfTheRange() {
+        // Given - January scored, March with one unscored row, nothing in February, June open
+        insert(LocalDate.of(2024, 1, 5), 120.0, true);
+        insert(LocalDate.of(2024, 1, 31), 40.0, true);
+        insert(LocalDate.of(2024, 3, 1), 75.0, true);
+        insert(LocalDate.of(2024, 3, 20), 200.0, false);
+        insert(LocalDate.of(2024, 6, 2), 60.0, true);
+        insert(LocalDate.of(2024, 7, 1), 500.0, true);
+
+        // When
+        ProgramAnalyticsDTO result = analyticsService.getMonthlyAnalytics(YearMonth.of(2024, 1), YearMonth.of(2024, 6));
+
+        // Then
+        assertEquals("2024-01", result.getFrom());
+        assertEquals("2024-06", result.getTo());
+        assertEquals(List.of("2024-01", "2024-02", "2024-03", "2024-04", "2024-05", "2024-06"),
+                result.getMonths().stream().map(MonthlyProgramStatsDTO::getMonth).toList());
+        MonthlyProgramStatsDTO january = result.getMonths().get(0);
+        assertEquals(2, january.getTransactions());
+        assertEquals(90, january.getPointsIssued());
+        assertEquals(160.0, january.getTotalSpend(), 0.001);
+        assertEquals(80.0, january.getAverageSpend(), 0.001);
+        assertTrue(january.isClosed());
+        assertEquals(0, result.getMonths().get(1).getTransactions());
+        assertEquals(0.0, result.getMonths().get(1).getAverageSpend());
+        assertEquals(25 + 250, result.getMonths().get(2).getPointsIssued());
+        MonthlyProgramStatsDTO june = result.getMonths().get(5);
+        assertEquals(1, june.getTransactions());
+        assertEquals(10, june.getPointsIssued());
+        assertFalse(june.isClosed());
+        assertEquals(5, result.getTotalTransactions());
+        assertEquals(90 + 275 + 10, result.getTotalPointsIssued());
+        assertEquals(99.0, result.getAverageSpend(), 0.001);
+    }
+
+    @Test
+    void testGetMonthlyAnalytics_CachesClosedMonthsAndComputesOpenMonthLive() {
+        // Given
+        insert(LocalDate.of(2024, 3, 1), 75.0, true);
+        insert(LocalDate.of(2024, 6, 1), 75.0, true);
+        analyticsService.getMonthlyAnalytics(YearMonth.of(2024, 3), YearMonth.of(2024, 6));
+
+        // When - rows added behind the service's back
+        insert(LocalDate.of(2024, 3, 2), 75.0, true);
+        insert(LocalDate.of(2024, 6, 2), 75.0, true);
+        ProgramAnalyticsDTO result = analyticsService.getMonthlyAnalytics(YearMonth.of(2024, 3), YearMonth.of(2024, 6));
+
+        // Then
+        assertEquals(1, result.getMonths().get(0).getTransactions());
+        assertEquals(2, result.getMonths().get(3).getTransactions());
+
+        // When - the write is reported
+        analyticsService.transactionsWritten(1L, List.of(transaction(LocalDate.of(2024, 3, 2), 75.0)));
+        result = analyticsService.getMonthlyAnalytics(YearMonth.of(2024, 3), YearMonth.of(2024, 6));
+
+        // Then
+        assertEquals(2, result.getMonths().get(0).getTransactions());
+        assertEquals(50, result.getMonths().get(0).getPointsIssued());
+    }
+
+    @Test
+    void testGetMonthlyAnalytics_RollsUpMonthsToBeCachedOnThePrimary() {
+        // Given - a repository recording where each rollup was routed
+        TransactionRepository routed = mock(TransactionRepository.class);
+        Map<LocalDate, Boolean> pinnedByStart = new LinkedHashMap<>();
+        when(routed.findMonthlyTotals(any(), any(), anyInt())).thenAnswer(invocation -> {
+            pinnedByStart.put(invocation.getArgument(0), RoutingContext.isPrimaryPinned());
+            return List.of();
+        });
+        AnalyticsServiceImpl service = new AnalyticsServiceImpl(routed, rewardCalculator,
+                new ShardRouter((ShardMap) null), new SpendSketches(new SketchProperties(), new SimpleMeterRegistry()),
+                june);
+
+        // When
+        service.getMonthlyAnalytics(YearMonth.of(2024, 4), YearMonth.of(2024, 6));
+
+        // Then - closed months on the primary, the open month free to use a replica
+        assertEquals(Map.of(LocalDate.of(2024, 4, 1), true, LocalDate.of(2024, 6, 1), false), pinnedByStart);
+        assertFalse(RoutingContext.isPrimaryPinned());
+    }
+
+    @Test
+    void testGetMonthlyAnalytics_AwardsHeldPointsOnlyOnceReleased() {
+        // Given - a held row scored like any other
+        insert(LocalDate.of(2024, 6, 5), 120.0, true);
+        insert(LocalDate.of(2024, 6, 6), 200.0, true);
+        jdbc.update("UPDATE transactions SET review_status = 'HELD' WHERE amount = 200.0");
+
+        // When - in the open month, which is read live
+        MonthlyProgramStatsDTO held = analyticsService.getMonthlyAnalytics(YearMonth.of(2024, 6),
+                YearMonth.of(2024, 6)).getMonths().get(0);
+        jdbc.update("UPDATE transactions SET review_status = NULL");
+        MonthlyProgramStatsDTO released = analyticsService.getMonthlyAnalytics(YearMonth.of(2024, 6),
+                YearMonth.of(2024, 6)).getMonths().get(0);
+
+        // Then
+        assertEquals(2, held.getTransactions());
+        assertEquals(90, held.getPointsIssued());
+        assertEquals(90 + 250, released.getPointsIssued());
+    }
+
+    @Test
+    void testTransactionsReleased_EvictsTheCachedClosedMonth() {
+        // Given - a held row in cached March
+        insert(LocalDate.of(2024, 3, 5), 200.0, true);
+        jdbc.update("UPDATE transactions SET review_status = 'HELD'");
+        assertEquals(0, analyticsService.getMonthlyAnalytics(YearMonth.of(2024, 3), YearMonth.of(2024, 3))
+                .getTotalPointsIssued());
+
+        // When
+        jdbc.update("UPDATE transactions SET review_status = NULL");
+        analyticsService.transactionsReleased(1L, List.of(transaction(LocalDate.of(2024, 3, 5), 200.0)));
+
+        // Then
+        assertEquals(250, analyticsService.getMonthlyAnalytics(YearMonth.of(2024, 3), YearMonth.of(2024, 3))
+                .getTotalPointsIssued());
+        assertEquals(0, analyticsService.getSpendDistribution(YearMonth.of(2024, 3), YearMonth.of(2024, 3))
+                .getTotal().getCount());
+    }
+
+    @Test
+    void testGetMonthlyAnalytics_RejectsInvalidRanges() {
+        // When & Then
+        assertThrows(CustomException.class,
+                () -> analyticsService.getMonthlyAnalytics(YearMonth.of(2024, 5), YearMonth.of(2024, 4)));
+        assertThrows(CustomException.class,
+                () -> analyticsService.getMonthlyAnalytics(YearMonth.of(2000, 1), YearMonth.of(2024, 1)));
+    }
+
+    @Test
+    void testGetCustomerMonthlyAnalytics_SumsOnlyTheCustomersRows() {
+        // Given
+        jdbc.update("INSERT INTO customers (id, cust_name) VALUES (2, 'bob')");
+        insert(LocalDate.of(2024, 1, 5), 120.0, true);
+        insert(LocalDate.of(2024, 3, 20), 200.0, false);
+        insert(2L, LocalDate.of(2024, 1, 6), 500.0, true);
+
+        // When
+        ProgramAnalyticsDTO result = analyticsService.getCustomerMonthlyAnalytics(1L, YearMonth.of(2024, 1),
+                YearMonth.of(2024, 3));
+
+        // Then
+        assertEquals(3, result.getMonths().size());
+        assertEquals(1, result.getMonths().get(0).getTransactions());
+        assertEquals(90, result.getMonths().get(0).getPointsIssued());
+        assertEquals(250, result.getMonths().get(2).getPointsIssued());
+        assertEquals(2, result.getTotalTransactions());
+        assertEquals(320.0, result.getTotalSpend(), 0.001);
+        assertEquals(0, analyticsService.getCustomerMonthlyAnalytics(3L, YearMonth.of(2024, 1),
+                YearMonth.of(2024, 3)).getTotalTransactions());
+    }
+
+    @Test
+    void testGetMonthlyAnalytics_ReadsLoadedColumnarStoreInsteadOfDatabase() {
+        // Given
+        insert(LocalDate.of(2024, 1, 5), 120.0, true);
+        insert(LocalDate.of(2024, 3, 20), 200.0, false);
+        insert(LocalDate.of(2024, 6, 2), 60.0, true);
+        ProgramAnalyticsDTO fromDatabase = analyticsService.getMonthlyAnalytics(YearMonth.of(2024, 1),
+                YearMonth.of(2024, 6));
+        ColumnarTransactionStore store = new ColumnarTransactionStore(dataSource,
+                new JpaTransactionManager(entityManagerFactory.getObject()), new ShardRouter((ShardMap) null),
+                rewardCalculator, new ColumnarProperties(), new SimpleMeterRegistry());
+        AnalyticsServiceImpl columnar = new AnalyticsServiceImpl(repository, rewardCalculator,
+                new ShardRouter((ShardMap) null), new SpendSketches(new SketchProperties(), new SimpleMeterRegistry()),
+                june, store);
+        store.load();
+
+        // When - a row added behind the service's back, then a reported write
+        insert(LocalDate.of(2024, 6, 3), 75.0, true);
+        ProgramAnalyticsDTO loaded = columnar.getMonthlyAnalytics(YearMonth.of(2024, 1), YearMonth.of(2024, 6));
+        Transaction written = transaction(LocalDate.of(2024, 6, 4), 150.0);
+        written.setId(ids.incrementAndGet());
+        columnar.transactionsWritten(1L, List.of(written));
+        ProgramAnalyticsDTO updated = columnar.getCustomerMonthlyAnalytics(1L, YearMonth.of(2024, 6),
+                YearMonth.of(2024, 6));
+
+        // Then - same figures as the database, which is no longer read
+        assertEquals(fromDatabase, loaded);
+        assertEquals(2, updated.getTotalTransactions());
+        assertEquals(10 + 150, updated.getTotalPointsIssued());
+        store.close();
+    }
+
+    @Test
+    void testGetSpendDistribution_ServesQuantilesOfWrittenAmountsPerMonthAndRange() {
+        // Given - amounts 1..1000 in March, 1001..2000 in April
+        List<Transaction> march = new ArrayList<>();
+        List<Transaction> april = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            march.add(transaction(LocalDate.of(2024, 3, 1 + i % 28), (double) i));
+            april.add(transaction(LocalDate.of(2024, 4, 1 + i % 28), 1000.0 + i));
+        }
+        analyticsService.transactionsWritten(1L, march);
+        analyticsService.transactionsWritten(2L, april);
+
+        // When
+        SpendDistributionDTO result = analyticsService.getSpendDistribution(YearMonth.of(2024, 3), YearMonth.of(2024, 5));
+
+        // Then - within the 1% precision of two significant digits
+        SpendQuantilesDTO marchStats = result.getMonths().get(0);
+        assertEquals("2024-03", marchStats.getScope());
+        assertEquals(1000, marchStats.getCount());
+        assertEquals(500, marchStats.getP50(), 5);
+        assertEquals(900, marchStats.getP90(), 9);
+        assertEquals(990, marchStats.getP99(), 10);
+        assertEquals(0, result.getMonths().get(2).getCount());
+        assertEquals("2024-03..2024-05", result.getTotal().getScope());
+        assertEquals(2000, result.getTotal().getCount());
+        assertEquals(1000, result.getTotal().getP50(), 10);
+        assertEquals(1800, result.getTotal().getP90(), 18);
+        assertEquals(1, result.getTotal().getMin(), 0.01);
+        assertEquals(2000, result.getTotal().getMax(), 20);
+        assertEquals(500, analyticsService.getCustomerSpend(1L).getP50(), 50);
+        assertEquals(1500, analyticsService.getCustomerSpend(2L).getP50(), 150);
+    }
+
+    @Test
+    void testGetSpendDistribution_LoadsPastTransactionsOnceAlongsideWrites() {
+        // Given - three stored rows, one of them also reported as a write before the load
+        insert(LocalDate.of(2024, 3, 1), 100.0, true);
+        insert(LocalDate.of(2024, 3, 2), 200.0, true);
+        insert(LocalDate.of(2024, 4, 1), 300.0, false);
+        SpendSketches sketches = new SpendSketches(new SketchProperties(), new SimpleMeterRegistry(), dataSource,
+                new JpaTransactionManager(entityManagerFactory.getObject()), new ShardRouter((ShardMap) null));
+        AnalyticsServiceImpl loading = new AnalyticsServiceImpl(repository, rewardCalculator,
+                new ShardRouter((ShardMap) null), sketches, june);
+        Transaction written = transaction(LocalDate.of(2024, 4, 1), 300.0);
+        written.setId(ids.get());
+        loading.transactionsWritten(1L, List.of(written));
+
+        // When
+        sketches.load();
+        SpendDistributionDTO result = loading.getSpendDistribution(YearMonth.of(2024, 3), YearMonth.of(2024, 4));
+        sketches.close();
+
+        // Then
+        assertEquals(2, result.getMonths().get(0).getCount());
+        assertEquals(1, result.getMonths().get(1).getCount());
+        assertEquals(300, result.getTotal().getMax(), 3);
+    }
+
+    @Test
+    void testGetCustomerSpend_TracksOnlyUpToMaxCustomers() {
+        // Given
+        for (long customerId = 1; customerId <= 3; customerId++) {
+            analyticsService.transactionsWritten(customerId, List.of(transaction(LocalDate.of(2024, 3, 1), 60.0)));
+        }
+
+        // When & Then
+        assertEquals(1, analyticsService.getCustomerSpend(2L).getCount());
+        assertThrows(ResourceNotFoundException.class, () -> analyticsService.getCustomerSpend(3L));
+    }
+
+    @Test
+    void testMergeSpendSketches_CombinesExportsFromSeveralInstances() {
+        // Given - this instance saw 100 amounts in March; another instance 100 more in March and April
+        List<Transaction> here = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            here.add(transaction(LocalDate.of(2024, 3, 1), (double) i));
+        }
+        analyticsService.transactionsWritten(1L, here);
+        Map<String, String> local = analyticsService.exportSpendSketches(YearMonth.of(2024, 1), YearMonth.of(2024, 6));
+        analyticsService.transactionsWritten(1L, List.of(transaction(LocalDate.of(2024, 4, 1), 500.0)));
+        Map<String, String> remote = analyticsService.exportSpendSketches(YearMonth.of(2024, 1), YearMonth.of(2024, 6));
+
+        // When
+        SpendDistributionDTO merged = analyticsService.mergeSpendSketches(List.of(local, remote));
+
+        // Then
+        assertEquals(List.of("2024-03"), List.copyOf(local.keySet()));
+        assertEquals(2, merged.getMonths().size());
+        assertEquals(200, merged.getMonths().get(0).getCount());
+        assertEquals(1, merged.getMonths().get(1).getCount());
+        assertEquals("2024-03..2024-04", merged.getTotal().getScope());
+        assertEquals(201, merged.getTotal().getCount());
+        assertThrows(CustomException.class,
+                () -> analyticsService.mergeSpendSketches(List.of(Map.of("2024-03", "not a sketch"))));
+    }
+
+    private static Transaction transaction(LocalDate date, double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setDate(date);
+        transaction.setProduct("Laptop");
+        transaction.setAmount(amount);
+        return transaction;
+    }
+
+    private void insert(LocalDate date, double amount, boolean scored) {
+        insert(1L, date, amount, scored);
+    }
+
+    private void insert(long customerId, LocalDate date, double amount, boolean scored) {
+        jdbc.update("INSERT INTO transactions (id, customer_id, date, product, amount, reward_points, rule_version)"
+                + " VALUES (?, ?, ?, 'Laptop', ?, ?, ?)", ids.incrementAndGet(), customerId, date, amount,
+                scored ? rewardCalculator.calculatePoints(amount) : null, scored ? RewardCalculator.RULE_VERSION : null);
+    }
+}
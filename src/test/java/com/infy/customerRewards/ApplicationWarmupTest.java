@@ -0,0 +1,134 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.infy.customerRewards.config.ApplicationWarmup;
+import com.infy.customerRewards.config.FirstRequestsRecorder;
+import com.infy.customerRewards.config.WarmupProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ApplicationWarmup and FirstRequestsRecorder.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class ApplicationWarmupTest {
+
+    private static final String H2_DIALECT =
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testWarmup_RunsServicePathsOnSyntheticDataAndReportsDuration() {
+        // Given
+        WarmupProperties properties = properties();
+        properties.setIterations(200);
+        properties.setCustomers(5);
+        properties.setTransactionsPerCustomer(20);
+        ApplicationWarmup warmup = warmup(properties);
+
+        // When
+        Duration duration = warmup.warmup(H2_DIALECT);
+
+        // Then
+        assertEquals(200, warmup.getCompletedIterations());
+        assertEquals(200.0, registry.get("rewards.warmup.iterations").gauge().value());
+        assertEquals(duration.toMillis(), registry.get("rewards.warmup.duration").timeGauge().value(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testWarmup_AlsoRunsTheJdbcReadEngineWhenTheApplicationHasIt() {
+        // Given
+        WarmupProperties properties = properties();
+        properties.setIterations(50);
+        properties.setCustomers(3);
+        properties.setTransactionsPerCustomer(10);
+        ApplicationWarmup warmup = warmup(properties);
+
+        // When
+        warmup.warmup(H2_DIALECT, "--rewards.read.engine=jdbc");
+
+        // Then
+        assertEquals(50, warmup.getCompletedIterations());
+    }
+
+    @Test
+    void testWarmup_StopsWhenTimeBudgetIsSpent() {
+        // Given
+        WarmupProperties properties = properties();
+        properties.setIterations(Integer.MAX_VALUE);
+        properties.setCustomers(1);
+        properties.setMaxDuration(Duration.ofMillis(200));
+        ApplicationWarmup warmup = warmup(properties);
+
+        // When
+        Duration duration = warmup.warmup(H2_DIALECT);
+
+        // Then
+        assertTrue(duration.toMillis() < 30_000);
+    }
+
+    @Test
+    void testWarmup_RefusesToStartWithoutAScratchDatabase() {
+        // Given
+        ApplicationWarmup warmup = warmup(new WarmupProperties());
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> warmup.warmup(H2_DIALECT));
+    }
+
+    @Test
+    void testFirstRequestsRecorder_TimesOnlyTheFirstApiRequests() throws Exception {
+        // Given
+        WarmupProperties properties = new WarmupProperties();
+        properties.setFirstRequests(3);
+        FirstRequestsRecorder recorder = new FirstRequestsRecorder(properties, registry);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            recorder.doFilter(new MockHttpServletRequest("GET", "/api/rewards/customers/1/transactions"),
+                    new MockHttpServletResponse(), new MockFilterChain());
+        }
+        recorder.doFilter(new MockHttpServletRequest("GET", "/actuator/health"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertEquals(3, registry.get("rewards.requests.first").timer().count());
+    }
+
+    private static WarmupProperties properties() {
+        WarmupProperties properties = new WarmupProperties();
+        properties.getDatasource().setUrl("jdbc:h2:mem:warmup-" + UUID.randomUUID());
+        return properties;
+    }
+
+    private ApplicationWarmup warmup(WarmupProperties properties) {
+        HttpMessageConverters converters = new HttpMessageConverters(false, List.of(
+                new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()),
+                new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build()),
+                new MappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build())));
+        return new ApplicationWarmup(properties, new StandardEnvironment(), converters, registry);
+    }
+}
@@ -0,0 +1,284 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.infy.customerRewards.logging.LoggingConfig;
+import com.infy.customerRewards.logging.RingBufferAppender;
+import com.infy.customerRewards.logging.SqlLoggingDataSource;
+import com.infy.customerRewards.logging.SqlStatementLogger;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RingBufferAppender, the sampled SQL statement logging and the logging metrics.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class AsyncLoggingTest {
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    private final List<Runnable> cleanup = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        cleanup.forEach(Runnable::run);
+    }
+
+    @Test
+    void testRingBufferAppender_DeliversEventsInOrderFromBackgroundThread() {
+        // Given
+        ListAppender<ILoggingEvent> target = started(new ListAppender<>());
+        RingBufferAppender appender = ringBuffer(target, 1024, true);
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            appender.doAppend(event("event " + i));
+        }
+        appender.stop();
+
+        // Then
+        assertEquals(500, target.list.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals("event " + i, target.list.get(i).getFormattedMessage());
+        }
+        assertEquals(500, appender.getQueuedCount());
+        assertEquals(0, appender.getDroppedCount());
+        assertFalse(RingBufferAppender.started().contains(appender));
+    }
+
+    @Test
+    void testRingBufferAppender_DropsAndCountsEventsWhenBufferIsFull() throws Exception {
+        // Given - the consumer is stuck on the first event
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> delivered = new ArrayList<>();
+        AppenderBase<ILoggingEvent> slow = started(new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                delivered.add(event.getFormattedMessage());
+            }
+        });
+        RingBufferAppender appender = ringBuffer(slow, 8, true);
+        appender.doAppend(event("first"));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            appender.doAppend(event("event " + i));
+        }
+        release.countDown();
+        appender.stop();
+
+        // Then
+        assertEquals(9, appender.getQueuedCount());
+        assertEquals(12, appender.getDroppedCount());
+        assertEquals(9, delivered.size());
+    }
+
+    @Test
+    void testRingBufferAppender_DropsInfoAndBelowFirstAndNeverWarnOrError() throws Exception {
+        // Given - the consumer is stuck on the first event; 4 free slots are kept for WARN and ERROR
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        UnsynchronizedAppenderBase<ILoggingEvent> slow = started(new UnsynchronizedAppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                if (Thread.currentThread().getName().startsWith("rewards-log-")) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                delivered.add(event.getFormattedMessage());
+            }
+        });
+        RingBufferAppender appender = new RingBufferAppender();
+        appender.setDiscardingThreshold(4);
+        appender = ringBuffer(appender, slow, 8, true);
+        appender.doAppend(event("first"));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            appender.doAppend(event("info " + i));
+        }
+        appender.doAppend(event(Level.DEBUG, "debug"));
+        for (int i = 0; i < 4; i++) {
+            appender.doAppend(event(Level.WARN, "warn " + i));
+        }
+        appender.doAppend(event(Level.ERROR, "error"));
+        release.countDown();
+        appender.stop();
+
+        // Then - the full buffer's WARN and ERROR were written by the logging thread, ahead of the queue
+        assertEquals(9, appender.getQueuedCount());
+        assertEquals(1, appender.getDroppedCount(Level.INFO));
+        assertEquals(1, appender.getDroppedCount(Level.DEBUG));
+        assertEquals(0, appender.getDroppedCount(Level.WARN));
+        assertEquals(2, appender.getDroppedCount());
+        assertEquals(2, appender.getSynchronousCount());
+        assertEquals(11, delivered.size());
+        assertEquals(List.of("warn 3", "error", "first"), delivered.subList(0, 3));
+        assertFalse(delivered.contains("info 5"));
+    }
+
+    @Test
+    void testRingBufferAppender_PassesThroughWhenSynchronous() {
+        // Given
+        ListAppender<ILoggingEvent> target = started(new ListAppender<>());
+        RingBufferAppender appender = ringBuffer(target, 8, false);
+
+        // When
+        appender.doAppend(event("now"));
+
+        // Then
+        assertEquals(1, target.list.size());
+        assertEquals(0, appender.getQueuedCount());
+    }
+
+    @Test
+    void testSqlLogging_LogsEverySlowStatementAndNoFastOneAtZeroSampleRate() {
+        // Given
+        ListAppender<ILoggingEvent> sampled = capture("rewards.sql");
+        SqlStatementLogger statementLogger = new SqlStatementLogger(0, Duration.ofMillis(50));
+
+        // When
+        statementLogger.executed("select 1", TimeUnit.MILLISECONDS.toNanos(1), false);
+        statementLogger.executed("select 2", TimeUnit.MILLISECONDS.toNanos(80), false);
+        statementLogger.executed("select 3", TimeUnit.MILLISECONDS.toNanos(120), true);
+
+        // Then
+        assertEquals(3, statementLogger.getStatementCount());
+        assertEquals(2, statementLogger.getSlowCount());
+        assertEquals(0, statementLogger.getSampledCount());
+        assertEquals(2, sampled.list.size());
+        assertTrue(sampled.list.stream().allMatch(event -> event.getLevel() == Level.WARN
+                && event.getLoggerName().equals("rewards.sql.slow")));
+        assertTrue(sampled.list.get(1).getFormattedMessage().contains("failed | select 3"));
+    }
+
+    @Test
+    void testSqlLoggingDataSource_ReportsPreparedAndPlainStatements() throws Exception {
+        // Given
+        ListAppender<ILoggingEvent> sampled = capture("rewards.sql");
+        SqlStatementLogger statementLogger = new SqlStatementLogger(1.0, Duration.ofMinutes(1));
+        DataSource dataSource = SqlLoggingDataSource.wrap(
+                new DriverManagerDataSource("jdbc:h2:mem:sqllogging;DB_CLOSE_DELAY=-1", "sa", ""), statementLogger);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        // When
+        jdbc.execute("CREATE TABLE IF NOT EXISTS t (id INT)");
+        jdbc.update("INSERT INTO t VALUES (?)", 1);
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM t WHERE id = ?", Integer.class, 1);
+
+        // Then
+        assertEquals(1, count);
+        assertEquals(3, statementLogger.getStatementCount());
+        assertEquals(3, statementLogger.getSampledCount());
+        assertTrue(sampled.list.get(2).getFormattedMessage().endsWith("| SELECT COUNT(*) FROM t WHERE id = ?"));
+        assertTrue(dataSource.isWrapperFor(DriverManagerDataSource.class));
+    }
+
+    @Test
+    void testLoggingMetrics_PublishesQueuedDroppedAndStatementCounts() {
+        // Given
+        ListAppender<ILoggingEvent> target = started(new ListAppender<>());
+        RingBufferAppender appender = ringBuffer(target, 8, true);
+        SqlStatementLogger statementLogger = new SqlStatementLogger(0, Duration.ofMillis(50));
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("sqlStatementLogger", statementLogger);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new LoggingConfig().loggingMetrics(beans.getBeanProvider(SqlStatementLogger.class)).bindTo(registry);
+
+        // When
+        appender.doAppend(event("one"));
+        statementLogger.executed("select 1", TimeUnit.MILLISECONDS.toNanos(80), false);
+
+        // Then
+        assertEquals(1.0, registry.get("rewards.logging.events").tag("outcome", "queued").functionCounter().count());
+        assertEquals(0.0, registry.get("rewards.logging.events").tag("outcome", "dropped").functionCounter().count());
+        assertEquals(0.0, registry.get("rewards.logging.events").tag("outcome", "synchronous").functionCounter().count());
+        assertEquals(0.0, registry.get("rewards.logging.dropped").tag("level", "info").functionCounter().count());
+        assertEquals(1.0, registry.get("rewards.sql.statements").tag("outcome", "slow").functionCounter().count());
+    }
+
+    private RingBufferAppender ringBuffer(Appender<ILoggingEvent> target, int size, boolean async) {
+        return ringBuffer(new RingBufferAppender(), target, size, async);
+    }
+
+    private RingBufferAppender ringBuffer(RingBufferAppender appender, Appender<ILoggingEvent> target,
+                                          int size, boolean async) {
+        appender.setContext(context);
+        appender.setName("test");
+        appender.setBufferSize(size);
+        appender.setAsync(async);
+        appender.addAppender(target);
+        appender.start();
+        cleanup.add(appender::stop);
+        return appender;
+    }
+
+    private <A extends Appender<ILoggingEvent>> A started(A appender) {
+        appender.setContext(context);
+        appender.start();
+        return appender;
+    }
+
+    private ListAppender<ILoggingEvent> capture(String loggerName) {
+        Logger logger = context.getLogger(loggerName);
+        ListAppender<ILoggingEvent> appender = started(new ListAppender<>());
+        Level level = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+        cleanup.add(() -> {
+            logger.detachAppender(appender);
+            logger.setLevel(level);
+        });
+        return appender;
+    }
+
+    private LoggingEvent event(String message) {
+        return event(Level.INFO, message);
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(AsyncLoggingTest.class.getName(), context.getLogger("test"), level, message, null, null);
+    }
+}
@@ -0,0 +1,67 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.infy.customerRewards.exception.ServiceUnavailableException;
+import com.infy.customerRewards.utility.BoundedExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BoundedExecutor
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class BoundedExecutorTest {
+
+    private final BoundedExecutor executor = new BoundedExecutor("test", 1, 1, 2);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testSubmit_ReturnsResult() {
+        assertEquals(42, executor.submit(() -> 42).join());
+    }
+
+    @Test
+    void testSubmit_SaturatedPoolFailsFast() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Integer> running = executor.submit(() -> {
+            started.countDown();
+            await(release);
+            return 1;
+        });
+        started.await();
+        CompletableFuture<Integer> queued = executor.submit(() -> 2);
+        assertEquals(1, executor.getQueueDepth());
+
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> executor.submit(() -> 3));
+
+        assertEquals(2, exception.getRetryAfterSeconds());
+        assertEquals(1, executor.getRejectedCount());
+
+        release.countDown();
+        assertEquals(1, running.join());
+        assertEquals(2, queued.join());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
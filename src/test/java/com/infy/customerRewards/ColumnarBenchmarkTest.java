@@ -0,0 +1,143 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.infy.customerRewards.columnar.ColumnarProperties;
+import com.infy.customerRewards.columnar.ColumnarTransactionStore;
+import com.infy.customerRewards.config.SketchProperties;
+import com.infy.customerRewards.datasource.ShardMap;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.entity.Transaction;
+import com.infy.customerRewards.repository.TransactionRepository;
+import com.infy.customerRewards.serviceImpl.AnalyticsServiceImpl;
+import com.infy.customerRewards.utility.RewardCalculator;
+import com.infy.customerRewards.utility.SpendSketches;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.persistence.EntityManager;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of the columnar store against JPA entities: bytes per row (off-heap columns versus
+ * the heap retained by loaded Transaction entities) and the time of the program-wide and
+ * per-customer monthly analytics, from the store and from the database.
+ * Run with: mvn -Pbenchmark test
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Tag("benchmark")
+class ColumnarBenchmarkTest {
+
+    private static final int CUSTOMERS = 2_000;
+    private static final int ROWS_PER_CUSTOMER = 100;
+    private static final int ROUNDS = 200;
+
+    @Test
+    void measureColumnarStore() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:columnar-benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        LocalContainerEntityManagerFactoryBean entityManagerFactory = TestEntityManagerFactories.create(dataSource);
+        populate(new JdbcTemplate(dataSource));
+        int rows = CUSTOMERS * ROWS_PER_CUSTOMER;
+
+        long before = usedHeap();
+        EntityManager entityManager = entityManagerFactory.getObject().createEntityManager();
+        List<Transaction> entities = entityManager.createQuery("SELECT t FROM Transaction t", Transaction.class)
+                .getResultList();
+        long entityBytes = usedHeap() - before;
+        assertEquals(rows, entities.size());
+        entityManager.close();
+
+        RewardCalculator rewardCalculator = new RewardCalculator(new ModelMapper());
+        ShardRouter shards = new ShardRouter((ShardMap) null);
+        ColumnarTransactionStore store = new ColumnarTransactionStore(dataSource,
+                new JpaTransactionManager(entityManagerFactory.getObject()), shards, rewardCalculator,
+                new ColumnarProperties(), new SimpleMeterRegistry());
+        long begin = System.nanoTime();
+        store.load();
+        long loadMillis = (System.nanoTime() - begin) / 1_000_000;
+        System.out.printf("rows %d | entities %.0f bytes/row heap | columnar %.1f bytes/row off-heap | load %d ms%n",
+                rows, (double) entityBytes / rows, (double) store.bytes() / rows, loadMillis);
+
+        TransactionRepository repository = TestEntityManagerFactories.repository(entityManagerFactory, TransactionRepository.class);
+        Clock clock = Clock.systemDefaultZone();
+        AnalyticsServiceImpl database = new AnalyticsServiceImpl(repository, rewardCalculator, shards,
+                new SpendSketches(new SketchProperties(), new SimpleMeterRegistry()), clock);
+        AnalyticsServiceImpl columnar = new AnalyticsServiceImpl(repository, rewardCalculator, shards,
+                new SpendSketches(new SketchProperties(), new SimpleMeterRegistry()), clock, store);
+        YearMonth from = YearMonth.now(clock).minusMonths(11);
+        YearMonth to = YearMonth.now(clock);
+        assertEquals(database.getMonthlyAnalytics(from, to).getTotalTransactions(),
+                columnar.getMonthlyAnalytics(from, to).getTotalTransactions());
+
+        System.out.println("query                 | database ms | columnar ms");
+        print("program, 12 months", () -> database.getMonthlyAnalytics(from, to),
+                () -> columnar.getMonthlyAnalytics(from, to));
+        print("customer, 12 months", () -> database.getCustomerMonthlyAnalytics(1234L, from, to),
+                () -> columnar.getCustomerMonthlyAnalytics(1234L, from, to));
+        store.close();
+        entityManagerFactory.destroy();
+    }
+
+    private static void print(String query, Supplier<Object> database, Supplier<Object> columnar) {
+        System.out.printf("%-21s | %11.3f | %11.3f%n", query, millis(database), millis(columnar));
+    }
+
+    /** Average milliseconds per call after a warm-up. */
+    private static double millis(Supplier<Object> call) {
+        for (int i = 0; i < ROUNDS; i++) {
+            call.get();
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            assertNotNull(call.get());
+        }
+        return (System.nanoTime() - begin) / 1e6 / ROUNDS;
+    }
+
+    private static void populate(JdbcTemplate jdbc) {
+        List<Object[]> customers = new ArrayList<>(CUSTOMERS);
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            customers.add(new Object[] { c, "customer-" + c });
+        }
+        jdbc.batchUpdate("INSERT INTO customers (id, cust_name) VALUES (?, ?)", customers);
+        LocalDate first = LocalDate.now().withDayOfMonth(1).minusMonths(11);
+        List<Object[]> rows = new ArrayList<>(ROWS_PER_CUSTOMER);
+        long id = 1;
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            rows.clear();
+            for (int t = 0; t < ROWS_PER_CUSTOMER; t++) {
+                double amount = 20 + (id * 37 % 300);
+                rows.add(new Object[] { id++, c, Date.valueOf(first.plusDays(t * 3)), "Laptop", amount,
+                        amount > 100 ? (int) ((amount - 100) * 2 + 50) : Math.max(0, (int) amount - 50),
+                        RewardCalculator.RULE_VERSION });
+            }
+            jdbc.batchUpdate("INSERT INTO transactions (id, customer_id, date, product, amount, reward_points, "
+                    + "rule_version) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
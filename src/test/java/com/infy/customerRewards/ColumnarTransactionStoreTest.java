@@ -0,0 +1,194 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.infy.customerRewards.columnar.ColumnarProperties;
+import com.infy.customerRewards.columnar.ColumnarTotals;
+import com.infy.customerRewards.columnar.ColumnarTransactionStore;
+import com.infy.customerRewards.datasource.ShardMap;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.entity.ReviewStatus;
+import com.infy.customerRewards.entity.Transaction;
+import com.infy.customerRewards.utility.RewardCalculator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ColumnarTransactionStore, on an embedded H2 database.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class ColumnarTransactionStoreTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2024, 1);
+    private static final YearMonth MARCH = YearMonth.of(2024, 3);
+
+    private final RewardCalculator rewardCalculator = new RewardCalculator(new ModelMapper());
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:columnar;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    private final ColumnarProperties properties = new ColumnarProperties();
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private ColumnarTransactionStore store;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory = TestEntityManagerFactories.create(dataSource);
+        properties.setFetchSize(2);
+        properties.setMergeRows(2);
+        store = new ColumnarTransactionStore(dataSource, new JpaTransactionManager(entityManagerFactory.getObject()),
+                new ShardRouter((ShardMap) null), rewardCalculator, properties, registry);
+
+        // Customer 10: two January rows (one not scored under the current rules) and a held March row
+        jdbc.update("INSERT INTO customers (id, cust_name) VALUES (10, 'alice'), (20, 'bob')");
+        insert(1, 10, "2024-01-05", 120.0, 90, 1, null);
+        insert(2, 10, "2024-01-20", 60.5, null, null, null);
+        insert(3, 10, "2024-03-02", 200.0, 250, 1, "HELD");
+        insert(4, 20, "2024-01-10", 150.0, 150, 1, null);
+        insert(5, 20, "2023-12-31", 500.0, 850, 1, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+        entityManagerFactory.destroy();
+    }
+
+    @Test
+    void testLoad_SumsRowsPerMonthWithPointsAsTheReadEndpointsReportThem() {
+        // When
+        store.load();
+        ColumnarTotals all = store.monthly(JANUARY, MARCH);
+        ColumnarTotals alice = store.monthly(10L, JANUARY, MARCH);
+
+        // Then
+        assertTrue(store.isReady());
+        assertEquals(5, store.rows());
+        assertEquals(3, all.months());
+        assertEquals(3, all.transactions(0));
+        assertEquals(330.5, all.spend(0), 0.001);
+        assertEquals(90 + 10 + 150, all.points(0));
+        assertEquals(0, all.transactions(1));
+        assertEquals(1, all.transactions(2));
+        assertEquals(0, all.points(2));
+        assertEquals(2, alice.transactions(0));
+        assertEquals(100, alice.points(0));
+        assertEquals(MARCH, alice.month(2));
+        assertEquals(0, store.monthly(30L, JANUARY, MARCH).transactions(0));
+        assertTrue(registry.get("rewards.columnar.bytes").gauge().value() > 0);
+    }
+
+    @Test
+    void testAppend_WriteSeenByLoadAndAppendIsCountedOnce() {
+        // Given - row 4 reported before the load that also reads it, row 6 not in the database
+        store.append(20L, List.of(transaction(4, "2024-01-10", 150.0), transaction(6, "2024-01-11", 40.0)));
+        assertFalse(store.isReady());
+
+        // When
+        store.load();
+        store.append(10L, List.of(transaction(1, "2024-01-05", 120.0)));
+
+        // Then
+        ColumnarTotals bob = store.monthly(20L, JANUARY, JANUARY);
+        assertEquals(2, bob.transactions(0));
+        assertEquals(190.0, bob.spend(0), 0.001);
+        assertEquals(2, store.monthly(10L, JANUARY, JANUARY).transactions(0));
+        assertEquals(6, store.rows());
+    }
+
+    @Test
+    void testAppend_RowsStayVisibleWhileDeltasAreMerged() throws InterruptedException {
+        // Given
+        store.load();
+        List<Transaction> written = new ArrayList<>();
+
+        // When - every other append crosses merge-rows and hands a delta to the merge thread
+        for (int i = 0; i < 50; i++) {
+            Transaction transaction = transaction(100 + i, LocalDate.of(2024, 2, 1).plusDays(i % 28).toString(), 10.0);
+            written.add(transaction);
+            store.append(i % 2 == 0 ? 10L : 30L, List.of(transaction));
+            assertEquals(i + 1, store.monthly(JANUARY, MARCH).transactions(1));
+        }
+
+        // Then
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (store.monthly(30L, JANUARY, MARCH).transactions(1) != 25 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(25, store.monthly(30L, JANUARY, MARCH).transactions(1));
+        assertEquals(25, store.monthly(10L, JANUARY, MARCH).transactions(1));
+        assertEquals(500.0, store.monthly(JANUARY, MARCH).spend(1), 0.001);
+        assertEquals(5 + written.size(), store.rows());
+    }
+
+    @Test
+    void testAppend_SkipsUndatedTransactions() {
+        // Given
+        store.load();
+        Transaction undated = transaction(7, "2024-01-01", 10.0);
+        undated.setDate(null);
+
+        // When
+        store.append(10L, List.of(undated));
+
+        // Then
+        assertEquals(5, store.rows());
+    }
+
+    @Test
+    void testUpdate_ReleasedRowsEarnTheirPointsInPlace() {
+        // Given - held row 3 loaded into the segment, held row 8 appended to the delta
+        store.load();
+        Transaction loaded = transaction(3, "2024-03-02", 200.0);
+        Transaction appended = transaction(8, "2024-03-05", 120.0);
+        appended.setReviewStatus(ReviewStatus.HELD);
+        rewardCalculator.score(loaded);
+        rewardCalculator.score(appended);
+        store.append(10L, List.of(appended));
+        assertEquals(0, store.monthly(10L, MARCH, MARCH).points(0));
+
+        // When
+        appended.setReviewStatus(null);
+        store.update(10L, List.of(loaded, appended));
+
+        // Then
+        assertEquals(250 + 90, store.monthly(10L, MARCH, MARCH).points(0));
+        assertEquals(250 + 90, store.monthly(JANUARY, MARCH).points(2));
+        assertEquals(2, store.monthly(JANUARY, MARCH).transactions(2));
+        assertEquals(6, store.rows());
+    }
+
+    private static Transaction transaction(long id, String date, double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setDate(LocalDate.parse(date));
+        transaction.setProduct("Laptop");
+        transaction.setAmount(amount);
+        return transaction;
+    }
+
+    private void insert(long id, long customerId, String date, double amount, Integer points, Integer ruleVersion,
+                        String reviewStatus) {
+        jdbc.update("INSERT INTO transactions (id, customer_id, date, product, amount, reward_points, rule_version, "
+                + "review_status) VALUES (?, ?, ?, 'Laptop', ?, ?, ?, ?)", id, customerId, LocalDate.parse(date),
+                amount, points, ruleVersion, reviewStatus);
+    }
+}
@@ -0,0 +1,153 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.infy.customerRewards.config.ConditionalGetInterceptor;
+import com.infy.customerRewards.config.RequestExecutors;
+import com.infy.customerRewards.controller.RewardController;
+import com.infy.customerRewards.dto.TransactionDTO;
+import com.infy.customerRewards.service.RewardService;
+import com.infy.customerRewards.utility.CustomerDataVersions;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Test class for ConditionalGetInterceptor
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class ConditionalGetInterceptorTest {
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>(Map.of(1L, 0L, 2L, 0L));
+    private ConditionalGetInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        CustomerDataVersions dataVersions = mock(CustomerDataVersions.class);
+        when(dataVersions.current(anyLong())).thenAnswer(invocation -> versions.get(invocation.<Long>getArgument(0)));
+        interceptor = new ConditionalGetInterceptor(dataVersions);
+    }
+
+    @Test
+    void testFirstRequest_SetsETagAndProceeds() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request(1L, null), response, null));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void testUnknownCustomer_GetsNoETag() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request(3L, null), response, null));
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testMatchingIfNoneMatch_Returns304() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        interceptor.preHandle(request(1L, null), first, null);
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request(1L, eTag), second, null));
+        assertEquals(304, second.getStatus());
+    }
+
+    @Test
+    void testWriteToCustomer_InvalidatesETag() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        interceptor.preHandle(request(1L, null), first, null);
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+
+        bump(1L);
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(request(1L, eTag), second, null));
+        assertNotEquals(eTag, second.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testWriteToOtherCustomer_KeepsETag() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        interceptor.preHandle(request(1L, null), first, null);
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+
+        bump(2L);
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request(1L, eTag), second, null));
+    }
+
+    @Test
+    void testAsyncDispatch_KeepsTheTagOfTheVersionTheBodyWasReadAt() throws Exception {
+        // Given - a write lands while the controller's future is computing the body
+        RewardService rewardService = mock(RewardService.class);
+        when(rewardService.getCustomerTransactions(1L)).thenAnswer(invocation -> {
+            bump(1L);
+            return List.of(TransactionDTO.builder().id(1L).date(LocalDate.of(2024, 1, 15))
+                    .product("Laptop").amount(150.0).rewardPoints(150).build());
+        });
+        RewardController controller = new RewardController();
+        ReflectionTestUtils.setField(controller, "rewardService", rewardService);
+        ReflectionTestUtils.setField(controller, "requestExecutors", new RequestExecutors(false, null, null));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).addInterceptors(interceptor).build();
+        MockHttpServletResponse before = new MockHttpServletResponse();
+        interceptor.preHandle(request(1L, null), before, null);
+        String staleETag = before.getHeader(HttpHeaders.ETAG);
+
+        // When
+        MvcResult started = mockMvc.perform(get("/api/rewards/customers/1/transactions"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(started)).andReturn().getResponse();
+
+        // Then - the body goes out under the tag read before it, so the next poll refetches
+        assertEquals(200, response.getStatus());
+        assertEquals(staleETag, response.getHeader(HttpHeaders.ETAG));
+        assertEquals(1, response.getHeaders(HttpHeaders.VARY).size());
+
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(request(1L, staleETag), next, null));
+        assertNotEquals(staleETag, next.getHeader(HttpHeaders.ETAG));
+    }
+
+    private void bump(Long customerId) {
+        versions.merge(customerId, 1L, Long::sum);
+    }
+
+    private MockHttpServletRequest request(Long customerId, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET",
+                "/api/rewards/customers/" + customerId + "/transactions");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+                Map.of("customerId", String.valueOf(customerId)));
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+}
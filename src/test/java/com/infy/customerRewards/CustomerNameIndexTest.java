@@ -0,0 +1,189 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.infy.customerRewards.datasource.ShardMap;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.dto.CustomerSearchResultDTO;
+import com.infy.customerRewards.exception.CustomException;
+import com.infy.customerRewards.exception.ServiceUnavailableException;
+import com.infy.customerRewards.search.CustomerNameIndex;
+import com.infy.customerRewards.search.SearchProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CustomerNameIndex, on an embedded H2 database.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class CustomerNameIndexTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:search;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    private final SearchProperties properties = new SearchProperties();
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private CustomerNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory = TestEntityManagerFactories.create(dataSource);
+        properties.setRebuildThreads(3);
+        properties.setFetchSize(2);
+        properties.setMaxLimit(20);
+        index = new CustomerNameIndex(dataSource, new JpaTransactionManager(entityManagerFactory.getObject()),
+                new ShardRouter((ShardMap) null), properties, registry);
+
+        jdbc.update("INSERT INTO customers (id, cust_name) VALUES (1, 'Smith'), (2, 'John Smithers'), "
+                + "(3, 'Smithson Ltd'), (4, 'Anna Blacksmith'), (5, 'Zoë Ångström'), (6, 'Mary-Jane O''Neil'), "
+                + "(17, 'Smith'), (40, 'Bob Jones'), (41, '--')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+        entityManagerFactory.destroy();
+    }
+
+    @Test
+    void testSearch_RanksExactThenPrefixThenWordThenSubstring() {
+        // Given
+        index.rebuild();
+
+        // When
+        List<CustomerSearchResultDTO> results = index.search("smith", 10);
+
+        // Then
+        assertEquals(List.of(1L, 17L, 3L, 2L, 4L), results.stream().map(CustomerSearchResultDTO::getId).toList());
+        assertEquals(List.of("EXACT", "EXACT", "PREFIX", "WORD_PREFIX", "SUBSTRING"),
+                results.stream().map(CustomerSearchResultDTO::getMatch).toList());
+        assertEquals("Smithson Ltd", results.get(2).getCustName());
+        assertEquals(8, registry.get("rewards.search.customers").gauge().value());
+    }
+
+    @Test
+    void testSearch_ShortQueriesMatchWordStartsOnly() {
+        // Given
+        index.rebuild();
+
+        // When
+        List<CustomerSearchResultDTO> results = index.search("Jo", 10);
+
+        // Then - "Mary-Jane" holds no word starting with "jo"
+        assertEquals(List.of(2L, 40L), results.stream().map(CustomerSearchResultDTO::getId).toList());
+        assertEquals(List.of("PREFIX", "WORD_PREFIX"), results.stream().map(CustomerSearchResultDTO::getMatch).toList());
+        assertEquals(List.of(40L, 4L), index.search("b", 10).stream().map(CustomerSearchResultDTO::getId).toList());
+    }
+
+    @Test
+    void testSearch_IgnoresCaseAccentsAndPunctuation() {
+        // Given
+        index.rebuild();
+
+        // Then
+        assertEquals(5L, index.search("ZOE ANGSTROM", 10).get(0).getId());
+        assertEquals("EXACT", index.search("zoe angstrom", 10).get(0).getMatch());
+        assertEquals(6L, index.search("mary-jane", 10).get(0).getId());
+        assertEquals(6L, index.search("jane o'neil", 10).get(0).getId());
+        assertEquals(2L, index.search("hn smi", 10).get(0).getId());
+        assertTrue(index.search("smyth", 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_ReturnsAtMostLimitBestMatches() {
+        // Given
+        index.rebuild();
+
+        // Then
+        assertEquals(List.of(1L, 17L), index.search("smith", 2).stream().map(CustomerSearchResultDTO::getId).toList());
+        assertThrows(CustomException.class, () -> index.search("smith", 0));
+        assertThrows(CustomException.class, () -> index.search("smith", 21));
+        assertThrows(CustomException.class, () -> index.search(" -- ", 10));
+    }
+
+    @Test
+    void testSearch_UnavailableUntilRebuilt() {
+        // Then
+        assertFalse(index.isReady());
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                () -> index.search("smith", 10));
+        assertEquals(5, e.getRetryAfterSeconds());
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertTrue(index.isReady());
+        assertEquals(5, index.search("smith", 10).size());
+    }
+
+    @Test
+    void testCustomerCreated_WhileLoadingIsAddedOnceAfterRebuild() {
+        // Given - customer 17 is also read by the rebuild, customer 50 is not in the database
+        index.customerCreated(17L, "Smith");
+        index.customerCreated(50L, "Smithy");
+
+        // When
+        index.rebuild();
+        index.customerCreated(51L, "Smit");
+
+        // Then
+        assertEquals(10, index.size());
+        assertEquals(List.of(1L, 17L, 50L, 3L, 2L, 4L),
+                index.search("smith", 10).stream().map(CustomerSearchResultDTO::getId).toList());
+        assertEquals(51L, index.search("smit", 1).get(0).getId());
+    }
+
+    @Test
+    void testCustomerCreated_WithoutRebuildIndexHoldsNewCustomersOnly() {
+        // Given
+        properties.setRebuildOnStartup(false);
+        CustomerNameIndex fresh = new CustomerNameIndex(dataSource,
+                new JpaTransactionManager(entityManagerFactory.getObject()), new ShardRouter((ShardMap) null),
+                properties, new SimpleMeterRegistry());
+
+        // When
+        fresh.startRebuild();
+        fresh.customerCreated(60L, "Smith & Co");
+
+        // Then
+        assertTrue(fresh.isReady());
+        assertEquals(List.of(60L), fresh.search("smith", 10).stream().map(CustomerSearchResultDTO::getId).toList());
+        fresh.close();
+    }
+
+    @Test
+    void testSearch_DenseTrigramsGiveTheSameMatches() {
+        // Given - past 8192 names the lists of the common trigrams get bitsets
+        properties.setRebuildOnStartup(false);
+        CustomerNameIndex large = new CustomerNameIndex(dataSource,
+                new JpaTransactionManager(entityManagerFactory.getObject()), new ShardRouter((ShardMap) null),
+                properties, new SimpleMeterRegistry());
+        for (long id = 0; id < 9_000; id++) {
+            large.customerCreated(id, id == 8_500 ? "Priya Rose" : id % 2 == 0 ? "Priya R" + id : "John Ro" + id);
+        }
+
+        // Then
+        assertEquals(List.of(8_500L), large.search("priya ro", 10).stream()
+                .map(CustomerSearchResultDTO::getId).toList());
+        assertEquals(List.of(0L, 2L, 4L), large.search("priya r", 3).stream()
+                .map(CustomerSearchResultDTO::getId).toList());
+        assertEquals(List.of(8_999L), large.search("n ro8999", 10).stream()
+                .map(CustomerSearchResultDTO::getId).toList());
+        large.close();
+    }
+}
@@ -0,0 +1,117 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.infy.customerRewards.datasource.ShardMap;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.search.CustomerNameIndex;
+import com.infy.customerRewards.search.SearchProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of customer name search over a million synthetic names: index rebuild time with
+ * one thread and with four, heap held per name, and the latency of typical queries against a
+ * LIKE '%x%' scan of the customers table.
+ * Run with: mvn -Pbenchmark test
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Tag("benchmark")
+class CustomerSearchBenchmarkTest {
+
+    private static final int CUSTOMERS = 1_000_000;
+    private static final int ROUNDS = 2_000;
+    private static final String[] FIRST = { "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael",
+            "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+            "Sarah", "Priya", "Rahul", "Wei", "Fatima", "Carlos", "Zoë", "Ahmed", "Olga", "Kenji", "Amara" };
+    private static final String[] SYLLABLES = { "an", "ber", "cha", "dor", "el", "fin", "gar", "har", "is", "jen",
+            "kow", "lam", "mor", "nel", "ost", "pat", "quin", "ros", "sen", "tor", "ul", "van", "wes", "yam", "zel" };
+    private static final String[] QUERIES = { "j", "jo", "john", "rob", "harmor", "garost", "priya ros",
+            "mary jen", "ostquin", "zzz" };
+
+    @Test
+    void measureCustomerSearch() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:search-benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        LocalContainerEntityManagerFactoryBean entityManagerFactory = TestEntityManagerFactories.create(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        populate(jdbc);
+
+        CustomerNameIndex index = null;
+        for (int threads : new int[] { 1, 4 }) {
+            if (index != null) {
+                index.close();
+                index = null;
+            }
+            long before = usedHeap();
+            SearchProperties properties = new SearchProperties();
+            properties.setRebuildThreads(threads);
+            index = new CustomerNameIndex(dataSource, new JpaTransactionManager(entityManagerFactory.getObject()),
+                    new ShardRouter((ShardMap) null), properties, new SimpleMeterRegistry());
+            long begin = System.nanoTime();
+            index.rebuild();
+            long rebuildMillis = (System.nanoTime() - begin) / 1_000_000;
+            assertEquals(CUSTOMERS, index.size());
+            System.out.printf("rebuild, %d thread(s) | %d ms | %.0f bytes/name heap%n", threads, rebuildMillis,
+                    (double) (usedHeap() - before) / CUSTOMERS);
+        }
+
+        System.out.println("query      | results | index ms | LIKE ms");
+        for (String query : QUERIES) {
+            CustomerNameIndex searched = index;
+            int results = searched.search(query, 10).size();
+            for (int i = 0; i < ROUNDS; i++) {
+                searched.search(query, 10);
+            }
+            long begin = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                assertNotNull(searched.search(query, 10));
+            }
+            double indexMillis = (System.nanoTime() - begin) / 1e6 / ROUNDS;
+            begin = System.nanoTime();
+            jdbc.queryForList("SELECT id FROM customers WHERE LOWER(cust_name) LIKE ? LIMIT 10", Long.class,
+                    "%" + query + "%");
+            double likeMillis = (System.nanoTime() - begin) / 1e6;
+            System.out.printf("%-10s | %7d | %8.4f | %7.1f%n", query, results, indexMillis, likeMillis);
+        }
+        index.close();
+        entityManagerFactory.destroy();
+    }
+
+    private static void populate(JdbcTemplate jdbc) {
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            StringBuilder last = new StringBuilder();
+            for (int s = 2 + random.nextInt(3); s > 0; s--) {
+                last.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            last.setCharAt(0, Character.toUpperCase(last.charAt(0)));
+            batch.add(new Object[] { c, FIRST[random.nextInt(FIRST.length)] + " " + last });
+            if (batch.size() == 10_000) {
+                jdbc.batchUpdate("INSERT INTO customers (id, cust_name) VALUES (?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
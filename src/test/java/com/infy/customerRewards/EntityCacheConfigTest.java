@@ -0,0 +1,193 @@
+package com.infy.customerRewards;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.infy.customerRewards.config.EntityCacheConfig;
+import com.infy.customerRewards.config.EntityCacheProperties;
+import com.infy.customerRewards.entity.Customer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.persistence.EntityManager;
+
+import javax.cache.CacheManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for EntityCacheConfig, on an embedded H2 database.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class EntityCacheConfigTest {
+
+    private final EntityCacheConfig config = new EntityCacheConfig();
+    private final EntityCacheProperties properties = new EntityCacheProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:entity-cache;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private CacheManager cacheManager;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        properties.setCustomerMaxEntries(2);
+        properties.setQueryCache(true);
+        cacheManager = config.entityCacheManager(properties);
+        evictOnTheCallingThread(EntityCacheConfig.CUSTOMER_REGION);
+        Map<String, Object> hibernate = new HashMap<>();
+        config.entityCacheHibernateProperties(provider(cacheManager), properties).customize(hibernate);
+        entityManagerFactory = TestEntityManagerFactories.create(dataSource, hibernate);
+        config.entityCacheMetrics(entityManagerFactory.getObject(), properties).bindTo(registry);
+        statistics = entityManagerFactory.getObject().unwrap(SessionFactory.class).getStatistics();
+
+        jdbc.update("INSERT INTO customers (id, cust_name, phone_no) VALUES (1, 'alice', '555'), (2, 'bob', '556'), "
+                + "(3, 'carol', '557')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.destroy();
+        cacheManager.close();
+    }
+
+    @Test
+    void testFind_SecondLookupInANewSessionIsServedWithoutSql() {
+        // Given
+        assertEquals("alice", find(1L).getCustName());
+        long statements = statistics.getPrepareStatementCount();
+
+        // When
+        Customer customer = find(1L);
+
+        // Then
+        assertEquals("alice", customer.getCustName());
+        assertEquals("555", customer.getPhoneNo());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1.0, registry.get("rewards.cache.requests").tags("region", "customer", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("rewards.cache.requests").tags("region", "customer", "result", "miss")
+                .functionCounter().count());
+        assertEquals(0.5, registry.get("rewards.cache.hit-ratio").tag("region", "customer").gauge().value());
+    }
+
+    @Test
+    void testUpdate_CachedCustomerReflectsCommittedChange() {
+        // Given
+        find(1L);
+
+        // When
+        EntityManager entityManager = entityManagerFactory.getObject().createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.find(Customer.class, 1L).setCustName("alicia");
+        entityManager.getTransaction().commit();
+        entityManager.close();
+
+        // Then
+        assertEquals("alicia", find(1L).getCustName());
+    }
+
+    @Test
+    void testRegion_HoldsAtMostTheConfiguredEntries() {
+        // When
+        find(1L);
+        find(2L);
+        find(3L);
+
+        // Then
+        long held = 0;
+        for (Object ignored : cacheManager.getCache(EntityCacheConfig.CUSTOMER_REGION)) {
+            held++;
+        }
+        assertTrue(held <= 2, "entries held: " + held);
+    }
+
+    @Test
+    void testQueryCache_CacheableQueryIsAnsweredFromTheCache() {
+        // Given
+        runCacheableQuery();
+        long statements = statistics.getPrepareStatementCount();
+
+        // When
+        String name = runCacheableQuery();
+
+        // Then
+        assertEquals("bob", name);
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1.0, registry.get("rewards.cache.requests").tags("region", "query", "result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testDisabled_SwitchesTheCacheOffRatherThanLeavingItToHibernate() {
+        // Given
+        Map<String, Object> hibernate = new HashMap<>();
+
+        // When
+        config.entityCacheHibernateProperties(new StaticListableBeanFactory().getBeanProvider(CacheManager.class),
+                properties).customize(hibernate);
+
+        // Then
+        assertEquals(false, hibernate.get("hibernate.cache.use_second_level_cache"));
+        assertEquals(false, hibernate.get("hibernate.cache.use_query_cache"));
+        assertFalse(hibernate.containsKey("hibernate.javax.cache.cache_manager"));
+    }
+
+    /**
+     * Recreates a region with the same settings but running Caffeine's maintenance, eviction included,
+     * on the calling thread instead of the common pool, so the bound holds as soon as a load returns.
+     */
+    @SuppressWarnings("unchecked")
+    private void evictOnTheCallingThread(String name) {
+        CaffeineConfiguration<Object, Object> region = new CaffeineConfiguration<>(
+                cacheManager.getCache(name).getConfiguration(CaffeineConfiguration.class));
+        region.setExecutorFactory(() -> Runnable::run);
+        cacheManager.destroyCache(name);
+        cacheManager.createCache(name, region);
+    }
+
+    private static ObjectProvider<CacheManager> provider(CacheManager cacheManager) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("entityCacheManager", cacheManager);
+        return beans.getBeanProvider(CacheManager.class);
+    }
+
+    private Customer find(Long id) {
+        EntityManager entityManager = entityManagerFactory.getObject().createEntityManager();
+        try {
+            return entityManager.find(Customer.class, id);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private String runCacheableQuery() {
+        EntityManager entityManager = entityManagerFactory.getObject().createEntityManager();
+        try {
+            return entityManager.createQuery("SELECT c FROM Customer c WHERE c.phoneNo = :phoneNo", Customer.class)
+                    .setParameter("phoneNo", "556")
+                    .setHint("org.hibernate.cacheable", true)
+                    .getSingleResult()
+                    .getCustName();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
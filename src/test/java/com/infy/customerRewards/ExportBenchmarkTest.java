@@ -0,0 +1,135 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.modelmapper.ModelMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.infy.customerRewards.datasource.ShardMap;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.export.ExportProperties;
+import com.infy.customerRewards.export.ExportRequest;
+import com.infy.customerRewards.export.TransactionExporter;
+import com.infy.customerRewards.utility.RewardCalculator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of bulk export throughput, compressed size and heap use, on a file-backed H2
+ * database with lazy query execution (a streaming cursor). Heap is sampled after a GC every
+ * 50k rows: it stays flat however many rows are exported.
+ * Run with: mvn -Pbenchmark test
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Tag("benchmark")
+class ExportBenchmarkTest {
+
+    private static final int CUSTOMERS = 5_000;
+    private static final int ROWS_PER_CUSTOMER = 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void measureExport() throws IOException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:file:" + directory.resolve("export")
+                + ";DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=TRUE", "sa", "");
+        LocalContainerEntityManagerFactoryBean entityManagerFactory = TestEntityManagerFactories.create(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        populate(jdbc);
+        TransactionExporter exporter = new TransactionExporter(dataSource,
+                new JpaTransactionManager(entityManagerFactory.getObject()), new ShardRouter((ShardMap) null),
+                new RewardCalculator(new ModelMapper()), new ExportProperties(), new SimpleMeterRegistry());
+
+        System.out.println("kind         | format |    rows |   rows/s | gzip bytes | max heap MB");
+        for (ExportRequest.Kind kind : ExportRequest.Kind.values()) {
+            for (ExportRequest.Format format : ExportRequest.Format.values()) {
+                CountingStream bytes = new CountingStream();
+                GZIPOutputStream gzip = new GZIPOutputStream(bytes, 64 * 1024);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024);
+                long[] maxHeap = { 0 };
+                long[] sampledAt = { 0 };
+                long begin = System.nanoTime();
+                long rows = exporter.export(new ExportRequest(kind, format, LocalDate.of(2024, 1, 1),
+                        LocalDate.of(2024, 12, 31), null), writer, (customerId, written) -> {
+                    if (written - sampledAt[0] >= 50_000) {
+                        sampledAt[0] = written;
+                        maxHeap[0] = Math.max(maxHeap[0], usedHeap());
+                    }
+                });
+                long elapsed = System.nanoTime() - begin;
+                gzip.finish();
+                System.out.printf("%-12s | %-6s | %7d | %8.0f | %10d | %11.1f%n", kind, format, rows,
+                        rows * 1e9 / elapsed, bytes.count, maxHeap[0] / 1048576.0);
+                assertTrue(rows > 0);
+            }
+        }
+        entityManagerFactory.destroy();
+    }
+
+    private static void populate(JdbcTemplate jdbc) {
+        List<Object[]> customers = new ArrayList<>(CUSTOMERS);
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            customers.add(new Object[] { c, "customer-" + c });
+        }
+        jdbc.batchUpdate("INSERT INTO customers (id, cust_name) VALUES (?, ?)", customers);
+        List<Object[]> rows = new ArrayList<>(ROWS_PER_CUSTOMER);
+        long id = 1;
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            rows.clear();
+            for (int t = 0; t < ROWS_PER_CUSTOMER; t++) {
+                double amount = 20 + (id * 37 % 300);
+                rows.add(new Object[] { id++, c, Date.valueOf(LocalDate.of(2024, 1, 1).plusDays(t * 3)), "Laptop",
+                        amount, amount > 100 ? (int) ((amount - 100) * 2 + 50) : Math.max(0, (int) amount - 50), 1 });
+            }
+            jdbc.batchUpdate("INSERT INTO transactions (id, customer_id, date, product, amount, reward_points, "
+                    + "rule_version) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Discards output, counting the bytes.
+     */
+    private static final class CountingStream extends OutputStream {
+
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            count += length;
+        }
+    }
+}
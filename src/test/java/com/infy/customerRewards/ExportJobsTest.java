@@ -0,0 +1,150 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.infy.customerRewards.dto.ExportJobDTO;
+import com.infy.customerRewards.exception.CustomException;
+import com.infy.customerRewards.exception.ResourceNotFoundException;
+import com.infy.customerRewards.export.ExportJobs;
+import com.infy.customerRewards.export.ExportProperties;
+import com.infy.customerRewards.export.ExportRequest;
+import com.infy.customerRewards.export.TransactionExporter;
+import com.infy.customerRewards.utility.IdGenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ExportJobs, with a stubbed exporter writing to a temporary directory.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class ExportJobsTest {
+
+    private static final ExportRequest REQUEST = new ExportRequest(ExportRequest.Kind.TRANSACTIONS,
+            ExportRequest.Format.CSV, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), null);
+
+    @TempDir
+    Path directory;
+
+    private final TransactionExporter exporter = mock(TransactionExporter.class);
+    private final AtomicLong ids = new AtomicLong();
+    private final IdGenerator idGenerator = ids::incrementAndGet;
+    private ExportJobs jobs;
+
+    @BeforeEach
+    void setUp() {
+        ExportProperties properties = new ExportProperties();
+        properties.setDirectory(directory.toString());
+        properties.setCheckpointRows(2);
+        jobs = new ExportJobs(exporter, idGenerator, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobs.close();
+    }
+
+    @Test
+    void testStart_WritesGzipFile() throws Exception {
+        // Given
+        when(exporter.export(eq(REQUEST), any(), any())).thenAnswer(invocation -> {
+            Writer out = invocation.getArgument(1);
+            out.write("header\r\nrow-1\r\n");
+            return 1L;
+        });
+
+        // When
+        ExportJobDTO started = jobs.start(REQUEST);
+        ExportJobDTO finished = awaitDone(started.getId());
+
+        // Then
+        assertEquals("COMPLETED", finished.getState());
+        assertEquals(1, finished.getRows());
+        assertEquals("header\r\nrow-1\r\n", gunzip(jobs.output(started.getId())));
+    }
+
+    @Test
+    void testResume_ContinuesAfterLastCheckpointedCustomer() throws Exception {
+        // Given - the first run checkpoints after customer 10, writes part of customer 20 and fails
+        when(exporter.export(eq(REQUEST), any(), any())).thenAnswer(invocation -> {
+            Writer out = invocation.getArgument(1);
+            TransactionExporter.Progress progress = invocation.getArgument(2);
+            out.write("header\r\n10-a\r\n10-b\r\n");
+            progress.customerDone(10, 2);
+            out.write("20-a\r\n");
+            throw new IOException("connection reset");
+        });
+        when(exporter.export(eq(REQUEST.after(10L)), any(), any())).thenAnswer(invocation -> {
+            Writer out = invocation.getArgument(1);
+            out.write("20-a\r\n20-b\r\n");
+            return 2L;
+        });
+        long id = jobs.start(REQUEST).getId();
+        ExportJobDTO failed = awaitDone(id);
+
+        // When
+        jobs.resume(id);
+        ExportJobDTO resumed = awaitDone(id);
+
+        // Then - the partial customer is dropped and written once, in a second gzip member
+        assertEquals("FAILED", failed.getState());
+        assertEquals("connection reset", failed.getError());
+        assertEquals(10L, failed.getLastCustomerId());
+        assertEquals("COMPLETED", resumed.getState());
+        assertEquals(4, resumed.getRows());
+        assertEquals("header\r\n10-a\r\n10-b\r\n20-a\r\n20-b\r\n", gunzip(jobs.output(id)));
+    }
+
+    @Test
+    void testGet_ReadsJobStateFromDisk() throws Exception {
+        // Given
+        when(exporter.export(any(), any(), any())).thenReturn(0L);
+        long id = jobs.start(REQUEST).getId();
+        awaitDone(id);
+        ExportProperties properties = new ExportProperties();
+        properties.setDirectory(directory.toString());
+
+        // When
+        ExportJobDTO reloaded = new ExportJobs(exporter, idGenerator, properties).get(id);
+
+        // Then
+        assertEquals("COMPLETED", reloaded.getState());
+        assertThrows(CustomException.class, () -> jobs.resume(id));
+        assertThrows(ResourceNotFoundException.class, () -> jobs.get(id + 1));
+    }
+
+    private ExportJobDTO awaitDone(long id) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        ExportJobDTO job = jobs.get(id);
+        while ("RUNNING".equals(job.getState()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = jobs.get(id);
+        }
+        return job;
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.infy.customerRewards.datasource.ReadYourWritesTracker;
+import com.infy.customerRewards.datasource.ShardMap;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.ingest.IngestRecord;
+import com.infy.customerRewards.ingest.TransactionBatchWriter;
+import com.infy.customerRewards.service.AnalyticsService;
+import com.infy.customerRewards.utility.CustomerDataVersions;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmark of ingestion throughput by batch size, on a file-backed H2 database:
+ * a batch of 1 is the direct mode (one commit per transaction), larger batches are what the
+ * write-behind flusher issues.
+ * Run with: mvn -Pbenchmark test
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Tag("benchmark")
+class IngestBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void measureThroughput() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:file:" + directory.resolve("ingest") + ";DB_CLOSE_DELAY=-1", "sa", "");
+        LocalContainerEntityManagerFactoryBean entityManagerFactory = TestEntityManagerFactories.create(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO customers (id, cust_name) VALUES (1, 'alice')");
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory.getObject());
+        ShardRouter shards = new ShardRouter((ShardMap) null);
+        ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(Duration.ZERO);
+        TransactionBatchWriter writer = new TransactionBatchWriter(dataSource, transactionManager, shards,
+                new CustomerDataVersions(dataSource, transactionManager, shards, readYourWrites), readYourWrites,
+                mock(AnalyticsService.class), new SimpleMeterRegistry());
+
+        System.out.println("batch size | rows/s");
+        long nextId = 1;
+        for (int batchSize : new int[] { 1, 50, 500 }) {
+            List<IngestRecord> records = new ArrayList<>(batchSize);
+            long begin = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                records.add(new IngestRecord(nextId++, 1L, LocalDate.of(2024, 1, 15), "Laptop", 120.0, 90, 1, null, null));
+                if (records.size() == batchSize) {
+                    writer.write(records);
+                    records.clear();
+                }
+            }
+            long elapsed = System.nanoTime() - begin;
+            System.out.printf("%10d | %8.0f%n", batchSize, ROWS * 1e9 / elapsed);
+        }
+        assertEquals(3 * ROWS, jdbc.queryForObject("SELECT COUNT(*) FROM transactions", Integer.class));
+        entityManagerFactory.destroy();
+    }
+}
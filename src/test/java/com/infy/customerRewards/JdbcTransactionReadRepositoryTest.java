@@ -0,0 +1,153 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.infy.customerRewards.dto.TransactionDTO;
+import com.infy.customerRewards.entity.ReviewStatus;
+import com.infy.customerRewards.repository.JdbcTransactionReadRepository;
+import com.infy.customerRewards.repository.TransactionRepository;
+import com.infy.customerRewards.utility.RewardCalculator;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for JdbcTransactionReadRepository, checked against the JPA read path on an
+ * embedded H2 database.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class JdbcTransactionReadRepositoryTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 3, 31);
+
+    private final RewardCalculator rewardCalculator = new RewardCalculator(new ModelMapper());
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:jdbc-reads;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private TransactionRepository transactionRepository;
+    private JdbcTransactionReadRepository jdbcReads;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory = TestEntityManagerFactories.create(dataSource);
+        transactionRepository = TestEntityManagerFactories.repository(entityManagerFactory, TransactionRepository.class);
+        jdbcReads = new JdbcTransactionReadRepository(dataSource, rewardCalculator, 2);
+
+        // Customer 10: scored, not yet scored, held, flagged and out-of-range rows
+        jdbc.update("INSERT INTO customers (id, cust_name) VALUES (10, 'alice'), (20, 'bob')");
+        insert(1, 10, "2024-01-05", 120.0, 90, 1, null);
+        insert(2, 10, "2024-01-20", 60.5, null, null, null);
+        insert(3, 10, "2024-02-02", 200.0, 250, 1, "HELD");
+        insert(4, 10, "2024-03-10", 150.0, 150, 1, "FLAGGED");
+        insert(5, 10, "2024-04-01", 500.0, 850, 1, null);
+        insert(6, 20, "2024-01-10", 75.0, 25, 1, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.destroy();
+    }
+
+    @Test
+    void testFindByCustomerIdAndDateBetween_MatchesTheJpaReadPath() {
+        // When
+        List<TransactionDTO> fromJdbc = sorted(jdbcReads.findByCustomerIdAndDateBetween(10L, FROM, TO));
+        List<TransactionDTO> fromJpa = sorted(rewardCalculator.calculateRewards(
+                transactionRepository.findByCustomerIdAndDateBetween(10L, FROM, TO)).transactionDTOs());
+
+        // Then
+        assertEquals(4, fromJdbc.size());
+        assertEquals(fromJpa, fromJdbc);
+        assertEquals(10, fromJdbc.get(1).getRewardPoints());
+        assertEquals(0, fromJdbc.get(2).getRewardPoints());
+        assertEquals(ReviewStatus.FLAGGED, fromJdbc.get(3).getReviewStatus());
+    }
+
+    @Test
+    void testFindByCustomerId_ReadsOnlyTheCustomersRows() {
+        // When
+        List<TransactionDTO> transactions = jdbcReads.findByCustomerId(20L);
+
+        // Then
+        assertEquals(1, transactions.size());
+        assertEquals(6L, transactions.get(0).getId());
+        assertEquals(25, transactions.get(0).getRewardPoints());
+        assertTrue(jdbcReads.findByCustomerId(30L).isEmpty());
+    }
+
+    @Test
+    void testSummarize_AggregatesPointsPerMonth() {
+        // When
+        RewardCalculator.RewardCalculationResult result =
+                rewardCalculator.summarize(jdbcReads.findByCustomerIdAndDateBetween(10L, FROM, TO));
+
+        // Then
+        assertEquals(90 + 10 + 0 + 150, result.totalRewards());
+        assertEquals(Map.of("2024-01", 100, "2024-02", 0, "2024-03", 150), result.monthlyRewards());
+    }
+
+    @Test
+    void testFindMonthlyRewards_MatchesTheRowByRowSums() {
+        // Given - a held row never scored must still earn nothing
+        insert(7, 10, "2024-02-15", 300.0, null, null, "HELD");
+
+        // When
+        Map<String, Integer> monthlyRewards = jdbcReads.findMonthlyRewards(10L, FROM, TO);
+
+        // Then
+        assertEquals(rewardCalculator.summarize(jdbcReads.findByCustomerIdAndDateBetween(10L, FROM, TO))
+                .monthlyRewards(), monthlyRewards);
+        assertEquals(Map.of("2024-01", 100, "2024-02", 0, "2024-03", 150), monthlyRewards);
+        assertTrue(jdbcReads.findMonthlyRewards(30L, FROM, TO).isEmpty());
+    }
+
+    @Test
+    void testFindMonthlyPoints_SumsScoredRowsAndCountsTheOthers() {
+        // Given
+        insert(7, 10, "2024-02-15", 300.0, null, null, "HELD");
+
+        // When
+        List<TransactionRepository.MonthlyPoints> months = transactionRepository
+                .findMonthlyPoints(10L, FROM, TO, RewardCalculator.RULE_VERSION).stream()
+                .sorted(Comparator.comparing(TransactionRepository.MonthlyPoints::getMonth)).toList();
+        List<TransactionRepository.DatedAmount> stale = transactionRepository
+                .findStaleAmounts(10L, FROM, TO, RewardCalculator.RULE_VERSION);
+
+        // Then
+        assertEquals(3, months.size());
+        assertEquals(90L, months.get(0).getPoints());
+        assertEquals(1L, months.get(0).getUnscored());
+        assertEquals(0L, months.get(1).getPoints());
+        assertEquals(0L, months.get(1).getUnscored());
+        assertEquals(150L, months.get(2).getPoints());
+        assertEquals(1, stale.size());
+        assertEquals(LocalDate.of(2024, 1, 20), stale.get(0).getDate());
+        assertEquals(60.5, stale.get(0).getAmount());
+    }
+
+    private static List<TransactionDTO> sorted(List<TransactionDTO> transactions) {
+        return transactions.stream().sorted(Comparator.comparing(TransactionDTO::getId)).toList();
+    }
+
+    private void insert(long id, long customerId, String date, double amount, Integer points, Integer ruleVersion,
+                        String reviewStatus) {
+        jdbc.update("INSERT INTO transactions (id, customer_id, date, product, amount, reward_points, rule_version, "
+                + "review_status) VALUES (?, ?, ?, 'Laptop', ?, ?, ?, ?)", id, customerId, LocalDate.parse(date),
+                amount, points, ruleVersion, reviewStatus);
+    }
+}
@@ -0,0 +1,49 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.infy.customerRewards.security.JwtTokenVerifier;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of the per-request authentication cost with and without the verified-token cache.
+ * Run with: mvn -Pbenchmark test
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Tag("benchmark")
+class JwtAuthenticationBenchmarkTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void compareCachedAndUncached() {
+        JwtTokenVerifier verifier = new JwtTokenVerifier(JwtTokenVerifierTest.SECRET, 10_000);
+        String token = JwtTokenVerifierTest.token(JwtTokenVerifierTest.SECRET, "partner-a", 3_600_000);
+
+        double uncached = measure(() -> verifier.parse(token));
+        double cached = measure(() -> verifier.verify(token));
+
+        System.out.printf("uncached (parse + verify signature) : %8.0f ns/request%n", uncached);
+        System.out.printf("cached   (digest + map lookup)      : %8.0f ns/request%n", cached);
+        assertTrue(cached < uncached);
+    }
+
+    private static double measure(Supplier<JwtTokenVerifier.VerifiedToken> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertNotNull(call.get());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+}
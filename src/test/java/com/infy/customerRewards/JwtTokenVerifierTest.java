@@ -0,0 +1,72 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Test;
+
+import com.infy.customerRewards.security.JwtTokenVerifier;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for JwtTokenVerifier
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class JwtTokenVerifierTest {
+
+    static final String SECRET = "mysecretkeymysecretkeymysecretkey123!";
+
+    private final JwtTokenVerifier verifier = new JwtTokenVerifier(SECRET, 2);
+
+    static String token(String secret, String subject, long expiresInMillis) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setExpiration(new Date(System.currentTimeMillis() + expiresInMillis))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Test
+    void testValidToken_VerifiedAndCached() {
+        String token = token(SECRET, "partner-a", 60_000);
+
+        JwtTokenVerifier.VerifiedToken first = verifier.verify(token);
+        JwtTokenVerifier.VerifiedToken second = verifier.verify(token);
+
+        assertEquals("partner-a", first.subject());
+        assertSame(first, second);
+        assertEquals(1, verifier.cacheSize());
+    }
+
+    @Test
+    void testExpiredToken_Rejected() {
+        assertNull(verifier.verify(token(SECRET, "partner-a", -1_000)));
+        assertEquals(0, verifier.cacheSize());
+    }
+
+    @Test
+    void testWrongSignature_Rejected() {
+        String forged = token("anothersecretanothersecretanother123!", "partner-a", 60_000);
+
+        assertNull(verifier.verify(forged));
+        assertNull(verifier.verify("not-a-jwt"));
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        verifier.verify(token(SECRET, "a", 60_000));
+        verifier.verify(token(SECRET, "b", 60_000));
+        JwtTokenVerifier.VerifiedToken third = verifier.verify(token(SECRET, "c", 60_000));
+
+        assertEquals("c", third.subject());
+        assertEquals(2, verifier.cacheSize());
+    }
+}
@@ -0,0 +1,364 @@
+package com.infy.customerRewards;
+
+import org.HdrHistogram.Histogram;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load driver for the three RewardController endpoints of a running application.
+ * A fixed number of workers send a weighted mix of rewards queries, transaction listings and
+ * customer creations for the IDs written by SyntheticDataGenerator, so hot customers are picked
+ * more often. After a warmup period it reports, per endpoint and overall, the throughput,
+ * p50/p99/p999/max latency and the error rate, where every non-2xx answer or I/O failure is
+ * an error. RewardService answers 500 for a customer without transactions in the rewards
+ * window, so the default window covers the three years SyntheticDataGenerator spreads over.
+ * <p>
+ * Without --rate each worker sends its next request as soon as the previous one completes
+ * (closed loop). With --rate the requests are paced to that total rate and latency is measured
+ * from the intended send time, so a stalled server is not hidden by fewer requests being sent.
+ * With --requests the measured period ends after that many requests instead of after --duration,
+ * each worker sending its share from its own seeded sequence, so the mix sent is reproducible.
+ * <p>
+ * Run against an application started with rewards.ratelimit.enabled=false:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.infy.customerRewards.LoadDriver -Dexec.args="--concurrency=64 --duration=60s"
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class LoadDriver {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Settings settings;
+    private final List<Long> customerIds;
+    private final SyntheticDataGenerator.ZipfDistribution customerPopularity;
+    private final HttpClient client;
+    private final String authorization;
+
+    /**
+     * Constructs the driver.
+     *
+     * @param settings the load settings
+     * @param customerIds the customers to query, most popular first
+     */
+    public LoadDriver(Settings settings, List<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            throw new IllegalArgumentException("No customer IDs to query");
+        }
+        this.settings = settings;
+        this.customerIds = customerIds;
+        this.customerPopularity = new SyntheticDataGenerator.ZipfDistribution(customerIds.size(), settings.customerSkew);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.authorization = "Bearer " + Jwts.builder()
+                .setSubject("load-driver")
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(settings.jwtSecret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.from(SyntheticDataGenerator.arguments(args));
+        List<Long> ids = new ArrayList<>();
+        for (String line : Files.readAllLines(settings.idsFile)) {
+            if (!line.isBlank()) {
+                ids.add(Long.parseLong(line.trim()));
+            }
+        }
+        System.out.printf("%d workers, %s warmup, %s measured, %s, %d customers%n", settings.concurrency,
+                settings.warmup, settings.requests > 0 ? settings.requests + " requests" : settings.duration,
+                settings.rate > 0 ? settings.rate + " req/s" : "closed loop", ids.size());
+        new LoadDriver(settings, ids).run().print();
+        System.exit(0);
+    }
+
+    /**
+     * Runs the warmup and the measured period.
+     *
+     * @return the measured results
+     * @throws Exception if a worker fails unexpectedly
+     */
+    public Report run() throws Exception {
+        if (!settings.warmup.isZero()) {
+            drive(settings.warmup, 0, 0);
+        }
+        return drive(settings.duration, settings.requests, 1);
+    }
+
+    private Report drive(Duration duration, long requests, int phase) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency);
+        long begin = System.nanoTime();
+        long end = requests > 0 ? Long.MAX_VALUE : begin + duration.toNanos();
+        List<Future<Map<Endpoint, Stats>>> results = new ArrayList<>();
+        for (int w = 0; w < settings.concurrency; w++) {
+            long seed = settings.seed * 31 + w * 7919L + phase;
+            long offset = settings.rate > 0 ? (long) (w * 1e9 / settings.rate) : 0;
+            long count = requests > 0 ? requests / settings.concurrency + (w < requests % settings.concurrency ? 1 : 0)
+                    : Long.MAX_VALUE;
+            results.add(workers.submit(() -> work(new Random(seed), begin + offset, end, count)));
+        }
+        // Every endpoint is reported, also one that happened to get no requests
+        Map<Endpoint, Stats> merged = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            merged.put(endpoint, new Stats());
+        }
+        for (Future<Map<Endpoint, Stats>> result : results) {
+            result.get().forEach((endpoint, stats) -> merged.get(endpoint).add(stats));
+        }
+        long elapsed = System.nanoTime() - begin;
+        workers.shutdown();
+        return new Report(merged, elapsed);
+    }
+
+    private Map<Endpoint, Stats> work(Random random, long firstSend, long end, long count) {
+        Map<Endpoint, Stats> stats = new HashMap<>();
+        long interval = settings.rate > 0 ? (long) (settings.concurrency * 1e9 / settings.rate) : 0;
+        long intended = firstSend;
+        for (long sent = 0; sent < count; sent++) {
+            if (interval > 0) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            long start = interval > 0 ? intended : System.nanoTime();
+            if (start >= end) {
+                return stats;
+            }
+            Endpoint endpoint = pick(random);
+            int status;
+            try {
+                status = client.send(request(endpoint, random), HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return stats;
+            }
+            long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            stats.computeIfAbsent(endpoint, e -> new Stats()).record(latency, status);
+            intended += interval;
+        }
+        return stats;
+    }
+
+    private Endpoint pick(Random random) {
+        int total = settings.rewardsWeight + settings.transactionsWeight + settings.createWeight;
+        int choice = random.nextInt(total);
+        if (choice < settings.rewardsWeight) {
+            return Endpoint.REWARDS;
+        }
+        return choice < settings.rewardsWeight + settings.transactionsWeight ? Endpoint.TRANSACTIONS : Endpoint.CREATE_CUSTOMER;
+    }
+
+    private HttpRequest request(Endpoint endpoint, Random random) {
+        String base = settings.baseUrl + "/api/rewards/customers";
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .timeout(settings.requestTimeout)
+                .header("Authorization", authorization)
+                .header("Accept", "application/json");
+        long customerId = customerIds.get(customerPopularity.sample(random) - 1);
+        switch (endpoint) {
+            case REWARDS -> {
+                LocalDate endDate = settings.rewardsEndDate;
+                LocalDate startDate = endDate.minusMonths(settings.rewardsMonths).plusDays(1);
+                builder.uri(URI.create(base + "/" + customerId + "/rewards?startDate=" + startDate + "&endDate=" + endDate));
+            }
+            case TRANSACTIONS -> builder.uri(URI.create(base + "/" + customerId + "/transactions"));
+            default -> builder.uri(URI.create(base))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(customer(random)));
+        }
+        return builder.build();
+    }
+
+    private static String customer(Random random) {
+        StringBuilder json = new StringBuilder("{\"custName\":\"Load ")
+                .append(random.nextInt(1_000_000))
+                .append("\",\"phoneNo\":\"")
+                .append(6_000_000_000L + random.nextInt(1_000_000_000))
+                .append("\",\"transactions\":[");
+        int transactions = 1 + random.nextInt(5);
+        for (int t = 0; t < transactions; t++) {
+            json.append(t == 0 ? "" : ",")
+                    .append("{\"date\":\"").append(LocalDate.now().minusDays(random.nextInt(365)))
+                    .append("\",\"product\":\"Laptop\",\"amount\":").append(10 + random.nextInt(200)).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Endpoints driven by the load test.
+     */
+    public enum Endpoint {
+        REWARDS, TRANSACTIONS, CREATE_CUSTOMER
+    }
+
+    /**
+     * Latency histogram and error count of one endpoint.
+     */
+    public static class Stats {
+
+        private final Histogram latencies = new Histogram(MAX_LATENCY_MICROS, 3);
+        private final Map<Integer, Long> errors = new LinkedHashMap<>();
+
+        void record(long latencyMicros, int status) {
+            latencies.recordValue(Math.min(Math.max(latencyMicros, 1), MAX_LATENCY_MICROS));
+            if (status < 200 || status > 299) {
+                errors.merge(status, 1L, Long::sum);
+            }
+        }
+
+        void add(Stats other) {
+            latencies.add(other.latencies);
+            other.errors.forEach((status, count) -> errors.merge(status, count, Long::sum));
+        }
+
+        public long getRequests() {
+            return latencies.getTotalCount();
+        }
+
+        public long getErrors() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        /**
+         * Gets the number of failed requests by HTTP status, -1 for I/O failures.
+         * @return the error counts
+         */
+        public Map<Integer, Long> getErrorsByStatus() {
+            return errors;
+        }
+
+        /**
+         * Gets a latency percentile.
+         * @param percentile the percentile, e.g. 99.9
+         * @return the latency in microseconds
+         */
+        public long getLatencyMicros(double percentile) {
+            return latencies.getValueAtPercentile(percentile);
+        }
+    }
+
+    /**
+     * Results of one measured period.
+     *
+     * @param endpoints the results per endpoint
+     * @param elapsedNanos the length of the period
+     */
+    public record Report(Map<Endpoint, Stats> endpoints, long elapsedNanos) {
+
+        /**
+         * Gets the results of all endpoints together.
+         * @return the merged results
+         */
+        public Stats total() {
+            Stats total = new Stats();
+            endpoints.values().forEach(total::add);
+            return total;
+        }
+
+        void print() {
+            System.out.println("endpoint        | requests | req/s    | errors  | p50 ms  | p99 ms  | p999 ms | max ms");
+            endpoints.forEach((endpoint, stats) -> print(endpoint.name(), stats));
+            print("ALL", total());
+            endpoints.forEach((endpoint, stats) -> {
+                if (stats.getErrors() > 0) {
+                    System.out.println(endpoint + " errors by status (-1 = I/O): " + stats.getErrorsByStatus());
+                }
+            });
+        }
+
+        private void print(String name, Stats stats) {
+            long requests = stats.getRequests();
+            System.out.printf("%-15s | %8d | %8.1f | %6.2f%% | %7.2f | %7.2f | %7.2f | %7.2f%n", name, requests,
+                    requests * 1e9 / elapsedNanos, requests == 0 ? 0.0 : stats.getErrors() * 100.0 / requests,
+                    stats.getLatencyMicros(50) / 1000.0, stats.getLatencyMicros(99) / 1000.0,
+                    stats.getLatencyMicros(99.9) / 1000.0, stats.getLatencyMicros(100) / 1000.0);
+        }
+    }
+
+    /**
+     * Load settings; every field can be given on the command line as --name=value.
+     */
+    public static class Settings {
+
+        String baseUrl = "http://localhost:8080";
+        String jwtSecret = "mysecretkeymysecretkeymysecretkey123!";
+        Path idsFile = Path.of("target/loadtest/customer-ids.txt");
+        int concurrency = 32;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(60);
+        long requests;
+        Duration requestTimeout = Duration.ofSeconds(10);
+        double rate;
+        int rewardsWeight = 60;
+        int transactionsWeight = 30;
+        int createWeight = 10;
+        double customerSkew = 0.8;
+        int rewardsMonths = 36;
+        LocalDate rewardsEndDate = LocalDate.now();
+        long seed = 7;
+
+        static Settings from(Map<String, String> values) {
+            Settings settings = new Settings();
+            Map<String, String> remaining = new HashMap<>(values);
+            settings.baseUrl = SyntheticDataGenerator.take(remaining, "base-url", settings.baseUrl);
+            settings.jwtSecret = SyntheticDataGenerator.take(remaining, "jwt-secret", settings.jwtSecret);
+            settings.idsFile = Path.of(SyntheticDataGenerator.take(remaining, "ids-file", settings.idsFile.toString()));
+            settings.concurrency = Integer.parseInt(SyntheticDataGenerator.take(remaining, "concurrency", String.valueOf(settings.concurrency)));
+            settings.warmup = duration(SyntheticDataGenerator.take(remaining, "warmup", "10s"));
+            settings.duration = duration(SyntheticDataGenerator.take(remaining, "duration", "60s"));
+            settings.requests = Long.parseLong(SyntheticDataGenerator.take(remaining, "requests", "0"));
+            settings.requestTimeout = duration(SyntheticDataGenerator.take(remaining, "request-timeout", "10s"));
+            settings.rate = Double.parseDouble(SyntheticDataGenerator.take(remaining, "rate", "0"));
+            settings.rewardsWeight = Integer.parseInt(SyntheticDataGenerator.take(remaining, "rewards-weight", String.valueOf(settings.rewardsWeight)));
+            settings.transactionsWeight = Integer.parseInt(SyntheticDataGenerator.take(remaining, "transactions-weight",
+                    String.valueOf(settings.transactionsWeight)));
+            settings.createWeight = Integer.parseInt(SyntheticDataGenerator.take(remaining, "create-weight", String.valueOf(settings.createWeight)));
+            settings.customerSkew = Double.parseDouble(SyntheticDataGenerator.take(remaining, "customer-skew", String.valueOf(settings.customerSkew)));
+            settings.rewardsMonths = Integer.parseInt(SyntheticDataGenerator.take(remaining, "rewards-months", String.valueOf(settings.rewardsMonths)));
+            settings.rewardsEndDate = LocalDate.parse(SyntheticDataGenerator.take(remaining, "rewards-end-date", settings.rewardsEndDate.toString()));
+            settings.seed = Long.parseLong(SyntheticDataGenerator.take(remaining, "seed", String.valueOf(settings.seed)));
+            if (!remaining.isEmpty()) {
+                throw new IllegalArgumentException("Unknown arguments " + remaining.keySet());
+            }
+            return settings;
+        }
+
+        private static Duration duration(String value) {
+            return value.endsWith("ms") ? Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)))
+                    : Duration.ofSeconds(Long.parseLong(value.replace("s", "")));
+        }
+    }
+}
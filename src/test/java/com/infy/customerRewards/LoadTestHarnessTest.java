@@ -0,0 +1,143 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SyntheticDataGenerator and LoadDriver.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class LoadTestHarnessTest {
+
+    private static final String URL = "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+        new JdbcTemplate(new DriverManagerDataSource(URL, "sa", "")).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testZipfDistribution_FavoursLowRanks() {
+        // Given
+        SyntheticDataGenerator.ZipfDistribution zipf = new SyntheticDataGenerator.ZipfDistribution(1000, 2.0);
+        Random random = new Random(1);
+        int[] counts = new int[1001];
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            counts[zipf.sample(random)]++;
+        }
+
+        // Then - P(1) = 1 / zeta(2) ~ 0.61, P(2) ~ 0.15
+        assertEquals(0.61, counts[1] / 100_000.0, 0.01);
+        assertEquals(0.15, counts[2] / 100_000.0, 0.01);
+        assertEquals(0, counts[0]);
+    }
+
+    @Test
+    void testGenerate_WritesSkewedMultiYearDataReproducibly() throws Exception {
+        // Given
+        createSchema();
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+
+        // When
+        SyntheticDataGenerator.Result result = generate(42);
+
+        // Then
+        assertEquals(2000, result.customers());
+        assertEquals(2000L, jdbc.queryForObject("SELECT COUNT(*) FROM customers", Long.class));
+        assertEquals(result.transactions(), jdbc.queryForObject("SELECT COUNT(*) FROM transactions", Long.class));
+        assertEquals(2000, Files.readAllLines(dir.resolve("ids.txt")).size());
+        Map<String, Object> perCustomer = jdbc.queryForMap("""
+                SELECT MIN(n) AS min_n, MAX(n) AS max_n, SUM(CASE WHEN n = 1 THEN 1 ELSE 0 END) AS singles
+                FROM (SELECT customer_id, COUNT(*) AS n FROM transactions GROUP BY customer_id) t""");
+        assertEquals(1L, ((Number) perCustomer.get("MIN_N")).longValue());
+        assertTrue(((Number) perCustomer.get("MAX_N")).longValue() > 50);
+        assertTrue(((Number) perCustomer.get("SINGLES")).longValue() > 1000);
+        assertEquals(3, jdbc.queryForObject(
+                "SELECT COUNT(DISTINCT EXTRACT(YEAR FROM date)) FROM transactions", Integer.class));
+
+        // When - same seed again
+        jdbc.execute("DELETE FROM transactions");
+        jdbc.execute("DELETE FROM customers");
+        SyntheticDataGenerator.Result again = generate(42);
+
+        // Then
+        assertEquals(result, again);
+    }
+
+    @Test
+    void testLoadDriver_ReportsThroughputPercentilesAndErrorsPerEndpoint() throws Exception {
+        // Given - rewards answers 200, transactions 500, creation 200
+        AtomicInteger authorized = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/rewards/customers", exchange -> {
+            if (exchange.getRequestHeaders().getFirst("Authorization").startsWith("Bearer ")) {
+                authorized.incrementAndGet();
+            }
+            int status = exchange.getRequestURI().getPath().endsWith("/transactions") ? 500 : 200;
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        LoadDriver.Settings settings = LoadDriver.Settings.from(SyntheticDataGenerator.arguments(new String[] {
+                "--base-url=http://127.0.0.1:" + server.getAddress().getPort(),
+                "--concurrency=4", "--warmup=0s", "--requests=400" }));
+
+        // When
+        LoadDriver.Report report = new LoadDriver(settings, List.of(1L, 2L, 3L)).run();
+
+        // Then
+        LoadDriver.Stats rewards = report.endpoints().get(LoadDriver.Endpoint.REWARDS);
+        LoadDriver.Stats transactions = report.endpoints().get(LoadDriver.Endpoint.TRANSACTIONS);
+        assertEquals(Set.of(LoadDriver.Endpoint.values()), report.endpoints().keySet());
+        assertEquals(400, report.total().getRequests());
+        assertTrue(rewards.getRequests() > 0);
+        assertEquals(0, rewards.getErrors());
+        assertEquals(transactions.getRequests(), transactions.getErrors());
+        assertEquals(Map.of(500, transactions.getRequests()), transactions.getErrorsByStatus());
+        assertTrue(report.endpoints().get(LoadDriver.Endpoint.CREATE_CUSTOMER).getRequests() > 0);
+        assertEquals(report.total().getRequests(), authorized.get());
+        assertTrue(rewards.getLatencyMicros(50) > 0);
+        assertTrue(rewards.getLatencyMicros(99.9) >= rewards.getLatencyMicros(99));
+    }
+
+    private SyntheticDataGenerator.Result generate(long seed) throws Exception {
+        return new SyntheticDataGenerator(SyntheticDataGenerator.Settings.from(SyntheticDataGenerator.arguments(new String[] {
+                "--url=" + URL, "--username=sa", "--password=", "--customers=2000", "--years=3",
+                "--end-date=2024-12-31", "--seed=" + seed, "--batch-size=500",
+                "--ids-file=" + dir.resolve("ids.txt") }))).generate();
+    }
+
+    private static void createSchema() {
+        TestEntityManagerFactories.create(new DriverManagerDataSource(URL, "sa", "")).destroy();
+    }
+}
@@ -0,0 +1,233 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infy.customerRewards.entity.Customer;
+import com.infy.customerRewards.entity.Transaction;
+import com.infy.customerRewards.logging.RingBufferAppender;
+import com.infy.customerRewards.logging.SqlLoggingDataSource;
+import com.infy.customerRewards.logging.SqlStatementLogger;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManager;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of the cost of SQL logging on a JPA workload (insert a customer with three
+ * transactions, read it back) on embedded H2:
+ * current - show_sql to stdout plus org.hibernate.SQL DEBUG and bind TRACE to a synchronous file appender,
+ * sampled - 1% of statements and slow ones through the ring-buffer appender to the same file,
+ * off     - no SQL logging.
+ * The first round only warms up the JIT; the second is reported.
+ * Run with: mvn -Pbenchmark test
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Tag("benchmark")
+class LoggingOverheadBenchmarkTest {
+
+    private static final int OPERATIONS_PER_THREAD = 2_000;
+    private static final int WARMUP_OPERATIONS = 2_000;
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    @Test
+    void measureOverhead() throws Exception {
+        Path dir = Files.createTempDirectory("logging-benchmark");
+        Level rootLevel = context.getLogger(Logger.ROOT_LOGGER_NAME).getLevel();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.WARN);
+        PrintStream stdout = System.out;
+        try {
+            int[] threadCounts = { 1, 8 };
+            List<String> rows = new ArrayList<>();
+            for (int round = 0; round < 2; round++) {
+                rows.clear();
+                for (int threads : threadCounts) {
+                    for (String mode : List.of("off", "sampled", "current")) {
+                        rows.add(run(mode, threads, dir.resolve("round" + round)));
+                    }
+                }
+            }
+            System.setOut(stdout);
+            System.out.println("mode    | threads | us/op  | ops/s   | log lines | dropped");
+            rows.forEach(System.out::println);
+        } finally {
+            System.setOut(stdout);
+            context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(rootLevel);
+        }
+    }
+
+    private String run(String mode, int threads, Path dir) throws Exception {
+        Files.createDirectories(dir);
+        Path logFile = dir.resolve(mode + "-" + threads + ".log");
+        FileAppender<ILoggingEvent> file = fileAppender(logFile);
+        RingBufferAppender ring = null;
+        List<Logger> loggers = new ArrayList<>();
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + dir.getFileName() + "-" + mode + threads + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(threads + 2);
+        DataSource dataSource = pool;
+        boolean showSql = false;
+        PrintStream stdout = System.out;
+        PrintStream redirected = null;
+        switch (mode) {
+            case "current" -> {
+                showSql = true;
+                redirected = new PrintStream(new FileOutputStream(logFile.resolveSibling(mode + "-" + threads + ".out").toFile()), true);
+                System.setOut(redirected);
+                loggers.add(attach("org.hibernate.SQL", Level.DEBUG, file));
+                loggers.add(attach("org.hibernate.orm.jdbc.bind", Level.TRACE, file));
+            }
+            case "sampled" -> {
+                ring = new RingBufferAppender();
+                ring.setContext(context);
+                ring.setName("benchmark");
+                ring.addAppender(file);
+                ring.start();
+                loggers.add(attach("rewards.sql", Level.INFO, ring));
+                dataSource = SqlLoggingDataSource.wrap(dataSource, new SqlStatementLogger(0.01, Duration.ofMillis(200)));
+            }
+            default -> {
+            }
+        }
+        LocalContainerEntityManagerFactoryBean factory = entityManagerFactory(dataSource, showSql);
+        try {
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(factory.getObject());
+            TransactionTemplate transactions = new TransactionTemplate(new JpaTransactionManager(factory.getObject()));
+            for (int i = 0; i < WARMUP_OPERATIONS; i++) {
+                operation(entityManager, transactions, i);
+            }
+            long elapsed = measure(threads, entityManager, transactions);
+            long dropped = 0;
+            if (ring != null) {
+                ring.stop();
+                dropped = ring.getDroppedCount();
+            }
+            long operations = (long) threads * OPERATIONS_PER_THREAD;
+            long lines;
+            try (var stream = Files.lines(logFile)) {
+                lines = stream.count();
+            }
+            return String.format("%-7s | %7d | %6.1f | %7.0f | %9d | %7d", mode, threads,
+                    elapsed / 1000.0 * threads / operations, operations * 1e9 / elapsed, lines, dropped);
+        } finally {
+            factory.destroy();
+            pool.close();
+            loggers.forEach(logger -> {
+                logger.detachAndStopAllAppenders();
+                logger.setLevel(null);
+                logger.setAdditive(true);
+            });
+            file.stop();
+            System.setOut(stdout);
+            if (redirected != null) {
+                redirected.close();
+            }
+        }
+    }
+
+    private long measure(int threads, EntityManager entityManager, TransactionTemplate transactions) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    operation(entityManager, transactions, i);
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        return elapsed;
+    }
+
+    private static void operation(EntityManager entityManager, TransactionTemplate transactions, int i) {
+        Long id = transactions.execute(status -> {
+            Customer customer = new Customer();
+            customer.setCustName("customer" + i);
+            List<Transaction> purchases = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                Transaction transaction = new Transaction();
+                transaction.setDate(LocalDate.of(2024, 1 + t, 15));
+                transaction.setProduct("Laptop");
+                transaction.setAmount(120.0 + t);
+                transaction.setCustomer(customer);
+                purchases.add(transaction);
+            }
+            customer.setTransactions(purchases);
+            entityManager.persist(customer);
+            return customer.getId();
+        });
+        Customer found = transactions.execute(status -> entityManager.find(Customer.class, id));
+        assertNotNull(found);
+    }
+
+    private Logger attach(String name, Level level, Appender<ILoggingEvent> appender) {
+        Logger logger = context.getLogger(name);
+        logger.setLevel(level);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return logger;
+    }
+
+    private FileAppender<ILoggingEvent> fileAppender(Path path) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSS} %-5level [%thread] %logger{39} : %msg%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName(path.getFileName().toString());
+        appender.setFile(path.toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private static LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, boolean showSql) {
+        return TestEntityManagerFactories.create(dataSource, Map.of("hibernate.show_sql", showSql));
+    }
+}
@@ -0,0 +1,82 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.infy.customerRewards.utility.RateLimiter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of the rate limiter's own overhead under high concurrency:
+ * many distinct clients (spread over the map) and a single hot client (one contended bucket).
+ * Run with: mvn -Pbenchmark test
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Tag("benchmark")
+class RateLimiterBenchmarkTest {
+
+    private static final int OPERATIONS_PER_THREAD = 2_000_000;
+    private static final int CLIENTS = 10_000;
+
+    @Test
+    void measureOverhead() throws Exception {
+        int[] threadCounts = { 1, 4, Runtime.getRuntime().availableProcessors() * 2 };
+        System.out.println("scenario    | threads | ns/op  | Mops/s");
+        for (int threads : threadCounts) {
+            report("many-keys", threads, run(threads, false));
+            report("hot-key", threads, run(threads, true));
+        }
+    }
+
+    private static void report(String scenario, int threads, long elapsedNanos) {
+        long operations = (long) threads * OPERATIONS_PER_THREAD;
+        System.out.printf("%-11s | %7d | %6.1f | %6.2f%n", scenario, threads,
+                (double) elapsedNanos * threads / operations, operations * 1000.0 / elapsedNanos);
+    }
+
+    private static long run(int threads, boolean hotKey) throws Exception {
+        RateLimiter limiter = new RateLimiter(1_000, 1_000_000);
+        String[] clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "client-" + i;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 7919;
+            results.add(pool.submit(() -> {
+                start.await();
+                long allowed = 0;
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    String client = hotKey ? clients[0] : clients[(offset + i) % CLIENTS];
+                    if (limiter.tryAcquire(client, System.nanoTime()).allowed()) {
+                        allowed++;
+                    }
+                }
+                return allowed;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        long allowed = 0;
+        for (Future<Long> result : results) {
+            allowed += result.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        assertTrue(allowed > 0);
+        return elapsed;
+    }
+}
@@ -0,0 +1,122 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infy.customerRewards.repository.JdbcTransactionReadRepository;
+import com.infy.customerRewards.repository.TransactionRepository;
+import com.infy.customerRewards.utility.RewardCalculator;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of the rewards read path for one customer with 1k, 10k and 100k transactions:
+ * JPA entities mapped to DTOs against plain JDBC rows mapped straight to DTOs, each in a
+ * read-only transaction as the service runs them, and the monthly sums of the summary view on
+ * each engine. Reports time and heap allocated per call.
+ * Run with: mvn -Pbenchmark test
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Tag("benchmark")
+class ReadEngineBenchmarkTest {
+
+    private static final int[] SIZES = { 1_000, 10_000, 100_000 };
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    @Test
+    void measureReadEngines() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:read-engine;DB_CLOSE_DELAY=-1", "sa", "");
+        LocalContainerEntityManagerFactoryBean entityManagerFactory = TestEntityManagerFactories.create(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        TransactionTemplate readOnly = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory.getObject()));
+        readOnly.setReadOnly(true);
+        TransactionRepository repository = TestEntityManagerFactories.repository(entityManagerFactory, TransactionRepository.class);
+        RewardCalculator rewardCalculator = new RewardCalculator(new ModelMapper());
+        JdbcTransactionReadRepository jdbcReads = new JdbcTransactionReadRepository(dataSource, rewardCalculator, 1000);
+
+        System.out.println("   rows | jpa ms/call | jdbc ms/call | jpa KB/call | jdbc KB/call"
+                + " | jpa summary ms | jdbc summary ms | summary KB");
+        long customerId = 0;
+        for (int size : SIZES) {
+            populate(jdbc, ++customerId, size);
+            long customer = customerId;
+            Supplier<RewardCalculator.RewardCalculationResult> jpa = () -> readOnly.execute(status ->
+                    rewardCalculator.calculateRewards(repository.findByCustomerIdAndDateBetween(customer, FROM, TO)));
+            Supplier<RewardCalculator.RewardCalculationResult> plain = () -> readOnly.execute(status ->
+                    rewardCalculator.summarize(jdbcReads.findByCustomerIdAndDateBetween(customer, FROM, TO)));
+            Supplier<RewardCalculator.RewardCalculationResult> jpaSummary = () -> readOnly.execute(status -> {
+                Map<String, Integer> monthlyRewards = new HashMap<>();
+                for (TransactionRepository.MonthlyPoints month : repository.findMonthlyPoints(customer, FROM, TO,
+                        RewardCalculator.RULE_VERSION)) {
+                    monthlyRewards.put(YearMonth.of(month.getYear(), month.getMonth()).toString(),
+                            month.getPoints().intValue());
+                }
+                return rewardCalculator.summarizeMonths(monthlyRewards);
+            });
+            Supplier<RewardCalculator.RewardCalculationResult> jdbcSummary = () -> readOnly.execute(status ->
+                    rewardCalculator.summarizeMonths(jdbcReads.findMonthlyRewards(customer, FROM, TO)));
+            assertEquals(jpa.get().totalRewards(), plain.get().totalRewards());
+            assertEquals(jpa.get().monthlyRewards(), jpaSummary.get().monthlyRewards());
+            assertEquals(jpa.get().monthlyRewards(), jdbcSummary.get().monthlyRewards());
+            int rounds = Math.max(5, 200_000 / size);
+            double[] jpaCost = measure(jpa, rounds);
+            double[] jdbcCost = measure(plain, rounds);
+            double[] jpaSummaryCost = measure(jpaSummary, rounds);
+            double[] jdbcSummaryCost = measure(jdbcSummary, rounds);
+            System.out.printf("%7d | %11.2f | %12.2f | %11.0f | %12.0f | %14.2f | %15.2f | %10.0f%n",
+                    size, jpaCost[0], jdbcCost[0], jpaCost[1], jdbcCost[1], jpaSummaryCost[0], jdbcSummaryCost[0],
+                    jdbcSummaryCost[1]);
+        }
+        entityManagerFactory.destroy();
+    }
+
+    /** Milliseconds and kilobytes allocated per call, after as many warm-up calls. */
+    private static double[] measure(Supplier<RewardCalculator.RewardCalculationResult> call, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            call.get();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long begin = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            assertNotNull(call.get());
+        }
+        long elapsed = System.nanoTime() - begin;
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        return new double[] { elapsed / 1e6 / rounds, allocated / 1024.0 / rounds };
+    }
+
+    private static void populate(JdbcTemplate jdbc, long customerId, int rows) {
+        jdbc.update("INSERT INTO customers (id, cust_name) VALUES (?, ?)", customerId, "customer-" + customerId);
+        List<Object[]> batch = new ArrayList<>(rows);
+        for (int t = 0; t < rows; t++) {
+            double amount = 20 + (t * 37 % 300);
+            batch.add(new Object[] { customerId * 1_000_000 + t, customerId, Date.valueOf(FROM.plusDays(t % 365)),
+                    "Product-" + (t % 40), amount, amount > 100 ? (int) ((amount - 100) * 2 + 50)
+                    : Math.max(0, (int) amount - 50), RewardCalculator.RULE_VERSION });
+        }
+        jdbc.batchUpdate("INSERT INTO transactions (id, customer_id, date, product, amount, reward_points, "
+                + "rule_version) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+}
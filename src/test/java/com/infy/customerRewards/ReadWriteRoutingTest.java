@@ -0,0 +1,130 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infy.customerRewards.datasource.DataSourceRoutingConfig;
+import com.infy.customerRewards.datasource.ReadYourWritesTracker;
+import com.infy.customerRewards.datasource.ReplicaPool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for read/write datasource routing, using two embedded H2 databases
+ * as primary and replica. Each database holds a marker row naming itself.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class ReadWriteRoutingTest {
+
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = embedded("primary");
+        replica = embedded("replica");
+    }
+
+    @Test
+    void testReadOnlyTransaction_GoesToReplica() {
+        Routed routed = routed(List.of(replica), Duration.ZERO);
+
+        assertEquals("replica", routed.read(null));
+    }
+
+    @Test
+    void testReadWriteTransaction_StaysOnPrimary() {
+        Routed routed = routed(List.of(replica), Duration.ZERO);
+
+        assertEquals("primary", routed.write());
+    }
+
+    @Test
+    void testRecentWrite_PinsCustomerReadsToPrimary() {
+        Routed routed = routed(List.of(replica), Duration.ofMinutes(1));
+        routed.tracker().recordWrite(1L);
+
+        assertEquals("primary", routed.read(1L));
+        assertEquals("replica", routed.read(2L));
+        assertEquals("replica", routed.read(null));
+    }
+
+    @Test
+    void testUnhealthyReplica_FallsBackToPrimary() {
+        ReplicaPool pool = new ReplicaPool(List.of(new FailingDataSource()));
+        Routed routed = new Routed(DataSourceRoutingConfig.routingDataSource(primary, pool),
+                new ReadYourWritesTracker(Duration.ZERO));
+
+        assertEquals("primary", routed.read(null));
+        assertEquals(0, pool.healthyCount());
+    }
+
+    @Test
+    void testRoundRobinAcrossReplicas() {
+        DataSource second = embedded("replica2");
+        Routed routed = routed(List.of(replica, second), Duration.ZERO);
+
+        assertNotEquals(routed.read(null), routed.read(null));
+    }
+
+    private Routed routed(List<DataSource> replicas, Duration window) {
+        return new Routed(DataSourceRoutingConfig.routingDataSource(primary, new ReplicaPool(replicas)),
+                new ReadYourWritesTracker(window));
+    }
+
+    private static DataSource embedded(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(20))");
+        jdbc.execute("DELETE FROM marker");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private record Routed(DataSource dataSource, ReadYourWritesTracker tracker) {
+
+        String read(Long customerId) {
+            TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            template.setReadOnly(true);
+            return template.execute(status -> {
+                tracker.routeReads(customerId);
+                return new JdbcTemplate(dataSource).queryForObject("SELECT name FROM marker", String.class);
+            });
+        }
+
+        String write() {
+            TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            return template.execute(status ->
+                    new JdbcTemplate(dataSource).queryForObject("SELECT name FROM marker", String.class));
+        }
+    }
+
+    private static class FailingDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            throw new SQLException("replica down");
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("replica down");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Test;
+
+import com.infy.customerRewards.ingest.IngestProperties;
+import com.infy.customerRewards.ingest.IngestRecord;
+import com.infy.customerRewards.ingest.RecentKeys;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RecentKeys.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class RecentKeysTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testPutIfAbsent_ReturnsRememberedRecordForSameKey() {
+        // Given
+        RecentKeys keys = recentKeys(100, Duration.ofHours(1));
+        IngestRecord first = record(1, 10, "order-7");
+
+        // When
+        IngestRecord added = keys.putIfAbsent(first);
+        IngestRecord retried = keys.putIfAbsent(record(2, 10, "order-7"));
+
+        // Then
+        assertNull(added);
+        assertEquals(first, retried);
+        assertNull(keys.putIfAbsent(record(3, 11, "order-7")));
+        assertEquals(first, keys.get(10, "order-7"));
+        assertEquals(1.0, registry.get("rewards.ingest.recent-keys.hits").counter().count());
+    }
+
+    @Test
+    void testRemove_ForgetsOnlyTheSameRecord() {
+        // Given
+        RecentKeys keys = recentKeys(100, Duration.ofHours(1));
+        IngestRecord first = record(1, 10, "order-7");
+        keys.put(first);
+
+        // When
+        keys.remove(record(2, 10, "order-7"));
+        IngestRecord kept = keys.get(10, "order-7");
+        keys.remove(first);
+
+        // Then
+        assertEquals(first, kept);
+        assertNull(keys.get(10, "order-7"));
+    }
+
+    @Test
+    void testSize_BoundedByDroppingOldestGeneration() {
+        // Given - two generations of two keys each
+        RecentKeys keys = recentKeys(4, Duration.ofHours(1));
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            keys.put(record(i, 10, "order-" + i));
+        }
+
+        // Then
+        assertTrue(keys.size() <= 4);
+        assertNotNull(keys.get(10, "order-9"));
+        assertNull(keys.get(10, "order-0"));
+    }
+
+    @Test
+    void testGet_ForgetsKeysAfterRetention() {
+        // Given
+        RecentKeys keys = recentKeys(100, Duration.ofMinutes(10));
+        keys.put(record(1, 10, "order-7"));
+
+        // When
+        clock.addAndGet(Duration.ofMinutes(6).toNanos());
+        IngestRecord halfway = keys.get(10, "order-7");
+        clock.addAndGet(Duration.ofMinutes(6).toNanos());
+        IngestRecord expired = keys.get(10, "order-7");
+
+        // Then
+        assertNotNull(halfway);
+        assertNull(expired);
+    }
+
+    private RecentKeys recentKeys(int size, Duration retention) {
+        IngestProperties properties = new IngestProperties();
+        properties.setRecentKeys(size);
+        properties.setRecentKeysRetention(retention);
+        return new RecentKeys(properties, registry, clock::get);
+    }
+
+    private static IngestRecord record(long id, long customerId, String idempotencyKey) {
+        return new IngestRecord(id, customerId, LocalDate.of(2024, 1, 15), "Laptop", 120.0, 90, 1, null, idempotencyKey);
+    }
+}
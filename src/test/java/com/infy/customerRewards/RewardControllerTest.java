@@ -6,24 +6,35 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infy.customerRewards.config.RequestExecutors;
+import com.infy.customerRewards.config.WebConfig;
 import com.infy.customerRewards.controller.RewardController;
 import com.infy.customerRewards.dto.CustomerDTO;
 import com.infy.customerRewards.dto.CustomerResponseDTO;
 import com.infy.customerRewards.dto.RewardResponseDTO;
+import com.infy.customerRewards.dto.RewardView;
 import com.infy.customerRewards.dto.TransactionDTO;
+import com.infy.customerRewards.exception.CustomException;
 import com.infy.customerRewards.service.RewardService;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -40,6 +51,9 @@ class RewardControllerTest {
     @Mock
     private RewardService rewardService;
 
+    @Spy
+    private RequestExecutors requestExecutors = new RequestExecutors(false, null, null);
+
     @InjectMocks
     private RewardController rewardController;
 
@@ -124,6 +138,37 @@ class RewardControllerTest {
         verify(rewardService, times(1)).createCustomer(invalidCustomerDTO);
     }
 
+    /**
+     * Test ingestion of one transaction for an existing customer
+     */
+    @Test
+    void testAddTransaction_Success() {
+        // Given
+        when(rewardService.addTransaction(1L, null, transactionDTO)).thenReturn(transactionDTO);
+
+        // When
+        ResponseEntity<TransactionDTO> response = rewardController.addTransaction(1L, null, transactionDTO).join();
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1L, response.getBody().getId());
+        verify(rewardService, times(1)).addTransaction(1L, null, transactionDTO);
+    }
+
+    @Test
+    void testReleaseTransaction_Success() {
+        // Given
+        when(rewardService.releaseTransaction(1L, 1L)).thenReturn(transactionDTO);
+
+        // When
+        ResponseEntity<TransactionDTO> response = rewardController.releaseTransaction(1L, 1L).join();
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(150, response.getBody().getRewardPoints());
+        verify(rewardService).releaseTransaction(1L, 1L);
+    }
+
     // =============================================
     // GET CUSTOMER TRANSACTIONS TESTS
     // =============================================
@@ -138,7 +183,7 @@ class RewardControllerTest {
         when(rewardService.getCustomerTransactions(1L)).thenReturn(transactions);
 
         // When
-        ResponseEntity<List<TransactionDTO>> response = rewardController.getCustomerTransactions(1L);
+        ResponseEntity<List<TransactionDTO>> response = rewardController.getCustomerTransactions(1L).join();
 
         // Then
         assertNotNull(response);
@@ -159,7 +204,7 @@ class RewardControllerTest {
         when(rewardService.getCustomerTransactions(1L)).thenReturn(Arrays.asList());
 
         // When
-        ResponseEntity<List<TransactionDTO>> response = rewardController.getCustomerTransactions(1L);
+        ResponseEntity<List<TransactionDTO>> response = rewardController.getCustomerTransactions(1L).join();
 
         // Then
         assertNotNull(response);
@@ -217,10 +262,10 @@ class RewardControllerTest {
         LocalDate startDate = LocalDate.of(2024, 1, 1);
         LocalDate endDate = LocalDate.of(2024, 12, 31);
         
-        when(rewardService.getRewardsForCustomer(1L, startDate, endDate)).thenReturn(rewardResponseDTO);
+        when(rewardService.getRewardsForCustomer(1L, startDate, endDate, RewardView.FULL)).thenReturn(rewardResponseDTO);
 
         // When
-        ResponseEntity<RewardResponseDTO> response = rewardController.getRewardsForCustomer(1L, startDate, endDate);
+        ResponseEntity<RewardResponseDTO> response = rewardController.getRewardsForCustomer(1L, startDate, endDate, null, null).join();
 
         // Then
         assertNotNull(response);
@@ -229,7 +274,82 @@ class RewardControllerTest {
         assertEquals(1L, response.getBody().getCustomerId());
         assertEquals(150, response.getBody().getTotalRewards());
         
-        verify(rewardService, times(1)).getRewardsForCustomer(1L, startDate, endDate);
+        verify(rewardService, times(1)).getRewardsForCustomer(1L, startDate, endDate, RewardView.FULL);
+    }
+
+    /**
+     * Test that view=summary and fields= reach the service as the matching field sets
+     */
+    @Test
+    void testGetRewardsForCustomer_SummaryViewAndFieldList() {
+        // Given
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 12, 31);
+        when(rewardService.getRewardsForCustomer(eq(1L), eq(startDate), eq(endDate), any(RewardView.class)))
+                .thenReturn(rewardResponseDTO);
+
+        // When
+        rewardController.getRewardsForCustomer(1L, startDate, endDate, "Summary", null).join();
+        rewardController.getRewardsForCustomer(1L, startDate, endDate, null, "totalRewards, monthlyRewards").join();
+
+        // Then
+        verify(rewardService).getRewardsForCustomer(1L, startDate, endDate, RewardView.SUMMARY);
+        verify(rewardService).getRewardsForCustomer(1L, startDate, endDate,
+                new RewardView(Set.of("totalRewards", "monthlyRewards")));
+        assertFalse(RewardView.SUMMARY.needsTransactions());
+        assertTrue(RewardView.of(null, "transactions").needsTransactions());
+    }
+
+    /**
+     * Test that only fields left out of the view are dropped, while the full view keeps its nulls
+     */
+    @Test
+    void testGetRewardsForCustomer_ResponseWritesTheFieldsOfItsView() throws Exception {
+        // Given
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new WebConfig(null).rewardViewCustomizer().customize(builder);
+        ObjectMapper mapper = builder.build();
+        rewardResponseDTO.setPhoneNo(null);
+
+        // When
+        JsonNode full = mapper.valueToTree(rewardResponseDTO);
+        rewardResponseDTO.setView(RewardView.FULL);
+        JsonNode fullView = mapper.valueToTree(rewardResponseDTO);
+        rewardResponseDTO.setView(RewardView.of(null, "customerId,phoneNo,totalRewards"));
+        JsonNode fields = mapper.valueToTree(rewardResponseDTO);
+
+        // Then
+        assertEquals(List.of("customerId", "custName", "phoneNo", "transactions", "monthlyRewards", "totalRewards",
+                "timeFrame"), fieldNames(full));
+        assertTrue(full.get("phoneNo").isNull());
+        assertEquals(full, fullView);
+        assertEquals(List.of("customerId", "phoneNo", "totalRewards"), fieldNames(fields));
+        assertTrue(fields.get("phoneNo").isNull());
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    /**
+     * Test that an unknown view or field is rejected before the service is called
+     */
+    @Test
+    void testGetRewardsForCustomer_UnknownViewOrField() {
+        // Given
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 12, 31);
+
+        // When & Then
+        assertThrows(CustomException.class,
+                () -> rewardController.getRewardsForCustomer(1L, startDate, endDate, "compact", null));
+        assertThrows(CustomException.class,
+                () -> rewardController.getRewardsForCustomer(1L, startDate, endDate, null, "totalRewards,points"));
+        assertThrows(CustomException.class,
+                () -> rewardController.getRewardsForCustomer(1L, startDate, endDate, "summary", "totalRewards"));
+        verifyNoInteractions(rewardService);
     }
 
     /**
@@ -241,15 +361,15 @@ class RewardControllerTest {
         LocalDate startDate = LocalDate.of(2024, 12, 31);
         LocalDate endDate = LocalDate.of(2024, 1, 1);
         
-        when(rewardService.getRewardsForCustomer(1L, startDate, endDate))
+        when(rewardService.getRewardsForCustomer(1L, startDate, endDate, RewardView.FULL))
             .thenThrow(new IllegalArgumentException("Start date cannot be after end date"));
 
         // When & Then
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
-            () -> rewardController.getRewardsForCustomer(1L, startDate, endDate));
+            () -> rewardController.getRewardsForCustomer(1L, startDate, endDate, null, null));
         
         assertEquals("Start date cannot be after end date", exception.getMessage());
-        verify(rewardService, times(1)).getRewardsForCustomer(1L, startDate, endDate);
+        verify(rewardService, times(1)).getRewardsForCustomer(1L, startDate, endDate, RewardView.FULL);
     }
 
     /**
@@ -261,15 +381,15 @@ class RewardControllerTest {
         LocalDate startDate = LocalDate.of(2024, 1, 1);
         LocalDate endDate = LocalDate.of(2024, 12, 31);
         
-        when(rewardService.getRewardsForCustomer(999L, startDate, endDate))
+        when(rewardService.getRewardsForCustomer(999L, startDate, endDate, RewardView.FULL))
             .thenThrow(new RuntimeException("Customer not found: 999"));
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, 
-            () -> rewardController.getRewardsForCustomer(999L, startDate, endDate));
+            () -> rewardController.getRewardsForCustomer(999L, startDate, endDate, null, null));
         
         assertEquals("Customer not found: 999", exception.getMessage());
-        verify(rewardService, times(1)).getRewardsForCustomer(999L, startDate, endDate);
+        verify(rewardService, times(1)).getRewardsForCustomer(999L, startDate, endDate, RewardView.FULL);
     }
 
     /**
@@ -281,15 +401,15 @@ class RewardControllerTest {
         LocalDate startDate = LocalDate.of(2024, 1, 1);
         LocalDate endDate = LocalDate.of(2024, 12, 31);
         
-        when(rewardService.getRewardsForCustomer(1L, startDate, endDate))
+        when(rewardService.getRewardsForCustomer(1L, startDate, endDate, RewardView.FULL))
             .thenThrow(new RuntimeException("No transactions found"));
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, 
-            () -> rewardController.getRewardsForCustomer(1L, startDate, endDate));
+            () -> rewardController.getRewardsForCustomer(1L, startDate, endDate, null, null));
         
         assertEquals("No transactions found", exception.getMessage());
-        verify(rewardService, times(1)).getRewardsForCustomer(1L, startDate, endDate);
+        verify(rewardService, times(1)).getRewardsForCustomer(1L, startDate, endDate, RewardView.FULL);
     }
 
     /**
@@ -298,15 +418,15 @@ class RewardControllerTest {
     @Test
     void testGetRewardsForCustomer_NullDates() {
         // Given
-        when(rewardService.getRewardsForCustomer(1L, null, null))
+        when(rewardService.getRewardsForCustomer(1L, null, null, RewardView.FULL))
             .thenThrow(new IllegalArgumentException("Start date and end date cannot be null"));
 
         // When & Then
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
-            () -> rewardController.getRewardsForCustomer(1L, null, null));
+            () -> rewardController.getRewardsForCustomer(1L, null, null, null, null));
         
         assertEquals("Start date and end date cannot be null", exception.getMessage());
-        verify(rewardService, times(1)).getRewardsForCustomer(1L, null, null);
+        verify(rewardService, times(1)).getRewardsForCustomer(1L, null, null, RewardView.FULL);
     }
 
     /**
@@ -316,17 +436,17 @@ class RewardControllerTest {
     void testGetRewardsForCustomer_SameStartAndEndDate() {
         // Given
         LocalDate date = LocalDate.of(2024, 1, 15);
-        when(rewardService.getRewardsForCustomer(1L, date, date)).thenReturn(rewardResponseDTO);
+        when(rewardService.getRewardsForCustomer(1L, date, date, RewardView.FULL)).thenReturn(rewardResponseDTO);
 
         // When
-        ResponseEntity<RewardResponseDTO> response = rewardController.getRewardsForCustomer(1L, date, date);
+        ResponseEntity<RewardResponseDTO> response = rewardController.getRewardsForCustomer(1L, date, date, null, null).join();
 
         // Then
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         
-        verify(rewardService, times(1)).getRewardsForCustomer(1L, date, date);
+        verify(rewardService, times(1)).getRewardsForCustomer(1L, date, date, RewardView.FULL);
     }
 
     // =============================================
@@ -343,7 +463,7 @@ class RewardControllerTest {
         when(rewardService.getCustomerTransactions(maxCustomerId)).thenReturn(Arrays.asList(transactionDTO));
 
         // When
-        ResponseEntity<List<TransactionDTO>> response = rewardController.getCustomerTransactions(maxCustomerId);
+        ResponseEntity<List<TransactionDTO>> response = rewardController.getCustomerTransactions(maxCustomerId).join();
 
         // Then
         assertNotNull(response);
@@ -363,7 +483,7 @@ class RewardControllerTest {
         when(rewardService.getCustomerTransactions(minCustomerId)).thenReturn(Arrays.asList(transactionDTO));
 
         // When
-        ResponseEntity<List<TransactionDTO>> response = rewardController.getCustomerTransactions(minCustomerId);
+        ResponseEntity<List<TransactionDTO>> response = rewardController.getCustomerTransactions(minCustomerId).join();
 
         // Then
         assertNotNull(response);
@@ -382,15 +502,15 @@ class RewardControllerTest {
         LocalDate startDate = LocalDate.of(2024, 1, 1);
         LocalDate endDate = LocalDate.of(2024, 12, 31);
         
-        when(rewardService.getRewardsForCustomer(1L, startDate, endDate)).thenReturn(rewardResponseDTO);
+        when(rewardService.getRewardsForCustomer(1L, startDate, endDate, RewardView.FULL)).thenReturn(rewardResponseDTO);
 
         // When
-        ResponseEntity<RewardResponseDTO> response = rewardController.getRewardsForCustomer(1L, startDate, endDate);
+        ResponseEntity<RewardResponseDTO> response = rewardController.getRewardsForCustomer(1L, startDate, endDate, null, null).join();
 
         // Then
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         
-        verify(rewardService, times(1)).getRewardsForCustomer(1L, startDate, endDate);
+        verify(rewardService, times(1)).getRewardsForCustomer(1L, startDate, endDate, RewardView.FULL);
     }
 }
@@ -0,0 +1,117 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.infy.customerRewards.dto.MonthlyRewardDTO;
+import com.infy.customerRewards.dto.RewardResponseDTO;
+import com.infy.customerRewards.dto.TransactionDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark comparing payload size and serialize/deserialize time of a
+ * 10k-transaction RewardResponseDTO in JSON, CBOR and Smile.
+ * Run with: mvn -Pbenchmark test
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Tag("benchmark")
+class RewardPayloadBenchmarkTest {
+
+    private static final int TRANSACTIONS = 10_000;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 100;
+
+    private static RewardResponseDTO response;
+
+    @BeforeAll
+    static void setUp() {
+        List<TransactionDTO> transactions = new ArrayList<>(TRANSACTIONS);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            double amount = 10 + (i % 250) + 0.25;
+            transactions.add(TransactionDTO.builder()
+                    .id((long) i)
+                    .date(start.plusDays(i % 365))
+                    .product("Product-" + (i % 40))
+                    .amount(amount)
+                    .rewardPoints(amount > 100 ? (int) ((amount - 100) * 2 + 50) : Math.max(0, (int) (amount - 50)))
+                    .build());
+        }
+        List<MonthlyRewardDTO> monthly = new ArrayList<>();
+        for (int m = 1; m <= 12; m++) {
+            monthly.add(MonthlyRewardDTO.builder().year(2024).month("Month-" + m).points(m * 1000).build());
+        }
+        response = RewardResponseDTO.builder()
+                .customerId(1L)
+                .custName("John Doe")
+                .phoneNo("encoded_phone")
+                .transactions(transactions)
+                .monthlyRewards(monthly)
+                .totalRewards(123_456)
+                .timeFrame(Map.of("startDate", "2024-01-01", "endDate", "2024-12-31"))
+                .build();
+    }
+
+    @Test
+    void compareFormats() throws Exception {
+        Result json = measure("JSON", configure(new ObjectMapper()));
+        Result cbor = measure("CBOR", configure(new ObjectMapper(new CBORFactory())));
+        Result smile = measure("Smile", configure(new ObjectMapper(new SmileFactory())));
+
+        System.out.println("format | bytes | serialize (ms) | deserialize (ms)");
+        for (Result result : List.of(json, cbor, smile)) {
+            System.out.printf("%-6s | %7d | %14.3f | %16.3f%n",
+                    result.format(), result.bytes(), result.serializeMillis(), result.deserializeMillis());
+        }
+
+        assertTrue(cbor.bytes() < json.bytes());
+        assertTrue(smile.bytes() < json.bytes());
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static Result measure(String format, ObjectMapper mapper) throws Exception {
+        byte[] payload = mapper.writeValueAsBytes(response);
+        RewardResponseDTO decoded = mapper.readValue(payload, RewardResponseDTO.class);
+        assertEquals(TRANSACTIONS, decoded.getTransactions().size());
+        assertEquals(response.getMonthlyRewards().size(), decoded.getMonthlyRewards().size());
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(response), RewardResponseDTO.class);
+        }
+
+        long serializeNanos = 0;
+        long deserializeNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            byte[] bytes = mapper.writeValueAsBytes(response);
+            long mid = System.nanoTime();
+            mapper.readValue(bytes, RewardResponseDTO.class);
+            long end = System.nanoTime();
+            serializeNanos += mid - start;
+            deserializeNanos += end - mid;
+        }
+        return new Result(format, payload.length,
+                serializeNanos / 1e6 / MEASURED_ROUNDS, deserializeNanos / 1e6 / MEASURED_ROUNDS);
+    }
+
+    private record Result(String format, int bytes, double serializeMillis, double deserializeMillis) {}
+}
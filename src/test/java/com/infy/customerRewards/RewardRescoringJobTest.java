@@ -0,0 +1,267 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infy.customerRewards.datasource.ShardMap;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.dto.RescoringStatusDTO;
+import com.infy.customerRewards.entity.Customer;
+import com.infy.customerRewards.entity.Transaction;
+import com.infy.customerRewards.job.RescoringProperties;
+import com.infy.customerRewards.job.RewardRescoringJob;
+import com.infy.customerRewards.repository.TransactionRepository;
+import com.infy.customerRewards.utility.RewardCalculator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.persistence.EntityManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for stored reward points and RewardRescoringJob, on an embedded H2 database.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class RewardRescoringJobTest {
+
+    private final RewardCalculator rewardCalculator = new RewardCalculator(new ModelMapper());
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:rescoring;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    private final RescoringProperties properties = new RescoringProperties();
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private JpaTransactionManager transactionManager;
+    private TransactionTemplate transactions;
+    private TransactionRepository repository;
+    private RewardRescoringJob job;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory = TestEntityManagerFactories.create(dataSource);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory.getObject());
+        transactionManager = new JpaTransactionManager(entityManagerFactory.getObject());
+        transactions = new TransactionTemplate(transactionManager);
+        repository = new JpaRepositoryFactory(entityManager).getRepository(TransactionRepository.class);
+        properties.setBatchSize(7);
+        properties.setDirectory(directory.toString());
+        job = newJob();
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.close();
+        entityManagerFactory.destroy();
+    }
+
+    @Test
+    void testPointsOf_UsesStoredPointsOnlyForCurrentRuleVersion() {
+        // Given
+        Transaction current = transaction(120.0);
+        rewardCalculator.score(current);
+        current.setRewardPoints(999);
+        Transaction stale = transaction(120.0);
+        stale.setRewardPoints(999);
+        stale.setRuleVersion(RewardCalculator.RULE_VERSION - 1);
+
+        // When & Then
+        assertEquals(999, rewardCalculator.pointsOf(current));
+        assertEquals(90, rewardCalculator.pointsOf(stale));
+        assertEquals(90, rewardCalculator.pointsOf(transaction(120.0)));
+    }
+
+    @Test
+    void testRescoreAll_ScoresUnscoredAndOlderVersionRowsInBatches() {
+        // Given - 20 unscored rows, 5 from an older rule version, 3 already current
+        Long customerId = insertCustomer();
+        for (int i = 0; i < 28; i++) {
+            jdbc.update("INSERT INTO transactions (id, customer_id, date, product, amount, reward_points, rule_version)"
+                    + " VALUES (?, ?, ?, 'Laptop', ?, ?, ?)", 1000 + i, customerId, LocalDate.of(2024, 1, 1),
+                    60.0 + i, i < 20 ? null : 0, i < 20 ? null : i < 25 ? RewardCalculator.RULE_VERSION - 1 : RewardCalculator.RULE_VERSION);
+        }
+
+        // When
+        long rescored = job.rescoreAll();
+
+        // Then
+        assertEquals(25, rescored);
+        assertEquals(25.0, registry.get("rewards.rescoring.rows").counter().count());
+        List<Map<String, Object>> rows = jdbc.queryForList("SELECT amount, reward_points, rule_version FROM transactions ORDER BY id");
+        for (int i = 0; i < 28; i++) {
+            Map<String, Object> row = rows.get(i);
+            int expected = i < 25 ? rewardCalculator.calculatePoints(60.0 + i) : 0;
+            assertEquals(expected, ((Number) row.get("REWARD_POINTS")).intValue(), "row " + i);
+            assertEquals(RewardCalculator.RULE_VERSION, ((Number) row.get("RULE_VERSION")).intValue());
+        }
+        assertEquals(0, job.rescoreAll());
+    }
+
+    @Test
+    void testRescoreAll_LeavesRowsFromANewerRuleVersionAlone() {
+        // Given
+        Long customerId = insertCustomer();
+        jdbc.update("INSERT INTO transactions (id, customer_id, date, product, amount, reward_points, rule_version)"
+                + " VALUES (1, ?, ?, 'Laptop', 120.0, 7, ?)", customerId, LocalDate.of(2024, 1, 1),
+                RewardCalculator.RULE_VERSION + 1);
+
+        // When & Then
+        assertEquals(0, job.rescoreAll());
+        assertEquals(7, jdbc.queryForObject("SELECT reward_points FROM transactions", Integer.class));
+    }
+
+    @Test
+    void testRescoreAll_WalksEveryCustomerRangeOnParallelWorkers() {
+        // Given - 40 customers with 3 stale rows each, split into 4 ranges on 3 workers
+        job.close();
+        properties.setRangesPerShard(4);
+        properties.setWorkers(3);
+        job = newJob();
+        for (int c = 0; c < 40; c++) {
+            insertStaleRows(insertCustomer(), 3);
+        }
+
+        // When
+        long rescored = job.rescoreAll();
+
+        // Then
+        RescoringStatusDTO status = job.status();
+        assertEquals(120, rescored);
+        assertEquals("COMPLETED", status.getState());
+        assertEquals(4, status.getRanges());
+        assertEquals(4, status.getRangesCompleted());
+        assertEquals(120, status.getRows());
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM transactions WHERE rule_version IS NULL",
+                Integer.class));
+    }
+
+    @Test
+    void testPause_CheckpointSurvivesRestartAndResumeFinishesThePass() throws InterruptedException {
+        // Given - 4 batches of 7 rows at 7 rows a second
+        properties.setRowsPerSecond(7);
+        job.close();
+        job = newJob();
+        insertStaleRows(insertCustomer(), 28);
+        Thread run = new Thread(job::rescoreAll);
+        run.start();
+        awaitRows(7);
+
+        // When - paused after its first batch, then restarted
+        job.pause();
+        run.join(10_000);
+        long beforeRestart = job.status().getRows();
+        job.close();
+        properties.setRowsPerSecond(0);
+        job = newJob();
+
+        // Then
+        assertTrue(beforeRestart > 0 && beforeRestart < 28, "rows before restart: " + beforeRestart);
+        assertEquals("PAUSED", job.status().getState());
+        assertEquals(beforeRestart, job.status().getRows());
+        assertEquals(0, job.rescoreAll());
+        job.resume();
+        awaitRows(28);
+        assertEquals(28, job.status().getRows());
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM transactions WHERE rule_version IS NULL",
+                Integer.class));
+    }
+
+    @Test
+    void testRescoreAll_StandsByWhileAnotherInstanceHoldsTheLease() {
+        // Given
+        insertStaleRows(insertCustomer(), 10);
+        jdbc.update("INSERT INTO job_leases (name, owner, expires_at) VALUES ('rescoring', 'other', ?)",
+                System.currentTimeMillis() + 60_000);
+
+        // When
+        long whileHeld = job.rescoreAll();
+        String heldState = job.status().getState();
+        jdbc.update("UPDATE job_leases SET expires_at = ?", System.currentTimeMillis() - 1);
+        long afterExpiry = job.rescoreAll();
+
+        // Then
+        assertEquals(0, whileHeld);
+        assertEquals("STANDBY", heldState);
+        assertEquals(10, afterExpiry);
+        assertEquals("COMPLETED", job.status().getState());
+        assertEquals(0L, jdbc.queryForObject("SELECT expires_at FROM job_leases", Long.class));
+    }
+
+    @Test
+    void testThrottle_CapsRowsPerSecond() {
+        // Given - 35 rows in batches of 7 at 70 rows a second: the first batch is free
+        job.throttle(70);
+        insertStaleRows(insertCustomer(), 35);
+        long begin = System.nanoTime();
+
+        // When
+        long rescored = job.rescoreAll();
+
+        // Then
+        assertEquals(35, rescored);
+        assertTrue(Duration.ofNanos(System.nanoTime() - begin).toMillis() >= 350);
+        assertEquals(70.0, job.status().getRowsPerSecond());
+    }
+
+    private RewardRescoringJob newJob() {
+        return new RewardRescoringJob(repository, rewardCalculator, new ShardRouter((ShardMap) null), dataSource,
+                transactionManager, properties, registry);
+    }
+
+    private void awaitRows(long rows) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (job.status().getRows() < rows && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void insertStaleRows(Long customerId, int rows) {
+        Long first = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM transactions", Long.class);
+        for (int i = 0; i < rows; i++) {
+            jdbc.update("INSERT INTO transactions (id, customer_id, date, product, amount) VALUES (?, ?, ?, 'Laptop', ?)",
+                    first + i, customerId, LocalDate.of(2024, 1, 1), 60.0 + i);
+        }
+    }
+
+    private Long insertCustomer() {
+        return transactions.execute(status -> {
+            Customer customer = new Customer();
+            customer.setCustName("alice");
+            customer.setTransactions(new ArrayList<>());
+            entityManager.persist(customer);
+            return customer.getId();
+        });
+    }
+
+    private static Transaction transaction(double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setDate(LocalDate.of(2024, 1, 15));
+        transaction.setProduct("Laptop");
+        transaction.setAmount(amount);
+        return transaction;
+    }
+}
@@ -5,27 +5,48 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
 import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.infy.customerRewards.config.VelocityProperties.Action;
+import com.infy.customerRewards.datasource.ReadYourWritesTracker;
+import com.infy.customerRewards.datasource.ShardRouter;
 import com.infy.customerRewards.dto.CustomerDTO;
 import com.infy.customerRewards.dto.CustomerResponseDTO;
 import com.infy.customerRewards.dto.MonthlyRewardDTO;
 import com.infy.customerRewards.dto.RewardResponseDTO;
+import com.infy.customerRewards.dto.RewardView;
 import com.infy.customerRewards.dto.TransactionDTO;
 import com.infy.customerRewards.entity.Customer;
+import com.infy.customerRewards.entity.ReviewStatus;
 import com.infy.customerRewards.entity.Transaction;
+import com.infy.customerRewards.exception.CustomException;
+import com.infy.customerRewards.exception.ResourceNotFoundException;
+import com.infy.customerRewards.ingest.IngestRecord;
+import com.infy.customerRewards.ingest.RecentKeys;
+import com.infy.customerRewards.ingest.TransactionBatchWriter;
+import com.infy.customerRewards.ingest.WriteBehindBuffer;
 import com.infy.customerRewards.repository.CustomerRepository;
+import com.infy.customerRewards.repository.JdbcTransactionReadRepository;
 import com.infy.customerRewards.repository.TransactionRepository;
+import com.infy.customerRewards.search.CustomerNameIndex;
+import com.infy.customerRewards.service.AnalyticsService;
 import com.infy.customerRewards.serviceImpl.RewardServiceImpl;
+import com.infy.customerRewards.utility.CustomerDataVersions;
+import com.infy.customerRewards.utility.IdGenerator;
 import com.infy.customerRewards.utility.RewardCalculator;
+import com.infy.customerRewards.utility.VelocityScorer;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -59,7 +80,33 @@ class RewardServiceImplTest {
     @Mock
     private RewardCalculator rewardCalculator;
 
-    @InjectMocks
+    @Mock
+    private CustomerDataVersions dataVersions;
+
+    @Mock
+    private ReadYourWritesTracker readYourWrites;
+
+    @Mock
+    private ShardRouter shards;
+
+    @Mock
+    private AnalyticsService analytics;
+
+    @Mock
+    private VelocityScorer velocityScorer;
+
+    @Mock
+    private IdGenerator idGenerator;
+
+    @Mock
+    private TransactionBatchWriter transactionWriter;
+
+    @Mock
+    private RecentKeys recentKeys;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private RewardServiceImpl rewardService;
 
     private CustomerDTO customerDTO;
@@ -70,6 +117,8 @@ class RewardServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        rewardService = service(null);
+
         // Setup test data
         transaction = new Transaction();
         transaction.setId(1L);
@@ -89,7 +138,7 @@ class RewardServiceImplTest {
         savedCustomer.setId(1L);
         savedCustomer.setCustName("John Doe");
         savedCustomer.setPhoneNo("encoded_1234567890");
-        savedCustomer.setTransactions(transactions);
+        savedCustomer.setTransactions(new ArrayList<>());
 
         customerDTO = CustomerDTO.builder()
                 .custName("John Doe")
@@ -153,6 +202,61 @@ class RewardServiceImplTest {
         verify(passwordEncoder).encode("1234567890");
         verify(customerRepository).save(any(Customer.class));
         verify(mapper).map(any(Customer.class), eq(CustomerResponseDTO.class));
+        verify(rewardCalculator).score(transaction);
+        verifyNoInteractions(dataVersions);
+        verify(analytics).transactionsWritten(1L, transactions);
+        // Back-dated history falls outside every velocity window
+        verifyNoInteractions(velocityScorer);
+        assertNull(transaction.getReviewStatus());
+        // Persisted without its transactions, which are scored under the assigned ID and then persisted
+        assertTrue(saveCaptor.getValue().getTransactions().isEmpty());
+        verify(transactionRepository).saveAll(transactions);
+        assertEquals(transactions, savedCustomer.getTransactions());
+        assertSame(savedCustomer, transaction.getCustomer());
+    }
+
+    @Test
+    void testCreateCustomer_VelocityHold_MarksTransactionHeld() {
+        // Given
+        transaction.setDate(LocalDate.now());
+        when(mapper.map(customerDTO, Customer.class)).thenReturn(customer);
+        when(velocityScorer.score(anyLong(), anyList(), anyLong())).thenReturn(List.of(Action.HOLD));
+        when(passwordEncoder.encode("1234567890")).thenReturn("encoded_1234567890");
+        when(customerRepository.save(customer)).thenReturn(savedCustomer);
+        when(mapper.map(savedCustomer, CustomerResponseDTO.class)).thenReturn(CustomerResponseDTO.builder().id(1L).build());
+
+        // When
+        rewardService.createCustomer(customerDTO);
+
+        // Then
+        assertEquals(ReviewStatus.HELD, transaction.getReviewStatus());
+        verify(rewardCalculator).score(transaction);
+    }
+
+    @Test
+    void testCreateCustomer_CountsOnlyTransactionsDatedTodayAgainstVelocity() {
+        // Given - three months of history and one purchase made today
+        Transaction today = new Transaction();
+        today.setDate(LocalDate.now());
+        today.setAmount(300.0);
+        Transaction history = new Transaction();
+        history.setDate(LocalDate.now().minusMonths(3));
+        history.setAmount(200.0);
+        customer.setTransactions(new ArrayList<>(List.of(history, today)));
+        when(mapper.map(customerDTO, Customer.class)).thenReturn(customer);
+        when(velocityScorer.score(eq(1L), eq(List.of(300.0)), anyLong())).thenReturn(List.of(Action.HOLD));
+        when(passwordEncoder.encode("1234567890")).thenReturn("encoded_1234567890");
+        when(customerRepository.save(customer)).thenReturn(savedCustomer);
+        when(mapper.map(savedCustomer, CustomerResponseDTO.class)).thenReturn(CustomerResponseDTO.builder().id(1L).build());
+
+        // When
+        rewardService.createCustomer(customerDTO);
+
+        // Then
+        assertNull(history.getReviewStatus());
+        assertEquals(ReviewStatus.HELD, today.getReviewStatus());
+        verify(rewardCalculator).score(history);
+        verify(rewardCalculator).score(today);
     }
 
     @Test
@@ -206,6 +310,202 @@ class RewardServiceImplTest {
         verify(mapper, times(1)).map(customerDTO, Customer.class);
         verify(passwordEncoder, times(1)).encode("1234567890");
         verify(customerRepository, times(1)).save(customer);
+        verify(dataVersions, never()).bump(anyLong());
+        verifyNoInteractions(velocityScorer);
+    }
+
+    // =============================================
+    // ADD TRANSACTION TESTS
+    // =============================================
+
+    @Test
+    void testAddTransaction_Direct_WritesScoredRecord() {
+        // Given
+        TransactionDTO request = TransactionDTO.builder().date(LocalDate.of(2024, 1, 15)).product("Laptop").amount(150.0).build();
+        TransactionDTO mapped = TransactionDTO.builder().id(42L).build();
+        when(mapper.map(request, Transaction.class)).thenReturn(transaction);
+        when(idGenerator.nextId()).thenReturn(42L);
+        when(velocityScorer.score(eq(1L), eq(List.of(150.0)), anyLong())).thenReturn(Collections.singletonList(null));
+        when(transactionWriter.write(anyList())).thenReturn(new TransactionBatchWriter.Result(1, 0, 0));
+        when(mapper.map(transaction, TransactionDTO.class)).thenReturn(mapped);
+        when(rewardCalculator.pointsOf(transaction)).thenReturn(150);
+
+        // When
+        TransactionDTO result = rewardService.addTransaction(1L, null, request);
+
+        // Then
+        assertEquals(42L, result.getId());
+        assertEquals(150, result.getRewardPoints());
+        verify(rewardCalculator).score(transaction);
+        verify(transactionWriter).write(List.of(IngestRecord.of(1L, transaction)));
+    }
+
+    @Test
+    void testAddTransaction_Direct_UnknownCustomerThrows() {
+        // Given
+        TransactionDTO request = TransactionDTO.builder().amount(150.0).build();
+        when(mapper.map(request, Transaction.class)).thenReturn(transaction);
+        when(idGenerator.nextId()).thenReturn(42L);
+        when(velocityScorer.score(anyLong(), anyList(), anyLong())).thenReturn(Collections.singletonList(null));
+        when(transactionWriter.write(anyList())).thenReturn(new TransactionBatchWriter.Result(0, 0, 1));
+        when(env.getProperty("customer.notfound", "Customer not found:")).thenReturn("Customer not found:");
+
+        // When & Then
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> rewardService.addTransaction(999L, null, request));
+        assertEquals("Customer not found: 999", exception.getMessage());
+    }
+
+    @Test
+    void testAddTransaction_WriteBehind_JournalsInsteadOfWriting() {
+        // Given
+        WriteBehindBuffer writeBehind = mock(WriteBehindBuffer.class);
+        rewardService = service(writeBehind);
+        TransactionDTO request = TransactionDTO.builder().amount(150.0).build();
+        when(mapper.map(request, Transaction.class)).thenReturn(transaction);
+        when(idGenerator.nextId()).thenReturn(42L);
+        when(velocityScorer.score(anyLong(), anyList(), anyLong())).thenReturn(List.of(Action.FLAG));
+        when(mapper.map(transaction, TransactionDTO.class)).thenReturn(TransactionDTO.builder().id(42L).build());
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+
+        // When
+        rewardService.addTransaction(1L, null, request);
+
+        // Then
+        assertEquals(ReviewStatus.FLAGGED, transaction.getReviewStatus());
+        verify(writeBehind).append(IngestRecord.of(1L, transaction));
+        verifyNoInteractions(transactionWriter);
+    }
+
+    @Test
+    void testAddTransaction_WriteBehind_UnknownCustomerThrowsBeforeJournaling() {
+        // Given
+        WriteBehindBuffer writeBehind = mock(WriteBehindBuffer.class);
+        rewardService = service(writeBehind);
+        TransactionDTO request = TransactionDTO.builder().amount(150.0).build();
+        when(customerRepository.findById(999L)).thenReturn(Optional.empty());
+        when(env.getProperty("customer.notfound", "Customer not found:")).thenReturn("Customer not found:");
+
+        // When & Then
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> rewardService.addTransaction(999L, null, request));
+        assertEquals("Customer not found: 999", exception.getMessage());
+        verify(shards).bindCustomer(999L);
+        verifyNoInteractions(writeBehind, velocityScorer, transactionWriter);
+    }
+
+    @Test
+    void testAddTransaction_KeyRememberedInMemory_ReturnsOriginal() {
+        // Given
+        transaction.setIdempotencyKey("order-7");
+        IngestRecord original = IngestRecord.of(1L, transaction);
+        when(recentKeys.get(1L, "order-7")).thenReturn(original);
+        when(mapper.map(transaction, TransactionDTO.class)).thenReturn(TransactionDTO.builder().id(1L).build());
+
+        // When
+        TransactionDTO result = rewardService.addTransaction(1L, "order-7", TransactionDTO.builder().amount(150.0).build());
+
+        // Then
+        assertEquals(1L, result.getId());
+        verifyNoInteractions(idGenerator, velocityScorer, transactionWriter);
+    }
+
+    @Test
+    void testAddTransaction_KeyStoredEarlier_ReturnsOriginalFromDatabase() {
+        // Given
+        transaction.setIdempotencyKey("order-7");
+        IngestRecord original = IngestRecord.of(1L, transaction);
+        when(transactionWriter.findByKey(1L, "order-7")).thenReturn(Optional.of(original));
+        when(mapper.map(transaction, TransactionDTO.class)).thenReturn(TransactionDTO.builder().id(1L).build());
+
+        // When
+        TransactionDTO result = rewardService.addTransaction(1L, "order-7", TransactionDTO.builder().amount(150.0).build());
+
+        // Then
+        assertEquals(1L, result.getId());
+        verify(recentKeys).put(original);
+        verify(transactionWriter, never()).write(anyList());
+    }
+
+    @Test
+    void testAddTransaction_KeyRace_ReturnsWinningTransaction() {
+        // Given
+        TransactionDTO request = TransactionDTO.builder().amount(150.0).build();
+        Transaction winner = new Transaction();
+        winner.setId(7L);
+        winner.setIdempotencyKey("order-7");
+        when(transactionWriter.findByKey(1L, "order-7"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(IngestRecord.of(1L, winner)));
+        when(mapper.map(request, Transaction.class)).thenReturn(transaction);
+        when(idGenerator.nextId()).thenReturn(42L);
+        when(velocityScorer.score(anyLong(), anyList(), anyLong())).thenReturn(Collections.singletonList(null));
+        when(transactionWriter.write(anyList())).thenThrow(new DataIntegrityViolationException("uk_transactions_idempotency_key"));
+        when(mapper.map(winner, TransactionDTO.class)).thenReturn(TransactionDTO.builder().id(7L).build());
+
+        // When
+        TransactionDTO result = rewardService.addTransaction(1L, "order-7", request);
+
+        // Then
+        assertEquals(7L, result.getId());
+        verify(recentKeys).remove(IngestRecord.of(1L, transaction));
+        verify(recentKeys).put(IngestRecord.of(1L, winner));
+    }
+
+    @Test
+    void testAddTransaction_KeyTooLong_Throws() {
+        // When & Then
+        assertThrows(CustomException.class,
+                () -> rewardService.addTransaction(1L, "k".repeat(65), TransactionDTO.builder().build()));
+        verifyNoInteractions(recentKeys, transactionWriter);
+    }
+
+    // =============================================
+    // RELEASE TRANSACTION TESTS
+    // =============================================
+
+    @Test
+    void testReleaseTransaction_HeldTransaction_ClearsStatusAndRevalidatesCaches() {
+        // Given - the row as read back after its status was cleared
+        when(transactionRepository.clearReviewStatus(1L, 1L)).thenReturn(1);
+        when(transactionRepository.findByIdAndCustomerId(1L, 1L)).thenReturn(Optional.of(transaction));
+        when(mapper.map(transaction, TransactionDTO.class)).thenReturn(TransactionDTO.builder().id(1L).build());
+        when(rewardCalculator.pointsOf(transaction)).thenReturn(150);
+
+        // When
+        TransactionDTO result = rewardService.releaseTransaction(1L, 1L);
+
+        // Then
+        assertEquals(150, result.getRewardPoints());
+        verify(shards).bindCustomer(1L);
+        verify(dataVersions).bump(1L);
+        verify(readYourWrites).recordWrite(1L);
+        verify(analytics).transactionsReleased(1L, List.of(transaction));
+    }
+
+    @Test
+    void testReleaseTransaction_WithoutReviewStatus_ChangesNothing() {
+        // Given
+        when(transactionRepository.clearReviewStatus(1L, 1L)).thenReturn(0);
+        when(transactionRepository.findByIdAndCustomerId(1L, 1L)).thenReturn(Optional.of(transaction));
+        when(mapper.map(transaction, TransactionDTO.class)).thenReturn(TransactionDTO.builder().id(1L).build());
+
+        // When
+        rewardService.releaseTransaction(1L, 1L);
+
+        // Then
+        verifyNoInteractions(dataVersions, analytics);
+    }
+
+    @Test
+    void testReleaseTransaction_OtherCustomersTransaction_Throws() {
+        // Given
+        when(transactionRepository.findByIdAndCustomerId(1L, 2L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> rewardService.releaseTransaction(2L, 1L));
+        verifyNoInteractions(dataVersions, analytics);
     }
 
     // =============================================
@@ -226,7 +526,7 @@ class RewardServiceImplTest {
                 .build();
 
         when(mapper.map(transaction, TransactionDTO.class)).thenReturn(transactionDTO);
-        when(rewardCalculator.calculatePoints(150.0)).thenReturn(150);
+        when(rewardCalculator.pointsOf(transaction)).thenReturn(150);
 
         // When
         List<TransactionDTO> result = rewardService.getCustomerTransactions(1L);
@@ -239,7 +539,8 @@ class RewardServiceImplTest {
 
         verify(transactionRepository, times(1)).findByCustomerId(1L);
         verify(mapper, times(1)).map(transaction, TransactionDTO.class);
-        verify(rewardCalculator, times(1)).calculatePoints(150.0);
+        verify(rewardCalculator, times(1)).pointsOf(transaction);
+        verify(rewardCalculator, never()).calculatePoints(anyDouble());
     }
 
     @Test
@@ -255,7 +556,7 @@ class RewardServiceImplTest {
         assertTrue(result.isEmpty());
         verify(transactionRepository, times(1)).findByCustomerId(1L);
         verify(mapper, never()).map(any(), any());
-        verify(rewardCalculator, never()).calculatePoints(anyDouble());
+        verify(rewardCalculator, never()).pointsOf(any());
     }
 
     @Test
@@ -288,8 +589,8 @@ class RewardServiceImplTest {
 
         when(mapper.map(transaction, TransactionDTO.class)).thenReturn(transactionDTO1);
         when(mapper.map(transaction2, TransactionDTO.class)).thenReturn(transactionDTO2);
-        when(rewardCalculator.calculatePoints(150.0)).thenReturn(150);
-        when(rewardCalculator.calculatePoints(75.0)).thenReturn(25);
+        when(rewardCalculator.pointsOf(transaction)).thenReturn(150);
+        when(rewardCalculator.pointsOf(transaction2)).thenReturn(25);
 
         // When
         List<TransactionDTO> result = rewardService.getCustomerTransactions(1L);
@@ -299,7 +600,7 @@ class RewardServiceImplTest {
         assertEquals(2, result.size());
         verify(transactionRepository, times(1)).findByCustomerId(1L);
         verify(mapper, times(2)).map(any(Transaction.class), eq(TransactionDTO.class));
-        verify(rewardCalculator, times(2)).calculatePoints(anyDouble());
+        verify(rewardCalculator, times(2)).pointsOf(any(Transaction.class));
     }
 
     // =============================================
@@ -356,6 +657,78 @@ class RewardServiceImplTest {
         verify(rewardCalculator, times(1)).calculateRewards(transactions);
     }
 
+    @Test
+    void testGetRewardsForCustomer_SummaryViewSumsByMonthWithoutReadingTransactions() {
+        // Given - January holds one row not yet re-scored, read and scored here
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 12, 31);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        List<TransactionRepository.MonthlyPoints> months = List.of(monthlyPoints(1, 90L, 1L), monthlyPoints(2, 0L, 0L));
+        when(transactionRepository.findMonthlyPoints(1L, startDate, endDate, RewardCalculator.RULE_VERSION))
+                .thenReturn(months);
+        TransactionRepository.DatedAmount stale = mock(TransactionRepository.DatedAmount.class);
+        when(stale.getDate()).thenReturn(LocalDate.of(2024, 1, 20));
+        when(stale.getAmount()).thenReturn(60.5);
+        when(transactionRepository.findStaleAmounts(1L, startDate, endDate, RewardCalculator.RULE_VERSION))
+                .thenReturn(List.of(stale));
+        when(rewardCalculator.calculatePoints(60.5)).thenReturn(10);
+        when(rewardCalculator.summarizeMonths(anyMap())).thenCallRealMethod();
+
+        // When
+        RewardResponseDTO result = rewardService.getRewardsForCustomer(1L, startDate, endDate, RewardView.SUMMARY);
+
+        // Then
+        assertEquals(100, result.getTotalRewards());
+        assertEquals(Map.of("January", 100, "February", 0), result.getMonthlyRewards().stream()
+                .collect(Collectors.toMap(MonthlyRewardDTO::getMonth, MonthlyRewardDTO::getPoints)));
+        assertNull(result.getTransactions());
+        assertEquals("John Doe", result.getCustName());
+        assertEquals("2024-12-31", result.getTimeFrame().get("endDate"));
+        verify(transactionRepository, never()).findByCustomerIdAndDateBetween(any(), any(), any());
+        verify(rewardCalculator, never()).calculateRewards(any());
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void testGetRewardsForCustomer_FieldListLeavesOtherFieldsOut() {
+        // Given
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 12, 31);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        List<TransactionRepository.MonthlyPoints> months = List.of(monthlyPoints(3, 150L, 0L));
+        when(transactionRepository.findMonthlyPoints(1L, startDate, endDate, RewardCalculator.RULE_VERSION))
+                .thenReturn(months);
+        when(rewardCalculator.summarizeMonths(anyMap())).thenCallRealMethod();
+
+        // When
+        RewardResponseDTO result = rewardService.getRewardsForCustomer(1L, startDate, endDate,
+                RewardView.of(null, "totalRewards"));
+
+        // Then
+        assertEquals(150, result.getTotalRewards());
+        assertNull(result.getCustomerId());
+        assertNull(result.getCustName());
+        assertNull(result.getMonthlyRewards());
+        assertNull(result.getTimeFrame());
+        verify(transactionRepository, never()).findStaleAmounts(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetRewardsForCustomer_SummaryViewWithoutTransactionsInRange() {
+        // Given
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 12, 31);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(transactionRepository.findMonthlyPoints(1L, startDate, endDate, RewardCalculator.RULE_VERSION))
+                .thenReturn(Collections.emptyList());
+        when(env.getProperty("transaction.notfound", "No transactions found")).thenReturn("No transactions found");
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> rewardService.getRewardsForCustomer(1L, startDate, endDate, RewardView.SUMMARY));
+        assertEquals("No transactions found", exception.getMessage());
+    }
+
     @Test
     void testGetRewardsForCustomer_CustomerNotFound() {
         // Given
@@ -433,4 +806,28 @@ class RewardServiceImplTest {
         verify(transactionRepository, times(1))
                 .findByCustomerIdAndDateBetween(customerId, sameDate, sameDate);
     }
+
+    private static TransactionRepository.MonthlyPoints monthlyPoints(int month, Long points, Long unscored) {
+        TransactionRepository.MonthlyPoints monthlyPoints = mock(TransactionRepository.MonthlyPoints.class);
+        when(monthlyPoints.getYear()).thenReturn(2024);
+        when(monthlyPoints.getMonth()).thenReturn(month);
+        when(monthlyPoints.getPoints()).thenReturn(points);
+        when(monthlyPoints.getUnscored()).thenReturn(unscored);
+        return monthlyPoints;
+    }
+
+    private RewardServiceImpl service(WriteBehindBuffer writeBehind) {
+        return new RewardServiceImpl(customerRepository, transactionRepository, mapper, env, passwordEncoder,
+                rewardCalculator, dataVersions, readYourWrites, shards, analytics, velocityScorer, idGenerator,
+                transactionWriter, recentKeys, transactionManager, provider(JdbcTransactionReadRepository.class, null),
+                provider(WriteBehindBuffer.class, writeBehind), provider(CustomerNameIndex.class, null));
+    }
+
+    private static <T> ObjectProvider<T> provider(Class<T> type, T bean) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        if (bean != null) {
+            beans.addBean(type.getSimpleName(), bean);
+        }
+        return beans.getBeanProvider(type);
+    }
 }
@@ -0,0 +1,177 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infy.customerRewards.datasource.ShardMap;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.datasource.ShardingConfig;
+import com.infy.customerRewards.entity.Customer;
+import com.infy.customerRewards.entity.TimeOrderedIdGenerator;
+import com.infy.customerRewards.entity.Transaction;
+import com.infy.customerRewards.utility.SnowflakeIdGenerator;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for hash-sharded storage, using three embedded H2 databases as shards
+ * behind the JPA entities.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class ShardedStorageTest {
+
+    private static final int SHARDS = 3;
+
+    private final ShardMap shardMap = ShardMap.fromRanges(6, List.of("0-1", "2-3", "4-5"));
+    private final SnowflakeIdGenerator ids = new SnowflakeIdGenerator(7, Duration.ofSeconds(5));
+    private final List<DataSource> shardDataSources = new ArrayList<>();
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private ShardRouter router;
+    private TransactionTemplate transactions;
+
+    @BeforeEach
+    void setUp() {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            DataSource shardDataSource = new DriverManagerDataSource(
+                    "jdbc:h2:mem:shard" + shard + ";DB_CLOSE_DELAY=-1", "sa", "");
+            entityManagerFactory(shardDataSource, "create").destroy();
+            shardDataSources.add(shardDataSource);
+        }
+        entityManagerFactory = entityManagerFactory(ShardingConfig.shardedDataSource(shardDataSources), "none");
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory.getObject());
+        transactions = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory.getObject()));
+        router = new ShardRouter(shardMap);
+    }
+
+    @AfterEach
+    void tearDown() {
+        router.close();
+        entityManagerFactory.destroy();
+    }
+
+    @Test
+    void testShardMap_RejectsOverlappingAndMissingBuckets() {
+        assertThrows(IllegalArgumentException.class, () -> ShardMap.fromRanges(4, List.of("0-2", "2-3")));
+        assertThrows(IllegalArgumentException.class, () -> ShardMap.fromRanges(4, List.of("0-1", "3")));
+        assertThrows(IllegalArgumentException.class, () -> ShardMap.fromRanges(4, List.of("0-4")));
+    }
+
+    @Test
+    void testShardMap_SpreadsTimeOrderedIdsEvenly() {
+        // Given - consecutive IDs from a single millisecond, whose low bits are a plain counter
+        SnowflakeIdGenerator fixedClock = new SnowflakeIdGenerator(1, Duration.ofSeconds(5));
+        int[] perShard = new int[SHARDS];
+
+        // When
+        for (int i = 0; i < 6000; i++) {
+            perShard[shardMap.shardOf(fixedClock.nextId(SnowflakeIdGenerator.EPOCH_MILLIS))]++;
+        }
+
+        // Then
+        for (int count : perShard) {
+            assertTrue(count > 1600 && count < 2400, "uneven spread: " + count);
+        }
+    }
+
+    @Test
+    void testCreateCustomer_StoresCustomerAndTransactionsOnTheShardItsIdMapsTo() {
+        // When
+        List<Long> customerIds = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            customerIds.add(create("customer" + i));
+        }
+
+        // Then
+        for (Long customerId : customerIds) {
+            int owner = shardMap.shardOf(customerId);
+            for (int shard = 0; shard < SHARDS; shard++) {
+                JdbcTemplate jdbc = new JdbcTemplate(shardDataSources.get(shard));
+                int expected = shard == owner ? 1 : 0;
+                assertEquals(expected, jdbc.queryForObject(
+                        "SELECT COUNT(*) FROM customers WHERE id = ?", Integer.class, customerId));
+                assertEquals(expected, jdbc.queryForObject(
+                        "SELECT COUNT(*) FROM transactions WHERE customer_id = ?", Integer.class, customerId));
+            }
+        }
+    }
+
+    @Test
+    void testCustomerRead_RoutesToOwningShard() {
+        // Given
+        Long customerId = create("alice");
+
+        // When
+        String name = transactions.execute(status -> {
+            router.bindCustomer(customerId);
+            return entityManager.find(Customer.class, customerId).getCustName();
+        });
+
+        // Then
+        assertEquals("alice", name);
+    }
+
+    @Test
+    void testFanOut_QueriesEveryShardInParallelAndMerges() {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            create("customer" + i);
+        }
+
+        // When
+        List<String> threads = router.fanOut(shard -> Thread.currentThread().getName());
+        List<Long> counts = router.fanOut(shard -> transactions.execute(status -> entityManager
+                .createQuery("SELECT COUNT(c) FROM Customer c", Long.class).getSingleResult()));
+
+        // Then
+        assertEquals(SHARDS, threads.size());
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("rewards-shard-")));
+        assertEquals(20L, counts.stream().mapToLong(Long::longValue).sum());
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertEquals(new JdbcTemplate(shardDataSources.get(shard))
+                    .queryForObject("SELECT COUNT(*) FROM customers", Long.class), counts.get(shard));
+        }
+    }
+
+    private Long create(String name) {
+        return transactions.execute(status -> {
+            Customer customer = new Customer();
+            customer.setCustName(name);
+            Transaction transaction = new Transaction();
+            transaction.setDate(LocalDate.of(2024, 1, 15));
+            transaction.setProduct("Laptop");
+            transaction.setAmount(120.0);
+            transaction.setCustomer(customer);
+            customer.setTransactions(new ArrayList<>(List.of(transaction)));
+            entityManager.persist(customer);
+            router.bindCustomer(customer.getId());
+            return customer.getId();
+        });
+    }
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, String schemaAction) {
+        return TestEntityManagerFactories.create(dataSource, Map.of(
+                "hibernate.hbm2ddl.auto", schemaAction,
+                TimeOrderedIdGenerator.ID_GENERATOR_SETTING, ids));
+    }
+}
@@ -0,0 +1,134 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Test;
+
+import com.infy.customerRewards.utility.SnowflakeIdGenerator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SnowflakeIdGenerator.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH_MILLIS + 86_400_000L;
+
+    @Test
+    void testNextId_EncodesTimestampAndNode() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(513, Duration.ofSeconds(5));
+
+        long id = generator.nextId(NOW);
+
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(id));
+        assertEquals(513, SnowflakeIdGenerator.nodeOf(id));
+        assertTrue(id > 0);
+    }
+
+    @Test
+    void testNextId_IncreasesWithinAndAcrossMilliseconds() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, Duration.ofSeconds(5));
+
+        long first = generator.nextId(NOW);
+        long second = generator.nextId(NOW);
+        long third = generator.nextId(NOW + 1);
+
+        assertTrue(first < second);
+        assertTrue(second < third);
+        assertEquals(NOW + 1, SnowflakeIdGenerator.timestampOf(third));
+    }
+
+    @Test
+    void testNextId_FullSequenceCarriesIntoNextMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, Duration.ofSeconds(5));
+
+        long last = 0;
+        for (int i = 0; i < 4097; i++) {
+            long id = generator.nextId(NOW);
+            assertTrue(id > last);
+            last = id;
+        }
+
+        assertEquals(NOW + 1, SnowflakeIdGenerator.timestampOf(last));
+        assertEquals(1, SnowflakeIdGenerator.nodeOf(last));
+    }
+
+    @Test
+    void testNextId_SmallClockRollbackKeepsIdsIncreasing() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, Duration.ofMillis(50));
+
+        long before = generator.nextId(NOW);
+        long during = generator.nextId(NOW - 20);
+        long after = generator.nextId(NOW + 1);
+
+        assertTrue(before < during);
+        assertTrue(during < after);
+    }
+
+    @Test
+    void testNextId_LargeClockRollbackIsRefused() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, Duration.ofMillis(50));
+        generator.nextId(NOW);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> generator.nextId(NOW - 1000));
+
+        assertTrue(exception.getMessage().contains("1000 ms"));
+    }
+
+    @Test
+    void testConstructor_RejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1, Duration.ZERO));
+    }
+
+    @Test
+    void testNextId_UniqueUnderConcurrency() throws InterruptedException {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, Duration.ofSeconds(5));
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long last = 0;
+                for (int i = 0; i < perThread; i++) {
+                    long id = generator.nextId();
+                    assertTrue(id > last);
+                    last = id;
+                    seen.add(id);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Then
+        assertEquals(threads * perThread, seen.size());
+    }
+}
@@ -0,0 +1,79 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Test;
+
+import com.infy.customerRewards.utility.SpendSketch;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SpendSketch.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class SpendSketchTest {
+
+    @Test
+    void testQuantile_StaysWithinPrecisionOnSkewedAmounts() {
+        // Given - log-normal amounts, like real baskets
+        Random random = new Random(7);
+        double[] amounts = new double[100_000];
+        SpendSketch sketch = new SpendSketch(2);
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = Math.round(50 * Math.exp(1.2 * random.nextGaussian()) * 100) / 100.0;
+            sketch.record(amounts[i]);
+        }
+        Arrays.sort(amounts);
+
+        // When & Then
+        for (double quantile : new double[] { 0.5, 0.9, 0.99 }) {
+            double exact = amounts[(int) Math.ceil(quantile * amounts.length) - 1];
+            assertEquals(exact, sketch.quantile(quantile), exact * 0.01, "q" + quantile);
+        }
+        assertEquals(100_000, sketch.getCount());
+        assertTrue(sketch.getFootprintBytes() < 16 * 1024, "footprint " + sketch.getFootprintBytes());
+    }
+
+    @Test
+    void testMergeAndEncode_AreLossless() {
+        // Given
+        SpendSketch first = new SpendSketch(2);
+        SpendSketch second = new SpendSketch(2);
+        SpendSketch all = new SpendSketch(2);
+        for (int i = 1; i <= 1000; i++) {
+            (i % 2 == 0 ? first : second).record((double) i);
+            all.record((double) i);
+        }
+
+        // When
+        SpendSketch merged = SpendSketch.decode(first.encode());
+        merged.merge(SpendSketch.decode(second.encode()));
+
+        // Then
+        assertEquals(all.getCount(), merged.getCount());
+        for (double quantile : new double[] { 0.01, 0.5, 0.9, 0.99, 1.0 }) {
+            assertEquals(all.quantile(quantile), merged.quantile(quantile), "q" + quantile);
+        }
+        assertThrows(IllegalArgumentException.class, () -> SpendSketch.decode("bm90IGEgc2tldGNo"));
+    }
+
+    @Test
+    void testRecord_IgnoresMissingAndNegativeAmounts() {
+        // Given
+        SpendSketch sketch = new SpendSketch(1);
+
+        // When
+        sketch.record(null);
+        sketch.record(-5.0);
+
+        // Then
+        assertEquals(0, sketch.getCount());
+        assertEquals(0, sketch.quantile(0.5));
+        assertEquals(0, sketch.getMax());
+    }
+}
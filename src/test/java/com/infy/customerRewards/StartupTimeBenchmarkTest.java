@@ -0,0 +1,121 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of cold-start time, measured from process launch to the first successful
+ * /api/rewards request (a customer creation), for the default and the fast-start modes.
+ * Both modes run the application extracted by the fast-start profile against an in-memory H2
+ * database; fast-start adds the AOT-processed context and the class-data-sharing archive.
+ * Run with: mvn -Pfast-start package -DskipTests &amp;&amp; mvn -Pbenchmark test -Dtest=StartupTimeBenchmarkTest
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Tag("benchmark")
+class StartupTimeBenchmarkTest {
+
+    private static final int RUNS = 3;
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final String CUSTOMER = """
+            {"custName":"Startup","phoneNo":"1234567890","transactions":[{"date":"2024-01-15","product":"Laptop","amount":120.0}]}""";
+
+    private final File applicationDir = new File("target/fast-start");
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void measureTimeToFirstRequest() throws Exception {
+        File[] jars = applicationDir.listFiles((dir, name) -> name.endsWith(".jar"));
+        Assumptions.assumeTrue(jars != null && jars.length == 1 && new File(applicationDir, "application.jsa").exists(),
+                "Build the fast-start application first: mvn -Pfast-start package -DskipTests");
+        String classPath = jars[0].getName() + File.pathSeparator + h2Jar();
+
+        long[] defaultMillis = new long[RUNS];
+        long[] fastStartMillis = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            defaultMillis[run] = timeToFirstRequest(classPath, List.of());
+            fastStartMillis[run] = timeToFirstRequest(classPath,
+                    List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true"));
+        }
+
+        System.out.println("mode       | runs (ms)              | median (ms)");
+        report("default", defaultMillis);
+        report("fast-start", fastStartMillis);
+    }
+
+    private long timeToFirstRequest(String classPath, List<String> jvmOptions) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + "/bin/java");
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-cp", classPath, "com.infy.customerRewards.CustomerRewardsApplication",
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/rewards/customers"))
+                .header("Authorization", "Bearer " + JwtTokenVerifierTest.token(JwtTokenVerifierTest.SECRET, "startup", 600_000))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(CUSTOMER))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).directory(applicationDir)
+                .redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (System.nanoTime() - start < START_TIMEOUT.toNanos()) {
+                assertTrue(process.isAlive(), "application exited with " + (process.isAlive() ? "" : process.exitValue()));
+                try {
+                    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                    assertEquals(200, response.statusCode(), response.body());
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                } catch (IOException notListeningYet) {
+                    Thread.sleep(20);
+                }
+            }
+            return fail("application did not answer within " + START_TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static String h2Jar() {
+        String testClassPath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        return Arrays.stream(testClassPath.split(File.pathSeparator))
+                .filter(entry -> new File(entry).getName().startsWith("h2-"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("H2 is not on the test classpath"));
+    }
+
+    private static void report(String mode, long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-10s | %-22s | %d%n", mode, Arrays.toString(millis), sorted[sorted.length / 2]);
+    }
+}
@@ -0,0 +1,267 @@
+package com.infy.customerRewards;
+
+import com.infy.customerRewards.utility.RewardCalculator;
+import com.infy.customerRewards.utility.SnowflakeIdGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeded generator of production-like data for local load tests, written with batched JDBC
+ * inserts straight into the customers and transactions tables created by the application.
+ * <ul>
+ * <li>transactions per customer follow a Zipf distribution over 1..max-transactions-per-customer,
+ * so most customers have a handful of purchases and a few have thousands;</li>
+ * <li>dates spread over the last N years, heavier in November and December;</li>
+ * <li>amounts are log-normal around a typical basket, so all reward tiers (under 50, 50-100,
+ * over 100) are exercised;</li>
+ * <li>IDs come from the same time-ordered generator as the application, and reward points are
+ * stored with the current rule version as the application does on insert.</li>
+ * </ul>
+ * The same seed and end date always produce the same customers and transactions, apart from
+ * their IDs. The customer IDs are written to a file, one per line, for LoadDriver.
+ * <p>
+ * Start the application once so that ddl-auto creates the schema, then run:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.infy.customerRewards.SyntheticDataGenerator -Dexec.args="--customers=1000000"
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+public class SyntheticDataGenerator {
+
+    private static final String[] PRODUCTS = {
+            "Groceries", "Coffee", "Books", "Shoes", "Headphones", "Mouse", "Keyboard", "Monitor",
+            "Phone", "Laptop", "Television", "Furniture" };
+    private static final double[] PRODUCT_MEDIAN_AMOUNTS = {
+            45, 6, 20, 70, 90, 25, 45, 220, 650, 1100, 800, 400 };
+    private static final double[] MONTH_WEIGHTS = { 0.8, 0.7, 0.9, 0.9, 1.0, 1.0, 1.0, 1.1, 0.9, 1.0, 1.5, 1.9 };
+    private static final double MAX_MONTH_WEIGHT = 1.9;
+
+    private final Settings settings;
+
+    /**
+     * Constructs the generator.
+     *
+     * @param settings the generation settings
+     */
+    public SyntheticDataGenerator(Settings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.from(arguments(args));
+        long start = System.nanoTime();
+        Result result = new SyntheticDataGenerator(settings).generate();
+        long seconds = Math.max(1, Duration.ofNanos(System.nanoTime() - start).toSeconds());
+        System.out.printf("%d customers, %d transactions in %d s (%d rows/s); customer IDs in %s%n",
+                result.customers(), result.transactions(), seconds,
+                (result.customers() + result.transactions()) / seconds, settings.idsFile);
+    }
+
+    /**
+     * Generates and inserts the configured number of customers with their transactions.
+     *
+     * @return the number of rows written
+     * @throws SQLException if an insert fails
+     * @throws IOException if the ID file cannot be written
+     */
+    public Result generate() throws SQLException, IOException {
+        Random random = new Random(settings.seed);
+        RewardCalculator rewardCalculator = new RewardCalculator(null);
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(settings.nodeId, Duration.ofSeconds(5));
+        ZipfDistribution transactionsPerCustomer = new ZipfDistribution(settings.maxTransactionsPerCustomer, settings.zipfExponent);
+        LocalDate end = settings.endDate;
+        LocalDate start = end.minusYears(settings.years).plusDays(1);
+        int days = (int) (end.toEpochDay() - start.toEpochDay()) + 1;
+        if (settings.idsFile.getParent() != null) {
+            Files.createDirectories(settings.idsFile.getParent());
+        }
+        long customers = 0;
+        long transactions = 0;
+        try (Connection connection = DriverManager.getConnection(settings.url, settings.username, settings.password);
+             PreparedStatement insertCustomer = connection.prepareStatement(
+                     "INSERT INTO customers (id, cust_name, phone_no) VALUES (?, ?, ?)");
+             PreparedStatement insertTransaction = connection.prepareStatement(
+                     "INSERT INTO transactions (id, customer_id, date, product, amount, reward_points, rule_version)"
+                             + " VALUES (?, ?, ?, ?, ?, ?, ?)");
+             BufferedWriter idsOut = Files.newBufferedWriter(settings.idsFile)) {
+            connection.setAutoCommit(false);
+            int pending = 0;
+            for (long i = 0; i < settings.customers; i++) {
+                long customerId = ids.nextId();
+                insertCustomer.setLong(1, customerId);
+                insertCustomer.setString(2, "Customer " + (i + 1));
+                insertCustomer.setString(3, String.valueOf(6_000_000_000L + random.nextInt(1_000_000_000) * 3L));
+                insertCustomer.addBatch();
+                idsOut.write(Long.toString(customerId));
+                idsOut.newLine();
+                customers++;
+                int count = transactionsPerCustomer.sample(random);
+                for (int t = 0; t < count; t++) {
+                    int product = random.nextInt(PRODUCTS.length);
+                    insertTransaction.setLong(1, ids.nextId());
+                    insertTransaction.setLong(2, customerId);
+                    insertTransaction.setObject(3, date(random, start, days));
+                    insertTransaction.setString(4, PRODUCTS[product]);
+                    double amount = amount(random, PRODUCT_MEDIAN_AMOUNTS[product]);
+                    insertTransaction.setDouble(5, amount);
+                    insertTransaction.setInt(6, rewardCalculator.calculatePoints(amount));
+                    insertTransaction.setInt(7, RewardCalculator.RULE_VERSION);
+                    insertTransaction.addBatch();
+                    transactions++;
+                    pending++;
+                }
+                if (++pending >= settings.batchSize) {
+                    flush(connection, insertCustomer, insertTransaction);
+                    pending = 0;
+                }
+            }
+            flush(connection, insertCustomer, insertTransaction);
+        }
+        return new Result(customers, transactions);
+    }
+
+    private static void flush(Connection connection, PreparedStatement insertCustomer,
+                              PreparedStatement insertTransaction) throws SQLException {
+        insertCustomer.executeBatch();
+        insertTransaction.executeBatch();
+        connection.commit();
+    }
+
+    private static LocalDate date(Random random, LocalDate start, int days) {
+        while (true) {
+            LocalDate date = start.plusDays(random.nextInt(days));
+            if (random.nextDouble() * MAX_MONTH_WEIGHT < MONTH_WEIGHTS[date.getMonthValue() - 1]) {
+                return date;
+            }
+        }
+    }
+
+    private static double amount(Random random, double median) {
+        double amount = median * Math.exp(0.6 * random.nextGaussian());
+        return Math.round(Math.max(1.0, Math.min(amount, 10_000.0)) * 100) / 100.0;
+    }
+
+    /**
+     * Parses --name=value arguments.
+     *
+     * @param args the command line
+     * @return the values by name
+     */
+    static Map<String, String> arguments(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return values;
+    }
+
+    /**
+     * Removes a named argument from the parsed command line.
+     *
+     * @param values the remaining arguments
+     * @param name the argument name
+     * @param defaultValue the value when the argument is absent
+     * @return the argument value
+     */
+    static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Number of rows written by one run.
+     *
+     * @param customers the customers inserted
+     * @param transactions the transactions inserted
+     */
+    public record Result(long customers, long transactions) {
+    }
+
+    /**
+     * Generation settings; every field can be given on the command line as --name=value.
+     */
+    public static class Settings {
+
+        String url = "jdbc:mysql://localhost:3306/rewardsdb?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true";
+        String username = "root";
+        String password = "root";
+        long customers = 1_000_000;
+        int maxTransactionsPerCustomer = 2_000;
+        double zipfExponent = 2.0;
+        int years = 3;
+        LocalDate endDate = LocalDate.now();
+        long seed = 42;
+        int nodeId = 1000;
+        int batchSize = 1_000;
+        Path idsFile = Path.of("target/loadtest/customer-ids.txt");
+
+        static Settings from(Map<String, String> values) {
+            Settings settings = new Settings();
+            Map<String, String> remaining = new HashMap<>(values);
+            settings.url = take(remaining, "url", settings.url);
+            settings.username = take(remaining, "username", settings.username);
+            settings.password = take(remaining, "password", settings.password);
+            settings.customers = Long.parseLong(take(remaining, "customers", String.valueOf(settings.customers)));
+            settings.maxTransactionsPerCustomer = Integer.parseInt(take(remaining, "max-transactions-per-customer",
+                    String.valueOf(settings.maxTransactionsPerCustomer)));
+            settings.zipfExponent = Double.parseDouble(take(remaining, "zipf-exponent", String.valueOf(settings.zipfExponent)));
+            settings.years = Integer.parseInt(take(remaining, "years", String.valueOf(settings.years)));
+            settings.endDate = LocalDate.parse(take(remaining, "end-date", settings.endDate.toString()));
+            settings.seed = Long.parseLong(take(remaining, "seed", String.valueOf(settings.seed)));
+            settings.nodeId = Integer.parseInt(take(remaining, "node-id", String.valueOf(settings.nodeId)));
+            settings.batchSize = Integer.parseInt(take(remaining, "batch-size", String.valueOf(settings.batchSize)));
+            settings.idsFile = Path.of(take(remaining, "ids-file", settings.idsFile.toString()));
+            if (!remaining.isEmpty()) {
+                throw new IllegalArgumentException("Unknown arguments " + remaining.keySet());
+            }
+            return settings;
+        }
+    }
+
+    /**
+     * Zipf distribution over 1..n, sampled by binary search in the cumulative distribution:
+     * P(k) is proportional to 1 / k^exponent.
+     */
+    static class ZipfDistribution {
+
+        private final double[] cumulative;
+
+        ZipfDistribution(int n, double exponent) {
+            if (n < 1) {
+                throw new IllegalArgumentException("n must be at least 1");
+            }
+            cumulative = new double[n];
+            double sum = 0;
+            for (int k = 1; k <= n; k++) {
+                sum += 1.0 / Math.pow(k, exponent);
+                cumulative[k - 1] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        int sample(Random random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min((index >= 0 ? index : -index - 1) + 1, cumulative.length);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.infy.customerRewards;
+
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * Entity manager factories over the application's entities for the tests and benchmarks that run
+ * JPA on an embedded database, configured as Spring Boot configures the application's: schema
+ * created from the entities, column names in snake case. The second-level cache is off unless a
+ * test turns it on, so Hibernate never builds a cache of its own from whatever JCache provider is
+ * on the classpath.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+final class TestEntityManagerFactories {
+
+    private TestEntityManagerFactories() {
+    }
+
+    /**
+     * Creates an entity manager factory that creates the schema on the datasource.
+     *
+     * @param dataSource the datasource
+     * @return the started factory; destroy it when done
+     */
+    static LocalContainerEntityManagerFactoryBean create(DataSource dataSource) {
+        return create(dataSource, Map.of());
+    }
+
+    /**
+     * Creates an entity manager factory with Hibernate settings added to, or replacing, the defaults.
+     *
+     * @param dataSource the datasource
+     * @param settings the Hibernate settings
+     * @return the started factory; destroy it when done
+     */
+    static LocalContainerEntityManagerFactoryBean create(DataSource dataSource, Map<String, ?> settings) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.hbm2ddl.auto", "create");
+        properties.put("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName());
+        properties.put("hibernate.cache.use_second_level_cache", false);
+        properties.putAll(settings);
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.infy.customerRewards.entity");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(properties);
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    /**
+     * Creates a Spring Data repository on the factory's shared entity manager.
+     *
+     * @param factory the entity manager factory
+     * @param type the repository interface
+     * @param <R> the repository type
+     * @return the repository
+     */
+    static <R> R repository(LocalContainerEntityManagerFactoryBean factory, Class<R> type) {
+        return new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(factory.getObject()))
+                .getRepository(type);
+    }
+}
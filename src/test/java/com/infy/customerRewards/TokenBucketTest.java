@@ -0,0 +1,78 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Test;
+
+import com.infy.customerRewards.utility.RateLimiter;
+import com.infy.customerRewards.utility.TokenBucket;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TokenBucket and RateLimiter
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testBurstUpToCapacityThenReject() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertEquals(2, bucket.tryAcquire(0).remaining());
+        assertEquals(1, bucket.tryAcquire(0).remaining());
+        assertEquals(0, bucket.tryAcquire(0).remaining());
+
+        TokenBucket.Decision rejected = bucket.tryAcquire(0);
+        assertFalse(rejected.allowed());
+        assertEquals(SECOND, rejected.retryAfterNanos());
+    }
+
+    @Test
+    void testRefillsOverTime() {
+        TokenBucket bucket = new TokenBucket(1, 2, 0);
+
+        assertTrue(bucket.tryAcquire(0).allowed());
+        assertFalse(bucket.tryAcquire(SECOND / 4).allowed());
+        assertTrue(bucket.tryAcquire(SECOND / 2).allowed());
+    }
+
+    @Test
+    void testSeveralTokensAtOnce() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+
+        assertEquals(4, bucket.tryAcquire(6, 0).remaining());
+        TokenBucket.Decision rejected = bucket.tryAcquire(6, 0);
+        assertFalse(rejected.allowed());
+        assertEquals(SECOND / 5, rejected.retryAfterNanos());
+        assertTrue(bucket.tryAcquire(6, SECOND / 5).allowed());
+        assertFalse(bucket.tryAcquire(11, 10 * SECOND).allowed());
+    }
+
+    @Test
+    void testIdleOnlyAfterRefilledAndUnused() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isIdle(SECOND, 5 * SECOND));
+        assertTrue(bucket.isIdle(6 * SECOND, 5 * SECOND));
+    }
+
+    @Test
+    void testRateLimiter_SeparateBucketsPerClientAndEviction() {
+        RateLimiter limiter = new RateLimiter(1, 1);
+
+        assertTrue(limiter.tryAcquire("a", 0).allowed());
+        assertFalse(limiter.tryAcquire("a", 0).allowed());
+        assertTrue(limiter.tryAcquire("b", 0).allowed());
+        assertEquals(2, limiter.size());
+
+        assertEquals(2, limiter.evictIdle(10 * SECOND, 5 * SECOND));
+        assertEquals(0, limiter.size());
+    }
+}
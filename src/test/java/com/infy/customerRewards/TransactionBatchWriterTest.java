@@ -0,0 +1,172 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infy.customerRewards.datasource.ReadYourWritesTracker;
+import com.infy.customerRewards.datasource.ShardMap;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.entity.Customer;
+import com.infy.customerRewards.entity.ReviewStatus;
+import com.infy.customerRewards.ingest.IngestRecord;
+import com.infy.customerRewards.ingest.TransactionBatchWriter;
+import com.infy.customerRewards.service.AnalyticsService;
+import com.infy.customerRewards.utility.CustomerDataVersions;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TransactionBatchWriter, on an embedded H2 database.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class TransactionBatchWriterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:ingest;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    private final AnalyticsService analytics = mock(AnalyticsService.class);
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private JpaTransactionManager transactionManager;
+    private TransactionTemplate transactions;
+    private CustomerDataVersions dataVersions;
+    private TransactionBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory = TestEntityManagerFactories.create(dataSource);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory.getObject());
+        transactionManager = new JpaTransactionManager(entityManagerFactory.getObject());
+        transactions = new TransactionTemplate(transactionManager);
+        dataVersions = versions();
+        writer = new TransactionBatchWriter(dataSource, transactionManager, new ShardRouter((ShardMap) null),
+                dataVersions, new ReadYourWritesTracker(Duration.ZERO), analytics, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.destroy();
+    }
+
+    @Test
+    void testWrite_InsertsBatchAndSkipsDuplicatesAndUnknownCustomers() {
+        // Given - one record repeated in the batch and one for a customer that does not exist
+        Long customerId = insertCustomer();
+        List<IngestRecord> records = List.of(record(1, customerId, 120.0), record(2, customerId, 60.0),
+                record(1, customerId, 120.0), record(3, customerId + 1, 80.0));
+
+        // When
+        TransactionBatchWriter.Result result = writer.write(records);
+
+        // Then
+        assertEquals(new TransactionBatchWriter.Result(2, 1, 1), result);
+        List<Map<String, Object>> rows = jdbc.queryForList(
+                "SELECT id, customer_id, amount, reward_points, review_status FROM transactions ORDER BY id");
+        assertEquals(2, rows.size());
+        assertEquals(customerId, ((Number) rows.get(0).get("CUSTOMER_ID")).longValue());
+        assertEquals(90, ((Number) rows.get(0).get("REWARD_POINTS")).intValue());
+        assertEquals("FLAGGED", rows.get(0).get("REVIEW_STATUS"));
+        assertNull(rows.get(1).get("REVIEW_STATUS"));
+        assertEquals(1, dataVersions.current(customerId));
+        verify(analytics).transactionsWritten(eq(customerId), anyCollection());
+        assertEquals(2.0, registry.get("rewards.ingest.rows").tag("outcome", "written").counter().count());
+    }
+
+    @Test
+    void testWrite_ReplayedRecordsAreDuplicates() {
+        // Given
+        Long customerId = insertCustomer();
+        List<IngestRecord> records = List.of(record(1, customerId, 120.0), record(2, customerId, 60.0));
+        writer.write(records);
+
+        // When
+        TransactionBatchWriter.Result replayed = writer.write(records);
+
+        // Then
+        assertEquals(new TransactionBatchWriter.Result(0, 2, 0), replayed);
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM transactions", Integer.class));
+    }
+
+    @Test
+    void testWrite_RepeatedIdempotencyKeyIsDuplicate() {
+        // Given - the same key under a new ID, in the batch and in a later batch
+        Long customerId = insertCustomer();
+        IngestRecord first = keyed(record(1, customerId, 120.0), "order-7");
+        writer.write(List.of(first, keyed(record(2, customerId, 120.0), "order-7")));
+
+        // When
+        TransactionBatchWriter.Result retried = writer.write(List.of(keyed(record(3, customerId, 120.0), "order-7")));
+
+        // Then
+        assertEquals(new TransactionBatchWriter.Result(0, 1, 0), retried);
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM transactions", Integer.class));
+        assertEquals(Optional.of(first), writer.findByKey(customerId, "order-7"));
+        assertEquals(Optional.empty(), writer.findByKey(customerId, "order-8"));
+    }
+
+    @Test
+    void testWrite_BumpsTheDataVersionEveryInstanceReads() {
+        // Given - the versions as another instance reads them
+        Long customerId = insertCustomer();
+        CustomerDataVersions otherInstance = versions();
+        assertEquals(0, otherInstance.current(customerId));
+
+        // When
+        writer.write(List.of(record(1, customerId, 120.0)));
+        writer.write(List.of(record(2, customerId, 60.0)));
+
+        // Then
+        assertEquals(2, otherInstance.current(customerId));
+        assertNull(otherInstance.current(customerId + 1));
+    }
+
+    private CustomerDataVersions versions() {
+        return new CustomerDataVersions(dataSource, transactionManager, new ShardRouter((ShardMap) null),
+                new ReadYourWritesTracker(Duration.ZERO));
+    }
+
+    private Long insertCustomer() {
+        return transactions.execute(status -> {
+            Customer customer = new Customer();
+            customer.setCustName("alice");
+            customer.setTransactions(new ArrayList<>());
+            entityManager.persist(customer);
+            return customer.getId();
+        });
+    }
+
+    private static IngestRecord record(long id, long customerId, double amount) {
+        return new IngestRecord(id, customerId, LocalDate.of(2024, 1, 15), "Laptop", amount,
+                amount > 100 ? 90 : 10, 1, amount > 100 ? ReviewStatus.FLAGGED : null, null);
+    }
+
+    private static IngestRecord keyed(IngestRecord record, String idempotencyKey) {
+        return new IngestRecord(record.id(), record.customerId(), record.date(), record.product(), record.amount(),
+                record.rewardPoints(), record.ruleVersion(), record.reviewStatus(), idempotencyKey);
+    }
+}
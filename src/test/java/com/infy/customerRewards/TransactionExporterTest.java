@@ -0,0 +1,159 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.infy.customerRewards.datasource.ShardMap;
+import com.infy.customerRewards.datasource.ShardRouter;
+import com.infy.customerRewards.exception.CustomException;
+import com.infy.customerRewards.exception.ServiceUnavailableException;
+import com.infy.customerRewards.export.ExportProperties;
+import com.infy.customerRewards.export.ExportRequest;
+import com.infy.customerRewards.export.TransactionExporter;
+import com.infy.customerRewards.utility.RewardCalculator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TransactionExporter, on an embedded H2 database.
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class TransactionExporterTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:export;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    private final ExportProperties properties = new ExportProperties();
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private TransactionExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory = TestEntityManagerFactories.create(dataSource);
+        properties.setFetchSize(2);
+        exporter = new TransactionExporter(dataSource, new JpaTransactionManager(entityManagerFactory.getObject()),
+                new ShardRouter((ShardMap) null), new RewardCalculator(new ModelMapper()), properties, registry);
+
+        // Two customers: 10 with two January and one February transaction, 20 with one held one
+        jdbc.update("INSERT INTO customers (id, cust_name) VALUES (10, 'alice'), (20, 'bob')");
+        insert(1, 10, "2024-01-05", "Laptop", 120.0, 90, 1, null);
+        insert(2, 10, "2024-01-20", "Mouse, wireless", 60.0, null, null, null);
+        insert(3, 10, "2024-02-02", "Desk \"XL\"", 200.0, 250, 1, "FLAGGED");
+        insert(4, 20, "2024-03-10", "Phone", 150.0, 150, 1, "HELD");
+        insert(5, 20, "2023-12-31", "Old", 500.0, 850, 1, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.destroy();
+    }
+
+    @Test
+    void testExport_TransactionsCsv() throws IOException {
+        // Given
+        StringWriter out = new StringWriter();
+
+        // When
+        long rows = exporter.export(request(ExportRequest.Kind.TRANSACTIONS, ExportRequest.Format.CSV, null), out, null);
+
+        // Then - in customer order, points as the read endpoints report them, text fields quoted
+        assertEquals(4, rows);
+        assertEquals("id,customerId,date,product,amount,rewardPoints,reviewStatus\r\n"
+                + "1,10,2024-01-05,Laptop,120.0,90,\r\n"
+                + "2,10,2024-01-20,\"Mouse, wireless\",60.0,10,\r\n"
+                + "3,10,2024-02-02,\"Desk \"\"XL\"\"\",200.0,250,FLAGGED\r\n"
+                + "4,20,2024-03-10,Phone,150.0,0,HELD\r\n", out.toString());
+        assertEquals(4.0, registry.get("rewards.export.rows").tag("kind", "transactions").counter().count());
+    }
+
+    @Test
+    void testExport_RewardsNdjson_OneRowPerCustomerAndMonth() throws IOException {
+        // Given
+        StringWriter out = new StringWriter();
+
+        // When
+        long rows = exporter.export(request(ExportRequest.Kind.REWARDS, ExportRequest.Format.NDJSON, null), out, null);
+
+        // Then
+        assertEquals(3, rows);
+        assertEquals("{\"customerId\":10,\"month\":\"2024-01\",\"transactions\":2,\"amount\":180.0,\"points\":100}\n"
+                + "{\"customerId\":10,\"month\":\"2024-02\",\"transactions\":1,\"amount\":200.0,\"points\":250}\n"
+                + "{\"customerId\":20,\"month\":\"2024-03\",\"transactions\":1,\"amount\":150.0,\"points\":0}\n",
+                out.toString());
+    }
+
+    @Test
+    void testExport_ResumesAfterCustomerWithoutHeader() throws IOException {
+        // Given
+        StringWriter out = new StringWriter();
+        List<Long> completed = new ArrayList<>();
+
+        // When
+        exporter.export(request(ExportRequest.Kind.TRANSACTIONS, ExportRequest.Format.CSV, null),
+                Writer.nullWriter(), (customerId, rows) -> completed.add(customerId));
+        long rows = exporter.export(request(ExportRequest.Kind.TRANSACTIONS, ExportRequest.Format.CSV, 10L), out, null);
+
+        // Then
+        assertEquals(List.of(10L, 20L), completed);
+        assertEquals(1, rows);
+        assertEquals("4,20,2024-03-10,Phone,150.0,0,HELD\r\n", out.toString());
+    }
+
+    @Test
+    void testExport_RefusedBeyondMaxConcurrent() {
+        // Given - the only permit is held by an export blocked in its progress callback
+        properties.setMaxConcurrent(1);
+        TransactionExporter limited = new TransactionExporter(dataSource,
+                new JpaTransactionManager(entityManagerFactory.getObject()), new ShardRouter((ShardMap) null),
+                new RewardCalculator(new ModelMapper()), properties, registry);
+        ExportRequest request = request(ExportRequest.Kind.TRANSACTIONS, ExportRequest.Format.CSV, null);
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class, () -> limited.export(request, Writer.nullWriter(),
+                (customerId, rows) -> limited.export(request, Writer.nullWriter(), null)));
+    }
+
+    @Test
+    void testRequest_RejectsInvalidParameters() {
+        // When & Then
+        assertThrows(CustomException.class, () -> ExportRequest.Format.of("xml"));
+        assertThrows(CustomException.class, () -> new ExportRequest(ExportRequest.Kind.REWARDS,
+                ExportRequest.Format.CSV, TO, FROM, null));
+        assertEquals(ExportRequest.Kind.REWARDS, ExportRequest.Kind.of("rewards"));
+        assertEquals("rewards-2024-01-01-2024-12-31.ndjson.gz",
+                request(ExportRequest.Kind.REWARDS, ExportRequest.Format.NDJSON, null).fileName());
+    }
+
+    private static ExportRequest request(ExportRequest.Kind kind, ExportRequest.Format format, Long afterCustomerId) {
+        return new ExportRequest(kind, format, FROM, TO, afterCustomerId);
+    }
+
+    private void insert(long id, long customerId, String date, String product, double amount,
+                        Integer points, Integer ruleVersion, String reviewStatus) {
+        jdbc.update("INSERT INTO transactions (id, customer_id, date, product, amount, reward_points, rule_version, "
+                + "review_status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", id, customerId, LocalDate.parse(date), product,
+                amount, points, ruleVersion, reviewStatus);
+    }
+}
@@ -0,0 +1,100 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.infy.customerRewards.config.VelocityProperties;
+import com.infy.customerRewards.config.VelocityProperties.Action;
+import com.infy.customerRewards.config.VelocityProperties.Rule;
+import com.infy.customerRewards.utility.VelocityScorer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of velocity scoring on the ingestion path under high concurrency:
+ * many distinct customers (spread over the map) and a single hot customer (contended windows),
+ * each transaction counted against two rules.
+ * Run with: mvn -Pbenchmark test
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+@Tag("benchmark")
+class VelocityBenchmarkTest {
+
+    private static final int OPERATIONS_PER_THREAD = 1_000_000;
+    private static final int CUSTOMERS = 10_000;
+
+    @Test
+    void measureOverhead() throws Exception {
+        int[] threadCounts = { 1, 4, Runtime.getRuntime().availableProcessors() * 2 };
+        System.out.println("scenario      | threads | ns/op  | Mops/s");
+        for (int threads : threadCounts) {
+            report("many-customers", threads, run(threads, false));
+            report("hot-customer", threads, run(threads, true));
+        }
+    }
+
+    private static void report(String scenario, int threads, long elapsedNanos) {
+        long operations = (long) threads * OPERATIONS_PER_THREAD;
+        System.out.printf("%-13s | %7d | %6.1f | %6.2f%n", scenario, threads,
+                (double) elapsedNanos * threads / operations, operations * 1000.0 / elapsedNanos);
+    }
+
+    private static long run(int threads, boolean hotCustomer) throws Exception {
+        VelocityScorer scorer = new VelocityScorer(properties(), new SimpleMeterRegistry());
+        List<Double> amounts = List.of(120.0);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 7919;
+            results.add(pool.submit(() -> {
+                start.await();
+                long scored = 0;
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    long customer = hotCustomer ? 0 : (offset + i) % CUSTOMERS;
+                    scored += scorer.score(customer, amounts, System.nanoTime()).size();
+                }
+                return scored;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        long scored = 0;
+        for (Future<Long> result : results) {
+            scored += result.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        assertEquals((long) threads * OPERATIONS_PER_THREAD, scored);
+        return elapsed;
+    }
+
+    private static VelocityProperties properties() {
+        VelocityProperties properties = new VelocityProperties();
+        properties.getRules().put("burst", rule(Duration.ofMinutes(10), 20, 100, Action.HOLD));
+        properties.getRules().put("volume", rule(Duration.ofHours(1), 100, 0, Action.FLAG));
+        return properties;
+    }
+
+    private static Rule rule(Duration window, int maxTransactions, double minAmount, Action action) {
+        Rule rule = new Rule();
+        rule.setWindow(window);
+        rule.setMaxTransactions(maxTransactions);
+        rule.setMinAmount(minAmount);
+        rule.setAction(action);
+        return rule;
+    }
+}
@@ -0,0 +1,106 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Test;
+
+import com.infy.customerRewards.config.VelocityProperties;
+import com.infy.customerRewards.config.VelocityProperties.Action;
+import com.infy.customerRewards.config.VelocityProperties.Rule;
+import com.infy.customerRewards.utility.SlidingWindowCounter;
+import com.infy.customerRewards.utility.VelocityScorer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for VelocityScorer and SlidingWindowCounter
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class VelocityScorerTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void testWindowCountsExpireBucketByBucket() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10 * MINUTE, 10, 0);
+
+        assertEquals(1, counter.increment(0));
+        assertEquals(2, counter.increment(5 * MINUTE));
+        assertEquals(2, counter.count(9 * MINUTE));
+        assertEquals(1, counter.count(10 * MINUTE));
+        assertEquals(0, counter.count(15 * MINUTE));
+        assertEquals(1, counter.increment(30 * MINUTE));
+    }
+
+    @Test
+    void testScore_FlagsAndHoldsBeyondLimits() {
+        // Given - the first rule counts every amount, the second only those of at least 100
+        VelocityScorer scorer = scorer(100, rule(10, 2, 0, Action.FLAG), rule(10, 3, 100, Action.HOLD));
+
+        // When
+        List<Action> actions = scorer.score(1L, Arrays.asList(200.0, 200.0, 50.0, 200.0, 200.0), 0);
+
+        // Then
+        assertEquals(Arrays.asList(null, null, Action.FLAG, Action.FLAG, Action.HOLD), actions);
+        assertEquals(Arrays.asList((Action) null), scorer.score(2L, List.of(200.0), 0));
+        assertEquals(Arrays.asList((Action) null), scorer.score(1L, List.of(200.0), 20 * MINUTE));
+    }
+
+    @Test
+    void testScore_DisabledOrOverCapacityIsUnscored() {
+        VelocityScorer scorer = scorer(1, rule(10, 0, 0, Action.HOLD));
+
+        assertEquals(List.of(Action.HOLD), scorer.score(1L, List.of(10.0), 0));
+        assertEquals(Arrays.asList((Action) null), scorer.score(2L, List.of(10.0), 0));
+        assertEquals(1, scorer.size());
+
+        VelocityProperties disabled = properties(100, rule(10, 0, 0, Action.HOLD));
+        disabled.setEnabled(false);
+        VelocityScorer off = new VelocityScorer(disabled, new SimpleMeterRegistry());
+        assertEquals(Arrays.asList((Action) null), off.score(1L, List.of(10.0), 0));
+        assertEquals(0, off.size());
+    }
+
+    @Test
+    void testEvictIdle_KeepsCustomersUntilLongestWindowPasses() {
+        VelocityProperties properties = properties(100, rule(90, 5, 0, Action.FLAG));
+        properties.setIdleEviction(Duration.ofMinutes(30));
+        VelocityScorer scorer = new VelocityScorer(properties, new SimpleMeterRegistry());
+        scorer.score(1L, List.of(10.0), 0);
+        scorer.score(2L, List.of(10.0), 60 * MINUTE);
+
+        assertEquals(0, scorer.evictIdle(60 * MINUTE));
+        assertEquals(1, scorer.evictIdle(90 * MINUTE));
+        assertEquals(1, scorer.size());
+    }
+
+    private static VelocityScorer scorer(int maxCustomers, Rule... rules) {
+        return new VelocityScorer(properties(maxCustomers, rules), new SimpleMeterRegistry());
+    }
+
+    private static VelocityProperties properties(int maxCustomers, Rule... rules) {
+        VelocityProperties properties = new VelocityProperties();
+        properties.setMaxCustomers(maxCustomers);
+        for (int i = 0; i < rules.length; i++) {
+            properties.getRules().put("rule" + i, rules[i]);
+        }
+        return properties;
+    }
+
+    private static Rule rule(int windowMinutes, int maxTransactions, double minAmount, Action action) {
+        Rule rule = new Rule();
+        rule.setWindow(Duration.ofMinutes(windowMinutes));
+        rule.setMaxTransactions(maxTransactions);
+        rule.setMinAmount(minAmount);
+        rule.setAction(action);
+        return rule;
+    }
+}
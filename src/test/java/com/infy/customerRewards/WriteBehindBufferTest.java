@@ -0,0 +1,151 @@
+package com.infy.customerRewards;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.infy.customerRewards.exception.ServiceUnavailableException;
+import com.infy.customerRewards.ingest.IngestProperties;
+import com.infy.customerRewards.ingest.IngestRecord;
+import com.infy.customerRewards.ingest.RecentKeys;
+import com.infy.customerRewards.ingest.TransactionBatchWriter;
+import com.infy.customerRewards.ingest.WriteBehindBuffer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for WriteBehindBuffer and IngestJournal
+ *
+ * @author Infy
+ * @version 1.0
+ * @since 2024
+ */
+class WriteBehindBufferTest {
+
+    @TempDir
+    Path directory;
+
+    private final TransactionBatchWriter writer = mock(TransactionBatchWriter.class);
+
+    @Test
+    void testFlush_WritesInBatchesAndDeletesFlushedSegments() throws IOException {
+        // Given - segments small enough to roll after every record
+        WriteBehindBuffer buffer = buffer(100, 3, 32);
+        for (int i = 1; i <= 5; i++) {
+            buffer.append(record(i));
+        }
+        assertEquals(5, segments());
+
+        // When
+        int first = buffer.flush();
+        int second = buffer.flush();
+
+        // Then
+        assertEquals(3, first);
+        assertEquals(2, second);
+        verify(writer).write(List.of(record(1), record(2), record(3)));
+        verify(writer).write(List.of(record(4), record(5)));
+        assertEquals(0, buffer.pending());
+        assertEquals(1, segments());
+    }
+
+    @Test
+    void testRestart_ReplaysUnflushedRecordsAndIgnoresTornTail() throws IOException {
+        // Given - a buffer that journaled three records and died mid-write of a fourth
+        WriteBehindBuffer crashed = buffer(100, 10, 1 << 20);
+        crashed.append(record(1));
+        crashed.append(record(2));
+        crashed.append(record(3));
+        try (Stream<Path> files = Files.list(directory)) {
+            Files.write(files.findFirst().orElseThrow(), new byte[] { 0, 0, 0, 40, 1, 2 }, StandardOpenOption.APPEND);
+        }
+
+        // When
+        WriteBehindBuffer restarted = buffer(100, 10, 1 << 20);
+
+        // Then
+        assertEquals(3, restarted.pending());
+        restarted.flush();
+        verify(writer).write(List.of(record(1), record(2), record(3)));
+    }
+
+    @Test
+    void testFailedFlush_KeepsBatchForRetry() {
+        // Given
+        WriteBehindBuffer buffer = buffer(100, 10, 1 << 20);
+        buffer.append(record(1));
+        buffer.append(record(2));
+        when(writer.write(anyList())).thenThrow(new IllegalStateException("database down"))
+                .thenReturn(new TransactionBatchWriter.Result(2, 0, 0));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, buffer::flush);
+        assertEquals(2, buffer.pending());
+        assertEquals(2, buffer.flush());
+        verify(writer, times(2)).write(List.of(record(1), record(2)));
+        assertEquals(0, buffer.pending());
+    }
+
+    @Test
+    void testAppend_RefusedWhileBufferIsFull() {
+        // Given
+        WriteBehindBuffer buffer = buffer(2, 10, 1 << 20);
+        buffer.append(record(1));
+        buffer.append(record(2));
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class, () -> buffer.append(record(3)));
+        buffer.flush();
+        assertDoesNotThrow(() -> buffer.append(record(3)));
+    }
+
+    @Test
+    void testClose_DrainsPendingRecordsAndRemovesJournal() throws IOException {
+        // Given
+        WriteBehindBuffer buffer = buffer(100, 10, 1 << 20);
+        buffer.start();
+        buffer.append(record(1));
+
+        // When
+        buffer.close();
+
+        // Then
+        verify(writer).write(List.of(record(1)));
+        assertEquals(0, segments());
+        assertThrows(ServiceUnavailableException.class, () -> buffer.append(record(2)));
+    }
+
+    private WriteBehindBuffer buffer(int capacity, int batchSize, long segmentBytes) {
+        IngestProperties properties = new IngestProperties();
+        properties.setDirectory(directory.toString());
+        properties.setCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        properties.setSegmentBytes(segmentBytes);
+        properties.setFlushInterval(Duration.ofMillis(10));
+        properties.setOfferTimeout(Duration.ofMillis(10));
+        return new WriteBehindBuffer(properties, writer, new RecentKeys(properties, new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+    }
+
+    private long segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static IngestRecord record(long id) {
+        return new IngestRecord(id, 7L, LocalDate.of(2024, 1, 15), "Laptop", 120.0, 90, 1, null, null);
+    }
+}